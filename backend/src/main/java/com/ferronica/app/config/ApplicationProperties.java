@@ -1,5 +1,8 @@
 package com.ferronica.app.config;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -34,6 +37,70 @@ public class ApplicationProperties {
         }
     }
 
+    private final Export export = new Export();
+
+    public Export getExport() {
+        return export;
+    }
+
+    public static class Export {
+
+        /**
+         * Rows fetched per round trip by the streaming exports.
+         */
+        private int fetchSize = 500;
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    private final Cache cache = new Cache();
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public static class Cache {
+
+        /**
+         * Size and time to live of the second-level cache regions, by simple
+         * entity name; regions not listed use {@code jhipster.cache.caffeine}.
+         */
+        private final Map<String, Region> regiones = new HashMap<>();
+
+        public Map<String, Region> getRegiones() {
+            return regiones;
+        }
+
+        public static class Region {
+
+            private long maxEntries = 100;
+
+            private Duration timeToLive = Duration.ofHours(1);
+
+            public long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+        }
+    }
+
     private final KeycloakAdmin keycloakAdmin = new KeycloakAdmin();
 
     public KeycloakAdmin getKeycloakAdmin() {
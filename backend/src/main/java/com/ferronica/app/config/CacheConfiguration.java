@@ -0,0 +1,87 @@
+package com.ferronica.app.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * JCache (Caffeine) cache manager shared by Spring and the Hibernate
+ * second-level cache.
+ * <p>
+ * Only reference data that changes rarely is cached. Each entity region takes
+ * its size and time to live from {@code application.cache.regiones}, falling
+ * back to {@code jhipster.cache.caffeine}. Statistics are enabled on every
+ * region, so Spring Boot publishes hit and miss counts as {@code cache.gets}
+ * metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    // Regiones de la caché de consultas de Hibernate
+    private static final String CONSULTAS = "default-query-results-region";
+    private static final String MARCAS_DE_TIEMPO = "default-update-timestamps-region";
+
+    private final JHipsterProperties.Cache.Caffeine porDefecto;
+
+    private final ApplicationProperties.Cache cache;
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.porDefecto = jHipsterProperties.getCache().getCaffeine();
+        this.cache = applicationProperties.getCache();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
+    @Bean
+    public JCacheManagerCustomizer cacheManagerCustomizer() {
+        return cm -> {
+            createCache(cm, com.ferronica.app.domain.Categoria.class);
+            createCache(cm, com.ferronica.app.domain.UnidadMedida.class);
+            createCache(cm, com.ferronica.app.domain.Moneda.class);
+            createCache(cm, com.ferronica.app.domain.Empresa.class);
+            createCache(cm, com.ferronica.app.domain.Proveedor.class);
+            createCache(cm, CONSULTAS, porDefecto.getMaxEntries(),
+                    TimeUnit.SECONDS.toNanos(porDefecto.getTimeToLiveSeconds()));
+            // Las marcas de tiempo no deben caducar antes que las consultas que invalidan
+            createCache(cm, MARCAS_DE_TIEMPO, Long.MAX_VALUE, 0);
+            // jhipster-needle-caffeine-add-entry
+        };
+    }
+
+    private void createCache(javax.cache.CacheManager cm, Class<?> entidad) {
+        ApplicationProperties.Cache.Region region = cache.getRegiones().get(entidad.getSimpleName());
+        if (region == null) {
+            createCache(cm, entidad.getName(), porDefecto.getMaxEntries(),
+                    TimeUnit.SECONDS.toNanos(porDefecto.getTimeToLiveSeconds()));
+        } else {
+            createCache(cm, entidad.getName(), region.getMaxEntries(), region.getTimeToLive().toNanos());
+        }
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName, long maxEntries, long timeToLiveNanos) {
+        javax.cache.Cache<Object, Object> existente = cm.getCache(cacheName);
+        if (existente != null) {
+            cm.destroyCache(cacheName);
+        }
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        if (maxEntries != Long.MAX_VALUE) {
+            configuracion.setMaximumSize(OptionalLong.of(maxEntries));
+        }
+        if (timeToLiveNanos > 0) {
+            configuracion.setExpireAfterWrite(OptionalLong.of(timeToLiveNanos));
+        }
+        configuracion.setStatisticsEnabled(true);
+        cm.createCache(cacheName, configuracion);
+    }
+}
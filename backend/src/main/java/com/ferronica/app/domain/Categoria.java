@@ -1,15 +1,21 @@
 package com.ferronica.app.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A Categoria.
  */
 @Entity
 @Table(name = "categoria")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Categoria implements Serializable {
 
@@ -44,6 +50,11 @@ public class Categoria implements Serializable {
     @JsonIgnoreProperties(value = { "padre" }, allowSetters = true)
     private Categoria padre;
 
+    // Filas de la tabla de clausura con esta categoría como descendiente; solo lectura, para filtrar por subárbol
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "descendiente")
+    @JsonIgnore
+    private Set<CategoriaJerarquia> ancestros = new HashSet<>();
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -137,6 +148,10 @@ public class Categoria implements Serializable {
         return this;
     }
 
+    public Set<CategoriaJerarquia> getAncestros() {
+        return this.ancestros;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -0,0 +1,141 @@
+package com.ferronica.app.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * A CategoriaJerarquia: one row of the closure table of the {@link Categoria}
+ * tree.
+ * <p>
+ * There is a row for every ancestor/descendant pair, including each categoria
+ * with itself at {@code profundidad} 0, so the subtree of a categoria is the
+ * set of rows of one {@code ancestroId}. Rows are written by a trigger on
+ * insert of a categoria, moved with SQL by
+ * {@link com.ferronica.app.service.impl.CategoriaServiceImpl} and only read
+ * through JPA.
+ */
+@Entity
+@Immutable
+@Table(name = "categoria_jerarquia")
+@IdClass(CategoriaJerarquia.Clave.class)
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class CategoriaJerarquia implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "ancestro_id")
+    private Long ancestroId;
+
+    @Id
+    @Column(name = "descendiente_id")
+    private Long descendienteId;
+
+    @Column(name = "profundidad", nullable = false)
+    private Integer profundidad;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "descendiente_id", insertable = false, updatable = false)
+    @JsonIgnore
+    private Categoria descendiente;
+
+    public Long getAncestroId() {
+        return this.ancestroId;
+    }
+
+    public void setAncestroId(Long ancestroId) {
+        this.ancestroId = ancestroId;
+    }
+
+    public Long getDescendienteId() {
+        return this.descendienteId;
+    }
+
+    public void setDescendienteId(Long descendienteId) {
+        this.descendienteId = descendienteId;
+    }
+
+    public Integer getProfundidad() {
+        return this.profundidad;
+    }
+
+    public void setProfundidad(Integer profundidad) {
+        this.profundidad = profundidad;
+    }
+
+    public Categoria getDescendiente() {
+        return this.descendiente;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CategoriaJerarquia)) {
+            return false;
+        }
+        CategoriaJerarquia that = (CategoriaJerarquia) o;
+        return (
+            getAncestroId() != null &&
+            getDescendienteId() != null &&
+            getAncestroId().equals(that.getAncestroId()) &&
+            getDescendienteId().equals(that.getDescendienteId())
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CategoriaJerarquia{" +
+            "ancestroId=" + getAncestroId() +
+            ", descendienteId=" + getDescendienteId() +
+            ", profundidad=" + getProfundidad() +
+            "}";
+    }
+
+    /**
+     * Composite primary key of {@link CategoriaJerarquia}.
+     */
+    public static class Clave implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long ancestroId;
+
+        private Long descendienteId;
+
+        public Clave() {}
+
+        public Clave(Long ancestroId, Long descendienteId) {
+            this.ancestroId = ancestroId;
+            this.descendienteId = descendienteId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Clave)) {
+                return false;
+            }
+            Clave that = (Clave) o;
+            return Objects.equals(ancestroId, that.ancestroId) && Objects.equals(descendienteId, that.descendienteId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ancestroId, descendienteId);
+        }
+    }
+}
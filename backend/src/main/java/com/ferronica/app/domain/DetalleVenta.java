@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.time.Instant;
 
 /**
  * A DetalleVenta.
@@ -41,6 +42,20 @@ public class DetalleVenta implements Serializable {
     @Column(name = "monto", precision = 21, scale = 2, nullable = false)
     private BigDecimal monto;
 
+    /**
+     * Unit cost of the articulo when the line was sold, set by the services that
+     * register the line; the profit reports read it instead of the current cost.
+     */
+    @Column(name = "costo_unitario", precision = 21, scale = 2, updatable = false)
+    private BigDecimal costoUnitario;
+
+    /**
+     * Copy of the {@code fecha} of the venta: {@code detalle_venta} is partitioned
+     * by it, so each line lives in the same monthly partition as its venta.
+     */
+    @Column(name = "venta_fecha", nullable = false, updatable = false)
+    private Instant ventaFecha;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = { "categoria", "unidadMedida" }, allowSetters = true)
     private Articulo articulo;
@@ -116,6 +131,32 @@ public class DetalleVenta implements Serializable {
         this.monto = monto;
     }
 
+    public BigDecimal getCostoUnitario() {
+        return this.costoUnitario;
+    }
+
+    public DetalleVenta costoUnitario(BigDecimal costoUnitario) {
+        this.setCostoUnitario(costoUnitario);
+        return this;
+    }
+
+    public void setCostoUnitario(BigDecimal costoUnitario) {
+        this.costoUnitario = costoUnitario;
+    }
+
+    public Instant getVentaFecha() {
+        return this.ventaFecha;
+    }
+
+    public DetalleVenta ventaFecha(Instant ventaFecha) {
+        this.setVentaFecha(ventaFecha);
+        return this;
+    }
+
+    public void setVentaFecha(Instant ventaFecha) {
+        this.ventaFecha = ventaFecha;
+    }
+
     public Articulo getArticulo() {
         return this.articulo;
     }
@@ -142,6 +183,20 @@ public class DetalleVenta implements Serializable {
         return this;
     }
 
+    /**
+     * Takes the partition key from the venta when the line is persisted together
+     * with it (checkout); lines saved on their own get it from the service. On
+     * update the column is not written, but a line merged from a DTO without it
+     * gets it back so that the entity stays consistent.
+     */
+    @PrePersist
+    @PreUpdate
+    void copiarFechaDeVenta() {
+        if (this.ventaFecha == null && this.venta != null) {
+            this.ventaFecha = this.venta.getFecha();
+        }
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and
     // setters here
 
@@ -172,6 +227,8 @@ public class DetalleVenta implements Serializable {
                 ", precioVenta=" + getPrecioVenta() +
                 ", descuento=" + getDescuento() +
                 ", monto=" + getMonto() +
+                ", costoUnitario=" + getCostoUnitario() +
+                ", ventaFecha='" + getVentaFecha() + "'" +
                 "}";
     }
 }
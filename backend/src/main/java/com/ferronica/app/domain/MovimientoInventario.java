@@ -0,0 +1,160 @@
+package com.ferronica.app.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.ferronica.app.domain.enumeration.TipoMovimientoInventario;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * A MovimientoInventario: an insert-only entry of the stock ledger.
+ * <p>
+ * Rows of type {@link TipoMovimientoInventario#SNAPSHOT} hold the absolute stock
+ * of an articulo at {@code fecha}; every other type holds a delta. Rows are
+ * written by {@link com.ferronica.app.service.InventoryService} and never
+ * updated.
+ */
+@Entity
+@Immutable
+@Table(name = "movimiento_inventario")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class MovimientoInventario implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Column(name = "fecha", nullable = false)
+    private Instant fecha;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false)
+    private TipoMovimientoInventario tipo;
+
+    @NotNull
+    @Column(name = "cantidad", precision = 21, scale = 2, nullable = false)
+    private BigDecimal cantidad;
+
+    @Column(name = "referencia_id")
+    private Long referenciaId;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @NotNull
+    @JsonIgnoreProperties(value = { "categoria", "unidadMedida" }, allowSetters = true)
+    private Articulo articulo;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public MovimientoInventario id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Instant getFecha() {
+        return this.fecha;
+    }
+
+    public MovimientoInventario fecha(Instant fecha) {
+        this.setFecha(fecha);
+        return this;
+    }
+
+    public void setFecha(Instant fecha) {
+        this.fecha = fecha;
+    }
+
+    public TipoMovimientoInventario getTipo() {
+        return this.tipo;
+    }
+
+    public MovimientoInventario tipo(TipoMovimientoInventario tipo) {
+        this.setTipo(tipo);
+        return this;
+    }
+
+    public void setTipo(TipoMovimientoInventario tipo) {
+        this.tipo = tipo;
+    }
+
+    public BigDecimal getCantidad() {
+        return this.cantidad;
+    }
+
+    public MovimientoInventario cantidad(BigDecimal cantidad) {
+        this.setCantidad(cantidad);
+        return this;
+    }
+
+    public void setCantidad(BigDecimal cantidad) {
+        this.cantidad = cantidad;
+    }
+
+    public Long getReferenciaId() {
+        return this.referenciaId;
+    }
+
+    public MovimientoInventario referenciaId(Long referenciaId) {
+        this.setReferenciaId(referenciaId);
+        return this;
+    }
+
+    public void setReferenciaId(Long referenciaId) {
+        this.referenciaId = referenciaId;
+    }
+
+    public Articulo getArticulo() {
+        return this.articulo;
+    }
+
+    public void setArticulo(Articulo articulo) {
+        this.articulo = articulo;
+    }
+
+    public MovimientoInventario articulo(Articulo articulo) {
+        this.setArticulo(articulo);
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MovimientoInventario)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((MovimientoInventario) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MovimientoInventario{" +
+            "id=" + getId() +
+            ", fecha='" + getFecha() + "'" +
+            ", tipo='" + getTipo() + "'" +
+            ", cantidad=" + getCantidad() +
+            ", referenciaId=" + getReferenciaId() +
+            "}";
+    }
+}
@@ -0,0 +1,156 @@
+package com.ferronica.app.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A SesionCaja: a cash register shift of a {@link Usuario}, open while
+ * {@code fechaCierre} is empty.
+ * <p>
+ * Its running totals live in {@code sesion_caja_total} and are maintained by
+ * {@link com.ferronica.app.service.SesionCajaService}.
+ */
+@Entity
+@Table(name = "sesion_caja")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class SesionCaja implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Column(name = "fecha_apertura", nullable = false)
+    private Instant fechaApertura;
+
+    @Column(name = "fecha_cierre")
+    private Instant fechaCierre;
+
+    @NotNull
+    @DecimalMin(value = "0")
+    @Column(name = "monto_inicial", precision = 21, scale = 2, nullable = false)
+    private BigDecimal montoInicial;
+
+    @DecimalMin(value = "0")
+    @Column(name = "monto_contado", precision = 21, scale = 2)
+    private BigDecimal montoContado;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @NotNull
+    private Usuario usuario;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public SesionCaja id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Instant getFechaApertura() {
+        return this.fechaApertura;
+    }
+
+    public SesionCaja fechaApertura(Instant fechaApertura) {
+        this.setFechaApertura(fechaApertura);
+        return this;
+    }
+
+    public void setFechaApertura(Instant fechaApertura) {
+        this.fechaApertura = fechaApertura;
+    }
+
+    public Instant getFechaCierre() {
+        return this.fechaCierre;
+    }
+
+    public SesionCaja fechaCierre(Instant fechaCierre) {
+        this.setFechaCierre(fechaCierre);
+        return this;
+    }
+
+    public void setFechaCierre(Instant fechaCierre) {
+        this.fechaCierre = fechaCierre;
+    }
+
+    public BigDecimal getMontoInicial() {
+        return this.montoInicial;
+    }
+
+    public SesionCaja montoInicial(BigDecimal montoInicial) {
+        this.setMontoInicial(montoInicial);
+        return this;
+    }
+
+    public void setMontoInicial(BigDecimal montoInicial) {
+        this.montoInicial = montoInicial;
+    }
+
+    public BigDecimal getMontoContado() {
+        return this.montoContado;
+    }
+
+    public SesionCaja montoContado(BigDecimal montoContado) {
+        this.setMontoContado(montoContado);
+        return this;
+    }
+
+    public void setMontoContado(BigDecimal montoContado) {
+        this.montoContado = montoContado;
+    }
+
+    public Usuario getUsuario() {
+        return this.usuario;
+    }
+
+    public void setUsuario(Usuario usuario) {
+        this.usuario = usuario;
+    }
+
+    public SesionCaja usuario(Usuario usuario) {
+        this.setUsuario(usuario);
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SesionCaja)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((SesionCaja) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see
+        // https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SesionCaja{" +
+                "id=" + getId() +
+                ", fechaApertura='" + getFechaApertura() + "'" +
+                ", fechaCierre='" + getFechaCierre() + "'" +
+                ", montoInicial=" + getMontoInicial() +
+                ", montoContado=" + getMontoContado() +
+                "}";
+    }
+}
@@ -26,12 +26,13 @@ public class Venta implements Serializable {
     @Column(name = "id")
     private Long id;
 
+    // Clave de partición de venta y detalle_venta: no cambia después de crear la venta
     @NotNull
-    @Column(name = "fecha", nullable = false)
+    @Column(name = "fecha", nullable = false, updatable = false)
     private Instant fecha;
 
     @NotNull
-    @Column(name = "no_factura", nullable = false, unique = true)
+    @Column(name = "no_factura", nullable = false)
     private Long noFactura;
 
     @NotNull
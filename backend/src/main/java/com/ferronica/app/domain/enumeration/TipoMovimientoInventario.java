@@ -0,0 +1,13 @@
+package com.ferronica.app.domain.enumeration;
+
+/**
+ * Origen de un movimiento de inventario.
+ */
+public enum TipoMovimientoInventario {
+    VENTA,
+    ANULACION,
+    INGRESO,
+    DEVOLUCION,
+    AJUSTE,
+    SNAPSHOT,
+}
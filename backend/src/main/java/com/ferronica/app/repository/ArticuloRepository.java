@@ -2,6 +2,8 @@ package com.ferronica.app.repository;
 
 import com.ferronica.app.domain.Articulo;
 import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
@@ -15,4 +17,28 @@ public interface ArticuloRepository extends JpaRepository<Articulo, Long>, JpaSp
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select a from Articulo a where a.id = :id")
     Optional<Articulo> findByIdWithLock(Long id);
+
+    @Query("select a from Articulo a left join fetch a.categoria left join fetch a.unidadMedida where a.id in :ids")
+    List<Articulo> findAllWithRelationshipsByIdIn(
+            @org.springframework.data.repository.query.Param("ids") Collection<Long> ids);
+
+    /**
+     * Active articulos by code, ignoring case.
+     *
+     * @param codigos the codes, already in lower case.
+     * @return the articulos found.
+     */
+    @Query("select a from Articulo a left join fetch a.categoria left join fetch a.unidadMedida "
+            + "where lower(a.codigo) in :codigos and (a.activo = true or a.activo is null)")
+    List<Articulo> findAllWithRelationshipsByCodigoIn(
+            @org.springframework.data.repository.query.Param("codigos") Collection<String> codigos);
+
+    /**
+     * Reads the current cost of several articulos without loading the entities.
+     *
+     * @param ids the ids of the articulos.
+     * @return rows of {@code [articuloId, costo]}.
+     */
+    @Query("select a.id, a.costo from Articulo a where a.id in :ids")
+    List<Object[]> findCostosByIdIn(@org.springframework.data.repository.query.Param("ids") Collection<Long> ids);
 }
@@ -1,6 +1,11 @@
 package com.ferronica.app.repository;
 
 import com.ferronica.app.domain.Categoria;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +14,24 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CategoriaRepository extends JpaRepository<Categoria, Long> {}
+public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
+    /**
+     * Pages through the categorias; the ids of each page are kept in the query
+     * cache and the entities in the second-level cache.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Page<Categoria> findAll(Pageable pageable);
+
+    /**
+     * Deactivates several categorias at once. Being a bulk update, it also
+     * evicts the categoria region of the second-level cache and the cached
+     * queries over the table.
+     *
+     * @param ids the ids of the categorias to deactivate.
+     * @return the number of categorias that were active.
+     */
+    @Modifying
+    @Query("update Categoria c set c.activo = false where c.id in :ids and (c.activo is null or c.activo = true)")
+    int desactivar(@org.springframework.data.repository.query.Param("ids") Collection<Long> ids);
+}
@@ -1,6 +1,8 @@
 package com.ferronica.app.repository;
 
 import com.ferronica.app.domain.DetalleVenta;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
@@ -13,4 +15,36 @@ import org.springframework.stereotype.Repository;
 public interface DetalleVentaRepository extends JpaRepository<DetalleVenta, Long> {
     @Query("select detalleVenta from DetalleVenta detalleVenta left join fetch detalleVenta.articulo left join fetch detalleVenta.venta")
     List<DetalleVenta> findAllEager();
+
+    /**
+     * Sums the sold quantity of each articulo in each of the given ventas.
+     *
+     * @param ventaIds the ids of the ventas.
+     * @return rows of {@code [ventaId, articuloId, cantidad]}.
+     */
+    @Query("select detalleVenta.venta.id, detalleVenta.articulo.id, sum(detalleVenta.cantidad) "
+            + "from DetalleVenta detalleVenta where detalleVenta.venta.id in :ventaIds group by detalleVenta.venta.id, detalleVenta.articulo.id")
+    List<Object[]> sumCantidadesPorVentaYArticulo(
+            @org.springframework.data.repository.query.Param("ventaIds") Collection<Long> ventaIds);
+
+    /**
+     * Sums, for each articulo of a venta, the sold quantity and the quantity
+     * already returned by its devoluciones. The date of the venta restricts the
+     * lines to its partition.
+     *
+     * @param ventaId    the id of the venta.
+     * @param ventaFecha the date of the venta.
+     * @return rows of {@code [articuloId, vendida, devuelta]}, by articulo id;
+     *         {@code devuelta} is {@code null} when nothing was returned.
+     */
+    @Query("select detalleVenta.articulo.id, sum(detalleVenta.cantidad), "
+            + "(select sum(detalleDevolucion.cantidad) from DetalleDevolucion detalleDevolucion "
+            + "where detalleDevolucion.devolucion.venta.id = :ventaId "
+            + "and detalleDevolucion.articulo.id = detalleVenta.articulo.id) "
+            + "from DetalleVenta detalleVenta "
+            + "where detalleVenta.venta.id = :ventaId and detalleVenta.ventaFecha = :ventaFecha "
+            + "group by detalleVenta.articulo.id order by detalleVenta.articulo.id")
+    List<Object[]> sumRetornablePorArticulo(
+            @org.springframework.data.repository.query.Param("ventaId") Long ventaId,
+            @org.springframework.data.repository.query.Param("ventaFecha") Instant ventaFecha);
 }
@@ -1,6 +1,8 @@
 package com.ferronica.app.repository;
 
 import com.ferronica.app.domain.Devolucion;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,13 +11,22 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface DevolucionRepository extends JpaRepository<Devolucion, Long> {
+public interface DevolucionRepository extends JpaRepository<Devolucion, Long>, JpaSpecificationExecutor<Devolucion> {
     @EntityGraph(attributePaths = { "detalles", "detalles.articulo", "venta", "venta.cliente" })
     @Query("select dev from Devolucion dev where dev.venta.id = :ventaId")
     java.util.List<Devolucion> findAllByVentaId(
             @org.springframework.data.repository.query.Param("ventaId") Long ventaId);
 
-    @Override
+    /**
+     * Loads the devoluciones of one page with their venta, cliente and detalles.
+     * The ids are paged first, so the fetch of the collections never spans more
+     * than a page.
+     *
+     * @param ids the ids of the devoluciones of the page.
+     * @return the devoluciones, in no particular order.
+     */
     @EntityGraph(attributePaths = { "venta", "venta.cliente", "detalles", "detalles.articulo" })
-    java.util.List<Devolucion> findAll();
+    @Query("select dev from Devolucion dev where dev.id in :ids")
+    List<Devolucion> findAllWithEagerRelationshipsByIdIn(
+            @org.springframework.data.repository.query.Param("ids") Collection<Long> ids);
 }
@@ -1,7 +1,10 @@
 package com.ferronica.app.repository;
 
 import com.ferronica.app.domain.Ingreso;
+import java.time.Instant;
 import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -16,4 +19,53 @@ public interface IngresoRepository extends JpaRepository<Ingreso, Long>, JpaSpec
     Optional<Ingreso> findOneWithEagerRelationships(@org.springframework.data.repository.query.Param("id") Long id);
 
     long countByUsuarioId(Long usuarioId);
+
+    /**
+     * Totals the active ingresos of each proveedor between two instants, largest
+     * total first. The pageable must not be sorted.
+     *
+     * @param desde    the first instant, inclusive.
+     * @param hasta    the last instant, exclusive.
+     * @param pageable the page.
+     * @return rows of {@code [proveedorId, nombre, ruc, compras, total, ultimaCompra]}.
+     */
+    @Query(
+        value = "select p.id, p.nombre, p.ruc, count(distinct i.id), coalesce(sum(d.monto), 0), max(i.fecha) "
+                + "from DetalleIngreso d join d.ingreso i join i.proveedor p "
+                + "where i.fecha >= :desde and i.fecha < :hasta and (i.activo is null or i.activo = true) "
+                + "group by p.id, p.nombre, p.ruc order by coalesce(sum(d.monto), 0) desc, p.id",
+        countQuery = "select count(distinct i.proveedor.id) from DetalleIngreso d join d.ingreso i "
+                + "where i.fecha >= :desde and i.fecha < :hasta and (i.activo is null or i.activo = true)"
+    )
+    Page<Object[]> sumComprasPorProveedor(
+            @org.springframework.data.repository.query.Param("desde") Instant desde,
+            @org.springframework.data.repository.query.Param("hasta") Instant hasta,
+            Pageable pageable);
+
+    /**
+     * Totals the articulos received from a proveedor in its active ingresos
+     * between two instants, largest total first. The pageable must not be sorted.
+     *
+     * @param proveedorId the id of the proveedor.
+     * @param desde       the first instant, inclusive.
+     * @param hasta       the last instant, exclusive.
+     * @param pageable    the page.
+     * @return rows of {@code [articuloId, codigo, nombre, compras, cantidad, total, ultimaCompra]}.
+     */
+    @Query(
+        value = "select a.id, a.codigo, a.nombre, count(distinct i.id), sum(d.cantidad), coalesce(sum(d.monto), 0), "
+                + "max(i.fecha) "
+                + "from DetalleIngreso d join d.ingreso i join d.articulo a "
+                + "where i.proveedor.id = :proveedorId and i.fecha >= :desde and i.fecha < :hasta "
+                + "and (i.activo is null or i.activo = true) "
+                + "group by a.id, a.codigo, a.nombre order by coalesce(sum(d.monto), 0) desc, a.id",
+        countQuery = "select count(distinct d.articulo.id) from DetalleIngreso d join d.ingreso i "
+                + "where i.proveedor.id = :proveedorId and i.fecha >= :desde and i.fecha < :hasta "
+                + "and (i.activo is null or i.activo = true)"
+    )
+    Page<Object[]> sumComprasPorArticulo(
+            @org.springframework.data.repository.query.Param("proveedorId") Long proveedorId,
+            @org.springframework.data.repository.query.Param("desde") Instant desde,
+            @org.springframework.data.repository.query.Param("hasta") Instant hasta,
+            Pageable pageable);
 }
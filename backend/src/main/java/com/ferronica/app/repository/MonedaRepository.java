@@ -1,6 +1,9 @@
 package com.ferronica.app.repository;
 
 import com.ferronica.app.domain.Moneda;
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +12,12 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface MonedaRepository extends JpaRepository<Moneda, Long> {}
+public interface MonedaRepository extends JpaRepository<Moneda, Long> {
+    /**
+     * Lists all the monedas; the ids are kept in the query cache and the
+     * entities in the second-level cache.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Moneda> findAll();
+}
@@ -0,0 +1,32 @@
+package com.ferronica.app.repository;
+
+import com.ferronica.app.domain.MovimientoInventario;
+import com.ferronica.app.domain.enumeration.TipoMovimientoInventario;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the MovimientoInventario entity.
+ * <p>
+ * Both queries are served by the {@code (articulo_id, fecha)} index.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface MovimientoInventarioRepository extends JpaRepository<MovimientoInventario, Long> {
+    Optional<MovimientoInventario> findFirstByArticuloIdAndTipoAndFechaLessThanEqualOrderByFechaDesc(
+            Long articuloId, TipoMovimientoInventario tipo, Instant fecha);
+
+    /**
+     * Sums the deltas of an articulo in the interval {@code (desde, hasta]},
+     * ignoring snapshot rows.
+     */
+    @Query("select coalesce(sum(m.cantidad), 0) from MovimientoInventario m where m.articulo.id = :articuloId "
+            + "and m.tipo <> com.ferronica.app.domain.enumeration.TipoMovimientoInventario.SNAPSHOT "
+            + "and m.fecha > :desde and m.fecha <= :hasta")
+    BigDecimal sumarMovimientos(@Param("articuloId") Long articuloId, @Param("desde") Instant desde,
+            @Param("hasta") Instant hasta);
+}
@@ -1,6 +1,10 @@
 package com.ferronica.app.repository;
 
 import com.ferronica.app.domain.Proveedor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +13,12 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ProveedorRepository extends JpaRepository<Proveedor, Long> {}
+public interface ProveedorRepository extends JpaRepository<Proveedor, Long> {
+    /**
+     * Pages through the proveedores; the ids of each page are kept in the query
+     * cache and the entities in the second-level cache.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Page<Proveedor> findAll(Pageable pageable);
+}
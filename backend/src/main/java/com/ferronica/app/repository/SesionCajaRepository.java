@@ -0,0 +1,26 @@
+package com.ferronica.app.repository;
+
+import com.ferronica.app.domain.SesionCaja;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the SesionCaja entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface SesionCajaRepository extends JpaRepository<SesionCaja, Long> {
+    Optional<SesionCaja> findOneByUsuarioIdAndFechaCierreIsNull(Long usuarioId);
+
+    /**
+     * Locks the open session of a usuario, so no sale is added to its totals
+     * while it is being closed.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select sesionCaja from SesionCaja sesionCaja where sesionCaja.usuario.id = :usuarioId "
+            + "and sesionCaja.fechaCierre is null")
+    Optional<SesionCaja> findAbiertaWithLock(@Param("usuarioId") Long usuarioId);
+}
@@ -1,6 +1,9 @@
 package com.ferronica.app.repository;
 
 import com.ferronica.app.domain.UnidadMedida;
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +12,12 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface UnidadMedidaRepository extends JpaRepository<UnidadMedida, Long> {}
+public interface UnidadMedidaRepository extends JpaRepository<UnidadMedida, Long> {
+    /**
+     * Lists all the unidades de medida; the ids are kept in the query cache and the
+     * entities in the second-level cache.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<UnidadMedida> findAll();
+}
@@ -1,6 +1,10 @@
 package com.ferronica.app.repository;
 
 import com.ferronica.app.domain.Venta;
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
@@ -15,6 +19,19 @@ public interface VentaRepository extends JpaRepository<Venta, Long>, JpaSpecific
     @Query("select venta from Venta venta where venta.id = :id")
     Optional<Venta> findOneWithEagerRelationships(@org.springframework.data.repository.query.Param("id") Long id);
 
+    /**
+     * Locks the given ventas (without their lines), in id order.
+     *
+     * @param ids the ids of the ventas to lock.
+     * @return the locked entities, sorted by id.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select venta from Venta venta where venta.id in :ids order by venta.id")
+    List<Venta> findAllByIdInWithLock(@org.springframework.data.repository.query.Param("ids") Collection<Long> ids);
+
+    @Query("select venta.fecha from Venta venta where venta.id = :id")
+    Optional<Instant> findFechaById(@org.springframework.data.repository.query.Param("id") Long id);
+
     long countByUsuarioId(Long usuarioId);
 
     long countByClienteId(Long clienteId);
@@ -0,0 +1,131 @@
+package com.ferronica.app.service;
+
+import com.ferronica.app.service.dto.AjustePreciosDTO;
+import com.ferronica.app.service.dto.AjustePreciosDTO.ModoRedondeo;
+import com.ferronica.app.service.dto.AjustePreciosDTO.TipoAjuste;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Bulk repricing of {@link com.ferronica.app.domain.Articulo}s.
+ * <p>
+ * One statement selects the active articulos of the adjustment (the categoria
+ * and all its descendants, those received from a proveedor, or a list of ids),
+ * locks them in id order, computes and rounds the new prices, updates the rows
+ * whose price changes and appends their
+ * {@link com.ferronica.app.domain.HistorialPrecio}. An
+ * {@link ExistenciaCambiadaEvent} is then published for the changed articulos.
+ */
+@Service
+@Transactional
+public class AjustePreciosService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AjustePreciosService.class);
+
+    private static final BigDecimal CENTAVO = new BigDecimal("0.01");
+
+    private static final String MOTIVO_DEFECTO = "Ajuste masivo de precios";
+
+    private static final String SQL_SUBARBOL = " AND a.categoria_id IN (SELECT descendiente_id "
+            + "FROM categoria_jerarquia WHERE ancestro_id = ?)";
+
+    private static final String SQL_PROVEEDOR = " AND EXISTS (SELECT 1 FROM detalle_ingreso d "
+            + "JOIN ingreso i ON i.id = d.ingreso_id "
+            + "WHERE d.articulo_id = a.id AND i.proveedor_id = ? AND coalesce(i.activo, true))";
+
+    private static final String SQL_CAMBIOS = "cambiados AS (UPDATE articulo a SET precio = n.precio FROM nuevo n "
+            + "WHERE a.id = n.id AND a.precio <> n.precio RETURNING a.id, n.anterior, a.precio), "
+            + "historial AS (INSERT INTO historial_precio (id, precio_anterior, precio_nuevo, fecha, motivo, "
+            + "articulo_id) SELECT nextval('sequence_generator'), c.anterior, c.precio, ?, ?, c.id FROM cambiados c) "
+            + "SELECT id FROM cambiados";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public AjustePreciosService(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Apply a price adjustment.
+     *
+     * @param ajuste the change and the articulos it applies to.
+     * @return the ids of the articulos whose price changed.
+     */
+    public List<Long> ajustar(AjustePreciosDTO ajuste) {
+        LOG.debug("Request to adjust prices : {}", ajuste);
+        List<Object> parametros = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("WITH ");
+
+        // 1. Artículos del ajuste, bloqueados en orden ascendente de id
+        sql.append("objetivo AS MATERIALIZED (SELECT a.id, a.precio FROM articulo a WHERE coalesce(a.activo, true)");
+        if (ajuste.getCategoriaId() != null) {
+            sql.append(SQL_SUBARBOL);
+            parametros.add(ajuste.getCategoriaId());
+        }
+        if (ajuste.getProveedorId() != null) {
+            sql.append(SQL_PROVEEDOR);
+            parametros.add(ajuste.getProveedorId());
+        }
+        if (ajuste.getArticuloIds() != null && !ajuste.getArticuloIds().isEmpty()) {
+            sql.append(" AND a.id = ANY(?)");
+            parametros.add(ajuste.getArticuloIds().toArray(new Long[0]));
+        }
+        sql.append(" ORDER BY a.id FOR UPDATE), ");
+
+        // 2. Precio nuevo redondeado al múltiplo pedido, nunca negativo
+        String precio = ajuste.getTipo() == TipoAjuste.PORCENTAJE ? "o.precio * (1 + ? / 100.0)" : "o.precio + ?";
+        sql.append("nuevo AS (SELECT o.id, o.precio AS anterior, greatest(round(")
+                .append(funcionRedondeo(ajuste.getModoRedondeo()))
+                .append("(")
+                .append(precio)
+                .append(" / ?) * ?, 2), 0) AS precio FROM objetivo o), ");
+        BigDecimal redondeo = ajuste.getRedondeo() != null ? ajuste.getRedondeo() : CENTAVO;
+        parametros.add(ajuste.getValor());
+        parametros.add(redondeo);
+        parametros.add(redondeo);
+
+        // 3. Un solo UPDATE ... RETURNING y el historial de los cambiados
+        sql.append(SQL_CAMBIOS);
+        parametros.add(Timestamp.from(Instant.now()));
+        parametros.add(ajuste.getMotivo() != null && !ajuste.getMotivo().isBlank() ? ajuste.getMotivo()
+                : MOTIVO_DEFECTO);
+
+        List<Long> ids = jdbcTemplate.query(sql.toString(), ps -> {
+            for (int i = 0; i < parametros.size(); i++) {
+                if (parametros.get(i) instanceof Long[] arreglo) {
+                    ps.setArray(i + 1, ps.getConnection().createArrayOf("bigint", arreglo));
+                } else {
+                    ps.setObject(i + 1, parametros.get(i));
+                }
+            }
+        }, (rs, rowNum) -> rs.getLong(1));
+
+        if (!ids.isEmpty()) {
+            eventPublisher.publishEvent(new ExistenciaCambiadaEvent(ids));
+        }
+        LOG.info("Ajuste de precios {} {}: {} artículos cambiados", ajuste.getTipo(), ajuste.getValor(), ids.size());
+        return ids;
+    }
+
+    private static String funcionRedondeo(ModoRedondeo modo) {
+        if (modo == ModoRedondeo.ARRIBA) {
+            return "ceil";
+        }
+        if (modo == ModoRedondeo.ABAJO) {
+            return "floor";
+        }
+        return "round";
+    }
+}
@@ -0,0 +1,106 @@
+package com.ferronica.app.service;
+
+import com.ferronica.app.domain.Articulo;
+import com.ferronica.app.repository.ArticuloRepository;
+import com.ferronica.app.service.dto.ArticuloDTO;
+import com.ferronica.app.service.mapper.ArticuloMapper;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Free-text search of active {@link Articulo}s for the POS typeahead and the
+ * inventory lookup.
+ * <p>
+ * One query matches the text as a substring of {@code codigo}, {@code nombre}
+ * or {@code descripcion}, or as a similar word of {@code nombre} or
+ * {@code descripcion} (typos), ignoring case and accents. Every condition is
+ * served by the {@code pg_trgm} GIN indexes on
+ * {@code f_unaccent(lower(column))}. Results are ranked with an exact code
+ * first, then by trigram similarity; the entities of the page are then loaded
+ * in a second query.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ArticuloBusquedaService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ArticuloBusquedaService.class);
+
+    private static final String CODIGO = "f_unaccent(lower(a.codigo))";
+    private static final String NOMBRE = "f_unaccent(lower(a.nombre))";
+    private static final String DESCRIPCION = "f_unaccent(lower(a.descripcion))";
+
+    private static final String SQL_BUSQUEDA = "SELECT a.id FROM articulo a, "
+            + "(SELECT f_unaccent(lower(?)) AS q, '%' || f_unaccent(lower(?)) || '%' AS patron) b "
+            + "WHERE coalesce(a.activo, true) "
+            + "AND (" + CODIGO + " LIKE b.patron OR " + NOMBRE + " LIKE b.patron "
+            + "OR " + DESCRIPCION + " LIKE b.patron OR b.q <% " + NOMBRE + " OR b.q <% " + DESCRIPCION + ")";
+
+    private static final String SQL_ORDEN = " ORDER BY (" + CODIGO + " = b.q) DESC, "
+            + "greatest(similarity(" + CODIGO + ", b.q), word_similarity(b.q, " + NOMBRE + "), "
+            + "word_similarity(b.q, " + DESCRIPCION + ") * 0.5) DESC, a.nombre, a.id LIMIT ? OFFSET ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ArticuloRepository articuloRepository;
+
+    private final ArticuloMapper articuloMapper;
+
+    public ArticuloBusquedaService(JdbcTemplate jdbcTemplate, ArticuloRepository articuloRepository,
+            ArticuloMapper articuloMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.articuloRepository = articuloRepository;
+        this.articuloMapper = articuloMapper;
+    }
+
+    /**
+     * Search active articulos by code, name or description.
+     *
+     * @param texto       the text typed by the user.
+     * @param categoriaId restrict to this categoria, if not {@code null}.
+     * @param pageable    the page; its sort is ignored, results come by relevance.
+     * @return the articulos of the page, most relevant first.
+     */
+    public List<ArticuloDTO> buscar(String texto, Long categoriaId, Pageable pageable) {
+        LOG.debug("Request to search Articulos : {}, categoria: {}", texto, categoriaId);
+        if (texto == null || texto.isBlank()) {
+            return Collections.emptyList();
+        }
+        String q = texto.strip();
+        List<Object> parametros = new ArrayList<>(List.of(q, escaparLike(q)));
+        String sql = SQL_BUSQUEDA;
+        if (categoriaId != null) {
+            sql += " AND a.categoria_id = ?";
+            parametros.add(categoriaId);
+        }
+        parametros.add(pageable.getPageSize());
+        parametros.add(pageable.getOffset());
+
+        List<Long> ids = jdbcTemplate.queryForList(sql + SQL_ORDEN, Long.class, parametros.toArray());
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Articulo> articulos = articuloRepository
+                .findAllWithRelationshipsByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(Articulo::getId, Function.identity()));
+        return ids.stream().map(articulos::get).filter(Objects::nonNull).map(articuloMapper::toDto).toList();
+    }
+
+    /**
+     * Escapa los comodines de LIKE para que el texto se busque literalmente.
+     */
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
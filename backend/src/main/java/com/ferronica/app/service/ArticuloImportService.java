@@ -0,0 +1,745 @@
+package com.ferronica.app.service;
+
+import com.ferronica.app.domain.enumeration.TipoMovimientoInventario;
+import com.ferronica.app.service.dto.ImportacionArticulosDTO;
+import com.ferronica.app.service.dto.ImportacionArticulosDTO.ErrorFila;
+import com.ferronica.app.service.dto.ImportacionArticulosDTO.Estado;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+import javax.xml.parsers.ParserConfigurationException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * Bulk import of {@link com.ferronica.app.domain.Articulo}s from a supplier
+ * catalog in CSV or XLSX.
+ * <p>
+ * The file is read as a stream (a hand-written CSV reader, or the POI SAX
+ * reader for XLSX), so the heap used does not depend on its size. The first
+ * non-empty row names the columns; {@code codigo}, {@code nombre},
+ * {@code precio} and {@code costo} are required, while {@code descripcion},
+ * {@code existencia}, {@code existenciaMinima}, {@code categoria} and
+ * {@code unidadMedida} are optional. Categorias and unidades de medida are
+ * given by name (or unit symbol) and resolved against maps loaded once per
+ * import.
+ * <p>
+ * Valid rows are written in batches of {@value #TAMANO_LOTE}, one transaction
+ * each, with a single {@code INSERT ... ON CONFLICT (codigo) DO UPDATE}
+ * statement over arrays. Existing articulos are locked first in id order, as
+ * in {@link InventoryService}. Their stock is left untouched: {@code existencia}
+ * only sets the opening stock of new articulos, which is recorded in the
+ * inventory ledger. Price changes are recorded in {@code historial_precio},
+ * and an {@link ExistenciaCambiadaEvent} is published per batch so the caches,
+ * the POS catalog and the ETags follow.
+ * <p>
+ * Imports run on the {@code taskExecutor}; their progress and the rejected
+ * rows (the first {@value #MAX_ERRORES}) are kept in memory for an hour after
+ * the last poll.
+ */
+@Service
+public class ArticuloImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ArticuloImportService.class);
+
+    /**
+     * Format of an import file.
+     */
+    public enum Formato {
+        CSV,
+        XLSX;
+
+        /**
+         * Get the format of a file from its name.
+         *
+         * @param nombre the name of the file.
+         * @return the format, or empty if the extension is not supported.
+         */
+        public static Optional<Formato> deArchivo(String nombre) {
+            if (nombre == null) {
+                return Optional.empty();
+            }
+            String extension = nombre.substring(nombre.lastIndexOf('.') + 1).toUpperCase(Locale.ROOT);
+            return Arrays.stream(values()).filter(formato -> formato.name().equals(extension)).findFirst();
+        }
+    }
+
+    private enum Campo {
+        CODIGO("codigo"),
+        NOMBRE("nombre"),
+        DESCRIPCION("descripcion"),
+        PRECIO("precio"),
+        COSTO("costo"),
+        EXISTENCIA("existencia", "stock"),
+        EXISTENCIA_MINIMA("existenciaminima", "minimo", "stockminimo"),
+        CATEGORIA("categoria"),
+        UNIDAD_MEDIDA("unidadmedida", "unidad");
+
+        private final String nombre;
+
+        private final Set<String> encabezados;
+
+        Campo(String... encabezados) {
+            this.nombre = encabezados[0];
+            this.encabezados = Set.of(encabezados);
+        }
+    }
+
+    private static final Set<Campo> REQUERIDOS = Set.of(Campo.CODIGO, Campo.NOMBRE, Campo.PRECIO, Campo.COSTO);
+
+    static final int TAMANO_LOTE = 1000;
+
+    static final int MAX_ERRORES = 1000;
+
+    private static final String MOTIVO_PRECIO = "Importación de artículos";
+
+    // Marca de un nombre que corresponde a más de una categoría o unidad
+    private static final long AMBIGUO = -1L;
+
+    private static final String SQL_BLOQUEO = "SELECT id, codigo, precio FROM articulo WHERE codigo = ANY(?) "
+            + "ORDER BY id FOR UPDATE";
+
+    // Los campos opcionales vacíos conservan el valor actual del artículo. Los existentes proponen su
+    // propio id: coalesce solo evalúa nextval para las filas nuevas y no se gastan ids en los conflictos
+    private static final String SQL_UPSERT = "INSERT INTO articulo (id, codigo, nombre, descripcion, existencia, "
+            + "existencia_minima, precio, costo, ultimo_costo, activo, categoria_id, unidad_medida_id) "
+            + "SELECT coalesce(a.id, nextval('sequence_generator')), f.codigo, f.nombre, "
+            + "coalesce(f.descripcion, a.descripcion), "
+            + "coalesce(f.existencia, 0), coalesce(f.existencia_minima, a.existencia_minima, 0), f.precio, f.costo, "
+            + "f.costo, true, coalesce(f.categoria_id, a.categoria_id), "
+            + "coalesce(f.unidad_medida_id, a.unidad_medida_id) "
+            + "FROM unnest(?, ?, ?, ?, ?, ?, ?, ?, ?) AS f(codigo, nombre, descripcion, existencia, "
+            + "existencia_minima, precio, costo, categoria_id, unidad_medida_id) "
+            + "LEFT JOIN articulo a ON a.codigo = f.codigo "
+            + "ON CONFLICT (codigo) DO UPDATE SET nombre = EXCLUDED.nombre, descripcion = EXCLUDED.descripcion, "
+            + "existencia_minima = EXCLUDED.existencia_minima, precio = EXCLUDED.precio, "
+            + "ultimo_costo = CASE WHEN EXCLUDED.costo > coalesce(articulo.costo, 0) "
+            + "THEN coalesce(articulo.costo, 0) ELSE articulo.ultimo_costo END, costo = EXCLUDED.costo, "
+            + "categoria_id = EXCLUDED.categoria_id, unidad_medida_id = EXCLUDED.unidad_medida_id "
+            + "RETURNING id, precio, existencia, (xmax = 0) AS insertado, codigo";
+
+    private static final String SQL_HISTORIAL = "INSERT INTO historial_precio (id, precio_anterior, precio_nuevo, "
+            + "fecha, motivo, articulo_id) SELECT nextval('sequence_generator'), h.anterior, h.nuevo, ?, ?, h.id "
+            + "FROM unnest(?, ?, ?) AS h(id, anterior, nuevo)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final InventoryService inventoryService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Executor taskExecutor;
+
+    private final Cache<String, Importacion> importaciones = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    public ArticuloImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            InventoryService inventoryService, ApplicationEventPublisher eventPublisher,
+            @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.inventoryService = inventoryService;
+        this.eventPublisher = eventPublisher;
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Start importing a file in the background.
+     *
+     * @param archivo the uploaded file; it is deleted once the import ends.
+     * @param nombre  the original name of the file.
+     * @param formato the format of the file.
+     * @return the initial state of the import, whose id is used to poll it.
+     */
+    public ImportacionArticulosDTO iniciar(Path archivo, String nombre, Formato formato) {
+        Importacion importacion = new Importacion(UUID.randomUUID().toString(), nombre);
+        LOG.debug("Request to import Articulos : {} ({})", nombre, importacion.id);
+        importaciones.put(importacion.id, importacion);
+        try {
+            taskExecutor.execute(() -> importar(importacion, archivo, formato));
+        } catch (RejectedExecutionException e) {
+            importaciones.invalidate(importacion.id);
+            borrar(archivo);
+            throw e;
+        }
+        return importacion.toDto();
+    }
+
+    /**
+     * Get the progress of an import.
+     *
+     * @param id the id of the import.
+     * @return the state of the import, or empty if unknown or expired.
+     */
+    public Optional<ImportacionArticulosDTO> findOne(String id) {
+        return Optional.ofNullable(importaciones.getIfPresent(id)).map(Importacion::toDto);
+    }
+
+    private void importar(Importacion importacion, Path archivo, Formato formato) {
+        long inicio = System.nanoTime();
+        try {
+            Lectura lectura = new Lectura(importacion, cargarReferencias("categoria", false),
+                    cargarReferencias("unidad_medida", true));
+            if (formato == Formato.XLSX) {
+                leerXlsx(archivo, lectura);
+            } else {
+                leerCsv(archivo, lectura);
+            }
+            lectura.terminar();
+            importacion.terminar(Estado.TERMINADA, null);
+            LOG.info("Importación {} terminada en {} ms: {} insertados, {} actualizados, {} con error",
+                    importacion.archivo, Duration.ofNanos(System.nanoTime() - inicio).toMillis(),
+                    importacion.insertados, importacion.actualizados, importacion.filasConError);
+        } catch (CharacterCodingException e) {
+            importacion.terminar(Estado.FALLIDA, "El archivo CSV debe estar codificado en UTF-8");
+        } catch (IllegalArgumentException e) {
+            importacion.terminar(Estado.FALLIDA, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Error al importar {}", importacion.archivo, e);
+            importacion.terminar(Estado.FALLIDA, "No se pudo leer el archivo: " + e.getMessage());
+        } finally {
+            borrar(archivo);
+        }
+    }
+
+    /**
+     * Carga los ids de las filas activas de una tabla de referencia por nombre
+     * normalizado (y por símbolo, para las unidades).
+     */
+    private Map<String, Long> cargarReferencias(String tabla, boolean conSimbolo) {
+        Map<String, Long> referencias = new HashMap<>();
+        jdbcTemplate.query("SELECT id, nombre" + (conSimbolo ? ", simbolo" : "") + " FROM " + tabla
+                + " WHERE coalesce(activo, true)", rs -> {
+                    agregarReferencia(referencias, rs.getString("nombre"), rs.getLong("id"));
+                    if (conSimbolo) {
+                        agregarReferencia(referencias, rs.getString("simbolo"), rs.getLong("id"));
+                    }
+                });
+        return referencias;
+    }
+
+    private static void agregarReferencia(Map<String, Long> referencias, String nombre, long id) {
+        if (nombre != null && !nombre.isBlank()) {
+            referencias.merge(normalizar(nombre), id, (actual, nuevo) -> actual.equals(nuevo) ? actual : AMBIGUO);
+        }
+    }
+
+    /**
+     * Lee un CSV en UTF-8 con separador {@code ,}, {@code ;} o tabulador
+     * (según el encabezado) y comillas dobles a la manera de RFC 4180.
+     */
+    private static void leerCsv(Path archivo, ObjIntConsumer<List<String>> lector) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            reader.mark(8192);
+            char separador = separador(reader.readLine());
+            reader.reset();
+
+            List<String> valores = new ArrayList<>();
+            StringBuilder campo = new StringBuilder();
+            boolean entreComillas = false;
+            int fila = 1;
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (entreComillas) {
+                    if (c != '"') {
+                        campo.append((char) c);
+                    } else {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            campo.append('"');
+                        } else {
+                            entreComillas = false;
+                            reader.reset();
+                        }
+                    }
+                } else if (c == '"' && campo.isEmpty()) {
+                    entreComillas = true;
+                } else if (c == separador) {
+                    valores.add(campo.toString());
+                    campo.setLength(0);
+                } else if (c == '\n') {
+                    valores.add(campo.toString());
+                    campo.setLength(0);
+                    lector.accept(valores, fila++);
+                    valores = new ArrayList<>();
+                } else if (c != '\r') {
+                    campo.append((char) c);
+                }
+            }
+            if (!campo.isEmpty() || !valores.isEmpty()) {
+                valores.add(campo.toString());
+                lector.accept(valores, fila);
+            }
+        }
+    }
+
+    private static char separador(String encabezado) {
+        if (encabezado == null) {
+            return ',';
+        }
+        char[] candidatos = { ',', ';', '\t' };
+        char separador = ',';
+        long maximo = 0;
+        for (char candidato : candidatos) {
+            long veces = encabezado.chars().filter(c -> c == candidato).count();
+            if (veces > maximo) {
+                maximo = veces;
+                separador = candidato;
+            }
+        }
+        return separador;
+    }
+
+    /**
+     * Lee la primera hoja de un XLSX con el lector SAX de POI, sin cargar el
+     * libro en memoria. Los números llegan sin el formato de la celda.
+     */
+    private static void leerXlsx(Path archivo, ObjIntConsumer<List<String>> lector) throws IOException {
+        DataFormatter sinFormato = new DataFormatter(Locale.ROOT) {
+            @Override
+            public String formatRawCellContents(double valor, int indice, String formato) {
+                return NumberToTextConverter.toText(valor);
+            }
+        };
+        try (OPCPackage paquete = OPCPackage.open(archivo.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(paquete);
+            Iterator<InputStream> hojas = reader.getSheetsData();
+            if (!hojas.hasNext()) {
+                throw new IllegalArgumentException("El archivo no tiene hojas");
+            }
+            try (InputStream hoja = hojas.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null,
+                        new ReadOnlySharedStringsTable(paquete), new FilasXlsx(lector), sinFormato, false));
+                parser.parse(new InputSource(hoja));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("XLSX inválido", e);
+        }
+    }
+
+    /**
+     * Arma cada fila de la hoja rellenando las celdas vacías que el lector
+     * SAX omite.
+     */
+    private static final class FilasXlsx implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final ObjIntConsumer<List<String>> lector;
+
+        private List<String> valores = new ArrayList<>();
+
+        FilasXlsx(ObjIntConsumer<List<String>> lector) {
+            this.lector = lector;
+        }
+
+        @Override
+        public void startRow(int fila) {
+            valores = new ArrayList<>();
+        }
+
+        @Override
+        public void endRow(int fila) {
+            lector.accept(valores, fila + 1);
+        }
+
+        @Override
+        public void cell(String referencia, String valor, XSSFComment comentario) {
+            int columna = referencia != null ? new CellReference(referencia).getCol() : valores.size();
+            while (valores.size() < columna) {
+                valores.add("");
+            }
+            valores.add(valor);
+        }
+    }
+
+    /**
+     * Estado de la lectura de un archivo: columnas del encabezado, códigos ya
+     * vistos y el lote pendiente de guardar.
+     */
+    private final class Lectura implements ObjIntConsumer<List<String>> {
+
+        private final Importacion importacion;
+
+        private final Map<String, Long> categorias;
+
+        private final Map<String, Long> unidades;
+
+        private final Set<String> codigos = new HashSet<>();
+
+        private Map<Campo, Integer> columnas;
+
+        private List<Fila> lote = new ArrayList<>(TAMANO_LOTE);
+
+        Lectura(Importacion importacion, Map<String, Long> categorias, Map<String, Long> unidades) {
+            this.importacion = importacion;
+            this.categorias = categorias;
+            this.unidades = unidades;
+        }
+
+        @Override
+        public void accept(List<String> valores, int numero) {
+            if (valores.stream().allMatch(valor -> valor == null || valor.isBlank())) {
+                return;
+            }
+            if (columnas == null) {
+                columnas = leerEncabezado(valores);
+                return;
+            }
+            importacion.filasLeidas.incrementAndGet();
+            String codigo = texto(valores, Campo.CODIGO);
+            try {
+                Fila fila = convertir(numero, codigo, valores);
+                if (!codigos.add(fila.codigo())) {
+                    throw new IllegalArgumentException("Código repetido en el archivo");
+                }
+                lote.add(fila);
+            } catch (IllegalArgumentException e) {
+                importacion.error(numero, codigo, e.getMessage());
+            }
+            if (lote.size() >= TAMANO_LOTE) {
+                guardar(importacion, lote);
+                lote = new ArrayList<>(TAMANO_LOTE);
+            }
+        }
+
+        void terminar() {
+            if (columnas == null) {
+                throw new IllegalArgumentException("El archivo está vacío");
+            }
+            if (!lote.isEmpty()) {
+                guardar(importacion, lote);
+            }
+        }
+
+        private Map<Campo, Integer> leerEncabezado(List<String> valores) {
+            Map<Campo, Integer> encontradas = new EnumMap<>(Campo.class);
+            for (int i = 0; i < valores.size(); i++) {
+                String encabezado = normalizar(valores.get(i)).replaceAll("[^a-z0-9]", "");
+                for (Campo campo : Campo.values()) {
+                    if (campo.encabezados.contains(encabezado)) {
+                        encontradas.putIfAbsent(campo, i);
+                    }
+                }
+            }
+            List<String> faltantes = REQUERIDOS.stream()
+                    .filter(campo -> !encontradas.containsKey(campo))
+                    .map(campo -> campo.nombre)
+                    .sorted()
+                    .toList();
+            if (!faltantes.isEmpty()) {
+                throw new IllegalArgumentException("Faltan las columnas: " + String.join(", ", faltantes));
+            }
+            return encontradas;
+        }
+
+        private Fila convertir(int numero, String codigo, List<String> valores) {
+            String nombre = texto(valores, Campo.NOMBRE);
+            String descripcion = texto(valores, Campo.DESCRIPCION);
+            if (codigo == null) {
+                throw new IllegalArgumentException("El código es obligatorio");
+            }
+            if (codigo.length() > 255) {
+                throw new IllegalArgumentException("El código tiene más de 255 caracteres");
+            }
+            if (nombre == null) {
+                throw new IllegalArgumentException("El nombre es obligatorio");
+            }
+            if (nombre.length() > 50) {
+                throw new IllegalArgumentException("El nombre tiene más de 50 caracteres");
+            }
+            if (descripcion != null && descripcion.length() > 150) {
+                throw new IllegalArgumentException("La descripción tiene más de 150 caracteres");
+            }
+            BigDecimal precio = decimal(valores, Campo.PRECIO);
+            BigDecimal costo = decimal(valores, Campo.COSTO);
+            if (precio == null || costo == null) {
+                throw new IllegalArgumentException("El precio y el costo son obligatorios");
+            }
+            return new Fila(numero, codigo, nombre, descripcion, decimal(valores, Campo.EXISTENCIA),
+                    decimal(valores, Campo.EXISTENCIA_MINIMA), precio, costo,
+                    referencia(categorias, texto(valores, Campo.CATEGORIA), "categoría"),
+                    referencia(unidades, texto(valores, Campo.UNIDAD_MEDIDA), "unidad de medida"));
+        }
+
+        private String texto(List<String> valores, Campo campo) {
+            Integer columna = columnas.get(campo);
+            if (columna == null || columna >= valores.size() || valores.get(columna) == null) {
+                return null;
+            }
+            String valor = valores.get(columna).strip();
+            return valor.isEmpty() ? null : valor;
+        }
+
+        /**
+         * Interpreta un número con punto o coma decimal; si aparecen los dos, el
+         * último es el decimal y el otro separa miles.
+         */
+        private BigDecimal decimal(List<String> valores, Campo campo) {
+            String valor = texto(valores, campo);
+            if (valor == null) {
+                return null;
+            }
+            String limpio = valor.replaceAll("[\\s$]|C\\$", "");
+            int coma = limpio.lastIndexOf(',');
+            int punto = limpio.lastIndexOf('.');
+            if (coma > punto) {
+                limpio = limpio.replace(".", "").replace(',', '.');
+            } else {
+                limpio = limpio.replace(",", "");
+            }
+            BigDecimal numero;
+            try {
+                numero = new BigDecimal(limpio);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor no numérico en " + campo.nombre
+                        + ": " + valor);
+            }
+            if (numero.signum() < 0) {
+                throw new IllegalArgumentException("Valor negativo en " + campo.nombre);
+            }
+            return numero.setScale(2, RoundingMode.HALF_UP);
+        }
+
+        private Long referencia(Map<String, Long> referencias, String nombre, String tipo) {
+            if (nombre == null) {
+                return null;
+            }
+            Long id = referencias.get(normalizar(nombre));
+            if (id == null) {
+                throw new IllegalArgumentException("No existe la " + tipo + " '" + nombre + "'");
+            }
+            if (id == AMBIGUO) {
+                throw new IllegalArgumentException("Hay más de una " + tipo + " llamada '" + nombre + "'");
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Guarda un lote en su propia transacción; si la base de datos lo rechaza,
+     * todas sus filas se informan con el error y la importación sigue.
+     */
+    private void guardar(Importacion importacion, List<Fila> filas) {
+        filas.sort(Comparator.comparing(Fila::codigo));
+        try {
+            long[] resultado = transactionTemplate.execute(status -> guardarLote(filas));
+            importacion.insertados.addAndGet(resultado[0]);
+            importacion.actualizados.addAndGet(resultado[1]);
+        } catch (DataAccessException | TransactionException e) {
+            LOG.warn("Lote rechazado en la importación {}: {}", importacion.archivo, e.getMessage());
+            String mensaje = "Lote rechazado por la base de datos: " + e.getMostSpecificCause().getMessage();
+            filas.forEach(fila -> importacion.error(fila.numero(), fila.codigo(), mensaje));
+        }
+    }
+
+    /**
+     * @return los artículos insertados y actualizados.
+     */
+    private long[] guardarLote(List<Fila> filas) {
+        String[] codigos = filas.stream().map(Fila::codigo).toArray(String[]::new);
+
+        // 1. Bloqueo de los artículos existentes en orden ascendente de id
+        Map<String, BigDecimal> preciosAnteriores = new HashMap<>();
+        jdbcTemplate.query(SQL_BLOQUEO, ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", codigos)),
+                rs -> {
+                    preciosAnteriores.put(rs.getString("codigo"), rs.getBigDecimal("precio"));
+                });
+
+        // 2. Un solo INSERT ... ON CONFLICT para todo el lote. Cada nextval de un artículo nuevo reserva
+        // un bloque completo del optimizador pooled de Hibernate, así que el id no choca con los de la sesión.
+        Set<Long> ids = new HashSet<>();
+        Map<Long, BigDecimal> existenciasIniciales = new HashMap<>();
+        List<Long> cambiosDePrecio = new ArrayList<>();
+        List<BigDecimal> anteriores = new ArrayList<>();
+        List<BigDecimal> nuevos = new ArrayList<>();
+        jdbcTemplate.query(SQL_UPSERT, ps -> {
+            Connection conexion = ps.getConnection();
+            ps.setArray(1, conexion.createArrayOf("varchar", codigos));
+            ps.setArray(2, conexion.createArrayOf("varchar", columna(filas, Fila::nombre, String[]::new)));
+            ps.setArray(3, conexion.createArrayOf("varchar", columna(filas, Fila::descripcion, String[]::new)));
+            ps.setArray(4, conexion.createArrayOf("numeric", columna(filas, Fila::existencia, BigDecimal[]::new)));
+            ps.setArray(5, conexion.createArrayOf("numeric",
+                    columna(filas, Fila::existenciaMinima, BigDecimal[]::new)));
+            ps.setArray(6, conexion.createArrayOf("numeric", columna(filas, Fila::precio, BigDecimal[]::new)));
+            ps.setArray(7, conexion.createArrayOf("numeric", columna(filas, Fila::costo, BigDecimal[]::new)));
+            ps.setArray(8, conexion.createArrayOf("bigint", columna(filas, Fila::categoriaId, Long[]::new)));
+            ps.setArray(9, conexion.createArrayOf("bigint", columna(filas, Fila::unidadMedidaId, Long[]::new)));
+        }, rs -> {
+            long id = rs.getLong("id");
+            ids.add(id);
+            if (rs.getBoolean("insertado")) {
+                existenciasIniciales.put(id, rs.getBigDecimal("existencia"));
+                return;
+            }
+            BigDecimal anterior = preciosAnteriores.get(rs.getString("codigo"));
+            BigDecimal nuevo = rs.getBigDecimal("precio");
+            if (anterior != null && anterior.compareTo(nuevo) != 0) {
+                cambiosDePrecio.add(id);
+                anteriores.add(anterior);
+                nuevos.add(nuevo);
+            }
+        });
+
+        // 3. Historial de precios de los actualizados (un solo INSERT)
+        if (!cambiosDePrecio.isEmpty()) {
+            jdbcTemplate.update(SQL_HISTORIAL, ps -> {
+                ps.setTimestamp(1, Timestamp.from(Instant.now()));
+                ps.setString(2, MOTIVO_PRECIO);
+                ps.setArray(3, ps.getConnection().createArrayOf("bigint", cambiosDePrecio.toArray(new Long[0])));
+                ps.setArray(4, ps.getConnection().createArrayOf("numeric", anteriores.toArray(new BigDecimal[0])));
+                ps.setArray(5, ps.getConnection().createArrayOf("numeric", nuevos.toArray(new BigDecimal[0])));
+            });
+        }
+
+        // 4. Existencia inicial de los nuevos en la bitácora, y aviso al confirmar
+        inventoryService.registrarMovimientos(existenciasIniciales, TipoMovimientoInventario.AJUSTE, null);
+        eventPublisher.publishEvent(new ExistenciaCambiadaEvent(ids));
+        return new long[] { existenciasIniciales.size(), ids.size() - existenciasIniciales.size() };
+    }
+
+    private static <T> T[] columna(List<Fila> filas, Function<Fila, T> valor, IntFunction<T[]> arreglo) {
+        return filas.stream().map(valor).toArray(arreglo);
+    }
+
+    private static String normalizar(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .replace("\uFEFF", "")
+                .toLowerCase(Locale.ROOT)
+                .strip();
+    }
+
+    private static void borrar(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            LOG.warn("No se pudo borrar el archivo temporal {}", archivo, e);
+        }
+    }
+
+    private record Fila(int numero, String codigo, String nombre, String descripcion, BigDecimal existencia,
+            BigDecimal existenciaMinima, BigDecimal precio, BigDecimal costo, Long categoriaId,
+            Long unidadMedidaId) {}
+
+    /**
+     * Progreso de una importación, actualizado por el hilo que la ejecuta y
+     * leído por las consultas de estado.
+     */
+    private static final class Importacion {
+
+        private final String id;
+
+        private final String archivo;
+
+        private final Instant inicio = Instant.now();
+
+        private final AtomicLong filasLeidas = new AtomicLong();
+
+        private final AtomicLong insertados = new AtomicLong();
+
+        private final AtomicLong actualizados = new AtomicLong();
+
+        private final AtomicLong filasConError = new AtomicLong();
+
+        private final List<ErrorFila> errores = Collections.synchronizedList(new ArrayList<>());
+
+        private volatile Estado estado = Estado.EN_PROCESO;
+
+        private volatile Instant fin;
+
+        private volatile String mensaje;
+
+        Importacion(String id, String archivo) {
+            this.id = id;
+            this.archivo = archivo;
+        }
+
+        void error(int fila, String codigo, String mensaje) {
+            if (filasConError.incrementAndGet() <= MAX_ERRORES) {
+                errores.add(new ErrorFila(fila, codigo, mensaje));
+            }
+        }
+
+        void terminar(Estado estado, String mensaje) {
+            this.mensaje = mensaje;
+            this.fin = Instant.now();
+            this.estado = estado;
+        }
+
+        ImportacionArticulosDTO toDto() {
+            ImportacionArticulosDTO dto = new ImportacionArticulosDTO();
+            dto.setId(id);
+            dto.setArchivo(archivo);
+            dto.setEstado(estado);
+            dto.setFilasLeidas(filasLeidas.get());
+            dto.setInsertados(insertados.get());
+            dto.setActualizados(actualizados.get());
+            dto.setFilasConError(filasConError.get());
+            dto.setInicio(inicio);
+            dto.setFin(fin);
+            dto.setMensaje(mensaje);
+            synchronized (errores) {
+                dto.setErrores(new ArrayList<>(errores));
+            }
+            return dto;
+        }
+    }
+}
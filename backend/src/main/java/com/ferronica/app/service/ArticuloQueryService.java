@@ -7,14 +7,22 @@ import com.ferronica.app.service.criteria.ArticuloCriteria;
 import com.ferronica.app.service.dto.ArticuloDTO;
 import com.ferronica.app.service.mapper.ArticuloMapper;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.util.ArrayList;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.service.QueryService;
+import tech.jhipster.service.filter.LongFilter;
 
 /**
  * Service for executing complex queries for {@link Articulo} entities in the database.
@@ -50,6 +58,27 @@ public class ArticuloQueryService extends QueryService<Articulo> {
         return articuloRepository.findAll(specification, page).map(articuloMapper::toDto);
     }
 
+    /**
+     * Return a keyset page of {@link ArticuloDTO} which matches the criteria,
+     * ordered by id. Rows are sought from the cursor and no count query is run.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The position of the last row of the previous page, or {@code null} for the first page.
+     * @param size The page size.
+     * @return the matching entities and the cursor of the next page.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<ArticuloDTO> findByCriteria(ArticuloCriteria criteria, KeysetCursor cursor, int size) {
+        LOG.debug("find by criteria : {}, cursor: {}, size: {}", criteria, cursor, size);
+        Specification<Articulo> specification = createSpecification(criteria);
+        if (cursor != null) {
+            specification = specification.and((root, query, cb) -> cb.greaterThan(root.get(Articulo_.id), cursor.getId()));
+        }
+        List<Articulo> filas = articuloRepository.findBy(specification, query ->
+            query.sortBy(Sort.by(Articulo_.ID)).limit(size + 1).all()
+        );
+        return KeysetPage.of(filas, size, articulo -> KeysetCursor.of(articulo.getId())).map(articuloMapper::toDto);
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -83,6 +112,7 @@ public class ArticuloQueryService extends QueryService<Articulo> {
                 buildRangeSpecification(criteria.getCosto(), Articulo_.costo),
                 buildSpecification(criteria.getActivo(), Articulo_.activo),
                 buildSpecification(criteria.getCategoriaId(), root -> root.join(Articulo_.categoria, JoinType.LEFT).get(Categoria_.id)),
+                criteria.getCategoriaSubtreeId() != null ? buildSubtreeSpecification(criteria.getCategoriaSubtreeId()) : null,
                 buildSpecification(criteria.getUnidadMedidaId(), root ->
                     root.join(Articulo_.unidadMedida, JoinType.LEFT).get(UnidadMedida_.id)
                 )
@@ -90,4 +120,29 @@ public class ArticuloQueryService extends QueryService<Articulo> {
         }
         return specification;
     }
+
+    /**
+     * Matches the articulos whose categoria is in the subtree of the filtered ids, at any depth.
+     * Only the {@code equals} and {@code in} conditions of the filter apply; the REST resource rejects any other one.
+     * @param filter the ids of the subtree roots.
+     * @return the matching {@link Specification}.
+     */
+    private Specification<Articulo> buildSubtreeSpecification(LongFilter filter) {
+        return (root, query, cb) -> {
+            // EXISTS sobre la tabla de clausura: con un join, los ids en "in" anidados repetirían artículos
+            Subquery<Long> subarbol = query.subquery(Long.class);
+            Root<CategoriaJerarquia> jerarquia = subarbol.from(CategoriaJerarquia.class);
+            Path<Long> ancestro = jerarquia.get(CategoriaJerarquia_.ancestroId);
+            List<Predicate> condiciones = new ArrayList<>();
+            condiciones.add(cb.equal(jerarquia.get(CategoriaJerarquia_.descendienteId), root.get(Articulo_.categoria).get(Categoria_.id)));
+            if (filter.getEquals() != null) {
+                condiciones.add(cb.equal(ancestro, filter.getEquals()));
+            }
+            if (filter.getIn() != null) {
+                condiciones.add(ancestro.in(filter.getIn()));
+            }
+            subarbol.select(ancestro).where(condiciones.toArray(new Predicate[0]));
+            return cb.exists(subarbol);
+        };
+    }
 }
@@ -1,6 +1,8 @@
 package com.ferronica.app.service;
 
 import com.ferronica.app.service.dto.ArticuloDTO;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -39,6 +41,24 @@ public interface ArticuloService {
      */
     Optional<ArticuloDTO> findOne(Long id);
 
+    /**
+     * Get the active articulo with the "codigo", ignoring case, from a cache of
+     * recent lookups.
+     *
+     * @param codigo the code of the entity.
+     * @return the entity.
+     */
+    Optional<ArticuloDTO> findOneByCodigo(String codigo);
+
+    /**
+     * Get the active articulos with the given codes, ignoring case, from a cache
+     * of recent lookups; the codes not in cache are loaded with a single query.
+     *
+     * @param codigos the codes of the entities.
+     * @return the entities found, in the order of the codes.
+     */
+    List<ArticuloDTO> findAllByCodigo(Collection<String> codigos);
+
     /**
      * Delete the "id" articulo.
      *
@@ -0,0 +1,624 @@
+package com.ferronica.app.service;
+
+import com.ferronica.app.service.dto.ArticuloDTO;
+import com.ferronica.app.service.dto.CategoriaDTO;
+import com.ferronica.app.service.dto.UnidadMedidaDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory catalog of the active articles for the POS typeahead, answered
+ * without going to the database.
+ * <p>
+ * Each article takes one slot of a set of parallel arrays (code, name, image,
+ * unit and category, with money and stock kept as cents in {@code long}s). The
+ * words of {@code codigo} and {@code nombre}, lower-cased and without accents,
+ * are indexed by their trigrams, padded at the start of each word like
+ * {@code pg_trgm} does, so the same index serves word prefixes of one or two
+ * characters and substrings of three or more.
+ * <p>
+ * The catalog is loaded at startup and reloaded every 15 minutes. In between
+ * it follows the {@link ExistenciaCambiadaEvent}s of committed transactions
+ * (article saves and stock mutations), re-reading only the changed articles.
+ * The committing thread only queues their ids: a refresh is scheduled
+ * {@link #ESPERA_REFRESCO} later on the {@code taskExecutor}, so a burst of
+ * sales is applied with a single query. Refreshes never overlap, so an older
+ * read cannot overwrite a newer one.
+ * <p>
+ * Like {@link StockBajoService}, it is local to this instance. The number of
+ * articles, an estimate of the memory taken and the delay between a change
+ * and its refresh are published as metrics.
+ */
+@Service
+public class CatalogoPosService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogoPosService.class);
+
+    /**
+     * Maximum number of results of a search.
+     */
+    public static final int LIMITE_MAXIMO = 50;
+
+    private static final String SQL_CATALOGO = "SELECT a.id, a.codigo, a.nombre, a.precio, a.costo, a.ultimo_costo, "
+            + "a.existencia, a.imagen_url, a.categoria_id, a.unidad_medida_id, u.simbolo, "
+            + "coalesce(a.activo, true) AS activo "
+            + "FROM articulo a LEFT JOIN unidad_medida u ON u.id = a.unidad_medida_id";
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    // Valor centinela para importes nulos (ultimo_costo)
+    private static final long NULO = Long.MIN_VALUE;
+
+    /**
+     * Delay between the first pending change and the refresh that applies it.
+     */
+    static final Duration ESPERA_REFRESCO = Duration.ofMillis(250);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Executor taskExecutor;
+
+    private final TaskScheduler taskScheduler;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Timer retraso;
+
+    private Catalogo catalogo = new Catalogo(0);
+
+    // Artículos cambiados mientras se recarga el catálogo completo; null fuera de una recarga
+    private volatile Set<Long> cambiosDuranteCarga;
+
+    // Artículos por refrescar, con el instante (nanoTime) de su primer cambio pendiente
+    private final Map<Long, Long> pendientes = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean refrescoProgramado = new AtomicBoolean();
+
+    public CatalogoPosService(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            @Qualifier("taskExecutor") Executor taskExecutor, TaskScheduler taskScheduler) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskExecutor = taskExecutor;
+        this.taskScheduler = taskScheduler;
+        Gauge.builder("catalogo.pos.articulos", this, CatalogoPosService::size)
+                .description("Active articles held by the in-memory POS catalog")
+                .register(meterRegistry);
+        Gauge.builder("catalogo.pos.memoria", this, CatalogoPosService::memoria)
+                .description("Estimated heap taken by the in-memory POS catalog")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.retraso = Timer.builder("catalogo.pos.retraso")
+                .description("Delay between a change of an article and its refresh in the POS catalog")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Load the whole catalog, replacing the current one.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 */15 * * * *")
+    @Transactional(readOnly = true)
+    public void cargar() {
+        long inicio = System.nanoTime();
+        cambiosDuranteCarga = ConcurrentHashMap.newKeySet();
+        Catalogo nuevo = new Catalogo(1024);
+        jdbcTemplate.query(SQL_CATALOGO + " WHERE coalesce(a.activo, true)", rs -> {
+            nuevo.poner(fila(rs));
+        });
+        Set<Long> cambios;
+        lock.writeLock().lock();
+        try {
+            catalogo = nuevo;
+            cambios = cambiosDuranteCarga;
+            cambiosDuranteCarga = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Lo que cambió durante la lectura pudo quedar fuera de la foto cargada
+        refrescar(cambios);
+        LOG.info("Catálogo POS cargado: {} artículos en {} ms", size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+    }
+
+    /**
+     * Queue the articles changed by a committed transaction for the next
+     * refresh.
+     *
+     * @param event the changed articles.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onExistenciaCambiada(ExistenciaCambiadaEvent event) {
+        if (event.getArticuloIds().isEmpty()) {
+            return;
+        }
+        Set<Long> cambios = cambiosDuranteCarga;
+        if (cambios != null) {
+            cambios.addAll(event.getArticuloIds());
+        }
+        event.getArticuloIds().forEach(id -> pendientes.putIfAbsent(id, event.getPublicadoNanos()));
+        if (refrescoProgramado.compareAndSet(false, true)) {
+            try {
+                taskScheduler.schedule(this::lanzarRefresco, Instant.now().plus(ESPERA_REFRESCO));
+            } catch (RejectedExecutionException e) {
+                refrescoProgramado.set(false);
+                LOG.warn("No se pudo programar el refresco del catálogo POS: {}", e.getMessage());
+            }
+        }
+    }
+
+    // El programador solo pasa la tarea al taskExecutor, para no ocupar sus hilos con consultas
+    private void lanzarRefresco() {
+        try {
+            taskExecutor.execute(this::refrescarPendientes);
+        } catch (RejectedExecutionException e) {
+            refrescoProgramado.set(false);
+            LOG.warn("No se pudo lanzar el refresco del catálogo POS: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply every pending change with one query. Changes queued while it runs
+     * schedule the next refresh.
+     */
+    void refrescarPendientes() {
+        refrescoProgramado.set(false);
+        Map<Long, Long> lote = new HashMap<>();
+        for (Long id : pendientes.keySet()) {
+            Long publicado = pendientes.remove(id);
+            if (publicado != null) {
+                lote.put(id, publicado);
+            }
+        }
+        if (lote.isEmpty()) {
+            return;
+        }
+        try {
+            refrescar(lote.keySet());
+        } catch (RuntimeException e) {
+            LOG.warn("Error refrescando el catálogo POS {}: {}", lote.keySet(), e.getMessage());
+            return;
+        }
+        long ahora = System.nanoTime();
+        lote.values().forEach(publicado -> retraso.record(ahora - publicado, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Search active articles whose code or name contain every word of the text,
+     * ignoring case and accents. Words of one or two characters match the start
+     * of a word.
+     *
+     * @param texto       the text typed at the POS.
+     * @param categoriaId restrict to this categoria, if not {@code null}.
+     * @param limite      the maximum number of results, up to
+     *                    {@link #LIMITE_MAXIMO}.
+     * @return the matching articles: exact code first, then code and name
+     *         prefixes, then by name.
+     */
+    public List<ArticuloDTO> buscar(String texto, Long categoriaId, int limite) {
+        String q = texto == null ? "" : normalizar(texto).strip();
+        if (q.isEmpty() || limite <= 0) {
+            return Collections.emptyList();
+        }
+        String[] palabras = ESPACIOS.split(q);
+        lock.readLock().lock();
+        try {
+            return catalogo.buscar(q, palabras, categoriaId, Math.min(limite, LIMITE_MAXIMO));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of articles in the catalog.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return catalogo.posiciones.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return an estimate, in bytes, of the heap taken by the catalog.
+     */
+    public long memoria() {
+        lock.readLock().lock();
+        try {
+            return catalogo.memoria();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Sincronizado: dos refrescos no se cruzan y una lectura vieja no pisa otra más nueva
+    private synchronized void refrescar(Set<Long> articuloIds) {
+        if (articuloIds.isEmpty()) {
+            return;
+        }
+        Long[] ids = articuloIds.toArray(new Long[0]);
+        List<Fila> filas = jdbcTemplate.query(SQL_CATALOGO + " WHERE a.id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)),
+                (rs, rowNum) -> fila(rs));
+        Set<Long> borrados = new HashSet<>(articuloIds);
+        lock.writeLock().lock();
+        try {
+            for (Fila fila : filas) {
+                borrados.remove(fila.id());
+                if (fila.activo()) {
+                    catalogo.poner(fila);
+                } else {
+                    catalogo.quitar(fila.id());
+                }
+            }
+            borrados.forEach(catalogo::quitar);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOG.debug("Catálogo POS refrescado: {}", articuloIds);
+    }
+
+    private static Fila fila(ResultSet rs) throws SQLException {
+        return new Fila(rs.getLong("id"), rs.getString("codigo"), rs.getString("nombre"),
+                centavos(rs.getBigDecimal("precio")), centavos(rs.getBigDecimal("costo")),
+                centavos(rs.getBigDecimal("ultimo_costo")), centavos(rs.getBigDecimal("existencia")),
+                rs.getString("imagen_url"), rs.getLong("categoria_id"), rs.getLong("unidad_medida_id"),
+                rs.getString("simbolo"), rs.getBoolean("activo"));
+    }
+
+    private static String normalizar(String texto) {
+        String minusculas = texto.toLowerCase(Locale.ROOT);
+        return ACENTOS.matcher(Normalizer.normalize(minusculas, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    private static long centavos(BigDecimal valor) {
+        return valor == null ? NULO : valor.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static BigDecimal decimal(long centavos) {
+        return centavos == NULO ? null : BigDecimal.valueOf(centavos, 2);
+    }
+
+    private static long tamanoTexto(String texto) {
+        // Cabecera de String más arreglo de bytes (cadenas Latin-1 compactas)
+        return texto == null ? 0 : 40L + texto.length();
+    }
+
+    private record Fila(long id, String codigo, String nombre, long precio, long costo, long ultimoCosto,
+            long existencia, String imagenUrl, long categoriaId, long unidadMedidaId, String simbolo,
+            boolean activo) {}
+
+    /**
+     * The arrays and the index. Only accessed under {@link #lock}.
+     */
+    private static final class Catalogo {
+
+        private long[] ids;
+        private String[] codigos;
+        private String[] nombres;
+        private String[] codigosNormalizados;
+        private String[] nombresNormalizados;
+        private String[] imagenes;
+        private String[] simbolos;
+        private long[] precios;
+        private long[] costos;
+        private long[] ultimosCostos;
+        private long[] existencias;
+        private long[] categorias;
+        private long[] unidades;
+
+        // Primera posición sin usar y posiciones liberadas por artículos quitados
+        private int tope;
+        private final Deque<Integer> libres = new ArrayDeque<>();
+
+        private final Map<Long, Integer> posiciones = new HashMap<>();
+        private final Map<String, Posiciones> indice = new HashMap<>();
+
+        // Cadenas repetidas (símbolos de unidad) compartidas entre artículos
+        private final Map<String, String> simbolosUnicos = new HashMap<>();
+
+        Catalogo(int capacidad) {
+            redimensionar(capacidad);
+        }
+
+        void poner(Fila fila) {
+            Integer actual = posiciones.get(fila.id());
+            int p;
+            boolean indexar;
+            if (actual == null) {
+                p = libres.isEmpty() ? tope++ : libres.pop();
+                if (p >= ids.length) {
+                    redimensionar(Math.max(16, ids.length * 2));
+                }
+                posiciones.put(fila.id(), p);
+                indexar = true;
+            } else {
+                p = actual;
+                // Solo se reindexa si cambió el texto; precio y stock no tocan el índice
+                indexar = !fila.codigo().equals(codigos[p]) || !fila.nombre().equals(nombres[p]);
+                if (indexar) {
+                    desindexar(p);
+                }
+            }
+            ids[p] = fila.id();
+            codigos[p] = fila.codigo();
+            nombres[p] = fila.nombre();
+            imagenes[p] = fila.imagenUrl();
+            simbolos[p] = fila.simbolo() == null ? null : simbolosUnicos.computeIfAbsent(fila.simbolo(), s -> s);
+            precios[p] = fila.precio();
+            costos[p] = fila.costo();
+            ultimosCostos[p] = fila.ultimoCosto();
+            existencias[p] = fila.existencia();
+            categorias[p] = fila.categoriaId();
+            unidades[p] = fila.unidadMedidaId();
+            if (indexar) {
+                codigosNormalizados[p] = normalizar(fila.codigo());
+                nombresNormalizados[p] = normalizar(fila.nombre());
+                for (String trigrama : trigramas(codigosNormalizados[p], nombresNormalizados[p])) {
+                    indice.computeIfAbsent(trigrama, t -> new Posiciones()).agregar(p);
+                }
+            }
+        }
+
+        void quitar(long id) {
+            Integer posicion = posiciones.remove(id);
+            if (posicion == null) {
+                return;
+            }
+            desindexar(posicion);
+            codigos[posicion] = null;
+            nombres[posicion] = null;
+            codigosNormalizados[posicion] = null;
+            nombresNormalizados[posicion] = null;
+            imagenes[posicion] = null;
+            simbolos[posicion] = null;
+            libres.push(posicion);
+        }
+
+        private void desindexar(int posicion) {
+            for (String trigrama : trigramas(codigosNormalizados[posicion], nombresNormalizados[posicion])) {
+                Posiciones lista = indice.get(trigrama);
+                if (lista != null && lista.quitar(posicion) && lista.tamano == 0) {
+                    indice.remove(trigrama);
+                }
+            }
+        }
+
+        List<ArticuloDTO> buscar(String q, String[] palabras, Long categoriaId, int limite) {
+            Set<String> trigramasConsulta = new LinkedHashSet<>();
+            for (String palabra : palabras) {
+                trigramasConsulta.addAll(trigramasConsulta(palabra));
+            }
+            List<Posiciones> listas = new ArrayList<>(trigramasConsulta.size());
+            for (String trigrama : trigramasConsulta) {
+                Posiciones lista = indice.get(trigrama);
+                if (lista == null) {
+                    return Collections.emptyList();
+                }
+                listas.add(lista);
+            }
+            // Intersección recorriendo la lista más corta
+            listas.sort(Comparator.comparingInt(lista -> lista.tamano));
+            Posiciones menor = listas.get(0);
+            List<int[]> encontrados = new ArrayList<>();
+            for (int i = 0; i < menor.tamano; i++) {
+                int p = menor.datos[i];
+                if (coincide(p, palabras, categoriaId, listas)) {
+                    encontrados.add(new int[] { p, rango(p, q) });
+                }
+            }
+            return encontrados.stream()
+                    .sorted(Comparator.<int[]>comparingInt(e -> e[1])
+                            .thenComparing(e -> nombres[e[0]])
+                            .thenComparingLong(e -> ids[e[0]]))
+                    .limit(limite)
+                    .map(e -> aDto(e[0]))
+                    .toList();
+        }
+
+        private boolean coincide(int p, String[] palabras, Long categoriaId, List<Posiciones> listas) {
+            if (categoriaId != null && categorias[p] != categoriaId) {
+                return false;
+            }
+            for (int i = 1; i < listas.size(); i++) {
+                if (!listas.get(i).contiene(p)) {
+                    return false;
+                }
+            }
+            // Los trigramas pueden venir de palabras distintas: se confirma cada palabra
+            for (String palabra : palabras) {
+                if (!codigosNormalizados[p].contains(palabra) && !nombresNormalizados[p].contains(palabra)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int rango(int p, String q) {
+            if (codigosNormalizados[p].equals(q)) {
+                return 0;
+            }
+            if (codigosNormalizados[p].startsWith(q)) {
+                return 1;
+            }
+            return nombresNormalizados[p].startsWith(q) ? 2 : 3;
+        }
+
+        ArticuloDTO aDto(int p) {
+            ArticuloDTO dto = new ArticuloDTO();
+            dto.setId(ids[p]);
+            dto.setCodigo(codigos[p]);
+            dto.setNombre(nombres[p]);
+            dto.setPrecio(decimal(precios[p]));
+            dto.setCosto(decimal(costos[p]));
+            dto.setUltimoCosto(decimal(ultimosCostos[p]));
+            dto.setExistencia(decimal(existencias[p]));
+            dto.setImagenUrl(imagenes[p]);
+            dto.setActivo(true);
+            if (categorias[p] != 0) {
+                CategoriaDTO categoria = new CategoriaDTO();
+                categoria.setId(categorias[p]);
+                dto.setCategoria(categoria);
+            }
+            if (unidades[p] != 0) {
+                UnidadMedidaDTO unidadMedida = new UnidadMedidaDTO();
+                unidadMedida.setId(unidades[p]);
+                unidadMedida.setSimbolo(simbolos[p]);
+                dto.setUnidadMedida(unidadMedida);
+            }
+            return dto;
+        }
+
+        long memoria() {
+            // Arreglos: 7 de long y 6 de referencias (4 bytes con oops comprimidos)
+            long total = ids.length * (7L * Long.BYTES + 6L * 4);
+            for (int p = 0; p < tope; p++) {
+                if (codigos[p] != null) {
+                    total += tamanoTexto(codigos[p]) + tamanoTexto(nombres[p]) + tamanoTexto(imagenes[p]);
+                    total += tamanoTexto(codigosNormalizados[p]) + tamanoTexto(nombresNormalizados[p]);
+                }
+            }
+            // Entradas de HashMap con sus llaves y valores en caja
+            total += posiciones.size() * (32L + 24 + 16);
+            for (Map.Entry<String, Posiciones> entrada : indice.entrySet()) {
+                total += 32L + tamanoTexto(entrada.getKey()) + 24 + 16 + 4L * entrada.getValue().datos.length;
+            }
+            return total;
+        }
+
+        private void redimensionar(int capacidad) {
+            ids = ids == null ? new long[capacidad] : Arrays.copyOf(ids, capacidad);
+            codigos = codigos == null ? new String[capacidad] : Arrays.copyOf(codigos, capacidad);
+            nombres = nombres == null ? new String[capacidad] : Arrays.copyOf(nombres, capacidad);
+            codigosNormalizados = codigosNormalizados == null ? new String[capacidad]
+                    : Arrays.copyOf(codigosNormalizados, capacidad);
+            nombresNormalizados = nombresNormalizados == null ? new String[capacidad]
+                    : Arrays.copyOf(nombresNormalizados, capacidad);
+            imagenes = imagenes == null ? new String[capacidad] : Arrays.copyOf(imagenes, capacidad);
+            simbolos = simbolos == null ? new String[capacidad] : Arrays.copyOf(simbolos, capacidad);
+            precios = precios == null ? new long[capacidad] : Arrays.copyOf(precios, capacidad);
+            costos = costos == null ? new long[capacidad] : Arrays.copyOf(costos, capacidad);
+            ultimosCostos = ultimosCostos == null ? new long[capacidad] : Arrays.copyOf(ultimosCostos, capacidad);
+            existencias = existencias == null ? new long[capacidad] : Arrays.copyOf(existencias, capacidad);
+            categorias = categorias == null ? new long[capacidad] : Arrays.copyOf(categorias, capacidad);
+            unidades = unidades == null ? new long[capacidad] : Arrays.copyOf(unidades, capacidad);
+        }
+    }
+
+    /**
+     * Trigrams of every word of the texts, each word padded with two spaces in
+     * front and one behind.
+     */
+    private static Set<String> trigramas(String... textos) {
+        Set<String> resultado = new HashSet<>();
+        for (String texto : textos) {
+            for (String palabra : ESPACIOS.split(texto.strip())) {
+                if (!palabra.isEmpty()) {
+                    String relleno = "  " + palabra + " ";
+                    for (int i = 0; i + 3 <= relleno.length(); i++) {
+                        resultado.add(relleno.substring(i, i + 3));
+                    }
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Trigrams a word typed by the user must match: the padded start for words
+     * of one or two characters (prefix), the inner trigrams otherwise
+     * (substring).
+     */
+    private static Set<String> trigramasConsulta(String palabra) {
+        if (palabra.length() < 3) {
+            return Set.of((palabra.length() == 1 ? "  " : " ") + palabra);
+        }
+        Set<String> resultado = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= palabra.length(); i++) {
+            resultado.add(palabra.substring(i, i + 3));
+        }
+        return resultado;
+    }
+
+    /**
+     * Sorted list of slots, growing as needed.
+     */
+    private static final class Posiciones {
+
+        private int[] datos = new int[4];
+        private int tamano;
+
+        void agregar(int posicion) {
+            int i = Arrays.binarySearch(datos, 0, tamano, posicion);
+            if (i >= 0) {
+                return;
+            }
+            int destino = -i - 1;
+            if (tamano == datos.length) {
+                datos = Arrays.copyOf(datos, tamano * 2);
+            }
+            System.arraycopy(datos, destino, datos, destino + 1, tamano - destino);
+            datos[destino] = posicion;
+            tamano++;
+        }
+
+        boolean quitar(int posicion) {
+            int i = Arrays.binarySearch(datos, 0, tamano, posicion);
+            if (i < 0) {
+                return false;
+            }
+            System.arraycopy(datos, i + 1, datos, i, tamano - i - 1);
+            tamano--;
+            return true;
+        }
+
+        boolean contiene(int posicion) {
+            return Arrays.binarySearch(datos, 0, tamano, posicion) >= 0;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.ferronica.app.service;
 
 import com.ferronica.app.service.dto.CategoriaDTO;
+import com.ferronica.app.service.dto.DesactivacionCategoriaDTO;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -50,9 +51,11 @@ public interface CategoriaService {
     Optional<CategoriaDTO> findOne(Long id);
 
     /**
-     * Delete the "id" categoria.
+     * Delete (deactivate) the "id" categoria, all its descendants and all
+     * their articulos.
      *
      * @param id the id of the entity.
+     * @return how many categorias and articulos were deactivated.
      */
-    void delete(Long id);
+    DesactivacionCategoriaDTO delete(Long id);
 }
@@ -0,0 +1,18 @@
+package com.ferronica.app.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a devolucion does not fit its venta: the venta is missing or
+ * cancelled, or a line returns more than what is left of the articulo.
+ */
+@ResponseStatus(code = HttpStatus.BAD_REQUEST)
+public class DevolucionException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DevolucionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,164 @@
+package com.ferronica.app.service;
+
+import com.ferronica.app.domain.*; // for static metamodels
+import com.ferronica.app.domain.Devolucion;
+import com.ferronica.app.repository.DevolucionRepository;
+import com.ferronica.app.service.criteria.DevolucionCriteria;
+import com.ferronica.app.service.dto.DevolucionDTO;
+import com.ferronica.app.service.mapper.DevolucionMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Service for executing complex queries for {@link Devolucion} entities in the database.
+ * The main input is a {@link DevolucionCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link Page} of {@link DevolucionDTO} which fulfills the criteria.
+ * <p>
+ * Pages are read in two steps: the ids of the page first, then the devoluciones
+ * of those ids with their venta, cliente and detalles. The cost of a page thus
+ * does not grow with the number of devoluciones.
+ */
+@Service
+@Transactional(readOnly = true)
+public class DevolucionQueryService extends QueryService<Devolucion> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DevolucionQueryService.class);
+
+    private static final Sort ORDEN_DEFECTO = Sort.by(Sort.Direction.DESC, Devolucion_.FECHA, Devolucion_.ID);
+
+    private final DevolucionRepository devolucionRepository;
+
+    private final DevolucionMapper devolucionMapper;
+
+    private final EntityManager entityManager;
+
+    public DevolucionQueryService(
+        DevolucionRepository devolucionRepository,
+        DevolucionMapper devolucionMapper,
+        EntityManager entityManager
+    ) {
+        this.devolucionRepository = devolucionRepository;
+        this.devolucionMapper = devolucionMapper;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Return a {@link Page} of {@link DevolucionDTO} which matches the criteria from the database.
+     * Without a sort, the newest devoluciones come first; a sort without {@code id} is completed with it, so that
+     * the pages are stable.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<DevolucionDTO> findByCriteria(DevolucionCriteria criteria, Pageable page) {
+        LOG.debug("find by criteria : {}, page: {}", criteria, page);
+        final Specification<Devolucion> specification = createSpecification(criteria);
+
+        // 1. Ids de la página, con filtros y orden; sin cargar asociaciones. El id desempata el orden del
+        // cliente: con empates, la base de datos puede repetir u omitir filas entre páginas
+        Sort sort = page.getSort().isSorted() ? page.getSort() : ORDEN_DEFECTO;
+        if (sort.getOrderFor(Devolucion_.ID) == null) {
+            sort = sort.and(Sort.by(Devolucion_.ID));
+        }
+        TypedQuery<Long> idQuery = createIdQuery(specification, sort);
+        if (page.isPaged()) {
+            idQuery.setFirstResult((int) page.getOffset());
+            idQuery.setMaxResults(page.getPageSize());
+        }
+        List<Long> ids = idQuery.getResultList();
+
+        // 2. Grafos completos solo de esa página, en el orden de los ids
+        List<DevolucionDTO> content = Collections.emptyList();
+        if (!ids.isEmpty()) {
+            Map<Long, Devolucion> devoluciones = devolucionRepository
+                .findAllWithEagerRelationshipsByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(Devolucion::getId, Function.identity()));
+            content = ids.stream()
+                .map(devoluciones::get)
+                .filter(Objects::nonNull)
+                .map(devolucionMapper::toDto)
+                .toList();
+        }
+        return PageableExecutionUtils.getPage(content, page, () -> devolucionRepository.count(specification));
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(DevolucionCriteria criteria) {
+        LOG.debug("count by criteria : {}", criteria);
+        final Specification<Devolucion> specification = createSpecification(criteria);
+        return devolucionRepository.count(specification);
+    }
+
+    private TypedQuery<Long> createIdQuery(Specification<Devolucion> specification, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Devolucion> root = query.from(Devolucion.class);
+        query.select(root.get(Devolucion_.id));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        // Los filtros solo recorren asociaciones a uno: no hay filas repetidas, y DISTINCT impediría ordenar
+        query.distinct(false);
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query);
+    }
+
+    /**
+     * Function to convert {@link DevolucionCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Devolucion> createSpecification(DevolucionCriteria criteria) {
+        Specification<Devolucion> specification = Specification.where(null);
+        if (criteria != null) {
+            // This has to be called first, because the distinct method returns null
+            specification = Specification.allOf(
+                Boolean.TRUE.equals(criteria.getDistinct()) ? distinct(criteria.getDistinct()) : null,
+                buildRangeSpecification(criteria.getId(), Devolucion_.id),
+                buildRangeSpecification(criteria.getFecha(), Devolucion_.fecha),
+                buildStringSpecification(criteria.getMotivo(), Devolucion_.motivo),
+                buildRangeSpecification(criteria.getTotal(), Devolucion_.total),
+                buildSpecification(criteria.getVentaId(), root -> root.join(Devolucion_.venta, JoinType.LEFT).get(Venta_.id)),
+                buildSpecification(criteria.getClienteId(), root ->
+                    root.join(Devolucion_.venta, JoinType.LEFT).join(Venta_.cliente, JoinType.LEFT).get(Cliente_.id)
+                ),
+                buildSpecification(criteria.getNoFactura(), root -> root.join(Devolucion_.venta, JoinType.LEFT).get(Venta_.noFactura)),
+                buildSpecification(criteria.getClienteNombre(), root ->
+                    root.join(Devolucion_.venta, JoinType.LEFT).join(Venta_.cliente, JoinType.LEFT).get(Cliente_.nombre)
+                )
+            );
+        }
+        return specification;
+    }
+}
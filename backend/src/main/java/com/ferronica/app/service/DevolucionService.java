@@ -1,7 +1,10 @@
 package com.ferronica.app.service;
 
+import com.ferronica.app.service.dto.CantidadRetornableDTO;
 import com.ferronica.app.service.dto.DevolucionDTO;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -32,13 +35,6 @@ public interface DevolucionService {
      */
     Optional<DevolucionDTO> partialUpdate(DevolucionDTO devolucionDTO);
 
-    /**
-     * Get all the devolucions.
-     *
-     * @return the list of entities.
-     */
-    List<DevolucionDTO> findAll();
-
     /**
      * Get the "id" devolucion.
      *
@@ -54,6 +50,18 @@ public interface DevolucionService {
      */
     void delete(Long id);
 
+    /**
+     * Check a change of the returned quantities of a saved devolucion against
+     * what is left to return of its venta, and move the stock by it. Call it
+     * before the lines of the devolucion change.
+     *
+     * @param devolucionId the id of the devolucion.
+     * @param cambios      the change of the returned quantity, by articulo id.
+     * @throws DevolucionException if the venta is cancelled or a quantity
+     *                             exceeds what is left to return.
+     */
+    void ajustarDetalles(Long devolucionId, Map<Long, BigDecimal> cambios);
+
     /**
      * Get all devolutions by venta ID.
      * 
@@ -61,4 +69,13 @@ public interface DevolucionService {
      * @return the list of entities.
      */
     List<DevolucionDTO> findAllByVenta(Long ventaId);
+
+    /**
+     * Get how much of each articulo of a venta can still be returned. Nothing
+     * can be returned from a cancelled venta.
+     *
+     * @param ventaId the ID of the venta.
+     * @return the quantities by articulo, or empty if the venta does not exist.
+     */
+    Optional<List<CantidadRetornableDTO>> findRetornable(Long ventaId);
 }
@@ -0,0 +1,37 @@
+package com.ferronica.app.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published inside a transaction that changed the stock, price, minimum or
+ * state of some articles. Listeners bound to the commit (see
+ * {@link StockBajoService} and {@link CatalogoPosService}) only see it once the
+ * change is visible.
+ */
+public class ExistenciaCambiadaEvent {
+
+    private final Set<Long> articuloIds;
+
+    private final long publicadoNanos = System.nanoTime();
+
+    public ExistenciaCambiadaEvent(Collection<Long> articuloIds) {
+        this.articuloIds = Set.copyOf(articuloIds);
+    }
+
+    public Set<Long> getArticuloIds() {
+        return articuloIds;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} at which the change was published.
+     */
+    public long getPublicadoNanos() {
+        return publicadoNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ExistenciaCambiadaEvent{articuloIds=" + articuloIds + "}";
+    }
+}
@@ -9,10 +9,12 @@ import com.ferronica.app.service.mapper.IngresoMapper;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Root;
 import jakarta.persistence.criteria.Expression;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -57,6 +59,36 @@ public class IngresoQueryService extends QueryService<Ingreso> {
         return ingresoRepository.findAll(specification, page).map(ingresoMapper::toDto);
     }
 
+    /**
+     * Return a keyset page of {@link IngresoDTO} which matches the criteria,
+     * newest first. Rows are sought from the cursor on {@code (fecha, id)} and no
+     * count query is run.
+     *
+     * @param criteria The object which holds all the filters, which the entities
+     *                 should match.
+     * @param cursor   The position of the last row of the previous page, or
+     *                 {@code null} for the first page.
+     * @param size     The page size.
+     * @return the matching entities and the cursor of the next page.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<IngresoDTO> findByCriteria(IngresoCriteria criteria, KeysetCursor cursor, int size) {
+        LOG.debug("find by criteria : {}, cursor: {}, size: {}", criteria, cursor, size);
+        Specification<Ingreso> specification = createSpecification(criteria);
+        if (cursor != null) {
+            specification = specification.and((root, query, cb) -> cb.or(
+                    cb.lessThan(root.get(Ingreso_.fecha), cursor.getFecha()),
+                    cb.and(cb.equal(root.get(Ingreso_.fecha), cursor.getFecha()),
+                            cb.lessThan(root.get(Ingreso_.id), cursor.getId()))));
+        }
+        List<Ingreso> filas = ingresoRepository.findBy(specification, query -> query
+                .sortBy(Sort.by(Sort.Order.desc(Ingreso_.FECHA), Sort.Order.desc(Ingreso_.ID)))
+                .limit(size + 1)
+                .all());
+        return KeysetPage.of(filas, size, ingreso -> KeysetCursor.of(ingreso.getFecha(), ingreso.getId()))
+                .map(ingresoMapper::toDto);
+    }
+
     /**
      * Return the number of matching entities in the database.
      * 
@@ -0,0 +1,311 @@
+package com.ferronica.app.service;
+
+import com.ferronica.app.domain.enumeration.TipoMovimientoInventario;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Central entry point for every change to the stock
+ * ({@code existencia}) of {@link com.ferronica.app.domain.Articulo}.
+ * <p>
+ * Sales, returns and receipts never update the articulo row. Each change is
+ * appended, in a single statement, to the insert-only
+ * {@code movimiento_inventario} ledger (see {@link MovimientoInventarioService})
+ * and to {@code existencia_pendiente}; neither insert waits on another ticket
+ * selling the same articles, so the hot articles no longer serialize the
+ * checkouts.
+ * <p>
+ * Once the transaction commits, the pending rows are folded into
+ * {@code existencia} by {@link #consolidarPendientes()} on the
+ * {@code taskExecutor}: the affected rows are locked in ascending id order
+ * with {@code FOR NO KEY UPDATE} (which does not block the ledger inserts),
+ * updated with a single statement and an {@link ExistenciaCambiadaEvent} is
+ * published for the low-stock alerts and the caches. Requests arriving while a
+ * consolidation is queued are coalesced into it, and a periodic run picks up
+ * the rows committed by other instances. {@code existencia} therefore lags the
+ * ledger by the duration of one consolidation; the exact stock at any instant
+ * is {@link MovimientoInventarioService#existenciaAl}.
+ * <p>
+ * Manual stock edits are absolute and go through
+ * {@link #ajustarExistencia(Long, BigDecimal)}, which consolidates the
+ * articulo first. The statements bypass the Hibernate session: callers must
+ * not flush dirty {@code Articulo} entities afterwards, or they would
+ * overwrite the stock.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class InventoryService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InventoryService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate nuevaTransaccion;
+
+    private final Executor taskExecutor;
+
+    // Hay una consolidación encolada en el executor que aún no empezó
+    private final AtomicBoolean consolidacionProgramada = new AtomicBoolean();
+
+    public InventoryService(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager, @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.nuevaTransaccion = new TransactionTemplate(transactionManager);
+        this.nuevaTransaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Record stock deltas (positive to add, negative to subtract) of several
+     * articles. {@code existencia} is updated after the transaction commits.
+     *
+     * @param deltas       the quantity to add per article id.
+     * @param tipo         the origin of the change, recorded in the ledger.
+     * @param referenciaId the id of the originating document (venta, ingreso,
+     *                     devolucion), if any.
+     */
+    public void aplicarCambios(Map<Long, BigDecimal> deltas, TipoMovimientoInventario tipo, Long referenciaId) {
+        SortedMap<Long, BigDecimal> ordenados = ordenar(deltas);
+        if (ordenados.isEmpty()) {
+            return;
+        }
+        Long[] referencias = new Long[ordenados.size()];
+        Arrays.fill(referencias, referenciaId);
+        insertarMovimientos(ordenados.keySet().toArray(new Long[0]), ordenados.values().toArray(new BigDecimal[0]),
+                referencias, tipo, true);
+    }
+
+    /**
+     * Record the stock deltas of several documents at once (e.g. a batch of
+     * cancelled ventas), with one ledger row per document and article.
+     *
+     * @param deltasPorReferencia the deltas per article, keyed by document id.
+     * @param tipo                the origin of the change.
+     */
+    public void aplicarCambiosPorReferencia(Map<Long, Map<Long, BigDecimal>> deltasPorReferencia,
+            TipoMovimientoInventario tipo) {
+        List<Long> ids = new ArrayList<>();
+        List<BigDecimal> cantidades = new ArrayList<>();
+        List<Long> referencias = new ArrayList<>();
+        deltasPorReferencia.forEach((referenciaId, deltas) -> ordenar(deltas).forEach((articuloId, delta) -> {
+            ids.add(articuloId);
+            cantidades.add(delta);
+            referencias.add(referenciaId);
+        }));
+        if (ids.isEmpty()) {
+            return;
+        }
+        insertarMovimientos(ids.toArray(new Long[0]), cantidades.toArray(new BigDecimal[0]),
+                referencias.toArray(new Long[0]), tipo, true);
+    }
+
+    /**
+     * Record a stock delta of a single article.
+     *
+     * @param articuloId   the id of the article.
+     * @param delta        the quantity to add (negative to subtract).
+     * @param tipo         the origin of the change.
+     * @param referenciaId the id of the originating document, if any.
+     */
+    public void aplicarCambio(Long articuloId, BigDecimal delta, TipoMovimientoInventario tipo, Long referenciaId) {
+        aplicarCambios(Collections.singletonMap(articuloId, delta), tipo, referenciaId);
+    }
+
+    /**
+     * Append movements to the ledger without touching {@code existencia}, for
+     * stock already written through the entity (initial stock of new
+     * articles).
+     *
+     * @param deltas       the quantity added per article id.
+     * @param tipo         the origin of the change.
+     * @param referenciaId the id of the originating document, if any.
+     */
+    public void registrarMovimientos(Map<Long, BigDecimal> deltas, TipoMovimientoInventario tipo, Long referenciaId) {
+        SortedMap<Long, BigDecimal> ordenados = ordenar(deltas);
+        if (!ordenados.isEmpty()) {
+            Long[] referencias = new Long[ordenados.size()];
+            Arrays.fill(referencias, referenciaId);
+            insertarMovimientos(ordenados.keySet().toArray(new Long[0]),
+                    ordenados.values().toArray(new BigDecimal[0]), referencias, tipo, false);
+        }
+    }
+
+    /**
+     * Set the stock of an article to an absolute value (manual edit). Its
+     * pending deltas are consolidated first and the difference is recorded as
+     * an {@link TipoMovimientoInventario#AJUSTE} movement.
+     *
+     * @param articuloId the id of the article.
+     * @param existencia the new stock.
+     * @return the recorded adjustment, zero if the stock did not change.
+     */
+    public BigDecimal ajustarExistencia(Long articuloId, BigDecimal existencia) {
+        consolidar(Collections.singletonList(articuloId));
+        BigDecimal actual = jdbcTemplate.queryForObject("SELECT existencia FROM articulo WHERE id = ?",
+                BigDecimal.class, articuloId);
+        BigDecimal delta = existencia.subtract(actual != null ? actual : BigDecimal.ZERO);
+        if (delta.signum() != 0) {
+            actualizarExistencias(new TreeMap<>(Collections.singletonMap(articuloId, delta)));
+            registrarMovimientos(Collections.singletonMap(articuloId, delta), TipoMovimientoInventario.AJUSTE, null);
+        }
+        return delta;
+    }
+
+    /**
+     * Fold the pending deltas of some articles, or of all of them, into
+     * {@code existencia} within the current transaction.
+     *
+     * @param articuloIds the ids of the articles, or {@code null} for all.
+     * @return the number of articles updated.
+     */
+    public int consolidar(Collection<Long> articuloIds) {
+        // 1. Artículos a consolidar, bloqueados en orden ascendente antes de tocar sus pendientes: el ajuste
+        // manual toma los bloqueos en el mismo orden
+        List<Long> ids = articuloIds != null
+                ? articuloIds.stream().distinct().sorted().toList()
+                : jdbcTemplate.queryForList("SELECT DISTINCT articulo_id FROM existencia_pendiente ORDER BY 1",
+                        Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Long[] bloqueados = jdbcTemplate.query(
+                "SELECT id FROM articulo WHERE id = ANY(?) ORDER BY id FOR NO KEY UPDATE",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())),
+                (rs, rowNum) -> rs.getLong(1)).toArray(new Long[0]);
+
+        // 2. Retirar sus pendientes confirmados, sumados por artículo
+        Map<Long, BigDecimal> totales = new HashMap<>();
+        RowCallbackHandler sumar = rs -> totales.merge(rs.getLong(1), rs.getBigDecimal(2), BigDecimal::add);
+        jdbcTemplate.query("DELETE FROM existencia_pendiente WHERE articulo_id = ANY(?) "
+                + "RETURNING articulo_id, cantidad",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", bloqueados)), sumar);
+
+        // 3. Un solo UPDATE con el total de cada artículo
+        SortedMap<Long, BigDecimal> ordenados = ordenar(totales);
+        if (!ordenados.isEmpty()) {
+            actualizarExistencias(ordenados);
+        }
+        return ordenados.size();
+    }
+
+    /**
+     * Consolidate every pending delta in a new transaction. Runs after each
+     * commit that recorded deltas and periodically, for the deltas committed
+     * by other instances or left behind by a failed run.
+     */
+    @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.SECONDS)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void consolidarPendientes() {
+        consolidacionProgramada.set(false);
+        try {
+            Integer articulos = nuevaTransaccion.execute(status -> consolidar(null));
+            if (articulos != null && articulos > 0) {
+                LOG.debug("Existencia consolidada de {} artículos", articulos);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("No se pudo consolidar la existencia pendiente: {}", e.getMessage());
+        }
+    }
+
+    private void actualizarExistencias(SortedMap<Long, BigDecimal> ordenados) {
+        LOG.debug("Aplicando cambios de stock: {}", ordenados);
+
+        Long[] ids = ordenados.keySet().toArray(new Long[0]);
+        BigDecimal[] cantidades = ordenados.values().toArray(new BigDecimal[0]);
+        jdbcTemplate.update("UPDATE articulo a SET existencia = a.existencia + c.delta "
+                + "FROM unnest(?, ?) AS c(id, delta) WHERE a.id = c.id",
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids));
+                    ps.setArray(2, ps.getConnection().createArrayOf("numeric", cantidades));
+                });
+
+        eventPublisher.publishEvent(new ExistenciaCambiadaEvent(ordenados.keySet()));
+    }
+
+    private void insertarMovimientos(Long[] ids, BigDecimal[] cantidades, Long[] referencias,
+            TipoMovimientoInventario tipo, boolean pendiente) {
+        // Las fechas de la bitácora se guardan en UTC, igual que las columnas escritas por Hibernate
+        LocalDateTime fecha = LocalDateTime.ofInstant(Instant.now(), ZoneOffset.UTC);
+        String movimientos = "INSERT INTO movimiento_inventario (fecha, tipo, cantidad, referencia_id, articulo_id) "
+                + "SELECT ?, ?, c.delta, c.referencia, c.id FROM unnest(?, ?, ?) AS c(id, delta, referencia)";
+        jdbcTemplate.update(pendiente
+                ? "WITH m AS (" + movimientos + " RETURNING articulo_id, cantidad) "
+                        + "INSERT INTO existencia_pendiente (articulo_id, cantidad) SELECT articulo_id, cantidad FROM m"
+                : movimientos,
+                ps -> {
+                    ps.setObject(1, fecha);
+                    ps.setString(2, tipo.name());
+                    ps.setArray(3, ps.getConnection().createArrayOf("bigint", ids));
+                    ps.setArray(4, ps.getConnection().createArrayOf("numeric", cantidades));
+                    ps.setArray(5, ps.getConnection().createArrayOf("bigint", referencias));
+                });
+        if (pendiente) {
+            programarConsolidacion();
+        }
+    }
+
+    /**
+     * Queue a consolidation on the {@code taskExecutor} once the current
+     * transaction commits; a rollback leaves nothing to consolidate.
+     */
+    private void programarConsolidacion() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (!consolidacionProgramada.compareAndSet(false, true)) {
+                    return;
+                }
+                try {
+                    taskExecutor.execute(InventoryService.this::consolidarPendientes);
+                } catch (RejectedExecutionException e) {
+                    // La ejecución periódica la recoge
+                    consolidacionProgramada.set(false);
+                    LOG.warn("Consolidación de existencia rechazada por el executor: {}", e.getMessage());
+                }
+            }
+        });
+    }
+
+    private static SortedMap<Long, BigDecimal> ordenar(Map<Long, BigDecimal> deltas) {
+        SortedMap<Long, BigDecimal> ordenados = new TreeMap<>();
+        deltas.forEach((articuloId, delta) -> {
+            if (articuloId != null && delta != null && delta.signum() != 0) {
+                ordenados.put(articuloId, delta);
+            }
+        });
+        return ordenados;
+    }
+}
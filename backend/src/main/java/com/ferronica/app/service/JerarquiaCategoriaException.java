@@ -0,0 +1,18 @@
+package com.ferronica.app.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a categoria would be moved under itself or under one of its
+ * descendants.
+ */
+@ResponseStatus(code = HttpStatus.BAD_REQUEST)
+public class JerarquiaCategoriaException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public JerarquiaCategoriaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,74 @@
+package com.ferronica.app.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset (seek) page: its {@code fecha} (for
+ * listings ordered by date) and its {@code id}. Clients only see it as an
+ * opaque token produced by {@link #encode()}.
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARADOR = "|";
+
+    private final Instant fecha;
+
+    private final Long id;
+
+    private KeysetCursor(Instant fecha, Long id) {
+        this.fecha = fecha;
+        this.id = id;
+    }
+
+    public static KeysetCursor of(Instant fecha, Long id) {
+        return new KeysetCursor(fecha, id);
+    }
+
+    public static KeysetCursor of(Long id) {
+        return new KeysetCursor(null, id);
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}.
+     *
+     * @param token the token, may be blank for the first page.
+     * @return the cursor, or {@code null} if the token is blank.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = valor.indexOf(SEPARADOR);
+            if (separador < 0) {
+                return of(Long.valueOf(valor));
+            }
+            return of(Instant.parse(valor.substring(0, separador)), Long.valueOf(valor.substring(separador + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        String valor = fecha != null ? fecha + SEPARADOR + id : String.valueOf(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Instant getFecha() {
+        return fecha;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor{fecha=" + fecha + ", id=" + id + "}";
+    }
+}
@@ -0,0 +1,56 @@
+package com.ferronica.app.service;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (seek) listing: the rows plus the cursor of the next
+ * page. No total count is computed.
+ *
+ * @param <T> the type of the rows.
+ */
+public final class KeysetPage<T> {
+
+    private final List<T> content;
+
+    private final KeysetCursor next;
+
+    private KeysetPage(List<T> content, KeysetCursor next) {
+        this.content = content;
+        this.next = next;
+    }
+
+    /**
+     * Build a page from the rows of a query that asked for {@code size + 1}
+     * rows: the extra row only tells that a next page exists.
+     *
+     * @param filas  the rows returned by the query.
+     * @param size   the requested page size.
+     * @param cursor extracts the cursor of a row.
+     * @param <T>    the type of the rows.
+     * @return the page.
+     */
+    public static <T> KeysetPage<T> of(List<T> filas, int size, Function<T, KeysetCursor> cursor) {
+        if (filas.size() <= size) {
+            return new KeysetPage<>(filas, null);
+        }
+        List<T> content = filas.subList(0, size);
+        return new KeysetPage<>(content, cursor.apply(content.get(size - 1)));
+    }
+
+    public <R> KeysetPage<R> map(Function<T, R> mapper) {
+        return new KeysetPage<>(content.stream().map(mapper).toList(), next);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public KeysetCursor getNext() {
+        return next;
+    }
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
@@ -0,0 +1,89 @@
+package com.ferronica.app.service;
+
+import com.ferronica.app.domain.MovimientoInventario;
+import com.ferronica.app.domain.enumeration.TipoMovimientoInventario;
+import com.ferronica.app.repository.MovimientoInventarioRepository;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reads and compacts the {@code movimiento_inventario} ledger.
+ * <p>
+ * The stock of an articulo at a given instant is its latest
+ * {@link TipoMovimientoInventario#SNAPSHOT} row up to that instant plus the
+ * deltas recorded after it. Compaction periodically writes a new snapshot per
+ * articulo so that reads only scan the movements of the last period.
+ */
+@Service
+@Transactional
+public class MovimientoInventarioService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MovimientoInventarioService.class);
+
+    /**
+     * Movements are stamped when written but only become visible on commit;
+     * the snapshot cut-off stays this far behind so a slow transaction cannot
+     * commit a movement older than an existing snapshot.
+     */
+    private static final Duration MARGEN_COMPACTACION = Duration.ofMinutes(10);
+
+    private final MovimientoInventarioRepository movimientoInventarioRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MovimientoInventarioService(MovimientoInventarioRepository movimientoInventarioRepository,
+            JdbcTemplate jdbcTemplate) {
+        this.movimientoInventarioRepository = movimientoInventarioRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Get the stock of an articulo at a given instant.
+     *
+     * @param articuloId the id of the articulo.
+     * @param fecha      the instant.
+     * @return the existencia at {@code fecha}.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal existenciaAl(Long articuloId, Instant fecha) {
+        LOG.debug("Request to get existencia of Articulo {} at {}", articuloId, fecha);
+        MovimientoInventario snapshot = movimientoInventarioRepository
+                .findFirstByArticuloIdAndTipoAndFechaLessThanEqualOrderByFechaDesc(articuloId,
+                        TipoMovimientoInventario.SNAPSHOT, fecha)
+                .orElse(null);
+        BigDecimal base = snapshot != null ? snapshot.getCantidad() : BigDecimal.ZERO;
+        Instant desde = snapshot != null ? snapshot.getFecha() : Instant.EPOCH;
+        return base.add(movimientoInventarioRepository.sumarMovimientos(articuloId, desde, fecha));
+    }
+
+    /**
+     * Write a snapshot for every articulo that moved since its last one, in a
+     * single statement.
+     */
+    @Scheduled(cron = "0 15 3 * * *")
+    public void compactar() {
+        // Las fechas de la bitácora se guardan en UTC
+        LocalDateTime corte = LocalDateTime.ofInstant(Instant.now().minus(MARGEN_COMPACTACION), ZoneOffset.UTC);
+        int snapshots = jdbcTemplate.update(
+                "INSERT INTO movimiento_inventario (fecha, tipo, cantidad, articulo_id) "
+                        + "SELECT ?, 'SNAPSHOT', coalesce(s.cantidad, 0) + d.total, a.id FROM articulo a "
+                        + "LEFT JOIN LATERAL (SELECT fecha, cantidad FROM movimiento_inventario "
+                        + "WHERE articulo_id = a.id AND tipo = 'SNAPSHOT' AND fecha <= ? "
+                        + "ORDER BY fecha DESC LIMIT 1) s ON true "
+                        + "CROSS JOIN LATERAL (SELECT sum(cantidad) AS total FROM movimiento_inventario "
+                        + "WHERE articulo_id = a.id AND tipo <> 'SNAPSHOT' "
+                        + "AND fecha > coalesce(s.fecha, '-infinity') AND fecha <= ?) d "
+                        + "WHERE d.total IS NOT NULL",
+                corte, corte, corte);
+        LOG.info("Compactacion de inventario hasta {}: {} snapshots", corte, snapshots);
+    }
+}
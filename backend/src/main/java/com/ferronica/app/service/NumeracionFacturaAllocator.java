@@ -0,0 +1,163 @@
+package com.ferronica.app.service;
+
+import com.ferronica.app.domain.NumeracionFactura;
+import com.ferronica.app.service.dto.NumeracionFacturaEstadoDTO;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Allocates invoice numbers for {@link NumeracionFactura} series.
+ * <p>
+ * Each series is backed by its own Postgres sequence
+ * ({@code numeracion_factura_seq_<id>}), so concurrent sales never wait on the
+ * {@code numeracion_factura} row. {@code correlativoActual} is caught up
+ * periodically from the sequences and is therefore only eventually consistent.
+ * Numbers taken by transactions that roll back are lost, which is reported as
+ * gaps by {@link #estado()}.
+ */
+@Service
+@Transactional
+public class NumeracionFacturaAllocator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NumeracionFacturaAllocator.class);
+
+    private static final String PREFIJO_SECUENCIA = "numeracion_factura_seq_";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Set<Long> secuenciasVerificadas = ConcurrentHashMap.newKeySet();
+
+    public NumeracionFacturaAllocator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Take the next invoice number of a series.
+     *
+     * @param numeracion the series.
+     * @return the allocated number.
+     */
+    public long siguienteNumero(NumeracionFactura numeracion) {
+        asegurarSecuencia(numeracion);
+        Long numero = jdbcTemplate.queryForObject("SELECT nextval('" + nombreSecuencia(numeracion.getId()) + "')",
+                Long.class);
+        LOG.debug("Numero {} asignado a la serie {}", numero, numeracion.getSerie());
+        return numero;
+    }
+
+    /**
+     * Move the sequence of a series forward to its {@code correlativoActual}, used
+     * when an administrator creates a series or edits its counter. The sequence is
+     * never moved backwards, so already issued numbers cannot be handed out again.
+     *
+     * @param numeracion the series.
+     */
+    public void ajustarSecuencia(NumeracionFactura numeracion) {
+        if (numeracion.getId() == null || numeracion.getCorrelativoActual() == null) {
+            return;
+        }
+        asegurarSecuencia(numeracion);
+        long ultimo = ultimoAsignado(numeracion.getId());
+        if (numeracion.getCorrelativoActual() > ultimo) {
+            LOG.debug("Ajustando secuencia de la serie {}: {} -> {}", numeracion.getSerie(), ultimo,
+                    numeracion.getCorrelativoActual());
+            jdbcTemplate.queryForObject("SELECT setval('" + nombreSecuencia(numeracion.getId()) + "', ?, true)",
+                    Long.class, numeracion.getCorrelativoActual());
+        }
+    }
+
+    /**
+     * Copy the last allocated number of each sequence into
+     * {@code numeracion_factura.correlativo_actual}.
+     */
+    @Scheduled(fixedDelay = 30, timeUnit = TimeUnit.SECONDS)
+    public void sincronizarCorrelativos() {
+        jdbcTemplate
+                .queryForList("SELECT id FROM numeracion_factura", Long.class)
+                .forEach(id -> {
+                    if (!existeSecuencia(id)) {
+                        return;
+                    }
+                    long ultimo = ultimoAsignado(id);
+                    jdbcTemplate.update("UPDATE numeracion_factura SET correlativo_actual = ? "
+                            + "WHERE id = ? AND correlativo_actual < ?", ultimo, id, ultimo);
+                });
+    }
+
+    /**
+     * Report, for each series, how far {@code correlativoActual} lags behind the
+     * sequence and how many allocated numbers were never used by a venta.
+     *
+     * @return the state of every series.
+     */
+    @Transactional(readOnly = true)
+    public List<NumeracionFacturaEstadoDTO> estado() {
+        Map<Long, Map<String, Object>> usoPorSerie = jdbcTemplate
+                .queryForList(
+                        "SELECT numeracion_id, count(*) AS emitidas, min(no_factura) AS primera FROM venta "
+                                + "WHERE numeracion_id IS NOT NULL GROUP BY numeracion_id")
+                .stream()
+                .collect(Collectors.toMap(row -> ((Number) row.get("numeracion_id")).longValue(), Function.identity()));
+
+        String sql = "SELECT id, serie, correlativo_actual FROM numeracion_factura ORDER BY id";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            NumeracionFacturaEstadoDTO estado = new NumeracionFacturaEstadoDTO();
+            long id = rs.getLong("id");
+            long correlativo = rs.getLong("correlativo_actual");
+            long ultimo = existeSecuencia(id) ? ultimoAsignado(id) : correlativo;
+            Map<String, Object> uso = usoPorSerie.get(id);
+            long emitidas = uso != null ? ((Number) uso.get("emitidas")).longValue() : 0L;
+
+            estado.setNumeracionId(id);
+            estado.setSerie(rs.getString("serie"));
+            estado.setCorrelativoActual(correlativo);
+            estado.setUltimoAsignado(ultimo);
+            estado.setFacturasEmitidas(emitidas);
+            // Números entre la primera factura y el último asignado que ninguna venta usa
+            long primera = uso != null ? ((Number) uso.get("primera")).longValue() : ultimo + 1;
+            estado.setHuecos(Math.max(0L, ultimo - primera + 1 - emitidas));
+            return estado;
+        });
+    }
+
+    private void asegurarSecuencia(NumeracionFactura numeracion) {
+        Long id = numeracion.getId();
+        if (secuenciasVerificadas.contains(id)) {
+            return;
+        }
+        if (existeSecuencia(id)) {
+            secuenciasVerificadas.add(id);
+            return;
+        }
+        // Se crea dentro de la transacción actual; no se cachea hasta verla confirmada
+        long inicio = (numeracion.getCorrelativoActual() != null ? numeracion.getCorrelativoActual() : 0L) + 1;
+        LOG.info("Creando secuencia {} desde {}", nombreSecuencia(id), inicio);
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + nombreSecuencia(id) + " START WITH " + inicio);
+    }
+
+    private boolean existeSecuencia(Long id) {
+        return Boolean.TRUE.equals(
+                jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, nombreSecuencia(id)));
+    }
+
+    private long ultimoAsignado(Long id) {
+        return jdbcTemplate.queryForObject(
+                "SELECT CASE WHEN is_called THEN last_value ELSE last_value - 1 END FROM " + nombreSecuencia(id),
+                Long.class);
+    }
+
+    private static String nombreSecuencia(Long id) {
+        return PREFIJO_SECUENCIA + id;
+    }
+}
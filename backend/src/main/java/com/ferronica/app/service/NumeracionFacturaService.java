@@ -1,6 +1,7 @@
 package com.ferronica.app.service;
 
 import com.ferronica.app.service.dto.NumeracionFacturaDTO;
+import com.ferronica.app.service.dto.NumeracionFacturaEstadoDTO;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,4 +54,11 @@ public interface NumeracionFacturaService {
      * @param id the id of the entity.
      */
     void delete(Long id);
+
+    /**
+     * Get the allocation state (pending sync and gaps) of every series.
+     *
+     * @return the list of states.
+     */
+    List<NumeracionFacturaEstadoDTO> findEstado();
 }
@@ -0,0 +1,118 @@
+package com.ferronica.app.service;
+
+import com.ferronica.app.domain.DetalleIngreso;
+import com.ferronica.app.domain.enumeration.TipoMovimientoInventario;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Posts the lines of a purchase ({@link com.ferronica.app.domain.Ingreso}) to
+ * the {@link com.ferronica.app.domain.Articulo}s they receive.
+ * <p>
+ * Whatever the number of lines, the articulos are locked with one
+ * {@code SELECT ... FOR NO KEY UPDATE} in ascending id order (ledger inserts of
+ * concurrent sales do not wait on it), their cost is set with
+ * one {@code UPDATE} and their stock is added through {@link InventoryService}.
+ * When several lines receive the same articulo, its new cost is the average of
+ * the unit costs of the lines that have one, weighted by their quantity; lines
+ * without cost add stock only. The previous cost is kept in
+ * {@code ultimoCosto} when the new one is higher.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class RecepcionIngresoService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RecepcionIngresoService.class);
+
+    private static final String SQL_BLOQUEAR = "SELECT id FROM articulo WHERE id = ANY(?) ORDER BY id FOR NO KEY UPDATE";
+
+    private static final String SQL_COSTOS = "UPDATE articulo a SET ultimo_costo = CASE "
+            + "WHEN c.costo > coalesce(a.costo, 0) THEN coalesce(a.costo, 0) ELSE a.ultimo_costo END, "
+            + "costo = c.costo FROM unnest(?, ?) AS c(id, costo) WHERE a.id = c.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final InventoryService inventoryService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RecepcionIngresoService(JdbcTemplate jdbcTemplate, InventoryService inventoryService,
+            ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.inventoryService = inventoryService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Apply the cost and the quantity of received lines to their articulos.
+     *
+     * @param detalles  the received lines; lines without articulo are skipped.
+     * @param ingresoId the id of the Ingreso, recorded in the stock ledger.
+     */
+    public void recibir(Collection<DetalleIngreso> detalles, Long ingresoId) {
+        // Cantidad y costo total recibido por artículo, en orden de id; el promedio solo cuenta líneas con costo
+        SortedMap<Long, BigDecimal> cantidades = new TreeMap<>();
+        Map<Long, BigDecimal> cantidadesCosteadas = new HashMap<>();
+        Map<Long, BigDecimal> importes = new HashMap<>();
+        Map<Long, BigDecimal> costoLinea = new HashMap<>();
+        for (DetalleIngreso detalle : detalles) {
+            if (detalle.getArticulo() == null || detalle.getArticulo().getId() == null) {
+                continue;
+            }
+            Long articuloId = detalle.getArticulo().getId();
+            BigDecimal cantidad = detalle.getCantidad() != null ? detalle.getCantidad() : BigDecimal.ZERO;
+            cantidades.merge(articuloId, cantidad, BigDecimal::add);
+            if (detalle.getCostoUnitario() != null) {
+                cantidadesCosteadas.merge(articuloId, cantidad, BigDecimal::add);
+                importes.merge(articuloId, detalle.getCostoUnitario().multiply(cantidad), BigDecimal::add);
+                costoLinea.put(articuloId, detalle.getCostoUnitario());
+            }
+        }
+        if (cantidades.isEmpty()) {
+            return;
+        }
+
+        // 1. Bloqueo de todos los artículos en orden ascendente de id
+        Long[] ids = cantidades.keySet().toArray(new Long[0]);
+        jdbcTemplate.query(SQL_BLOQUEAR, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)),
+                (rs, rowNum) -> rs.getLong(1));
+
+        // 2. Costo nuevo calculado en memoria y escrito con un solo UPDATE
+        SortedMap<Long, BigDecimal> costos = new TreeMap<>();
+        costoLinea.forEach((articuloId, costo) -> {
+            BigDecimal cantidad = cantidadesCosteadas.get(articuloId);
+            costos.put(articuloId, cantidad.signum() > 0
+                    ? importes.get(articuloId).divide(cantidad, 2, RoundingMode.HALF_UP)
+                    : costo);
+        });
+        if (!costos.isEmpty()) {
+            Long[] idsCosto = costos.keySet().toArray(new Long[0]);
+            BigDecimal[] valores = costos.values().toArray(new BigDecimal[0]);
+            jdbcTemplate.update(SQL_COSTOS, ps -> {
+                ps.setArray(1, ps.getConnection().createArrayOf("bigint", idsCosto));
+                ps.setArray(2, ps.getConnection().createArrayOf("numeric", valores));
+            });
+        }
+
+        // 3. Bitácora y existencia pendiente; la existencia se consolida al confirmar
+        inventoryService.aplicarCambios(cantidades, TipoMovimientoInventario.INGRESO, ingresoId);
+
+        // InventoryService solo avisa de la existencia: el cambio de costo es del catálogo
+        if (!costos.isEmpty()) {
+            eventPublisher.publishEvent(new ExistenciaCambiadaEvent(costos.keySet()));
+        }
+        LOG.debug("Ingreso {} recibido: {} artículos, costos {}", ingresoId, cantidades.size(), costos);
+    }
+}
@@ -0,0 +1,401 @@
+package com.ferronica.app.service;
+
+import com.ferronica.app.repository.IngresoRepository;
+import com.ferronica.app.service.dto.CompraArticuloProveedorDTO;
+import com.ferronica.app.service.dto.CompraProveedorDTO;
+import com.ferronica.app.service.dto.GananciaArticuloDTO;
+import com.ferronica.app.service.dto.GananciaCategoriaDTO;
+import com.ferronica.app.service.dto.GananciaPeriodoDTO;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Aggregated reports, computed by the database and returned one page at a time.
+ * <p>
+ * Rows come in a fixed order (largest amount or profit first, periods in
+ * chronological order), so the sort of the requested page is ignored.
+ * <p>
+ * Profit is the {@code monto} of the lines of the non-cancelled ventas less
+ * their cost at the time of sale ({@code detalle_venta.costo_unitario}). A
+ * return counts in the period it was registered, at the net price and the
+ * cost of the lines of its venta.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ReporteService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReporteService.class);
+
+    /**
+     * Granularity of {@link #gananciasPorPeriodo}.
+     */
+    public enum Periodo {
+        DIA,
+        SEMANA,
+        MES,
+    }
+
+    // Líneas vendidas y devueltas del rango (parámetros: desde, hasta, desde, hasta); las devueltas, en negativo
+    private static final String SQL_LINEAS = "WITH lineas AS ("
+            + "SELECT d.articulo_id, d.venta_fecha AS fecha, d.cantidad, d.monto, "
+            + "d.cantidad * coalesce(d.costo_unitario, 0) AS costo "
+            + "FROM detalle_venta d JOIN venta v ON v.id = d.venta_id AND v.fecha = d.venta_fecha "
+            + "WHERE d.venta_fecha >= ? AND d.venta_fecha < ? AND coalesce(v.anulada, false) = false "
+            + "UNION ALL "
+            + "SELECT dd.articulo_id, dev.fecha, -dd.cantidad, -dd.cantidad * l.monto / l.cantidad, "
+            + "-dd.cantidad * l.costo / l.cantidad "
+            + "FROM detalle_devolucion dd "
+            + "JOIN devolucion dev ON dev.id = dd.devolucion_id "
+            + "JOIN venta v ON v.id = dev.venta_id "
+            + "CROSS JOIN LATERAL (SELECT sum(x.cantidad) AS cantidad, sum(x.monto) AS monto, "
+            + "sum(x.cantidad * coalesce(x.costo_unitario, 0)) AS costo FROM detalle_venta x "
+            + "WHERE x.venta_id = v.id AND x.venta_fecha = v.fecha AND x.articulo_id = dd.articulo_id) l "
+            + "WHERE dev.fecha >= ? AND dev.fecha < ? AND coalesce(v.anulada, false) = false AND l.cantidad > 0) ";
+
+    private static final String SQL_GANANCIA_ARTICULOS = SQL_LINEAS
+            + "SELECT a.id, a.codigo, a.nombre, c.nombre AS categoria, sum(l.cantidad) AS cantidad, "
+            + "sum(l.monto) AS ventas, sum(l.costo) AS costo, count(*) OVER () AS filas "
+            + "FROM lineas l JOIN articulo a ON a.id = l.articulo_id LEFT JOIN categoria c ON c.id = a.categoria_id ";
+
+    private static final String SQL_FILTRO_SUBARBOL = "WHERE a.categoria_id IN "
+            + "(SELECT descendiente_id FROM categoria_jerarquia WHERE ancestro_id = ?) ";
+
+    private static final String SQL_GRUPO_ARTICULOS = "GROUP BY a.id, a.codigo, a.nombre, c.nombre";
+
+    private static final String SQL_GANANCIA_CATEGORIAS = SQL_LINEAS
+            + "SELECT c.id, c.nombre, sum(l.cantidad) AS cantidad, sum(l.monto) AS ventas, sum(l.costo) AS costo, "
+            + "count(*) OVER () AS filas "
+            + "FROM lineas l JOIN articulo a ON a.id = l.articulo_id LEFT JOIN categoria c ON c.id = a.categoria_id "
+            + "GROUP BY c.id, c.nombre";
+
+    // Mayor utilidad primero; el id desempata para que las páginas sean estables
+    private static final String SQL_ORDEN_UTILIDAD = " ORDER BY sum(l.monto) - sum(l.costo) DESC, 1 LIMIT ? OFFSET ?";
+
+    // Un período por par de límites; los períodos sin movimientos salen en cero
+    private static final String SQL_GANANCIA_PERIODOS = SQL_LINEAS
+            + "SELECT p.inicio, coalesce(sum(l.cantidad), 0) AS cantidad, coalesce(sum(l.monto), 0) AS ventas, "
+            + "coalesce(sum(l.costo), 0) AS costo "
+            + "FROM unnest(?, ?) AS p(inicio, fin) LEFT JOIN lineas l ON l.fecha >= p.inicio AND l.fecha < p.fin "
+            + "GROUP BY p.inicio ORDER BY p.inicio";
+
+    private static final String SQL_PRIMERA_VENTA = "SELECT min(fecha) FROM venta";
+
+    private final IngresoRepository ingresoRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReporteService(IngresoRepository ingresoRepository, JdbcTemplate jdbcTemplate) {
+        this.ingresoRepository = ingresoRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Get the purchases of each proveedor between two instants.
+     *
+     * @param desde    the first instant, inclusive; {@code null} for no lower bound.
+     * @param hasta    the last instant, exclusive; {@code null} for now.
+     * @param pageable the page.
+     * @return the proveedores with purchases in the range, largest total first.
+     */
+    public Page<CompraProveedorDTO> comprasPorProveedor(Instant desde, Instant hasta, Pageable pageable) {
+        LOG.debug("Request to get purchases by proveedor from {} to {}", desde, hasta);
+        return ingresoRepository
+                .sumComprasPorProveedor(inicio(desde), fin(hasta), sinOrden(pageable))
+                .map(fila -> {
+                    CompraProveedorDTO dto = new CompraProveedorDTO();
+                    dto.setProveedorId((Long) fila[0]);
+                    dto.setNombre((String) fila[1]);
+                    dto.setRuc((String) fila[2]);
+                    dto.setCompras((Long) fila[3]);
+                    dto.setTotal((BigDecimal) fila[4]);
+                    dto.setUltimaCompra((Instant) fila[5]);
+                    return dto;
+                });
+    }
+
+    /**
+     * Get the articulos bought from a proveedor between two instants.
+     *
+     * @param proveedorId the id of the proveedor.
+     * @param desde       the first instant, inclusive; {@code null} for no lower bound.
+     * @param hasta       the last instant, exclusive; {@code null} for now.
+     * @param pageable    the page.
+     * @return the articulos received in the range, largest total first.
+     */
+    public Page<CompraArticuloProveedorDTO> comprasPorArticulo(Long proveedorId, Instant desde, Instant hasta,
+            Pageable pageable) {
+        LOG.debug("Request to get purchases of proveedor {} by articulo from {} to {}", proveedorId, desde, hasta);
+        return ingresoRepository
+                .sumComprasPorArticulo(proveedorId, inicio(desde), fin(hasta), sinOrden(pageable))
+                .map(fila -> {
+                    CompraArticuloProveedorDTO dto = new CompraArticuloProveedorDTO();
+                    dto.setArticuloId((Long) fila[0]);
+                    dto.setCodigo((String) fila[1]);
+                    dto.setNombre((String) fila[2]);
+                    dto.setCompras((Long) fila[3]);
+                    dto.setCantidad((BigDecimal) fila[4]);
+                    dto.setTotal((BigDecimal) fila[5]);
+                    dto.setUltimaCompra((Instant) fila[6]);
+                    if (dto.getCantidad() != null && dto.getCantidad().signum() != 0 && dto.getTotal() != null) {
+                        dto.setCostoPromedio(dto.getTotal().divide(dto.getCantidad(), 2, RoundingMode.HALF_UP));
+                    }
+                    return dto;
+                });
+    }
+
+    /**
+     * Get the gross profit of each articulo between two instants.
+     *
+     * @param desde       the first instant, inclusive; {@code null} for no lower bound.
+     * @param hasta       the last instant, exclusive; {@code null} for now.
+     * @param categoriaId the categoria whose subtree the articulos must belong to;
+     *                    {@code null} for all articulos.
+     * @param pageable    the page.
+     * @return the articulos sold or returned in the range, most profitable first.
+     */
+    public Page<GananciaArticuloDTO> gananciasPorArticulo(Instant desde, Instant hasta, Long categoriaId,
+            Pageable pageable) {
+        LOG.debug("Request to get profit by articulo from {} to {} in categoria {}", desde, hasta, categoriaId);
+        List<Object> parametros = parametrosLineas(inicio(desde), fin(hasta));
+        String sql = SQL_GANANCIA_ARTICULOS;
+        if (categoriaId != null) {
+            sql += SQL_FILTRO_SUBARBOL;
+            parametros.add(categoriaId);
+        }
+        return pagina(sql + SQL_GRUPO_ARTICULOS, parametros, pageable, (rs, rowNum) -> {
+            GananciaArticuloDTO dto = new GananciaArticuloDTO();
+            dto.setArticuloId(rs.getLong("id"));
+            dto.setCodigo(rs.getString("codigo"));
+            dto.setNombre(rs.getString("nombre"));
+            dto.setCategoria(rs.getString("categoria"));
+            dto.setCantidad(rs.getBigDecimal("cantidad"));
+            dto.setVentas(redondear(rs.getBigDecimal("ventas")));
+            dto.setCosto(redondear(rs.getBigDecimal("costo")));
+            dto.setUtilidad(dto.getVentas().subtract(dto.getCosto()));
+            dto.setMargen(margen(dto.getUtilidad(), dto.getVentas()));
+            return dto;
+        });
+    }
+
+    /**
+     * Get the gross profit of the articulos of each categoria between two instants.
+     *
+     * @param desde    the first instant, inclusive; {@code null} for no lower bound.
+     * @param hasta    the last instant, exclusive; {@code null} for now.
+     * @param pageable the page.
+     * @return the categorias with articulos sold or returned in the range, most profitable first.
+     */
+    public Page<GananciaCategoriaDTO> gananciasPorCategoria(Instant desde, Instant hasta, Pageable pageable) {
+        LOG.debug("Request to get profit by categoria from {} to {}", desde, hasta);
+        return pagina(SQL_GANANCIA_CATEGORIAS, parametrosLineas(inicio(desde), fin(hasta)), pageable,
+                (rs, rowNum) -> {
+                    GananciaCategoriaDTO dto = new GananciaCategoriaDTO();
+                    dto.setCategoriaId(rs.getObject("id", Long.class));
+                    dto.setNombre(rs.getString("nombre"));
+                    dto.setCantidad(rs.getBigDecimal("cantidad"));
+                    dto.setVentas(redondear(rs.getBigDecimal("ventas")));
+                    dto.setCosto(redondear(rs.getBigDecimal("costo")));
+                    dto.setUtilidad(dto.getVentas().subtract(dto.getCosto()));
+                    dto.setMargen(margen(dto.getUtilidad(), dto.getVentas()));
+                    return dto;
+                });
+    }
+
+    /**
+     * Get the gross profit of each period between two instants, in chronological
+     * order. Periods start at midnight, on Monday or on the first day of the
+     * month in the given zone; the first and the last are cut to the range.
+     *
+     * @param desde    the first instant, inclusive; {@code null} for the first venta.
+     * @param hasta    the last instant, exclusive; {@code null} for now.
+     * @param periodo  the length of the periods.
+     * @param zona     the zone the periods are measured in.
+     * @param pageable the page, counted in periods.
+     * @return the periods of the page, including those without movements.
+     */
+    public Page<GananciaPeriodoDTO> gananciasPorPeriodo(Instant desde, Instant hasta, Periodo periodo, ZoneId zona,
+            Pageable pageable) {
+        LOG.debug("Request to get profit by {} from {} to {} in {}", periodo, desde, hasta, zona);
+        Instant fin = fin(hasta);
+        Instant inicio = desde;
+        if (inicio == null) {
+            LocalDateTime primeraVenta = jdbcTemplate.queryForObject(SQL_PRIMERA_VENTA, LocalDateTime.class);
+            inicio = primeraVenta != null ? primeraVenta.toInstant(ZoneOffset.UTC) : fin;
+        }
+        List<Instant> limites = limites(inicio, fin, periodo, zona);
+        int periodos = Math.max(limites.size() - 1, 0);
+        int desdePeriodo = (int) Math.min(pageable.getOffset(), periodos);
+        int hastaPeriodo = Math.min(desdePeriodo + pageable.getPageSize(), periodos);
+        if (desdePeriodo == hastaPeriodo) {
+            return new PageImpl<>(Collections.emptyList(), pageable, periodos);
+        }
+        return new PageImpl<>(ganancias(limites.subList(desdePeriodo, hastaPeriodo + 1)), pageable, periodos);
+    }
+
+    /**
+     * Get the gross profit between two instants, as one period.
+     *
+     * @param desde the first instant, inclusive; {@code null} for no lower bound.
+     * @param hasta the last instant, exclusive; {@code null} for now.
+     * @return the totals of the range.
+     */
+    public GananciaPeriodoDTO resumenGanancias(Instant desde, Instant hasta) {
+        LOG.debug("Request to get profit from {} to {}", desde, hasta);
+        return ganancias(List.of(inicio(desde), fin(hasta))).get(0);
+    }
+
+    /**
+     * Ganancia de los períodos consecutivos delimitados por los límites dados,
+     * en una sola consulta restringida a su rango.
+     */
+    private List<GananciaPeriodoDTO> ganancias(List<Instant> limites) {
+        int periodos = limites.size() - 1;
+        LocalDateTime[] inicios = new LocalDateTime[periodos];
+        LocalDateTime[] fines = new LocalDateTime[periodos];
+        for (int i = 0; i < periodos; i++) {
+            inicios[i] = utc(limites.get(i));
+            fines[i] = utc(limites.get(i + 1));
+        }
+        List<Object> parametros = parametrosLineas(limites.get(0), limites.get(periodos));
+        return jdbcTemplate.query(SQL_GANANCIA_PERIODOS, ps -> {
+            int i = 1;
+            for (Object parametro : parametros) {
+                ps.setObject(i++, parametro);
+            }
+            ps.setArray(i++, ps.getConnection().createArrayOf("timestamp", inicios));
+            ps.setArray(i, ps.getConnection().createArrayOf("timestamp", fines));
+        }, (rs, rowNum) -> {
+            GananciaPeriodoDTO dto = new GananciaPeriodoDTO();
+            dto.setInicio(limites.get(rowNum));
+            dto.setFin(limites.get(rowNum + 1));
+            dto.setCantidad(rs.getBigDecimal("cantidad"));
+            dto.setVentas(redondear(rs.getBigDecimal("ventas")));
+            dto.setCosto(redondear(rs.getBigDecimal("costo")));
+            dto.setUtilidad(dto.getVentas().subtract(dto.getCosto()));
+            dto.setMargen(margen(dto.getUtilidad(), dto.getVentas()));
+            return dto;
+        });
+    }
+
+    /**
+     * Ejecuta una consulta agregada con {@code count(*) OVER ()} en la columna
+     * {@code filas}, ordenada por utilidad y limitada a la página.
+     */
+    private <T> Page<T> pagina(String sql, List<Object> parametros, Pageable pageable, RowMapper<T> mapper) {
+        AtomicLong filas = new AtomicLong();
+        List<Object> parametrosPagina = new ArrayList<>(parametros);
+        parametrosPagina.add(pageable.getPageSize());
+        parametrosPagina.add(pageable.getOffset());
+        List<T> content = jdbcTemplate.query(sql + SQL_ORDEN_UTILIDAD, (rs, rowNum) -> {
+            filas.set(rs.getLong("filas"));
+            return mapper.mapRow(rs, rowNum);
+        }, parametrosPagina.toArray());
+        // Una página vacía no trae el total de la ventana; solo entonces se cuenta aparte
+        return PageableExecutionUtils.getPage(content, pageable, () -> content.isEmpty()
+                ? contar(sql, parametros)
+                : filas.get());
+    }
+
+    private long contar(String sql, List<Object> parametros) {
+        Long filas = jdbcTemplate.queryForObject("SELECT count(*) FROM (" + sql + ") t", Long.class,
+                parametros.toArray());
+        return filas != null ? filas : 0L;
+    }
+
+    private static List<Object> parametrosLineas(Instant desde, Instant hasta) {
+        List<Object> parametros = new ArrayList<>();
+        parametros.add(utc(desde));
+        parametros.add(utc(hasta));
+        parametros.add(utc(desde));
+        parametros.add(utc(hasta));
+        return parametros;
+    }
+
+    /**
+     * Las columnas de fecha guardan la hora UTC sin zona (como las escribe
+     * Hibernate): los límites se envían en UTC, no en la zona de la JVM.
+     */
+    private static LocalDateTime utc(Instant instante) {
+        return LocalDateTime.ofInstant(instante, ZoneOffset.UTC);
+    }
+
+    /**
+     * Límites de los períodos entre dos instantes: el primero es {@code desde},
+     * el último {@code hasta} y los intermedios, los comienzos de período en la zona.
+     */
+    private static List<Instant> limites(Instant desde, Instant hasta, Periodo periodo, ZoneId zona) {
+        List<Instant> limites = new ArrayList<>();
+        if (!desde.isBefore(hasta)) {
+            return limites;
+        }
+        limites.add(desde);
+        ZonedDateTime comienzo = desde.atZone(zona).truncatedTo(ChronoUnit.DAYS);
+        if (periodo == Periodo.SEMANA) {
+            comienzo = comienzo.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        } else if (periodo == Periodo.MES) {
+            comienzo = comienzo.withDayOfMonth(1);
+        }
+        ZonedDateTime siguiente = siguiente(comienzo, periodo);
+        while (siguiente.toInstant().isBefore(hasta)) {
+            limites.add(siguiente.toInstant());
+            siguiente = siguiente(siguiente, periodo);
+        }
+        limites.add(hasta);
+        return limites;
+    }
+
+    private static ZonedDateTime siguiente(ZonedDateTime comienzo, Periodo periodo) {
+        return switch (periodo) {
+            case DIA -> comienzo.plusDays(1);
+            case SEMANA -> comienzo.plusWeeks(1);
+            case MES -> comienzo.plusMonths(1);
+        };
+    }
+
+    private static BigDecimal redondear(BigDecimal valor) {
+        return valor != null ? valor.setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+    }
+
+    // Utilidad sobre ventas, en porcentaje
+    private static BigDecimal margen(BigDecimal utilidad, BigDecimal ventas) {
+        return ventas.signum() != 0
+                ? utilidad.multiply(BigDecimal.valueOf(100)).divide(ventas, 2, RoundingMode.HALF_UP)
+                : null;
+    }
+
+    private static Instant inicio(Instant desde) {
+        return desde != null ? desde : Instant.EPOCH;
+    }
+
+    private static Instant fin(Instant hasta) {
+        return hasta != null ? hasta : Instant.now();
+    }
+
+    // El orden lo fija la consulta agregada
+    private static Pageable sinOrden(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+    }
+}
@@ -0,0 +1,17 @@
+package com.ferronica.app.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a cash session cannot be opened or closed in its current state.
+ */
+@ResponseStatus(code = HttpStatus.CONFLICT)
+public class SesionCajaException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SesionCajaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,301 @@
+package com.ferronica.app.service;
+
+import com.ferronica.app.domain.SesionCaja;
+import com.ferronica.app.domain.Usuario;
+import com.ferronica.app.domain.Venta;
+import com.ferronica.app.domain.enumeration.MetodoPagoEnum;
+import com.ferronica.app.repository.SesionCajaRepository;
+import com.ferronica.app.repository.UsuarioRepository;
+import com.ferronica.app.security.SecurityUtils;
+import com.ferronica.app.service.dto.SesionCajaDTO;
+import com.ferronica.app.service.dto.SesionCajaTotalDTO;
+import com.ferronica.app.service.mapper.SesionCajaMapper;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for cash register shifts ({@link SesionCaja}).
+ * <p>
+ * Each usuario has at most one open session. Its totals per payment method and
+ * currency (sales, change given and cancellations) are kept in
+ * {@code sesion_caja_total} and incremented in the same transaction as every
+ * venta or cancellation, so reading or closing a session never scans the
+ * ventas it contains. Sales of a usuario without an open session are not
+ * accumulated. A cancellation is credited to the session the venta was rung
+ * into, so that the totals of a session can be netted.
+ */
+@Service
+@Transactional
+public class SesionCajaService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SesionCajaService.class);
+
+    // Upsert de los totales en la sesión abierta del usuario; FOR SHARE espera a un cierre en curso
+    private static final String SQL_ACUMULAR = "INSERT INTO sesion_caja_total (sesion_caja_id, metodo_pago, moneda_id, "
+            + "cantidad_ventas, total, total_en_moneda_base, cambio) "
+            + "SELECT s.id, c.metodo_pago, c.moneda_id, c.cantidad_ventas, c.total, c.total_en_moneda_base, c.cambio "
+            + "FROM sesion_caja s, unnest(?, ?, ?, ?, ?, ?) AS c(metodo_pago, moneda_id, cantidad_ventas, total, "
+            + "total_en_moneda_base, cambio) "
+            + "WHERE s.usuario_id = ? AND s.fecha_cierre IS NULL FOR SHARE OF s "
+            + "ON CONFLICT (sesion_caja_id, metodo_pago, (coalesce(moneda_id, 0))) DO UPDATE SET "
+            + "cantidad_ventas = sesion_caja_total.cantidad_ventas + excluded.cantidad_ventas, "
+            + "total = sesion_caja_total.total + excluded.total, "
+            + "total_en_moneda_base = sesion_caja_total.total_en_moneda_base + excluded.total_en_moneda_base, "
+            + "cambio = sesion_caja_total.cambio + excluded.cambio";
+
+    // Anulaciones agrupadas por la sesión en la que se registró cada venta (usuario y fecha de la venta)
+    private static final String SQL_ACUMULAR_ANULADAS = "INSERT INTO sesion_caja_total (sesion_caja_id, metodo_pago, "
+            + "moneda_id, cantidad_anuladas, total_anulado) "
+            + "SELECT s.id, a.metodo_pago, a.moneda_id, count(*), sum(a.total) "
+            + "FROM unnest(?, ?, ?, ?, ?) AS a(usuario_id, fecha, metodo_pago, moneda_id, total) "
+            + "JOIN sesion_caja s ON s.usuario_id = a.usuario_id AND s.fecha_apertura <= a.fecha "
+            + "AND (s.fecha_cierre IS NULL OR s.fecha_cierre > a.fecha) "
+            + "GROUP BY s.id, a.metodo_pago, a.moneda_id "
+            + "ON CONFLICT (sesion_caja_id, metodo_pago, (coalesce(moneda_id, 0))) DO UPDATE SET "
+            + "cantidad_anuladas = sesion_caja_total.cantidad_anuladas + excluded.cantidad_anuladas, "
+            + "total_anulado = sesion_caja_total.total_anulado + excluded.total_anulado";
+
+    private final SesionCajaRepository sesionCajaRepository;
+
+    private final SesionCajaMapper sesionCajaMapper;
+
+    private final UsuarioRepository usuarioRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SesionCajaService(SesionCajaRepository sesionCajaRepository, SesionCajaMapper sesionCajaMapper,
+            UsuarioRepository usuarioRepository, JdbcTemplate jdbcTemplate) {
+        this.sesionCajaRepository = sesionCajaRepository;
+        this.sesionCajaMapper = sesionCajaMapper;
+        this.usuarioRepository = usuarioRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Open a session for the current usuario.
+     *
+     * @param montoInicial the cash in the drawer at opening.
+     * @return the new session.
+     * @throws SesionCajaException if the usuario already has an open session.
+     */
+    public SesionCajaDTO abrir(BigDecimal montoInicial) {
+        Usuario usuario = usuarioActual()
+                .orElseThrow(() -> new SesionCajaException("No hay un usuario autenticado para abrir la caja"));
+        LOG.debug("Request to open SesionCaja for Usuario : {}", usuario.getId());
+        if (sesionCajaRepository.findOneByUsuarioIdAndFechaCierreIsNull(usuario.getId()).isPresent()) {
+            throw new SesionCajaException("El usuario ya tiene una caja abierta");
+        }
+        SesionCaja sesionCaja = new SesionCaja()
+                .fechaApertura(Instant.now())
+                .montoInicial(montoInicial != null ? montoInicial : BigDecimal.ZERO)
+                .usuario(usuario);
+        return toDto(sesionCajaRepository.save(sesionCaja));
+    }
+
+    /**
+     * Close the open session of the current usuario.
+     *
+     * @param montoContado the cash counted in the drawer, if any.
+     * @return the closed session with its totals.
+     * @throws SesionCajaException if the usuario has no open session.
+     */
+    public SesionCajaDTO cerrar(BigDecimal montoContado) {
+        Usuario usuario = usuarioActual()
+                .orElseThrow(() -> new SesionCajaException("No hay un usuario autenticado para cerrar la caja"));
+        LOG.debug("Request to close SesionCaja for Usuario : {}", usuario.getId());
+        SesionCaja sesionCaja = sesionCajaRepository
+                .findAbiertaWithLock(usuario.getId())
+                .orElseThrow(() -> new SesionCajaException("El usuario no tiene una caja abierta"));
+        sesionCaja.setFechaCierre(Instant.now());
+        sesionCaja.setMontoContado(montoContado);
+        return toDto(sesionCaja);
+    }
+
+    /**
+     * Get the open session of the current usuario, with its totals.
+     *
+     * @return the session, if one is open.
+     */
+    @Transactional(readOnly = true)
+    public Optional<SesionCajaDTO> actual() {
+        LOG.debug("Request to get the open SesionCaja of the current Usuario");
+        return usuarioActual()
+                .flatMap(usuario -> sesionCajaRepository.findOneByUsuarioIdAndFechaCierreIsNull(usuario.getId()))
+                .map(this::toDto);
+    }
+
+    /**
+     * Get one session by id, with its totals.
+     *
+     * @param id the id of the session.
+     * @return the session.
+     */
+    @Transactional(readOnly = true)
+    public Optional<SesionCajaDTO> findOne(Long id) {
+        LOG.debug("Request to get SesionCaja : {}", id);
+        return sesionCajaRepository.findById(id).map(this::toDto);
+    }
+
+    /**
+     * Add new ventas to the open session of their usuario.
+     *
+     * @param ventas the ventas just registered.
+     */
+    public void registrarVentas(Collection<Venta> ventas) {
+        Map<Long, Map<Clave, Acumulado>> porUsuario = new HashMap<>();
+        for (Venta venta : ventas) {
+            if (venta.getUsuario() == null || venta.getMetodoPago() == null) {
+                continue;
+            }
+            Acumulado acumulado = acumulado(porUsuario, venta.getUsuario().getId(), venta);
+            acumulado.cantidadVentas++;
+            acumulado.total = acumulado.total.add(valor(venta.getTotal()));
+            acumulado.totalEnMonedaBase = acumulado.totalEnMonedaBase.add(valor(venta.getTotalEnMonedaBase()));
+            acumulado.cambio = acumulado.cambio.add(valor(venta.getCambio()));
+        }
+        porUsuario.forEach(this::acumular);
+    }
+
+    /**
+     * Add cancelled ventas to the session each one was rung into: the session
+     * of its seller that was open at the fecha of the venta, even if it is
+     * already closed. Ventas rung without an open session are not accumulated.
+     *
+     * @param ventas the ventas just cancelled.
+     */
+    public void registrarAnulaciones(Collection<Venta> ventas) {
+        List<Venta> conVendedor = ventas
+                .stream()
+                .filter(venta -> venta.getUsuario() != null && venta.getFecha() != null)
+                .filter(venta -> venta.getMetodoPago() != null)
+                .toList();
+        if (conVendedor.isEmpty()) {
+            return;
+        }
+        int n = conVendedor.size();
+        Long[] usuarios = new Long[n];
+        LocalDateTime[] fechas = new LocalDateTime[n];
+        String[] metodos = new String[n];
+        Long[] monedas = new Long[n];
+        BigDecimal[] totales = new BigDecimal[n];
+        for (int i = 0; i < n; i++) {
+            Venta venta = conVendedor.get(i);
+            usuarios[i] = venta.getUsuario().getId();
+            // Las fechas se guardan como hora UTC sin zona
+            fechas[i] = LocalDateTime.ofInstant(venta.getFecha(), ZoneOffset.UTC);
+            metodos[i] = venta.getMetodoPago().name();
+            monedas[i] = venta.getMoneda() != null ? venta.getMoneda().getId() : null;
+            totales[i] = valor(venta.getTotal());
+        }
+        int filas = jdbcTemplate.update(SQL_ACUMULAR_ANULADAS, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", usuarios));
+            ps.setArray(2, ps.getConnection().createArrayOf("timestamp", fechas));
+            ps.setArray(3, ps.getConnection().createArrayOf("varchar", metodos));
+            ps.setArray(4, ps.getConnection().createArrayOf("bigint", monedas));
+            ps.setArray(5, ps.getConnection().createArrayOf("numeric", totales));
+        });
+        LOG.debug("{} anulaciones acumuladas en {} totales de caja", n, filas);
+    }
+
+    private void acumular(Long usuarioId, Map<Clave, Acumulado> acumulados) {
+        int n = acumulados.size();
+        String[] metodos = new String[n];
+        Long[] monedas = new Long[n];
+        Integer[] cantidadesVentas = new Integer[n];
+        BigDecimal[] totales = new BigDecimal[n];
+        BigDecimal[] totalesBase = new BigDecimal[n];
+        BigDecimal[] cambios = new BigDecimal[n];
+        int i = 0;
+        for (Map.Entry<Clave, Acumulado> entrada : acumulados.entrySet()) {
+            Acumulado acumulado = entrada.getValue();
+            metodos[i] = entrada.getKey().metodoPago().name();
+            monedas[i] = entrada.getKey().monedaId();
+            cantidadesVentas[i] = acumulado.cantidadVentas;
+            totales[i] = acumulado.total;
+            totalesBase[i] = acumulado.totalEnMonedaBase;
+            cambios[i] = acumulado.cambio;
+            i++;
+        }
+        int filas = jdbcTemplate.update(SQL_ACUMULAR, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("varchar", metodos));
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", monedas));
+            ps.setArray(3, ps.getConnection().createArrayOf("integer", cantidadesVentas));
+            ps.setArray(4, ps.getConnection().createArrayOf("numeric", totales));
+            ps.setArray(5, ps.getConnection().createArrayOf("numeric", totalesBase));
+            ps.setArray(6, ps.getConnection().createArrayOf("numeric", cambios));
+            ps.setLong(7, usuarioId);
+        });
+        if (filas == 0) {
+            LOG.debug("El usuario {} no tiene una caja abierta; movimientos no acumulados", usuarioId);
+        }
+    }
+
+    private SesionCajaDTO toDto(SesionCaja sesionCaja) {
+        SesionCajaDTO dto = sesionCajaMapper.toDto(sesionCaja);
+        if (sesionCaja.getId() != null) {
+            dto.setTotales(totales(sesionCaja.getId()));
+        }
+        return dto;
+    }
+
+    private List<SesionCajaTotalDTO> totales(Long sesionCajaId) {
+        return jdbcTemplate.query(
+                "SELECT metodo_pago, moneda_id, cantidad_ventas, total, total_en_moneda_base, cambio, "
+                        + "cantidad_anuladas, total_anulado FROM sesion_caja_total WHERE sesion_caja_id = ? "
+                        + "ORDER BY metodo_pago, moneda_id",
+                (rs, rowNum) -> {
+                    SesionCajaTotalDTO total = new SesionCajaTotalDTO();
+                    total.setMetodoPago(MetodoPagoEnum.valueOf(rs.getString("metodo_pago")));
+                    total.setMonedaId(rs.getObject("moneda_id", Long.class));
+                    total.setCantidadVentas(rs.getInt("cantidad_ventas"));
+                    total.setTotal(rs.getBigDecimal("total"));
+                    total.setTotalEnMonedaBase(rs.getBigDecimal("total_en_moneda_base"));
+                    total.setCambio(rs.getBigDecimal("cambio"));
+                    total.setCantidadAnuladas(rs.getInt("cantidad_anuladas"));
+                    total.setTotalAnulado(rs.getBigDecimal("total_anulado"));
+                    return total;
+                },
+                sesionCajaId);
+    }
+
+    private Optional<Usuario> usuarioActual() {
+        return SecurityUtils.getCurrentUserKeycloakId().flatMap(usuarioRepository::findByIdKeycloak);
+    }
+
+    private static Acumulado acumulado(Map<Long, Map<Clave, Acumulado>> porUsuario, Long usuarioId, Venta venta) {
+        Clave clave = new Clave(venta.getMetodoPago(), venta.getMoneda() != null ? venta.getMoneda().getId() : null);
+        return porUsuario
+                .computeIfAbsent(usuarioId, id -> new LinkedHashMap<>())
+                .computeIfAbsent(clave, c -> new Acumulado());
+    }
+
+    private static BigDecimal valor(BigDecimal valor) {
+        return valor != null ? valor : BigDecimal.ZERO;
+    }
+
+    /**
+     * Una fila de sesion_caja_total: método de pago y moneda.
+     */
+    private record Clave(MetodoPagoEnum metodoPago, Long monedaId) {}
+
+    private static final class Acumulado {
+
+        private int cantidadVentas;
+        private BigDecimal total = BigDecimal.ZERO;
+        private BigDecimal totalEnMonedaBase = BigDecimal.ZERO;
+        private BigDecimal cambio = BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,253 @@
+package com.ferronica.app.service;
+
+import com.ferronica.app.service.dto.ArticuloBajoStockDTO;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps in memory the active articles whose {@code existencia} is at or below
+ * their {@code existenciaMinima}.
+ * <p>
+ * The set is loaded once at startup and then updated from
+ * {@link ExistenciaCambiadaEvent}s after their transaction commits, re-reading
+ * only the articles that changed. Subscribers (the Server-Sent Events stream)
+ * are told about every article that enters the set, leaves it, or changes its
+ * level while in it.
+ * <p>
+ * Neither the re-read nor the notifications run on the thread that committed
+ * the sale: the changed ids are queued and applied by a single task on the
+ * {@code taskExecutor}, and each subscriber has its own bounded queue drained
+ * on that executor. A subscriber that falls {@value #COLA_SUSCRIPTOR} changes
+ * behind is dropped, so a slow client never holds back checkout nor the other
+ * subscribers; it is expected to reconnect and reload the set.
+ * <p>
+ * The set is local to this instance: it only sees the stock changes made
+ * through this application.
+ */
+@Service
+public class StockBajoService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StockBajoService.class);
+
+    private static final String SQL_NIVELES = "SELECT id, codigo, nombre, existencia, existencia_minima, "
+            + "(coalesce(activo, true) AND existencia <= existencia_minima) AS bajo_stock FROM articulo";
+
+    static final int COLA_SUSCRIPTOR = 256;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Executor taskExecutor;
+
+    private final Map<Long, ArticuloBajoStockDTO> bajoStock = new ConcurrentHashMap<>();
+
+    private final List<Suscripcion> suscriptores = new CopyOnWriteArrayList<>();
+
+    // Artículos cambiados que aún no se releen; una sola tarea los procesa a la vez
+    private final Set<Long> pendientes = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean refrescoProgramado = new AtomicBoolean();
+
+    public StockBajoService(JdbcTemplate jdbcTemplate, @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Load the articles below minimum.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void cargar() {
+        bajoStock.clear();
+        jdbcTemplate.query(SQL_NIVELES + " WHERE coalesce(activo, true) AND existencia <= existencia_minima", rs -> {
+            ArticuloBajoStockDTO nivel = nivel(rs);
+            bajoStock.put(nivel.getId(), nivel);
+        });
+        LOG.info("{} artículos con existencia bajo el mínimo", bajoStock.size());
+    }
+
+    /**
+     * Queue the articles changed by a committed transaction; their levels are
+     * re-read on the {@code taskExecutor}.
+     *
+     * @param event the changed articles.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onExistenciaCambiada(ExistenciaCambiadaEvent event) {
+        if (event.getArticuloIds().isEmpty()) {
+            return;
+        }
+        pendientes.addAll(event.getArticuloIds());
+        programar(refrescoProgramado, this::refrescarPendientes);
+    }
+
+    private void programar(AtomicBoolean programada, Runnable tarea) {
+        if (programada.compareAndSet(false, true)) {
+            try {
+                taskExecutor.execute(tarea);
+            } catch (RejectedExecutionException e) {
+                // El siguiente cambio lo vuelve a intentar
+                programada.set(false);
+                LOG.warn("No se pudo programar la actualización de stock bajo: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Re-read the queued articles in batches until none are left. Changes that
+     * arrive meanwhile join the next batch, so the levels are applied in order.
+     */
+    private void refrescarPendientes() {
+        for (;;) {
+            Long[] ids = pendientes.toArray(new Long[0]);
+            if (ids.length == 0) {
+                refrescoProgramado.set(false);
+                // Un cambio pudo llegar entre la lectura y la bajada del indicador
+                if (pendientes.isEmpty() || !refrescoProgramado.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            for (Long id : ids) {
+                pendientes.remove(id);
+            }
+            try {
+                jdbcTemplate.query(SQL_NIVELES + " WHERE id = ANY(?)",
+                        ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)),
+                        rs -> {
+                            actualizar(nivel(rs));
+                        });
+            } catch (RuntimeException e) {
+                LOG.warn("Error releyendo artículos con stock bajo {}: {}", ids, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Get the articles at or below their minimum, lowest stock first.
+     *
+     * @return the list of articles.
+     */
+    public List<ArticuloBajoStockDTO> findAll() {
+        return bajoStock.values().stream()
+                .sorted(Comparator.comparing(ArticuloBajoStockDTO::getExistencia)
+                        .thenComparing(ArticuloBajoStockDTO::getId))
+                .toList();
+    }
+
+    /**
+     * Register a listener for the changes of the set.
+     *
+     * @param suscriptor  called with each change, in order, from a
+     *                    {@code taskExecutor} thread.
+     * @param alDesbordar called once if the listener falls too far behind; it
+     *                    has then been removed.
+     * @return an action that removes the listener.
+     */
+    public Runnable suscribir(Consumer<ArticuloBajoStockDTO> suscriptor, Runnable alDesbordar) {
+        Suscripcion suscripcion = new Suscripcion(suscriptor, alDesbordar);
+        suscriptores.add(suscripcion);
+        return () -> suscriptores.remove(suscripcion);
+    }
+
+    private void actualizar(ArticuloBajoStockDTO nivel) {
+        ArticuloBajoStockDTO anterior = Boolean.TRUE.equals(nivel.getBajoStock())
+                ? bajoStock.put(nivel.getId(), nivel)
+                : bajoStock.remove(nivel.getId());
+        boolean cambio = Boolean.TRUE.equals(nivel.getBajoStock())
+                ? anterior == null || !Objects.equals(anterior.getExistencia(), nivel.getExistencia())
+                        || !Objects.equals(anterior.getExistenciaMinima(), nivel.getExistenciaMinima())
+                : anterior != null;
+        if (cambio) {
+            LOG.debug("Cambio de stock bajo: {}", nivel);
+            suscriptores.forEach(suscripcion -> suscripcion.encolar(nivel));
+        }
+    }
+
+    /**
+     * A listener with its own bounded queue, drained by at most one task at a
+     * time so that it receives the changes in order.
+     */
+    private final class Suscripcion {
+
+        private final Consumer<ArticuloBajoStockDTO> suscriptor;
+
+        private final Runnable alDesbordar;
+
+        private final Queue<ArticuloBajoStockDTO> cola = new ArrayBlockingQueue<>(COLA_SUSCRIPTOR);
+
+        private final AtomicBoolean programada = new AtomicBoolean();
+
+        Suscripcion(Consumer<ArticuloBajoStockDTO> suscriptor, Runnable alDesbordar) {
+            this.suscriptor = suscriptor;
+            this.alDesbordar = alDesbordar;
+        }
+
+        void encolar(ArticuloBajoStockDTO nivel) {
+            if (!cola.offer(nivel)) {
+                // Cliente lento: se descarta en lugar de acumular cambios sin límite
+                if (suscriptores.remove(this)) {
+                    LOG.debug("Suscriptor de stock bajo descartado por cola llena");
+                    cola.clear();
+                    alDesbordar.run();
+                }
+                return;
+            }
+            programar(programada, this::drenar);
+        }
+
+        private void drenar() {
+            for (;;) {
+                ArticuloBajoStockDTO nivel = cola.poll();
+                if (nivel == null) {
+                    programada.set(false);
+                    if (cola.isEmpty() || !programada.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    suscriptor.accept(nivel);
+                } catch (RuntimeException e) {
+                    LOG.warn("Error notificando cambio de stock bajo: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static ArticuloBajoStockDTO nivel(ResultSet rs) throws SQLException {
+        ArticuloBajoStockDTO nivel = new ArticuloBajoStockDTO();
+        nivel.setId(rs.getLong("id"));
+        nivel.setCodigo(rs.getString("codigo"));
+        nivel.setNombre(rs.getString("nombre"));
+        nivel.setExistencia(rs.getBigDecimal("existencia"));
+        nivel.setExistenciaMinima(rs.getBigDecimal("existencia_minima"));
+        nivel.setBajoStock(rs.getBoolean("bajo_stock"));
+        return nivel;
+    }
+}
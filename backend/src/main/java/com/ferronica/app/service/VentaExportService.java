@@ -0,0 +1,330 @@
+package com.ferronica.app.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ferronica.app.config.ApplicationProperties;
+import com.ferronica.app.service.criteria.VentaCriteria;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.RangeFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Streams {@link com.ferronica.app.domain.Venta} and
+ * {@link com.ferronica.app.domain.DetalleVenta} rows as CSV or NDJSON.
+ * <p>
+ * Rows are read through a forward-only JDBC cursor with a fixed fetch size and
+ * written as they arrive, so the heap used does not depend on the number of
+ * exported rows. Every filter of {@link VentaCriteria} is translated to SQL
+ * with the semantics of {@link VentaQueryService}, so an export matches the
+ * filtered list it was requested from.
+ */
+@Service
+@Transactional(readOnly = true)
+public class VentaExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VentaExportService.class);
+
+    /**
+     * Output format of an export.
+     */
+    public enum Formato {
+        CSV,
+        NDJSON,
+    }
+
+    private static final String SQL_VENTAS = "SELECT v.id, v.fecha, nf.serie, v.no_factura, "
+            + "c.cedula AS cliente_cedula, c.nombre AS cliente, u.username AS usuario, v.metodo_pago, "
+            + "m.simbolo AS moneda, v.subtotal, v.iva, v.descuento, v.total, v.total_en_moneda_base, v.anulada "
+            + "FROM venta v "
+            + "LEFT JOIN numeracion_factura nf ON nf.id = v.numeracion_id "
+            + "LEFT JOIN cliente c ON c.id = v.cliente_id "
+            + "LEFT JOIN usuario u ON u.id = v.usuario_id "
+            + "LEFT JOIN moneda m ON m.id = v.moneda_id";
+
+    private static final String SQL_DETALLES = "SELECT d.venta_id, v.fecha, nf.serie, v.no_factura, "
+            + "d.id AS detalle_id, a.codigo, a.nombre AS articulo, d.cantidad, d.precio_venta, d.descuento, "
+            + "d.monto, v.anulada "
+            + "FROM detalle_venta d "
+            + "JOIN venta v ON v.id = d.venta_id AND v.fecha = d.venta_fecha "
+            + "LEFT JOIN numeracion_factura nf ON nf.id = v.numeracion_id "
+            + "LEFT JOIN articulo a ON a.id = d.articulo_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties applicationProperties;
+
+    public VentaExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+            ApplicationProperties applicationProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Write the ventas matching the criteria, oldest first.
+     *
+     * @param criteria the filters.
+     * @param formato  the output format.
+     * @param out      the stream to write to; it is flushed but not closed.
+     */
+    public void exportarVentas(VentaCriteria criteria, Formato formato, OutputStream out) {
+        LOG.debug("Request to export Ventas as {} : {}", formato, criteria);
+        exportar(SQL_VENTAS, List.of("v.fecha"), " ORDER BY v.fecha, v.id", criteria, formato, out);
+    }
+
+    /**
+     * Write the lines of the ventas matching the criteria, oldest first.
+     *
+     * @param criteria the filters on the venta of each line.
+     * @param formato  the output format.
+     * @param out      the stream to write to; it is flushed but not closed.
+     */
+    public void exportarDetalles(VentaCriteria criteria, Formato formato, OutputStream out) {
+        LOG.debug("Request to export DetalleVentas as {} : {}", formato, criteria);
+        // El rango se aplica sobre la clave de partición de las dos tablas: Postgres no lo deduce del JOIN
+        exportar(SQL_DETALLES, List.of("v.fecha", "d.venta_fecha"), " ORDER BY v.fecha, v.id, d.id", criteria,
+                formato, out);
+    }
+
+    private void exportar(String select, List<String> columnasFecha, String orderBy, VentaCriteria criteria,
+            Formato formato, OutputStream out) {
+        List<Object> parametros = new ArrayList<>();
+        String sql = select + filtros(criteria, columnasFecha, parametros) + orderBy;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            JsonGenerator json = formato == Formato.NDJSON ? objectMapper.getFactory().createGenerator(writer) : null;
+            if (json != null) {
+                // Un objeto por línea, sin el separador por defecto entre valores raíz
+                json.setRootValueSeparator(null);
+            }
+            RowCallbackHandler escritor = new RowCallbackHandler() {
+                private String[] columnas;
+
+                @Override
+                public void processRow(ResultSet rs) throws SQLException {
+                    try {
+                        if (columnas == null) {
+                            columnas = columnas(rs.getMetaData());
+                            if (json == null) {
+                                escribirCsv(writer, columnas);
+                            }
+                        }
+                        Object[] valores = new Object[columnas.length];
+                        for (int i = 0; i < columnas.length; i++) {
+                            valores[i] = valor(rs, i + 1);
+                        }
+                        if (json == null) {
+                            escribirCsv(writer, valores);
+                        } else {
+                            escribirJson(json, columnas, valores);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            };
+            jdbcTemplate.query(con -> {
+                // Cursor de solo avance: PostgreSQL entrega las filas por bloques de fetchSize
+                PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(applicationProperties.getExport().getFetchSize());
+                for (int i = 0; i < parametros.size(); i++) {
+                    ps.setObject(i + 1, parametros.get(i));
+                }
+                return ps;
+            }, escritor);
+            if (json != null) {
+                json.flush();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String filtros(VentaCriteria criteria, List<String> columnasFecha, List<Object> parametros) {
+        List<String> condiciones = new ArrayList<>();
+        if (criteria != null) {
+            // Los mismos filtros que VentaQueryService, para que la exportación coincida con el listado
+            agregar(condiciones, parametros, "v.id", criteria.getId());
+            columnasFecha.forEach(columna -> agregar(condiciones, parametros, columna, criteria.getFecha()));
+            agregar(condiciones, parametros, "v.no_factura", criteria.getNoFactura());
+            agregar(condiciones, parametros, "v.subtotal", criteria.getSubtotal());
+            agregar(condiciones, parametros, "v.iva", criteria.getIva());
+            agregar(condiciones, parametros, "v.total", criteria.getTotal());
+            agregar(condiciones, parametros, "v.total_en_moneda_base", criteria.getTotalEnMonedaBase());
+            agregar(condiciones, parametros, "v.metodo_pago", criteria.getMetodoPago());
+            agregar(condiciones, parametros, "v.stripe_id", criteria.getStripeId());
+            agregar(condiciones, parametros, "v.es_contado", criteria.getEsContado());
+            agregar(condiciones, parametros, "v.tipo_cambio_venta", criteria.getTipoCambioVenta());
+            agregar(condiciones, parametros, "v.anulada", criteria.getAnulada());
+            agregar(condiciones, parametros, "v.cliente_id", criteria.getClienteId());
+            agregar(condiciones, parametros, "v.usuario_id", criteria.getUsuarioId());
+            agregar(condiciones, parametros, "v.moneda_id", criteria.getMonedaId());
+            agregar(condiciones, parametros, "v.numeracion_id", criteria.getNumeracionId());
+            agregarDetalles(condiciones, parametros, criteria.getDetallesId());
+        }
+        return condiciones.isEmpty() ? "" : " WHERE " + String.join(" AND ", condiciones);
+    }
+
+    /**
+     * Traduce a SQL un filtro de JHipster sobre una columna, con la misma
+     * semántica que {@link tech.jhipster.service.QueryService}.
+     */
+    private static void agregar(List<String> condiciones, List<Object> parametros, String columna, Filter<?> filtro) {
+        if (filtro == null) {
+            return;
+        }
+        agregar(condiciones, parametros, columna + " = ?", filtro.getEquals());
+        agregar(condiciones, parametros, columna + " <> ?", filtro.getNotEquals());
+        if (filtro.getSpecified() != null) {
+            condiciones.add(columna + (filtro.getSpecified() ? " IS NOT NULL" : " IS NULL"));
+        }
+        agregarLista(condiciones, parametros, columna + " IN ", filtro.getIn());
+        agregarLista(condiciones, parametros, columna + " NOT IN ", filtro.getNotIn());
+        if (filtro instanceof RangeFilter<?> rango) {
+            agregar(condiciones, parametros, columna + " > ?", rango.getGreaterThan());
+            agregar(condiciones, parametros, columna + " >= ?", rango.getGreaterThanOrEqual());
+            agregar(condiciones, parametros, columna + " < ?", rango.getLessThan());
+            agregar(condiciones, parametros, columna + " <= ?", rango.getLessThanOrEqual());
+        }
+        if (filtro instanceof StringFilter texto) {
+            agregar(condiciones, parametros, "upper(" + columna + ") LIKE ?", like(texto.getContains()));
+            agregar(condiciones, parametros, "upper(" + columna + ") NOT LIKE ?", like(texto.getDoesNotContain()));
+        }
+    }
+
+    /**
+     * El filtro por detalle recorre la asociación a muchos: una venta entra si
+     * alguna de sus líneas cumple la condición.
+     */
+    private static void agregarDetalles(List<String> condiciones, List<Object> parametros, LongFilter filtro) {
+        if (filtro == null) {
+            return;
+        }
+        String existe = "EXISTS (SELECT 1 FROM detalle_venta dv WHERE dv.venta_id = v.id AND dv.venta_fecha = v.fecha";
+        if (filtro.getSpecified() != null) {
+            condiciones.add((filtro.getSpecified() ? "" : "NOT ") + existe + ")");
+        }
+        LongFilter resto = filtro.copy();
+        resto.setSpecified(null);
+        List<String> porLinea = new ArrayList<>();
+        agregar(porLinea, parametros, "dv.id", resto);
+        porLinea.forEach(condicion -> condiciones.add(existe + " AND " + condicion + ")"));
+    }
+
+    private static void agregarLista(List<String> condiciones, List<Object> parametros, String condicion,
+            List<?> valores) {
+        if (valores != null && !valores.isEmpty()) {
+            condiciones.add(condicion + "(" + String.join(", ", Collections.nCopies(valores.size(), "?")) + ")");
+            valores.forEach(valor -> parametros.add(parametro(valor)));
+        }
+    }
+
+    private static void agregar(List<String> condiciones, List<Object> parametros, String condicion, Object valor) {
+        if (valor != null) {
+            condiciones.add(condicion);
+            parametros.add(parametro(valor));
+        }
+    }
+
+    private static Object parametro(Object valor) {
+        // Las columnas de fecha guardan la hora UTC sin zona, como las escribe Hibernate
+        if (valor instanceof Instant instant) {
+            return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+        }
+        if (valor instanceof Enum<?> enumerado) {
+            return enumerado.name();
+        }
+        return valor;
+    }
+
+    private static String like(String texto) {
+        return texto != null ? "%" + texto.toUpperCase() + "%" : null;
+    }
+
+    private static String[] columnas(ResultSetMetaData metaData) throws SQLException {
+        String[] columnas = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columnas.length; i++) {
+            columnas[i] = metaData.getColumnLabel(i + 1);
+        }
+        return columnas;
+    }
+
+    private static Object valor(ResultSet rs, int columna) throws SQLException {
+        Object valor = rs.getObject(columna);
+        if (valor instanceof Timestamp) {
+            // Se relee sin pasar por la zona de la JVM
+            return rs.getObject(columna, LocalDateTime.class).toInstant(ZoneOffset.UTC).toString();
+        }
+        return valor;
+    }
+
+    private static void escribirCsv(Writer writer, Object[] valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (valores[i] == null) {
+                continue;
+            }
+            String texto = valores[i] instanceof BigDecimal numero ? numero.toPlainString() : valores[i].toString();
+            if (texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0 || texto.indexOf('\n') >= 0) {
+                writer.write('"');
+                writer.write(texto.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(texto);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static void escribirJson(JsonGenerator json, String[] columnas, Object[] valores) throws IOException {
+        json.writeStartObject();
+        for (int i = 0; i < columnas.length; i++) {
+            json.writeFieldName(columnas[i]);
+            if (valores[i] instanceof BigDecimal numero) {
+                json.writeNumber(numero);
+            } else if (valores[i] instanceof Number numero) {
+                json.writeNumber(numero.longValue());
+            } else if (valores[i] instanceof Boolean booleano) {
+                json.writeBoolean(booleano);
+            } else if (valores[i] == null) {
+                json.writeNull();
+            } else {
+                json.writeString(valores[i].toString());
+            }
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+}
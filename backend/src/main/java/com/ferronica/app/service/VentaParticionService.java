@@ -0,0 +1,76 @@
+package com.ferronica.app.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps the monthly partitions of {@code venta} and {@code detalle_venta}
+ * ahead of time.
+ * <p>
+ * Both tables are range-partitioned by month on the venta {@code fecha} (see
+ * the {@code 20261018110000_partition_Venta} changelog); a venta whose month
+ * has no partition cannot be inserted. The partitions of the current month and
+ * of the next {@value #MESES_ADELANTE} are created at startup and then daily,
+ * through the {@code crear_particion_venta} database function. Partitions are
+ * bounded on UTC months, matching how {@code fecha} is stored.
+ * <p>
+ * Filters on {@code venta.fecha} (and on {@code detalle_venta.venta_fecha}) let
+ * Postgres prune the partitions outside the range; old months can be archived
+ * by detaching their partitions.
+ */
+@Service
+@Transactional
+public class VentaParticionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VentaParticionService.class);
+
+    static final int MESES_ADELANTE = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VentaParticionService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Create the missing partitions at startup, in case the application was
+     * down when the daily job should have run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        crearParticiones();
+    }
+
+    /**
+     * Create the partitions of the current month and of the next ones that do not
+     * exist yet.
+     *
+     * @return the first day of each month whose partitions were created.
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    public List<LocalDate> crearParticiones() {
+        LocalDate mes = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+        List<LocalDate> creados = new ArrayList<>();
+        for (int i = 0; i <= MESES_ADELANTE; i++) {
+            LocalDate actual = mes.plusMonths(i);
+            Boolean creada = jdbcTemplate.queryForObject("SELECT crear_particion_venta(?)", Boolean.class,
+                    Date.valueOf(actual));
+            if (Boolean.TRUE.equals(creada)) {
+                LOG.info("Particiones de venta y detalle_venta creadas para {}", actual);
+                creados.add(actual);
+            }
+        }
+        return creados;
+    }
+}
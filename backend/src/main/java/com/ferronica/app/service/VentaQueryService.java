@@ -5,13 +5,25 @@ import com.ferronica.app.domain.Venta;
 import com.ferronica.app.repository.VentaRepository;
 import com.ferronica.app.service.criteria.VentaCriteria;
 import com.ferronica.app.service.dto.VentaDTO;
+import com.ferronica.app.service.dto.VentaResumenDTO;
 import com.ferronica.app.service.mapper.VentaMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.service.QueryService;
@@ -34,9 +46,12 @@ public class VentaQueryService extends QueryService<Venta> {
 
     private final VentaMapper ventaMapper;
 
-    public VentaQueryService(VentaRepository ventaRepository, VentaMapper ventaMapper) {
+    private final EntityManager entityManager;
+
+    public VentaQueryService(VentaRepository ventaRepository, VentaMapper ventaMapper, EntityManager entityManager) {
         this.ventaRepository = ventaRepository;
         this.ventaMapper = ventaMapper;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -55,6 +70,89 @@ public class VentaQueryService extends QueryService<Venta> {
         return ventaRepository.findAll(specification, page).map(ventaMapper::toDto);
     }
 
+    /**
+     * Return a {@link Page} of {@link VentaResumenDTO} which matches the criteria
+     * from the database. The rows are built by a single query that joins only the
+     * columns shown in the listings, so no association is loaded lazily; the
+     * count query only runs when the page is full.
+     *
+     * @param criteria The object which holds all the filters, which the entities
+     *                 should match.
+     * @param page     The page, which should be returned.
+     * @return the matching rows.
+     */
+    @Transactional(readOnly = true)
+    public Page<VentaResumenDTO> findResumenByCriteria(VentaCriteria criteria, Pageable page) {
+        LOG.debug("find resumen by criteria : {}, page: {}", criteria, page);
+        final Specification<Venta> specification = createSpecification(criteria);
+        TypedQuery<VentaResumenDTO> typedQuery = createResumenQuery(specification, page.getSort());
+        if (page.isPaged()) {
+            typedQuery.setFirstResult((int) page.getOffset());
+            typedQuery.setMaxResults(page.getPageSize());
+        }
+        List<VentaResumenDTO> content = typedQuery.getResultList();
+        return PageableExecutionUtils.getPage(content, page, () -> ventaRepository.count(specification));
+    }
+
+    /**
+     * Return a keyset page of {@link VentaResumenDTO} which matches the criteria,
+     * newest first. Rows are sought from the cursor on {@code (fecha, id)}, so a
+     * deep page costs the same as the first one; no count query is run. As
+     * {@code venta} is partitioned by month on {@code fecha}, the {@code fecha}
+     * filters and the cursor bound also prune the partitions that are scanned.
+     *
+     * @param criteria The object which holds all the filters, which the entities
+     *                 should match.
+     * @param cursor   The position of the last row of the previous page, or
+     *                 {@code null} for the first page.
+     * @param size     The page size.
+     * @return the matching rows and the cursor of the next page.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<VentaResumenDTO> findResumenByCriteria(VentaCriteria criteria, KeysetCursor cursor, int size) {
+        LOG.debug("find resumen by criteria : {}, cursor: {}, size: {}", criteria, cursor, size);
+        Specification<Venta> specification = createSpecification(criteria);
+        if (cursor != null) {
+            // La cota simple sobre fecha (redundante) permite descartar las particiones más recientes
+            specification = specification.and((root, query, cb) -> cb.and(
+                    cb.lessThanOrEqualTo(root.get(Venta_.fecha), cursor.getFecha()),
+                    cb.or(cb.lessThan(root.get(Venta_.fecha), cursor.getFecha()),
+                            cb.and(cb.equal(root.get(Venta_.fecha), cursor.getFecha()),
+                                    cb.lessThan(root.get(Venta_.id), cursor.getId())))));
+        }
+        List<VentaResumenDTO> filas = createResumenQuery(specification,
+                Sort.by(Sort.Order.desc(Venta_.FECHA), Sort.Order.desc(Venta_.ID)))
+                .setMaxResults(size + 1)
+                .getResultList();
+        return KeysetPage.of(filas, size, venta -> KeysetCursor.of(venta.getFecha(), venta.getId()));
+    }
+
+    private TypedQuery<VentaResumenDTO> createResumenQuery(Specification<Venta> specification, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<VentaResumenDTO> query = cb.createQuery(VentaResumenDTO.class);
+        Root<Venta> root = query.from(Venta.class);
+        Join<Venta, Cliente> cliente = root.join(Venta_.cliente, JoinType.LEFT);
+        Join<Venta, Usuario> usuario = root.join(Venta_.usuario, JoinType.LEFT);
+        Join<Venta, Moneda> moneda = root.join(Venta_.moneda, JoinType.LEFT);
+        Join<Venta, NumeracionFactura> numeracion = root.join(Venta_.numeracion, JoinType.LEFT);
+        query.select(cb.construct(VentaResumenDTO.class,
+                root.get(Venta_.id), root.get(Venta_.fecha), root.get(Venta_.noFactura), root.get(Venta_.subtotal),
+                root.get(Venta_.iva), root.get(Venta_.total), root.get(Venta_.totalEnMonedaBase),
+                root.get(Venta_.metodoPago), root.get(Venta_.stripeId), root.get(Venta_.esContado),
+                root.get(Venta_.tipoCambioVenta), root.get(Venta_.anulada), root.get(Venta_.descuento),
+                root.get(Venta_.importeRecibido), root.get(Venta_.cambio),
+                cliente.get(Cliente_.id), cliente.get(Cliente_.cedula), cliente.get(Cliente_.nombre),
+                usuario.get(Usuario_.id), usuario.get(Usuario_.username), usuario.get(Usuario_.nombre),
+                moneda.get(Moneda_.id), moneda.get(Moneda_.simbolo),
+                numeracion.get(NumeracionFactura_.id), numeracion.get(NumeracionFactura_.serie)));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query);
+    }
+
     /**
      * Return the number of matching entities in the database.
      * 
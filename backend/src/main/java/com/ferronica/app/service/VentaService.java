@@ -1,6 +1,8 @@
 package com.ferronica.app.service;
 
 import com.ferronica.app.service.dto.VentaDTO;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -15,6 +17,15 @@ public interface VentaService {
      */
     VentaDTO save(VentaDTO ventaDTO);
 
+    /**
+     * Register a complete sale: the header, all its lines and the stock
+     * decrement of every article, in a single transaction.
+     *
+     * @param ventaDTO the venta to save, with its {@code detalles}.
+     * @return the persisted entity.
+     */
+    VentaDTO checkout(VentaDTO ventaDTO);
+
     /**
      * Updates a venta.
      *
@@ -39,6 +50,15 @@ public interface VentaService {
      */
     Optional<VentaDTO> findOne(Long id);
 
+    /**
+     * Cancel several ventas in a single transaction, returning their stock.
+     * Ventas already cancelled or not found are skipped.
+     *
+     * @param ids the ids of the ventas to cancel.
+     * @return the ids of the ventas actually cancelled.
+     */
+    List<Long> anular(Collection<Long> ids);
+
     /**
      * Delete the "id" venta.
      *
@@ -0,0 +1,103 @@
+package com.ferronica.app.service;
+
+import com.ferronica.app.domain.Articulo;
+import jakarta.persistence.Table;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Per-table version counters, the source of the ETags of the catalog and
+ * reference endpoints.
+ * <p>
+ * The counters live in the {@code version_tabla} table: a statement-level
+ * trigger on every versioned table inserts an increment in the writing
+ * transaction, so a change is visible to every instance exactly when it
+ * commits, whatever wrote it (Hibernate, SQL or bulk HQL updates). Updates of
+ * {@code articulo} that only move the stock bump {@link ExistenciaArticulo}
+ * instead: every sale moves the stock, and responses that do not show it (the
+ * reports, most counts) keep their ETag.
+ * <p>
+ * Reading the version before running a query is safe: a change committed
+ * meanwhile bumps the counter, and the next request gets the new data.
+ */
+@Service
+@Transactional(readOnly = true)
+public class VersionTablaService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VersionTablaService.class);
+
+    /**
+     * Pseudo-entity versioning the existencia of the articulos apart from the
+     * rest of the {@link Articulo} table.
+     */
+    public static final class ExistenciaArticulo {
+
+        private ExistenciaArticulo() {}
+    }
+
+    private static final String EXISTENCIA_ARTICULO = "articulo_existencia";
+
+    // Tablas con trigger de versión (changelog 20261018220000_added_version_tabla)
+    private static final Set<String> TABLAS_VERSIONADAS = Set.of("articulo", EXISTENCIA_ARTICULO, "categoria",
+            "unidad_medida", "moneda", "empresa", "proveedor", "ingreso", "detalle_ingreso", "venta", "detalle_venta",
+            "devolucion", "detalle_devolucion");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VersionTablaService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Get the strong ETag of data read from the tables of the given entities.
+     *
+     * @param entidades the entities whose tables the response is built from.
+     * @return the quoted ETag.
+     * @throws IllegalArgumentException if the table of an entity is not versioned.
+     */
+    public String etag(Class<?>... entidades) {
+        String[] tablas = Arrays.stream(entidades).map(VersionTablaService::tabla).toArray(String[]::new);
+        Map<String, Long> versiones = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT tabla, sum(incremento) FROM version_tabla WHERE tabla = ANY(?) GROUP BY tabla",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", tablas)),
+                rs -> {
+                    versiones.put(rs.getString(1), rs.getLong(2));
+                });
+        return Arrays.stream(tablas)
+                .map(tabla -> Long.toString(versiones.getOrDefault(tabla, 0L)))
+                .collect(Collectors.joining(".", "\"", "\""));
+    }
+
+    /**
+     * Fold the increments of each table into a single row. The sums, and so the
+     * ETags, do not change.
+     */
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    @Transactional
+    public void compactar() {
+        int tablas = jdbcTemplate.update("WITH borradas AS (DELETE FROM version_tabla RETURNING tabla, incremento) "
+                + "INSERT INTO version_tabla (tabla, incremento) SELECT tabla, sum(incremento) FROM borradas "
+                + "GROUP BY tabla");
+        LOG.debug("Versiones de {} tablas compactadas", tablas);
+    }
+
+    private static String tabla(Class<?> entidad) {
+        String tabla = entidad == ExistenciaArticulo.class ? EXISTENCIA_ARTICULO
+                : entidad.isAnnotationPresent(Table.class) ? entidad.getAnnotation(Table.class).name() : null;
+        if (tabla == null || !TABLAS_VERSIONADAS.contains(tabla)) {
+            throw new IllegalArgumentException("La tabla de " + entidad.getSimpleName() + " no tiene versión");
+        }
+        return tabla;
+    }
+}
@@ -42,6 +42,9 @@ public class ArticuloCriteria implements Serializable, Criteria {
 
     private LongFilter categoriaId;
 
+    /** Matches the articulos of a categoria or of any of its descendants. */
+    private LongFilter categoriaSubtreeId;
+
     private LongFilter unidadMedidaId;
 
     private Boolean distinct;
@@ -59,6 +62,7 @@ public class ArticuloCriteria implements Serializable, Criteria {
         this.costo = other.optionalCosto().map(BigDecimalFilter::copy).orElse(null);
         this.activo = other.optionalActivo().map(BooleanFilter::copy).orElse(null);
         this.categoriaId = other.optionalCategoriaId().map(LongFilter::copy).orElse(null);
+        this.categoriaSubtreeId = other.optionalCategoriaSubtreeId().map(LongFilter::copy).orElse(null);
         this.unidadMedidaId = other.optionalUnidadMedidaId().map(LongFilter::copy).orElse(null);
         this.distinct = other.distinct;
     }
@@ -258,6 +262,25 @@ public class ArticuloCriteria implements Serializable, Criteria {
         this.categoriaId = categoriaId;
     }
 
+    public LongFilter getCategoriaSubtreeId() {
+        return categoriaSubtreeId;
+    }
+
+    public Optional<LongFilter> optionalCategoriaSubtreeId() {
+        return Optional.ofNullable(categoriaSubtreeId);
+    }
+
+    public LongFilter categoriaSubtreeId() {
+        if (categoriaSubtreeId == null) {
+            setCategoriaSubtreeId(new LongFilter());
+        }
+        return categoriaSubtreeId;
+    }
+
+    public void setCategoriaSubtreeId(LongFilter categoriaSubtreeId) {
+        this.categoriaSubtreeId = categoriaSubtreeId;
+    }
+
     public LongFilter getUnidadMedidaId() {
         return unidadMedidaId;
     }
@@ -316,6 +339,7 @@ public class ArticuloCriteria implements Serializable, Criteria {
             Objects.equals(costo, that.costo) &&
             Objects.equals(activo, that.activo) &&
             Objects.equals(categoriaId, that.categoriaId) &&
+            Objects.equals(categoriaSubtreeId, that.categoriaSubtreeId) &&
             Objects.equals(unidadMedidaId, that.unidadMedidaId) &&
             Objects.equals(distinct, that.distinct)
         );
@@ -334,6 +358,7 @@ public class ArticuloCriteria implements Serializable, Criteria {
             costo,
             activo,
             categoriaId,
+            categoriaSubtreeId,
             unidadMedidaId,
             distinct
         );
@@ -353,6 +378,7 @@ public class ArticuloCriteria implements Serializable, Criteria {
             optionalCosto().map(f -> "costo=" + f + ", ").orElse("") +
             optionalActivo().map(f -> "activo=" + f + ", ").orElse("") +
             optionalCategoriaId().map(f -> "categoriaId=" + f + ", ").orElse("") +
+            optionalCategoriaSubtreeId().map(f -> "categoriaSubtreeId=" + f + ", ").orElse("") +
             optionalUnidadMedidaId().map(f -> "unidadMedidaId=" + f + ", ").orElse("") +
             optionalDistinct().map(f -> "distinct=" + f + ", ").orElse("") +
         "}";
@@ -0,0 +1,278 @@
+package com.ferronica.app.service.criteria;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.Optional;
+import org.springdoc.core.annotations.ParameterObject;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.*;
+
+/**
+ * Criteria class for the {@link com.ferronica.app.domain.Devolucion} entity. This class is used
+ * in {@link com.ferronica.app.web.rest.DevolucionResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /devolucions?id.greaterThan=5&attr1.contains=something&attr2.specified=false}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+@ParameterObject
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class DevolucionCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private InstantFilter fecha;
+
+    private StringFilter motivo;
+
+    private BigDecimalFilter total;
+
+    private LongFilter ventaId;
+
+    /** Matches the devoluciones of the ventas of a cliente. */
+    private LongFilter clienteId;
+
+    /** Matches the devoluciones of the venta with this invoice number. */
+    private LongFilter noFactura;
+
+    /** Matches the devoluciones of the ventas of the clientes with this nombre. */
+    private StringFilter clienteNombre;
+
+    private Boolean distinct;
+
+    public DevolucionCriteria() {}
+
+    public DevolucionCriteria(DevolucionCriteria other) {
+        this.id = other.optionalId().map(LongFilter::copy).orElse(null);
+        this.fecha = other.optionalFecha().map(InstantFilter::copy).orElse(null);
+        this.motivo = other.optionalMotivo().map(StringFilter::copy).orElse(null);
+        this.total = other.optionalTotal().map(BigDecimalFilter::copy).orElse(null);
+        this.ventaId = other.optionalVentaId().map(LongFilter::copy).orElse(null);
+        this.clienteId = other.optionalClienteId().map(LongFilter::copy).orElse(null);
+        this.noFactura = other.optionalNoFactura().map(LongFilter::copy).orElse(null);
+        this.clienteNombre = other.optionalClienteNombre().map(StringFilter::copy).orElse(null);
+        this.distinct = other.distinct;
+    }
+
+    @Override
+    public DevolucionCriteria copy() {
+        return new DevolucionCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public Optional<LongFilter> optionalId() {
+        return Optional.ofNullable(id);
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            setId(new LongFilter());
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public InstantFilter getFecha() {
+        return fecha;
+    }
+
+    public Optional<InstantFilter> optionalFecha() {
+        return Optional.ofNullable(fecha);
+    }
+
+    public InstantFilter fecha() {
+        if (fecha == null) {
+            setFecha(new InstantFilter());
+        }
+        return fecha;
+    }
+
+    public void setFecha(InstantFilter fecha) {
+        this.fecha = fecha;
+    }
+
+    public StringFilter getMotivo() {
+        return motivo;
+    }
+
+    public Optional<StringFilter> optionalMotivo() {
+        return Optional.ofNullable(motivo);
+    }
+
+    public StringFilter motivo() {
+        if (motivo == null) {
+            setMotivo(new StringFilter());
+        }
+        return motivo;
+    }
+
+    public void setMotivo(StringFilter motivo) {
+        this.motivo = motivo;
+    }
+
+    public BigDecimalFilter getTotal() {
+        return total;
+    }
+
+    public Optional<BigDecimalFilter> optionalTotal() {
+        return Optional.ofNullable(total);
+    }
+
+    public BigDecimalFilter total() {
+        if (total == null) {
+            setTotal(new BigDecimalFilter());
+        }
+        return total;
+    }
+
+    public void setTotal(BigDecimalFilter total) {
+        this.total = total;
+    }
+
+    public LongFilter getVentaId() {
+        return ventaId;
+    }
+
+    public Optional<LongFilter> optionalVentaId() {
+        return Optional.ofNullable(ventaId);
+    }
+
+    public LongFilter ventaId() {
+        if (ventaId == null) {
+            setVentaId(new LongFilter());
+        }
+        return ventaId;
+    }
+
+    public void setVentaId(LongFilter ventaId) {
+        this.ventaId = ventaId;
+    }
+
+    public LongFilter getClienteId() {
+        return clienteId;
+    }
+
+    public Optional<LongFilter> optionalClienteId() {
+        return Optional.ofNullable(clienteId);
+    }
+
+    public LongFilter clienteId() {
+        if (clienteId == null) {
+            setClienteId(new LongFilter());
+        }
+        return clienteId;
+    }
+
+    public void setClienteId(LongFilter clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    public LongFilter getNoFactura() {
+        return noFactura;
+    }
+
+    public Optional<LongFilter> optionalNoFactura() {
+        return Optional.ofNullable(noFactura);
+    }
+
+    public LongFilter noFactura() {
+        if (noFactura == null) {
+            setNoFactura(new LongFilter());
+        }
+        return noFactura;
+    }
+
+    public void setNoFactura(LongFilter noFactura) {
+        this.noFactura = noFactura;
+    }
+
+    public StringFilter getClienteNombre() {
+        return clienteNombre;
+    }
+
+    public Optional<StringFilter> optionalClienteNombre() {
+        return Optional.ofNullable(clienteNombre);
+    }
+
+    public StringFilter clienteNombre() {
+        if (clienteNombre == null) {
+            setClienteNombre(new StringFilter());
+        }
+        return clienteNombre;
+    }
+
+    public void setClienteNombre(StringFilter clienteNombre) {
+        this.clienteNombre = clienteNombre;
+    }
+
+    public Boolean getDistinct() {
+        return distinct;
+    }
+
+    public Optional<Boolean> optionalDistinct() {
+        return Optional.ofNullable(distinct);
+    }
+
+    public Boolean distinct() {
+        if (distinct == null) {
+            setDistinct(true);
+        }
+        return distinct;
+    }
+
+    public void setDistinct(Boolean distinct) {
+        this.distinct = distinct;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final DevolucionCriteria that = (DevolucionCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(fecha, that.fecha) &&
+            Objects.equals(motivo, that.motivo) &&
+            Objects.equals(total, that.total) &&
+            Objects.equals(ventaId, that.ventaId) &&
+            Objects.equals(clienteId, that.clienteId) &&
+            Objects.equals(noFactura, that.noFactura) &&
+            Objects.equals(clienteNombre, that.clienteNombre) &&
+            Objects.equals(distinct, that.distinct)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, fecha, motivo, total, ventaId, clienteId, noFactura, clienteNombre, distinct);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DevolucionCriteria{" +
+            optionalId().map(f -> "id=" + f + ", ").orElse("") +
+            optionalFecha().map(f -> "fecha=" + f + ", ").orElse("") +
+            optionalMotivo().map(f -> "motivo=" + f + ", ").orElse("") +
+            optionalTotal().map(f -> "total=" + f + ", ").orElse("") +
+            optionalVentaId().map(f -> "ventaId=" + f + ", ").orElse("") +
+            optionalClienteId().map(f -> "clienteId=" + f + ", ").orElse("") +
+            optionalNoFactura().map(f -> "noFactura=" + f + ", ").orElse("") +
+            optionalClienteNombre().map(f -> "clienteNombre=" + f + ", ").orElse("") +
+            optionalDistinct().map(f -> "distinct=" + f + ", ").orElse("") +
+        "}";
+    }
+}
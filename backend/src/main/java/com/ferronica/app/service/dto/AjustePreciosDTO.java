@@ -0,0 +1,143 @@
+package com.ferronica.app.service.dto;
+
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A bulk change of the {@code precio} of the {@link com.ferronica.app.domain.Articulo}s
+ * of a categoria subtree, of a proveedor, or of a list of ids.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class AjustePreciosDTO implements Serializable {
+
+    /**
+     * How {@code valor} changes the price.
+     */
+    public enum TipoAjuste {
+        /** Add {@code valor} percent of the current price. */
+        PORCENTAJE,
+        /** Add {@code valor} to the current price. */
+        MONTO,
+    }
+
+    /**
+     * Direction of the rounding to a multiple of {@code redondeo}.
+     */
+    public enum ModoRedondeo {
+        CERCANO,
+        ARRIBA,
+        ABAJO,
+    }
+
+    @NotNull
+    private TipoAjuste tipo;
+
+    @NotNull
+    private BigDecimal valor;
+
+    @DecimalMin(value = "0.01")
+    private BigDecimal redondeo = new BigDecimal("0.01");
+
+    private ModoRedondeo modoRedondeo = ModoRedondeo.CERCANO;
+
+    private Long categoriaId;
+
+    private Long proveedorId;
+
+    private List<Long> articuloIds;
+
+    private boolean todos;
+
+    @Size(max = 100)
+    private String motivo;
+
+    public TipoAjuste getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(TipoAjuste tipo) {
+        this.tipo = tipo;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    public BigDecimal getRedondeo() {
+        return redondeo;
+    }
+
+    public void setRedondeo(BigDecimal redondeo) {
+        this.redondeo = redondeo;
+    }
+
+    public ModoRedondeo getModoRedondeo() {
+        return modoRedondeo;
+    }
+
+    public void setModoRedondeo(ModoRedondeo modoRedondeo) {
+        this.modoRedondeo = modoRedondeo;
+    }
+
+    public Long getCategoriaId() {
+        return categoriaId;
+    }
+
+    public void setCategoriaId(Long categoriaId) {
+        this.categoriaId = categoriaId;
+    }
+
+    public Long getProveedorId() {
+        return proveedorId;
+    }
+
+    public void setProveedorId(Long proveedorId) {
+        this.proveedorId = proveedorId;
+    }
+
+    public List<Long> getArticuloIds() {
+        return articuloIds;
+    }
+
+    public void setArticuloIds(List<Long> articuloIds) {
+        this.articuloIds = articuloIds;
+    }
+
+    public boolean isTodos() {
+        return todos;
+    }
+
+    public void setTodos(boolean todos) {
+        this.todos = todos;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    public void setMotivo(String motivo) {
+        this.motivo = motivo;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AjustePreciosDTO{" +
+            "tipo='" + getTipo() + "'" +
+            ", valor=" + getValor() +
+            ", redondeo=" + getRedondeo() +
+            ", modoRedondeo='" + getModoRedondeo() + "'" +
+            ", categoriaId=" + getCategoriaId() +
+            ", proveedorId=" + getProveedorId() +
+            ", articuloIds=" + getArticuloIds() +
+            ", todos=" + isTodos() +
+            ", motivo='" + getMotivo() + "'" +
+            "}";
+    }
+}
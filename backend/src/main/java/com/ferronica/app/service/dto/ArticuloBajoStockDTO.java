@@ -0,0 +1,109 @@
+package com.ferronica.app.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Stock level of an active {@link com.ferronica.app.domain.Articulo} for the
+ * low-stock alerts. {@code bajoStock} tells whether the article is at or below
+ * its minimum; it is {@code false} in the change events of articles that left
+ * the list.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class ArticuloBajoStockDTO implements Serializable {
+
+    private Long id;
+
+    private String codigo;
+
+    private String nombre;
+
+    private BigDecimal existencia;
+
+    private BigDecimal existenciaMinima;
+
+    private Boolean bajoStock;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public void setCodigo(String codigo) {
+        this.codigo = codigo;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public BigDecimal getExistencia() {
+        return existencia;
+    }
+
+    public void setExistencia(BigDecimal existencia) {
+        this.existencia = existencia;
+    }
+
+    public BigDecimal getExistenciaMinima() {
+        return existenciaMinima;
+    }
+
+    public void setExistenciaMinima(BigDecimal existenciaMinima) {
+        this.existenciaMinima = existenciaMinima;
+    }
+
+    public Boolean getBajoStock() {
+        return bajoStock;
+    }
+
+    public void setBajoStock(Boolean bajoStock) {
+        this.bajoStock = bajoStock;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ArticuloBajoStockDTO)) {
+            return false;
+        }
+
+        ArticuloBajoStockDTO articuloBajoStockDTO = (ArticuloBajoStockDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, articuloBajoStockDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ArticuloBajoStockDTO{" +
+            "id=" + getId() +
+            ", codigo='" + getCodigo() + "'" +
+            ", nombre='" + getNombre() + "'" +
+            ", existencia=" + getExistencia() +
+            ", existenciaMinima=" + getExistenciaMinima() +
+            ", bajoStock=" + getBajoStock() +
+            "}";
+    }
+}
@@ -0,0 +1,64 @@
+package com.ferronica.app.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * How much of one {@link com.ferronica.app.domain.Articulo} of a
+ * {@link com.ferronica.app.domain.Venta} can still be returned: the quantity
+ * sold, the quantity already returned and the difference.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class CantidadRetornableDTO implements Serializable {
+
+    private Long articuloId;
+
+    private BigDecimal vendida;
+
+    private BigDecimal devuelta;
+
+    private BigDecimal retornable;
+
+    public Long getArticuloId() {
+        return articuloId;
+    }
+
+    public void setArticuloId(Long articuloId) {
+        this.articuloId = articuloId;
+    }
+
+    public BigDecimal getVendida() {
+        return vendida;
+    }
+
+    public void setVendida(BigDecimal vendida) {
+        this.vendida = vendida;
+    }
+
+    public BigDecimal getDevuelta() {
+        return devuelta;
+    }
+
+    public void setDevuelta(BigDecimal devuelta) {
+        this.devuelta = devuelta;
+    }
+
+    public BigDecimal getRetornable() {
+        return retornable;
+    }
+
+    public void setRetornable(BigDecimal retornable) {
+        this.retornable = retornable;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CantidadRetornableDTO{" +
+            "articuloId=" + getArticuloId() +
+            ", vendida=" + getVendida() +
+            ", devuelta=" + getDevuelta() +
+            ", retornable=" + getRetornable() +
+            "}";
+    }
+}
@@ -0,0 +1,109 @@
+package com.ferronica.app.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Purchases of one {@link com.ferronica.app.domain.Articulo} from a
+ * {@link com.ferronica.app.domain.Proveedor} over a date range. {@code costoPromedio} is
+ * the total divided by the quantity received.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class CompraArticuloProveedorDTO implements Serializable {
+
+    private Long articuloId;
+
+    private String codigo;
+
+    private String nombre;
+
+    private Long compras;
+
+    private BigDecimal cantidad;
+
+    private BigDecimal total;
+
+    private BigDecimal costoPromedio;
+
+    private Instant ultimaCompra;
+
+    public Long getArticuloId() {
+        return articuloId;
+    }
+
+    public void setArticuloId(Long articuloId) {
+        this.articuloId = articuloId;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public void setCodigo(String codigo) {
+        this.codigo = codigo;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public Long getCompras() {
+        return compras;
+    }
+
+    public void setCompras(Long compras) {
+        this.compras = compras;
+    }
+
+    public BigDecimal getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(BigDecimal cantidad) {
+        this.cantidad = cantidad;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public BigDecimal getCostoPromedio() {
+        return costoPromedio;
+    }
+
+    public void setCostoPromedio(BigDecimal costoPromedio) {
+        this.costoPromedio = costoPromedio;
+    }
+
+    public Instant getUltimaCompra() {
+        return ultimaCompra;
+    }
+
+    public void setUltimaCompra(Instant ultimaCompra) {
+        this.ultimaCompra = ultimaCompra;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CompraArticuloProveedorDTO{" +
+            "articuloId=" + getArticuloId() +
+            ", codigo='" + getCodigo() + "'" +
+            ", nombre='" + getNombre() + "'" +
+            ", compras=" + getCompras() +
+            ", cantidad=" + getCantidad() +
+            ", total=" + getTotal() +
+            ", costoPromedio=" + getCostoPromedio() +
+            ", ultimaCompra='" + getUltimaCompra() + "'" +
+            "}";
+    }
+}
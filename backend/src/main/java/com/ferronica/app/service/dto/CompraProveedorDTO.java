@@ -0,0 +1,86 @@
+package com.ferronica.app.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Purchases from one {@link com.ferronica.app.domain.Proveedor} over a date range:
+ * the number of active {@link com.ferronica.app.domain.Ingreso}s and the total of their lines.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class CompraProveedorDTO implements Serializable {
+
+    private Long proveedorId;
+
+    private String nombre;
+
+    private String ruc;
+
+    private Long compras;
+
+    private BigDecimal total;
+
+    private Instant ultimaCompra;
+
+    public Long getProveedorId() {
+        return proveedorId;
+    }
+
+    public void setProveedorId(Long proveedorId) {
+        this.proveedorId = proveedorId;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getRuc() {
+        return ruc;
+    }
+
+    public void setRuc(String ruc) {
+        this.ruc = ruc;
+    }
+
+    public Long getCompras() {
+        return compras;
+    }
+
+    public void setCompras(Long compras) {
+        this.compras = compras;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public Instant getUltimaCompra() {
+        return ultimaCompra;
+    }
+
+    public void setUltimaCompra(Instant ultimaCompra) {
+        this.ultimaCompra = ultimaCompra;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CompraProveedorDTO{" +
+            "proveedorId=" + getProveedorId() +
+            ", nombre='" + getNombre() + "'" +
+            ", ruc='" + getRuc() + "'" +
+            ", compras=" + getCompras() +
+            ", total=" + getTotal() +
+            ", ultimaCompra='" + getUltimaCompra() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,47 @@
+package com.ferronica.app.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * Result of deactivating a {@link com.ferronica.app.domain.Categoria} with its
+ * subcategorias and their articulos.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class DesactivacionCategoriaDTO implements Serializable {
+
+    private Integer categorias;
+
+    private Integer articulos;
+
+    public DesactivacionCategoriaDTO() {}
+
+    public DesactivacionCategoriaDTO(Integer categorias, Integer articulos) {
+        this.categorias = categorias;
+        this.articulos = articulos;
+    }
+
+    public Integer getCategorias() {
+        return categorias;
+    }
+
+    public void setCategorias(Integer categorias) {
+        this.categorias = categorias;
+    }
+
+    public Integer getArticulos() {
+        return articulos;
+    }
+
+    public void setArticulos(Integer articulos) {
+        this.articulos = articulos;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DesactivacionCategoriaDTO{" +
+            "categorias=" + getCategorias() +
+            ", articulos=" + getArticulos() +
+            "}";
+    }
+}
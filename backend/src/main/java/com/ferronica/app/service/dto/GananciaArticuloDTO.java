@@ -0,0 +1,118 @@
+package com.ferronica.app.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Gross profit of one {@link com.ferronica.app.domain.Articulo} over a date range:
+ * the amount sold less the cost at the time of sale, net of returns.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class GananciaArticuloDTO implements Serializable {
+
+    private Long articuloId;
+
+    private String codigo;
+
+    private String nombre;
+
+    private String categoria;
+
+    private BigDecimal cantidad;
+
+    private BigDecimal ventas;
+
+    private BigDecimal costo;
+
+    private BigDecimal utilidad;
+
+    private BigDecimal margen;
+
+    public Long getArticuloId() {
+        return articuloId;
+    }
+
+    public void setArticuloId(Long articuloId) {
+        this.articuloId = articuloId;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public void setCodigo(String codigo) {
+        this.codigo = codigo;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getCategoria() {
+        return categoria;
+    }
+
+    public void setCategoria(String categoria) {
+        this.categoria = categoria;
+    }
+
+    public BigDecimal getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(BigDecimal cantidad) {
+        this.cantidad = cantidad;
+    }
+
+    public BigDecimal getVentas() {
+        return ventas;
+    }
+
+    public void setVentas(BigDecimal ventas) {
+        this.ventas = ventas;
+    }
+
+    public BigDecimal getCosto() {
+        return costo;
+    }
+
+    public void setCosto(BigDecimal costo) {
+        this.costo = costo;
+    }
+
+    public BigDecimal getUtilidad() {
+        return utilidad;
+    }
+
+    public void setUtilidad(BigDecimal utilidad) {
+        this.utilidad = utilidad;
+    }
+
+    public BigDecimal getMargen() {
+        return margen;
+    }
+
+    public void setMargen(BigDecimal margen) {
+        this.margen = margen;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "GananciaArticuloDTO{" +
+            "articuloId=" + getArticuloId() +
+            ", codigo='" + getCodigo() + "'" +
+            ", nombre='" + getNombre() + "'" +
+            ", categoria='" + getCategoria() + "'" +
+            ", cantidad=" + getCantidad() +
+            ", ventas=" + getVentas() +
+            ", costo=" + getCosto() +
+            ", utilidad=" + getUtilidad() +
+            ", margen=" + getMargen() +
+            "}";
+    }
+}
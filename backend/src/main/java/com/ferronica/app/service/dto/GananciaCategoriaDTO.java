@@ -0,0 +1,96 @@
+package com.ferronica.app.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Gross profit of the articulos of one {@link com.ferronica.app.domain.Categoria} over a
+ * date range, net of returns. A {@code null} categoriaId groups the articulos without categoria.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class GananciaCategoriaDTO implements Serializable {
+
+    private Long categoriaId;
+
+    private String nombre;
+
+    private BigDecimal cantidad;
+
+    private BigDecimal ventas;
+
+    private BigDecimal costo;
+
+    private BigDecimal utilidad;
+
+    private BigDecimal margen;
+
+    public Long getCategoriaId() {
+        return categoriaId;
+    }
+
+    public void setCategoriaId(Long categoriaId) {
+        this.categoriaId = categoriaId;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public BigDecimal getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(BigDecimal cantidad) {
+        this.cantidad = cantidad;
+    }
+
+    public BigDecimal getVentas() {
+        return ventas;
+    }
+
+    public void setVentas(BigDecimal ventas) {
+        this.ventas = ventas;
+    }
+
+    public BigDecimal getCosto() {
+        return costo;
+    }
+
+    public void setCosto(BigDecimal costo) {
+        this.costo = costo;
+    }
+
+    public BigDecimal getUtilidad() {
+        return utilidad;
+    }
+
+    public void setUtilidad(BigDecimal utilidad) {
+        this.utilidad = utilidad;
+    }
+
+    public BigDecimal getMargen() {
+        return margen;
+    }
+
+    public void setMargen(BigDecimal margen) {
+        this.margen = margen;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "GananciaCategoriaDTO{" +
+            "categoriaId=" + getCategoriaId() +
+            ", nombre='" + getNombre() + "'" +
+            ", cantidad=" + getCantidad() +
+            ", ventas=" + getVentas() +
+            ", costo=" + getCosto() +
+            ", utilidad=" + getUtilidad() +
+            ", margen=" + getMargen() +
+            "}";
+    }
+}
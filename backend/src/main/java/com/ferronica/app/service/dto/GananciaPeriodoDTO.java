@@ -0,0 +1,97 @@
+package com.ferronica.app.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Gross profit over one period, from {@code inicio} inclusive to {@code fin} exclusive,
+ * net of the returns registered in it.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class GananciaPeriodoDTO implements Serializable {
+
+    private Instant inicio;
+
+    private Instant fin;
+
+    private BigDecimal cantidad;
+
+    private BigDecimal ventas;
+
+    private BigDecimal costo;
+
+    private BigDecimal utilidad;
+
+    private BigDecimal margen;
+
+    public Instant getInicio() {
+        return inicio;
+    }
+
+    public void setInicio(Instant inicio) {
+        this.inicio = inicio;
+    }
+
+    public Instant getFin() {
+        return fin;
+    }
+
+    public void setFin(Instant fin) {
+        this.fin = fin;
+    }
+
+    public BigDecimal getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(BigDecimal cantidad) {
+        this.cantidad = cantidad;
+    }
+
+    public BigDecimal getVentas() {
+        return ventas;
+    }
+
+    public void setVentas(BigDecimal ventas) {
+        this.ventas = ventas;
+    }
+
+    public BigDecimal getCosto() {
+        return costo;
+    }
+
+    public void setCosto(BigDecimal costo) {
+        this.costo = costo;
+    }
+
+    public BigDecimal getUtilidad() {
+        return utilidad;
+    }
+
+    public void setUtilidad(BigDecimal utilidad) {
+        this.utilidad = utilidad;
+    }
+
+    public BigDecimal getMargen() {
+        return margen;
+    }
+
+    public void setMargen(BigDecimal margen) {
+        this.margen = margen;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "GananciaPeriodoDTO{" +
+            "inicio='" + getInicio() + "'" +
+            ", fin='" + getFin() + "'" +
+            ", cantidad=" + getCantidad() +
+            ", ventas=" + getVentas() +
+            ", costo=" + getCosto() +
+            ", utilidad=" + getUtilidad() +
+            ", margen=" + getMargen() +
+            "}";
+    }
+}
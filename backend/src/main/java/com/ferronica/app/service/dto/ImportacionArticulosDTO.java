@@ -0,0 +1,203 @@
+package com.ferronica.app.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress of a bulk import of {@link com.ferronica.app.domain.Articulo}s from
+ * a CSV or XLSX file, with the rows that could not be imported.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class ImportacionArticulosDTO implements Serializable {
+
+    /**
+     * State of an import.
+     */
+    public enum Estado {
+        EN_PROCESO,
+        TERMINADA,
+        FALLIDA,
+    }
+
+    private String id;
+
+    private String archivo;
+
+    private Estado estado;
+
+    private Long filasLeidas;
+
+    private Long insertados;
+
+    private Long actualizados;
+
+    private Long filasConError;
+
+    private Instant inicio;
+
+    private Instant fin;
+
+    private String mensaje;
+
+    private List<ErrorFila> errores = new ArrayList<>();
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getArchivo() {
+        return archivo;
+    }
+
+    public void setArchivo(String archivo) {
+        this.archivo = archivo;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public void setEstado(Estado estado) {
+        this.estado = estado;
+    }
+
+    public Long getFilasLeidas() {
+        return filasLeidas;
+    }
+
+    public void setFilasLeidas(Long filasLeidas) {
+        this.filasLeidas = filasLeidas;
+    }
+
+    public Long getInsertados() {
+        return insertados;
+    }
+
+    public void setInsertados(Long insertados) {
+        this.insertados = insertados;
+    }
+
+    public Long getActualizados() {
+        return actualizados;
+    }
+
+    public void setActualizados(Long actualizados) {
+        this.actualizados = actualizados;
+    }
+
+    public Long getFilasConError() {
+        return filasConError;
+    }
+
+    public void setFilasConError(Long filasConError) {
+        this.filasConError = filasConError;
+    }
+
+    public Instant getInicio() {
+        return inicio;
+    }
+
+    public void setInicio(Instant inicio) {
+        this.inicio = inicio;
+    }
+
+    public Instant getFin() {
+        return fin;
+    }
+
+    public void setFin(Instant fin) {
+        this.fin = fin;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+
+    public List<ErrorFila> getErrores() {
+        return errores;
+    }
+
+    public void setErrores(List<ErrorFila> errores) {
+        this.errores = errores;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ImportacionArticulosDTO{" +
+            "id='" + getId() + "'" +
+            ", archivo='" + getArchivo() + "'" +
+            ", estado='" + getEstado() + "'" +
+            ", filasLeidas=" + getFilasLeidas() +
+            ", insertados=" + getInsertados() +
+            ", actualizados=" + getActualizados() +
+            ", filasConError=" + getFilasConError() +
+            ", inicio='" + getInicio() + "'" +
+            ", fin='" + getFin() + "'" +
+            "}";
+    }
+
+    /**
+     * A row of the file that was not imported.
+     */
+    public static class ErrorFila implements Serializable {
+
+        private Integer fila;
+
+        private String codigo;
+
+        private String mensaje;
+
+        public ErrorFila() {}
+
+        public ErrorFila(Integer fila, String codigo, String mensaje) {
+            this.fila = fila;
+            this.codigo = codigo;
+            this.mensaje = mensaje;
+        }
+
+        public Integer getFila() {
+            return fila;
+        }
+
+        public void setFila(Integer fila) {
+            this.fila = fila;
+        }
+
+        public String getCodigo() {
+            return codigo;
+        }
+
+        public void setCodigo(String codigo) {
+            this.codigo = codigo;
+        }
+
+        public String getMensaje() {
+            return mensaje;
+        }
+
+        public void setMensaje(String mensaje) {
+            this.mensaje = mensaje;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "ErrorFila{" +
+                "fila=" + getFila() +
+                ", codigo='" + getCodigo() + "'" +
+                ", mensaje='" + getMensaje() + "'" +
+                "}";
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.ferronica.app.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * Allocation state of a {@link com.ferronica.app.domain.NumeracionFactura}
+ * series: what its sequence has handed out versus what was persisted and used.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class NumeracionFacturaEstadoDTO implements Serializable {
+
+    private Long numeracionId;
+
+    private String serie;
+
+    private Long correlativoActual;
+
+    private Long ultimoAsignado;
+
+    private Long facturasEmitidas;
+
+    private Long huecos;
+
+    public Long getNumeracionId() {
+        return numeracionId;
+    }
+
+    public void setNumeracionId(Long numeracionId) {
+        this.numeracionId = numeracionId;
+    }
+
+    public String getSerie() {
+        return serie;
+    }
+
+    public void setSerie(String serie) {
+        this.serie = serie;
+    }
+
+    public Long getCorrelativoActual() {
+        return correlativoActual;
+    }
+
+    public void setCorrelativoActual(Long correlativoActual) {
+        this.correlativoActual = correlativoActual;
+    }
+
+    public Long getUltimoAsignado() {
+        return ultimoAsignado;
+    }
+
+    public void setUltimoAsignado(Long ultimoAsignado) {
+        this.ultimoAsignado = ultimoAsignado;
+    }
+
+    public Long getFacturasEmitidas() {
+        return facturasEmitidas;
+    }
+
+    public void setFacturasEmitidas(Long facturasEmitidas) {
+        this.facturasEmitidas = facturasEmitidas;
+    }
+
+    public Long getHuecos() {
+        return huecos;
+    }
+
+    public void setHuecos(Long huecos) {
+        this.huecos = huecos;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NumeracionFacturaEstadoDTO{" +
+            "numeracionId=" + getNumeracionId() +
+            ", serie='" + getSerie() + "'" +
+            ", correlativoActual=" + getCorrelativoActual() +
+            ", ultimoAsignado=" + getUltimoAsignado() +
+            ", facturasEmitidas=" + getFacturasEmitidas() +
+            ", huecos=" + getHuecos() +
+            "}";
+    }
+}
@@ -0,0 +1,124 @@
+package com.ferronica.app.service.dto;
+
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A DTO for the {@link com.ferronica.app.domain.SesionCaja} entity, with its
+ * running totals.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class SesionCajaDTO implements Serializable {
+
+    private Long id;
+
+    private Instant fechaApertura;
+
+    private Instant fechaCierre;
+
+    @DecimalMin(value = "0")
+    private BigDecimal montoInicial;
+
+    @DecimalMin(value = "0")
+    private BigDecimal montoContado;
+
+    private UsuarioDTO usuario;
+
+    private List<SesionCajaTotalDTO> totales = new ArrayList<>();
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Instant getFechaApertura() {
+        return fechaApertura;
+    }
+
+    public void setFechaApertura(Instant fechaApertura) {
+        this.fechaApertura = fechaApertura;
+    }
+
+    public Instant getFechaCierre() {
+        return fechaCierre;
+    }
+
+    public void setFechaCierre(Instant fechaCierre) {
+        this.fechaCierre = fechaCierre;
+    }
+
+    public BigDecimal getMontoInicial() {
+        return montoInicial;
+    }
+
+    public void setMontoInicial(BigDecimal montoInicial) {
+        this.montoInicial = montoInicial;
+    }
+
+    public BigDecimal getMontoContado() {
+        return montoContado;
+    }
+
+    public void setMontoContado(BigDecimal montoContado) {
+        this.montoContado = montoContado;
+    }
+
+    public UsuarioDTO getUsuario() {
+        return usuario;
+    }
+
+    public void setUsuario(UsuarioDTO usuario) {
+        this.usuario = usuario;
+    }
+
+    public List<SesionCajaTotalDTO> getTotales() {
+        return totales;
+    }
+
+    public void setTotales(List<SesionCajaTotalDTO> totales) {
+        this.totales = totales;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SesionCajaDTO)) {
+            return false;
+        }
+
+        SesionCajaDTO sesionCajaDTO = (SesionCajaDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, sesionCajaDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SesionCajaDTO{" +
+            "id=" + getId() +
+            ", fechaApertura='" + getFechaApertura() + "'" +
+            ", fechaCierre='" + getFechaCierre() + "'" +
+            ", montoInicial=" + getMontoInicial() +
+            ", montoContado=" + getMontoContado() +
+            ", usuario=" + getUsuario() +
+            ", totales=" + getTotales() +
+            "}";
+    }
+}
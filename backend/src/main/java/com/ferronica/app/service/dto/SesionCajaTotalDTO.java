@@ -0,0 +1,109 @@
+package com.ferronica.app.service.dto;
+
+import com.ferronica.app.domain.enumeration.MetodoPagoEnum;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Running totals of a {@link com.ferronica.app.domain.SesionCaja} for one
+ * payment method and currency. Amounts are in that currency, except
+ * {@code totalEnMonedaBase}.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class SesionCajaTotalDTO implements Serializable {
+
+    private MetodoPagoEnum metodoPago;
+
+    private Long monedaId;
+
+    private Integer cantidadVentas;
+
+    private BigDecimal total;
+
+    private BigDecimal totalEnMonedaBase;
+
+    private BigDecimal cambio;
+
+    private Integer cantidadAnuladas;
+
+    private BigDecimal totalAnulado;
+
+    public MetodoPagoEnum getMetodoPago() {
+        return metodoPago;
+    }
+
+    public void setMetodoPago(MetodoPagoEnum metodoPago) {
+        this.metodoPago = metodoPago;
+    }
+
+    public Long getMonedaId() {
+        return monedaId;
+    }
+
+    public void setMonedaId(Long monedaId) {
+        this.monedaId = monedaId;
+    }
+
+    public Integer getCantidadVentas() {
+        return cantidadVentas;
+    }
+
+    public void setCantidadVentas(Integer cantidadVentas) {
+        this.cantidadVentas = cantidadVentas;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public BigDecimal getTotalEnMonedaBase() {
+        return totalEnMonedaBase;
+    }
+
+    public void setTotalEnMonedaBase(BigDecimal totalEnMonedaBase) {
+        this.totalEnMonedaBase = totalEnMonedaBase;
+    }
+
+    public BigDecimal getCambio() {
+        return cambio;
+    }
+
+    public void setCambio(BigDecimal cambio) {
+        this.cambio = cambio;
+    }
+
+    public Integer getCantidadAnuladas() {
+        return cantidadAnuladas;
+    }
+
+    public void setCantidadAnuladas(Integer cantidadAnuladas) {
+        this.cantidadAnuladas = cantidadAnuladas;
+    }
+
+    public BigDecimal getTotalAnulado() {
+        return totalAnulado;
+    }
+
+    public void setTotalAnulado(BigDecimal totalAnulado) {
+        this.totalAnulado = totalAnulado;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SesionCajaTotalDTO{" +
+            "metodoPago='" + getMetodoPago() + "'" +
+            ", monedaId=" + getMonedaId() +
+            ", cantidadVentas=" + getCantidadVentas() +
+            ", total=" + getTotal() +
+            ", totalEnMonedaBase=" + getTotalEnMonedaBase() +
+            ", cambio=" + getCambio() +
+            ", cantidadAnuladas=" + getCantidadAnuladas() +
+            ", totalAnulado=" + getTotalAnulado() +
+            "}";
+    }
+}
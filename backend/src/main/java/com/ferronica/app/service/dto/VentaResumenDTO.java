@@ -0,0 +1,296 @@
+package com.ferronica.app.service.dto;
+
+import com.ferronica.app.domain.enumeration.MetodoPagoEnum;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A list-view projection of the {@link com.ferronica.app.domain.Venta} entity:
+ * the header columns plus the few fields of its relationships shown in the
+ * tables, without the {@code detalles}. Built directly by the listing query
+ * through its column constructor.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class VentaResumenDTO implements Serializable {
+
+    private Long id;
+
+    private Instant fecha;
+
+    private Long noFactura;
+
+    private BigDecimal subtotal;
+
+    private BigDecimal iva;
+
+    private BigDecimal total;
+
+    private BigDecimal totalEnMonedaBase;
+
+    private MetodoPagoEnum metodoPago;
+
+    private String stripeId;
+
+    private Boolean esContado;
+
+    private BigDecimal tipoCambioVenta;
+
+    private Boolean anulada;
+
+    private BigDecimal descuento;
+
+    private BigDecimal importeRecibido;
+
+    private BigDecimal cambio;
+
+    private ClienteDTO cliente;
+
+    private UsuarioDTO usuario;
+
+    private MonedaDTO moneda;
+
+    private NumeracionFacturaDTO numeracion;
+
+    public VentaResumenDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    // prettier-ignore
+    public VentaResumenDTO(
+            Long id, Instant fecha, Long noFactura, BigDecimal subtotal, BigDecimal iva, BigDecimal total,
+            BigDecimal totalEnMonedaBase, MetodoPagoEnum metodoPago, String stripeId, Boolean esContado,
+            BigDecimal tipoCambioVenta, Boolean anulada, BigDecimal descuento, BigDecimal importeRecibido,
+            BigDecimal cambio,
+            Long clienteId, String clienteCedula, String clienteNombre,
+            Long usuarioId, String usuarioUsername, String usuarioNombre,
+            Long monedaId, String monedaSimbolo,
+            Long numeracionId, String numeracionSerie) {
+        this.id = id;
+        this.fecha = fecha;
+        this.noFactura = noFactura;
+        this.subtotal = subtotal;
+        this.iva = iva;
+        this.total = total;
+        this.totalEnMonedaBase = totalEnMonedaBase;
+        this.metodoPago = metodoPago;
+        this.stripeId = stripeId;
+        this.esContado = esContado;
+        this.tipoCambioVenta = tipoCambioVenta;
+        this.anulada = anulada;
+        this.descuento = descuento;
+        this.importeRecibido = importeRecibido;
+        this.cambio = cambio;
+        if (clienteId != null) {
+            this.cliente = new ClienteDTO();
+            this.cliente.setId(clienteId);
+            this.cliente.setCedula(clienteCedula);
+            this.cliente.setNombre(clienteNombre);
+        }
+        if (usuarioId != null) {
+            this.usuario = new UsuarioDTO();
+            this.usuario.setId(usuarioId);
+            this.usuario.setUsername(usuarioUsername);
+            this.usuario.setNombre(usuarioNombre);
+        }
+        if (monedaId != null) {
+            this.moneda = new MonedaDTO();
+            this.moneda.setId(monedaId);
+            this.moneda.setSimbolo(monedaSimbolo);
+        }
+        if (numeracionId != null) {
+            this.numeracion = new NumeracionFacturaDTO();
+            this.numeracion.setId(numeracionId);
+            this.numeracion.setSerie(numeracionSerie);
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Instant getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Instant fecha) {
+        this.fecha = fecha;
+    }
+
+    public Long getNoFactura() {
+        return noFactura;
+    }
+
+    public void setNoFactura(Long noFactura) {
+        this.noFactura = noFactura;
+    }
+
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+
+    public BigDecimal getIva() {
+        return iva;
+    }
+
+    public void setIva(BigDecimal iva) {
+        this.iva = iva;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public BigDecimal getTotalEnMonedaBase() {
+        return totalEnMonedaBase;
+    }
+
+    public void setTotalEnMonedaBase(BigDecimal totalEnMonedaBase) {
+        this.totalEnMonedaBase = totalEnMonedaBase;
+    }
+
+    public MetodoPagoEnum getMetodoPago() {
+        return metodoPago;
+    }
+
+    public void setMetodoPago(MetodoPagoEnum metodoPago) {
+        this.metodoPago = metodoPago;
+    }
+
+    public String getStripeId() {
+        return stripeId;
+    }
+
+    public void setStripeId(String stripeId) {
+        this.stripeId = stripeId;
+    }
+
+    public Boolean getEsContado() {
+        return esContado;
+    }
+
+    public void setEsContado(Boolean esContado) {
+        this.esContado = esContado;
+    }
+
+    public BigDecimal getTipoCambioVenta() {
+        return tipoCambioVenta;
+    }
+
+    public void setTipoCambioVenta(BigDecimal tipoCambioVenta) {
+        this.tipoCambioVenta = tipoCambioVenta;
+    }
+
+    public Boolean getAnulada() {
+        return anulada;
+    }
+
+    public void setAnulada(Boolean anulada) {
+        this.anulada = anulada;
+    }
+
+    public BigDecimal getDescuento() {
+        return descuento;
+    }
+
+    public void setDescuento(BigDecimal descuento) {
+        this.descuento = descuento;
+    }
+
+    public BigDecimal getImporteRecibido() {
+        return importeRecibido;
+    }
+
+    public void setImporteRecibido(BigDecimal importeRecibido) {
+        this.importeRecibido = importeRecibido;
+    }
+
+    public BigDecimal getCambio() {
+        return cambio;
+    }
+
+    public void setCambio(BigDecimal cambio) {
+        this.cambio = cambio;
+    }
+
+    public ClienteDTO getCliente() {
+        return cliente;
+    }
+
+    public void setCliente(ClienteDTO cliente) {
+        this.cliente = cliente;
+    }
+
+    public UsuarioDTO getUsuario() {
+        return usuario;
+    }
+
+    public void setUsuario(UsuarioDTO usuario) {
+        this.usuario = usuario;
+    }
+
+    public MonedaDTO getMoneda() {
+        return moneda;
+    }
+
+    public void setMoneda(MonedaDTO moneda) {
+        this.moneda = moneda;
+    }
+
+    public NumeracionFacturaDTO getNumeracion() {
+        return numeracion;
+    }
+
+    public void setNumeracion(NumeracionFacturaDTO numeracion) {
+        this.numeracion = numeracion;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof VentaResumenDTO)) {
+            return false;
+        }
+
+        VentaResumenDTO ventaResumenDTO = (VentaResumenDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, ventaResumenDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "VentaResumenDTO{" +
+                "id=" + getId() +
+                ", fecha='" + getFecha() + "'" +
+                ", noFactura=" + getNoFactura() +
+                ", total=" + getTotal() +
+                ", metodoPago='" + getMetodoPago() + "'" +
+                ", anulada='" + getAnulada() + "'" +
+                ", cliente=" + getCliente() +
+                ", usuario=" + getUsuario() +
+                "}";
+    }
+}
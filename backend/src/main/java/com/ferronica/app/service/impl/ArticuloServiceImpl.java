@@ -2,22 +2,53 @@ package com.ferronica.app.service.impl;
 
 import com.ferronica.app.domain.Articulo;
 import com.ferronica.app.domain.HistorialPrecio;
+import com.ferronica.app.domain.enumeration.TipoMovimientoInventario;
 import com.ferronica.app.repository.ArticuloRepository;
 import com.ferronica.app.repository.HistorialPrecioRepository;
 import com.ferronica.app.service.ArticuloService;
+import com.ferronica.app.service.ExistenciaCambiadaEvent;
+import com.ferronica.app.service.InventoryService;
 import com.ferronica.app.service.dto.ArticuloDTO;
 import com.ferronica.app.service.mapper.ArticuloMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
  * Service Implementation for managing
  * {@link com.ferronica.app.domain.Articulo}.
+ * <p>
+ * Lookups by code (barcode scans) are served from a local Caffeine cache keyed
+ * by {@code codigo}. An entry is evicted once a transaction that changed the
+ * price, stock or state of its articulo commits (see
+ * {@link ExistenciaCambiadaEvent}); codes that are not found are not cached.
  */
 @Service
 @Transactional
@@ -28,19 +59,50 @@ public class ArticuloServiceImpl implements ArticuloService {
     private final ArticuloRepository articuloRepository;
     private final ArticuloMapper articuloMapper;
     private final HistorialPrecioRepository historialPrecioRepository;
+    private final InventoryService inventoryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+
+    // Código en caché de cada artículo, para desalojar por id
+    private final Map<Long, String> codigosEnCache = new ConcurrentHashMap<>();
+
+    // Aumenta con cada desalojo; una carga que se cruza con uno no se guarda
+    private final AtomicLong desalojos = new AtomicLong();
+
+    private final Cache<String, ArticuloDTO> porCodigo = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(30))
+            .removalListener((String codigo, ArticuloDTO articulo, RemovalCause causa) -> {
+                if (articulo != null) {
+                    codigosEnCache.remove(articulo.getId(), codigo);
+                }
+            })
+            .recordStats()
+            .build();
 
     public ArticuloServiceImpl(ArticuloRepository articuloRepository, ArticuloMapper articuloMapper,
-            HistorialPrecioRepository historialPrecioRepository) {
+            HistorialPrecioRepository historialPrecioRepository, InventoryService inventoryService,
+            ApplicationEventPublisher eventPublisher, EntityManager entityManager, MeterRegistry meterRegistry) {
         this.articuloRepository = articuloRepository;
         this.articuloMapper = articuloMapper;
         this.historialPrecioRepository = historialPrecioRepository;
+        this.inventoryService = inventoryService;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        CaffeineCacheMetrics.monitor(meterRegistry, porCodigo, "articulo.codigo");
     }
 
     @Override
     public ArticuloDTO save(ArticuloDTO articuloDTO) {
         LOG.debug("Request to save Articulo : {}", articuloDTO);
         Articulo articulo = articuloMapper.toEntity(articuloDTO);
-        articulo = articuloRepository.save(articulo);
+        // La fila debe existir antes de anotar el ajuste inicial en la bitácora (FK a articulo)
+        articulo = articuloRepository.saveAndFlush(articulo);
+        if (articulo.getExistencia() != null) {
+            inventoryService.registrarMovimientos(Collections.singletonMap(articulo.getId(), articulo.getExistencia()),
+                    TipoMovimientoInventario.AJUSTE, null);
+        }
+        publicarCambio(articulo);
         return articuloMapper.toDto(articulo);
     }
 
@@ -48,19 +110,24 @@ public class ArticuloServiceImpl implements ArticuloService {
     public ArticuloDTO update(ArticuloDTO articuloDTO) {
         LOG.debug("Request to update Articulo : {}", articuloDTO);
 
-        // Tracking de Historial de Precios
-        articuloRepository.findById(articuloDTO.getId()).ifPresent(existingArticulo -> {
+        // Tracking de Historial de Precios; la fila queda bloqueada hasta confirmar el ajuste de existencia
+        BigDecimal existencia = articuloDTO.getExistencia();
+        Articulo existingArticulo = articuloRepository.findByIdWithLock(articuloDTO.getId()).orElse(null);
+        if (existingArticulo != null) {
             if (articuloDTO.getPrecio() != null && existingArticulo.getPrecio() != null) {
                 if (articuloDTO.getPrecio().compareTo(existingArticulo.getPrecio()) != 0) {
                     saveHistorialPrecio(existingArticulo, existingArticulo.getPrecio(), articuloDTO.getPrecio(),
                             articuloDTO.getPriceChangeReason());
                 }
             }
-        });
+            // La existencia no se escribe desde el formulario: el cambio va como ajuste en InventoryService
+            articuloDTO.setExistencia(existingArticulo.getExistencia());
+        }
 
         Articulo articulo = articuloMapper.toEntity(articuloDTO);
-        articulo = articuloRepository.save(articulo);
-        return articuloMapper.toDto(articulo);
+        articulo = articuloRepository.saveAndFlush(articulo);
+        publicarCambio(articulo);
+        return aplicarAjusteExistencia(articulo, existingArticulo != null ? existencia : null);
     }
 
     private void saveHistorialPrecio(Articulo articulo, BigDecimal anterior, BigDecimal nuevo, String motivo) {
@@ -75,12 +142,34 @@ public class ArticuloServiceImpl implements ArticuloService {
         historialPrecioRepository.save(historial);
     }
 
+    /**
+     * Fija la existencia pedida en el formulario, después de haber escrito el
+     * resto del artículo; la diferencia con la existencia consolidada queda
+     * como movimiento AJUSTE. Relee la fila para que la sesión vea la
+     * existencia resultante. Sin existencia en el formulario no hace nada.
+     */
+    private ArticuloDTO aplicarAjusteExistencia(Articulo articulo, BigDecimal existencia) {
+        if (existencia != null) {
+            inventoryService.ajustarExistencia(articulo.getId(), existencia);
+            entityManager.refresh(articulo);
+        }
+        return articuloMapper.toDto(articulo);
+    }
+
+    /**
+     * Avisa del cambio de existencia, mínimo o estado para las alertas de stock
+     * bajo; se procesa al confirmar la transacción.
+     */
+    private void publicarCambio(Articulo articulo) {
+        eventPublisher.publishEvent(new ExistenciaCambiadaEvent(Collections.singleton(articulo.getId())));
+    }
+
     @Override
     public Optional<ArticuloDTO> partialUpdate(ArticuloDTO articuloDTO) {
         LOG.debug("Request to partially update Articulo : {}", articuloDTO);
 
         return articuloRepository
-                .findById(articuloDTO.getId())
+                .findByIdWithLock(articuloDTO.getId())
                 .map(existingArticulo -> {
                     // Tracking de Historial de Precios en Partial Update
                     if (articuloDTO.getPrecio() != null && existingArticulo.getPrecio() != null) {
@@ -90,11 +179,13 @@ public class ArticuloServiceImpl implements ArticuloService {
                         }
                     }
 
+                    BigDecimal existencia = articuloDTO.getExistencia();
+                    articuloDTO.setExistencia(null);
                     articuloMapper.partialUpdate(existingArticulo, articuloDTO);
-                    return existingArticulo;
-                })
-                .map(articuloRepository::save)
-                .map(articuloMapper::toDto);
+                    Articulo articulo = articuloRepository.saveAndFlush(existingArticulo);
+                    publicarCambio(articulo);
+                    return aplicarAjusteExistencia(articulo, existencia);
+                });
     }
 
     @Override
@@ -104,12 +195,72 @@ public class ArticuloServiceImpl implements ArticuloService {
         return articuloRepository.findById(id).map(articuloMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ArticuloDTO> findOneByCodigo(String codigo) {
+        LOG.debug("Request to get Articulo by codigo : {}", codigo);
+        return findAllByCodigo(Collections.singleton(codigo)).stream().findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ArticuloDTO> findAllByCodigo(Collection<String> codigos) {
+        LOG.debug("Request to get Articulos by codigo : {}", codigos);
+        // La caché y la consulta usan el código en minúsculas: el lector puede enviarlo en otro caso
+        Set<String> claves = codigos.stream().filter(Objects::nonNull)
+                .map(codigo -> codigo.strip().toLowerCase(Locale.ROOT))
+                .filter(codigo -> !codigo.isEmpty()).collect(Collectors.toCollection(LinkedHashSet::new));
+        if (claves.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, ArticuloDTO> encontrados = new HashMap<>(porCodigo.getAllPresent(claves));
+        Set<String> faltantes = new LinkedHashSet<>(claves);
+        faltantes.removeAll(encontrados.keySet());
+        if (!faltantes.isEmpty()) {
+            // Los códigos que no están en caché se cargan con una sola consulta sobre idx_articulo_codigo_lower
+            long generacion = desalojos.get();
+            List<ArticuloDTO> cargados = articuloRepository.findAllWithRelationshipsByCodigoIn(faltantes).stream()
+                    .map(articuloMapper::toDto)
+                    .toList();
+            cargados.forEach(articulo -> {
+                String clave = articulo.getCodigo().toLowerCase(Locale.ROOT);
+                codigosEnCache.put(articulo.getId(), clave);
+                porCodigo.put(clave, articulo);
+                encontrados.put(clave, articulo);
+            });
+            // Un cambio confirmado durante la carga pudo dejar en caché datos anteriores
+            if (desalojos.get() != generacion) {
+                cargados.forEach(articulo -> porCodigo.invalidate(articulo.getCodigo().toLowerCase(Locale.ROOT)));
+            }
+        }
+        return claves.stream().map(encontrados::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Desaloja de la caché por código los artículos cambiados, una vez
+     * confirmada la transacción que los cambió.
+     *
+     * @param event the changed articles.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onExistenciaCambiada(ExistenciaCambiadaEvent event) {
+        desalojos.incrementAndGet();
+        event.getArticuloIds().forEach(articuloId -> {
+            String codigo = codigosEnCache.remove(articuloId);
+            if (codigo != null) {
+                porCodigo.invalidate(codigo);
+            }
+        });
+    }
+
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete Articulo (Logical) : {}", id);
         articuloRepository.findById(id).ifPresent(articulo -> {
             articulo.setActivo(false);
             articuloRepository.save(articulo);
+            publicarCambio(articulo);
         });
     }
 }
@@ -1,22 +1,32 @@
 package com.ferronica.app.service.impl;
 
 import com.ferronica.app.domain.Categoria;
-import com.ferronica.app.repository.ArticuloRepository;
 import com.ferronica.app.repository.CategoriaRepository;
 import com.ferronica.app.service.CategoriaService;
+import com.ferronica.app.service.ExistenciaCambiadaEvent;
+import com.ferronica.app.service.JerarquiaCategoriaException;
 import com.ferronica.app.service.dto.CategoriaDTO;
+import com.ferronica.app.service.dto.DesactivacionCategoriaDTO;
 import com.ferronica.app.service.mapper.CategoriaMapper;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service Implementation for managing
  * {@link com.ferronica.app.domain.Categoria}.
+ * <p>
+ * Every save keeps the closure table {@code categoria_jerarquia} in step with
+ * {@code padre}: a new categoria gets its own row and one per ancestor from a
+ * database trigger, and a categoria that changes of padre moves its whole subtree.
  */
 @Service
 @Transactional
@@ -24,30 +34,59 @@ public class CategoriaServiceImpl implements CategoriaService {
 
     private static final Logger LOG = LoggerFactory.getLogger(CategoriaServiceImpl.class);
 
+    private static final String SQL_SUBARBOL = "SELECT descendiente_id FROM categoria_jerarquia WHERE ancestro_id = ?";
+
+    // Serializa a quienes cambian la jerarquía; las lecturas no se bloquean
+    private static final String SQL_BLOQUEAR_JERARQUIA = "LOCK TABLE categoria_jerarquia IN SHARE ROW EXCLUSIVE MODE";
+
+    private static final String SQL_ES_DESCENDIENTE = "SELECT count(*) FROM categoria_jerarquia "
+            + "WHERE ancestro_id = ? AND descendiente_id = ?";
+
+    // Quita los vínculos entre los ancestros de fuera del subárbol y los nodos del subárbol
+    private static final String SQL_DESENGANCHAR_SUBARBOL = "DELETE FROM categoria_jerarquia "
+            + "WHERE descendiente_id IN (SELECT descendiente_id FROM categoria_jerarquia WHERE ancestro_id = ?) "
+            + "AND ancestro_id NOT IN (SELECT descendiente_id FROM categoria_jerarquia WHERE ancestro_id = ?)";
+
+    // Cada ancestro del padre nuevo pasa a serlo de cada nodo del subárbol
+    private static final String SQL_ENGANCHAR_SUBARBOL = "INSERT INTO categoria_jerarquia "
+            + "(ancestro_id, descendiente_id, profundidad) "
+            + "SELECT sup.ancestro_id, sub.descendiente_id, sup.profundidad + sub.profundidad + 1 "
+            + "FROM categoria_jerarquia sup CROSS JOIN categoria_jerarquia sub "
+            + "WHERE sup.descendiente_id = ? AND sub.ancestro_id = ?";
+
+    private static final String SQL_DESACTIVAR_ARTICULOS = "WITH bloqueo AS MATERIALIZED (SELECT id FROM articulo "
+            + "WHERE categoria_id = ANY(?) AND coalesce(activo, true) ORDER BY id FOR UPDATE) "
+            + "UPDATE articulo a SET activo = false FROM bloqueo b WHERE a.id = b.id RETURNING a.id";
+
     private final CategoriaRepository categoriaRepository;
-    private final ArticuloRepository articuloRepository;
     private final CategoriaMapper categoriaMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
 
-    public CategoriaServiceImpl(CategoriaRepository categoriaRepository, ArticuloRepository articuloRepository,
-            CategoriaMapper categoriaMapper) {
+    public CategoriaServiceImpl(CategoriaRepository categoriaRepository, CategoriaMapper categoriaMapper,
+            ApplicationEventPublisher eventPublisher, JdbcTemplate jdbcTemplate) {
         this.categoriaRepository = categoriaRepository;
-        this.articuloRepository = articuloRepository;
         this.categoriaMapper = categoriaMapper;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
     public CategoriaDTO save(CategoriaDTO categoriaDTO) {
         LOG.debug("Request to save Categoria : {}", categoriaDTO);
         Categoria categoria = categoriaMapper.toEntity(categoriaDTO);
-        categoria = categoriaRepository.save(categoria);
+        // El trigger categoria_jerarquia_nodo escribe las filas de clausura al insertar
+        categoria = categoriaRepository.saveAndFlush(categoria);
         return categoriaMapper.toDto(categoria);
     }
 
     @Override
     public CategoriaDTO update(CategoriaDTO categoriaDTO) {
         LOG.debug("Request to update Categoria : {}", categoriaDTO);
+        Long padreAnterior = categoriaRepository.findById(categoriaDTO.getId()).map(this::idPadre).orElse(null);
         Categoria categoria = categoriaMapper.toEntity(categoriaDTO);
         categoria = categoriaRepository.save(categoria);
+        moverSiCambioPadre(categoria, padreAnterior);
         return categoriaMapper.toDto(categoria);
     }
 
@@ -58,14 +97,44 @@ public class CategoriaServiceImpl implements CategoriaService {
         return categoriaRepository
                 .findById(categoriaDTO.getId())
                 .map(existingCategoria -> {
+                    Long padreAnterior = idPadre(existingCategoria);
                     categoriaMapper.partialUpdate(existingCategoria, categoriaDTO);
-
-                    return existingCategoria;
+                    Categoria categoria = categoriaRepository.save(existingCategoria);
+                    moverSiCambioPadre(categoria, padreAnterior);
+                    return categoria;
                 })
-                .map(categoriaRepository::save)
                 .map(categoriaMapper::toDto);
     }
 
+    /**
+     * Moves the subtree of a categoria in the closure table when its padre changed.
+     *
+     * @param categoria     the saved categoria.
+     * @param padreAnterior the id of its padre before the change.
+     * @throws JerarquiaCategoriaException if the new padre is the categoria itself or one of its descendants.
+     */
+    private void moverSiCambioPadre(Categoria categoria, Long padreAnterior) {
+        Long padreId = idPadre(categoria);
+        if (Objects.equals(padreId, padreAnterior)) {
+            return;
+        }
+        jdbcTemplate.execute(SQL_BLOQUEAR_JERARQUIA);
+        // Comprobado con la tabla bloqueada, para que dos movimientos cruzados no formen un ciclo
+        if (padreId != null
+                && jdbcTemplate.queryForObject(SQL_ES_DESCENDIENTE, Long.class, categoria.getId(), padreId) > 0) {
+            throw new JerarquiaCategoriaException("A categoria cannot be moved under itself or its subcategorias");
+        }
+        categoriaRepository.flush();
+        jdbcTemplate.update(SQL_DESENGANCHAR_SUBARBOL, categoria.getId(), categoria.getId());
+        if (padreId != null) {
+            jdbcTemplate.update(SQL_ENGANCHAR_SUBARBOL, padreId, categoria.getId());
+        }
+    }
+
+    private Long idPadre(Categoria categoria) {
+        return categoria.getPadre() != null ? categoria.getPadre().getId() : null;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<CategoriaDTO> findAll(Pageable pageable) {
@@ -81,18 +150,23 @@ public class CategoriaServiceImpl implements CategoriaService {
     }
 
     @Override
-    public void delete(Long id) {
-        LOG.debug("Request to delete Categoria and its products (Logical) : {}", id);
-        categoriaRepository.findById(id).ifPresent(categoria -> {
-            categoria.setActivo(false);
-            categoriaRepository.save(categoria);
-            // Cascada: desactivar todos los productos de esta categoría
-            articuloRepository.findAll().stream()
-                    .filter(a -> a.getCategoria() != null && a.getCategoria().getId().equals(id))
-                    .forEach(articulo -> {
-                        articulo.setActivo(false);
-                        articuloRepository.save(articulo);
-                    });
-        });
+    public DesactivacionCategoriaDTO delete(Long id) {
+        LOG.debug("Request to delete Categoria, its subcategorias and their products (Logical) : {}", id);
+        List<Long> categorias = jdbcTemplate.queryForList(SQL_SUBARBOL, Long.class, id);
+        if (categorias.isEmpty()) {
+            return new DesactivacionCategoriaDTO(0, 0);
+        }
+
+        // Actualización masiva: Hibernate desaloja la región de categorías y las consultas en caché
+        int desactivadas = categoriaRepository.desactivar(categorias);
+
+        // Cascada: un solo UPDATE para los productos de todo el subárbol, bloqueados en orden de id
+        List<Long> articulos = jdbcTemplate.query(SQL_DESACTIVAR_ARTICULOS,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", categorias.toArray(new Long[0]))),
+                (rs, rowNum) -> rs.getLong(1));
+        if (!articulos.isEmpty()) {
+            eventPublisher.publishEvent(new ExistenciaCambiadaEvent(articulos));
+        }
+        return new DesactivacionCategoriaDTO(desactivadas, articulos.size());
     }
 }
@@ -3,8 +3,13 @@ package com.ferronica.app.service.impl;
 import com.ferronica.app.domain.DetalleDevolucion;
 import com.ferronica.app.repository.DetalleDevolucionRepository;
 import com.ferronica.app.service.DetalleDevolucionService;
+import com.ferronica.app.service.DevolucionException;
+import com.ferronica.app.service.DevolucionService;
 import com.ferronica.app.service.dto.DetalleDevolucionDTO;
 import com.ferronica.app.service.mapper.DetalleDevolucionMapper;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,17 +32,22 @@ public class DetalleDevolucionServiceImpl implements DetalleDevolucionService {
 
     private final DetalleDevolucionMapper detalleDevolucionMapper;
 
+    private final DevolucionService devolucionService;
+
     public DetalleDevolucionServiceImpl(
             DetalleDevolucionRepository detalleDevolucionRepository,
-            DetalleDevolucionMapper detalleDevolucionMapper) {
+            DetalleDevolucionMapper detalleDevolucionMapper,
+            DevolucionService devolucionService) {
         this.detalleDevolucionRepository = detalleDevolucionRepository;
         this.detalleDevolucionMapper = detalleDevolucionMapper;
+        this.devolucionService = devolucionService;
     }
 
     @Override
     public DetalleDevolucionDTO save(DetalleDevolucionDTO detalleDevolucionDTO) {
         LOG.debug("Request to save DetalleDevolucion : {}", detalleDevolucionDTO);
         DetalleDevolucion detalleDevolucion = detalleDevolucionMapper.toEntity(detalleDevolucionDTO);
+        devolucionService.ajustarDetalles(devolucionId(detalleDevolucion), cambios(null, detalleDevolucion));
         detalleDevolucion = detalleDevolucionRepository.save(detalleDevolucion);
         return detalleDevolucionMapper.toDto(detalleDevolucion);
     }
@@ -46,6 +56,16 @@ public class DetalleDevolucionServiceImpl implements DetalleDevolucionService {
     public DetalleDevolucionDTO update(DetalleDevolucionDTO detalleDevolucionDTO) {
         LOG.debug("Request to update DetalleDevolucion : {}", detalleDevolucionDTO);
         DetalleDevolucion detalleDevolucion = detalleDevolucionMapper.toEntity(detalleDevolucionDTO);
+        // Validar y mover el stock antes de que el merge ensucie la sesión
+        DetalleDevolucion existente = detalleDevolucionRepository
+                .findById(detalleDevolucion.getId())
+                .orElseThrow(() -> new DevolucionException("DetalleDevolucion " + detalleDevolucionDTO.getId()
+                        + " not found"));
+        Long devolucionId = devolucionId(existente);
+        if (!devolucionId.equals(devolucionId(detalleDevolucion))) {
+            throw new DevolucionException("DetalleDevolucion " + existente.getId() + " cannot change its devolucion");
+        }
+        devolucionService.ajustarDetalles(devolucionId, cambios(existente, detalleDevolucion));
         detalleDevolucion = detalleDevolucionRepository.save(detalleDevolucion);
         return detalleDevolucionMapper.toDto(detalleDevolucion);
     }
@@ -57,6 +77,17 @@ public class DetalleDevolucionServiceImpl implements DetalleDevolucionService {
         return detalleDevolucionRepository
                 .findById(detalleDevolucionDTO.getId())
                 .map(existingDetalleDevolucion -> {
+                    // Aplicar el cambio sobre una copia para validar sin ensuciar la sesión
+                    DetalleDevolucion propuesto = detalleDevolucionMapper
+                            .toEntity(detalleDevolucionMapper.toDto(existingDetalleDevolucion));
+                    detalleDevolucionMapper.partialUpdate(propuesto, detalleDevolucionDTO);
+                    Long devolucionId = devolucionId(existingDetalleDevolucion);
+                    if (!devolucionId.equals(devolucionId(propuesto))) {
+                        throw new DevolucionException("DetalleDevolucion " + existingDetalleDevolucion.getId()
+                                + " cannot change its devolucion");
+                    }
+                    devolucionService.ajustarDetalles(devolucionId, cambios(existingDetalleDevolucion, propuesto));
+
                     detalleDevolucionMapper.partialUpdate(existingDetalleDevolucion, detalleDevolucionDTO);
 
                     return existingDetalleDevolucion;
@@ -84,4 +115,23 @@ public class DetalleDevolucionServiceImpl implements DetalleDevolucionService {
         LOG.debug("Request to delete DetalleDevolucion : {}", id);
         detalleDevolucionRepository.deleteById(id);
     }
+
+    private static Long devolucionId(DetalleDevolucion detalle) {
+        if (detalle.getDevolucion() == null || detalle.getDevolucion().getId() == null) {
+            throw new DevolucionException("A detalle must reference its devolucion");
+        }
+        return detalle.getDevolucion().getId();
+    }
+
+    // Diferencia por artículo entre la línea anterior (null si es nueva) y la nueva
+    private static Map<Long, BigDecimal> cambios(DetalleDevolucion anterior, DetalleDevolucion nuevo) {
+        Map<Long, BigDecimal> cambios = new HashMap<>();
+        if (nuevo.getArticulo() != null && nuevo.getArticulo().getId() != null && nuevo.getCantidad() != null) {
+            cambios.merge(nuevo.getArticulo().getId(), nuevo.getCantidad(), BigDecimal::add);
+        }
+        if (anterior != null && anterior.getArticulo() != null && anterior.getCantidad() != null) {
+            cambios.merge(anterior.getArticulo().getId(), anterior.getCantidad().negate(), BigDecimal::add);
+        }
+        return cambios;
+    }
 }
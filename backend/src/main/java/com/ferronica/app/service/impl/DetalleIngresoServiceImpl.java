@@ -3,6 +3,7 @@ package com.ferronica.app.service.impl;
 import com.ferronica.app.domain.DetalleIngreso;
 import com.ferronica.app.repository.DetalleIngresoRepository;
 import com.ferronica.app.service.DetalleIngresoService;
+import com.ferronica.app.service.RecepcionIngresoService;
 import com.ferronica.app.service.dto.DetalleIngresoDTO;
 import com.ferronica.app.service.mapper.DetalleIngresoMapper;
 import java.util.LinkedList;
@@ -28,15 +29,15 @@ public class DetalleIngresoServiceImpl implements DetalleIngresoService {
 
     private final DetalleIngresoMapper detalleIngresoMapper;
 
-    private final com.ferronica.app.repository.ArticuloRepository articuloRepository;
+    private final RecepcionIngresoService recepcionIngresoService;
 
     public DetalleIngresoServiceImpl(
             DetalleIngresoRepository detalleIngresoRepository,
             DetalleIngresoMapper detalleIngresoMapper,
-            com.ferronica.app.repository.ArticuloRepository articuloRepository) {
+            RecepcionIngresoService recepcionIngresoService) {
         this.detalleIngresoRepository = detalleIngresoRepository;
         this.detalleIngresoMapper = detalleIngresoMapper;
-        this.articuloRepository = articuloRepository;
+        this.recepcionIngresoService = recepcionIngresoService;
     }
 
     @Override
@@ -44,15 +45,9 @@ public class DetalleIngresoServiceImpl implements DetalleIngresoService {
         LOG.debug("Request to save DetalleIngreso : {}", detalleIngresoDTO);
         final DetalleIngreso detalleIngreso = detalleIngresoMapper.toEntity(detalleIngresoDTO);
 
-        // Actualización de Inventario (Suma)
-        if (detalleIngreso.getArticulo() != null) {
-            articuloRepository
-                    .findByIdWithLock(detalleIngreso.getArticulo().getId())
-                    .ifPresent(articulo -> {
-                        articulo.setExistencia(articulo.getExistencia().add(detalleIngreso.getCantidad()));
-                        articuloRepository.save(articulo);
-                    });
-        }
+        // Costo y existencia por el mismo camino que un Ingreso completo
+        Long ingresoId = detalleIngreso.getIngreso() != null ? detalleIngreso.getIngreso().getId() : null;
+        recepcionIngresoService.recibir(List.of(detalleIngreso), ingresoId);
 
         DetalleIngreso savedDetalleIngreso = detalleIngresoRepository.save(detalleIngreso);
         return detalleIngresoMapper.toDto(savedDetalleIngreso);
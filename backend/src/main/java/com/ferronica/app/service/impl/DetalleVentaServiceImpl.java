@@ -1,10 +1,15 @@
 package com.ferronica.app.service.impl;
 
 import com.ferronica.app.domain.DetalleVenta;
+import com.ferronica.app.domain.enumeration.TipoMovimientoInventario;
+import com.ferronica.app.repository.ArticuloRepository;
 import com.ferronica.app.repository.DetalleVentaRepository;
+import com.ferronica.app.repository.VentaRepository;
 import com.ferronica.app.service.DetalleVentaService;
+import com.ferronica.app.service.InventoryService;
 import com.ferronica.app.service.dto.DetalleVentaDTO;
 import com.ferronica.app.service.mapper.DetalleVentaMapper;
+import java.math.BigDecimal;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
@@ -28,14 +33,22 @@ public class DetalleVentaServiceImpl implements DetalleVentaService {
 
     private final DetalleVentaMapper detalleVentaMapper;
 
-    private final com.ferronica.app.repository.ArticuloRepository articuloRepository;
+    private final InventoryService inventoryService;
+
+    private final VentaRepository ventaRepository;
+
+    private final ArticuloRepository articuloRepository;
 
     public DetalleVentaServiceImpl(
             DetalleVentaRepository detalleVentaRepository,
             DetalleVentaMapper detalleVentaMapper,
-            com.ferronica.app.repository.ArticuloRepository articuloRepository) {
+            InventoryService inventoryService,
+            VentaRepository ventaRepository,
+            ArticuloRepository articuloRepository) {
         this.detalleVentaRepository = detalleVentaRepository;
         this.detalleVentaMapper = detalleVentaMapper;
+        this.inventoryService = inventoryService;
+        this.ventaRepository = ventaRepository;
         this.articuloRepository = articuloRepository;
     }
 
@@ -43,15 +56,16 @@ public class DetalleVentaServiceImpl implements DetalleVentaService {
     public DetalleVentaDTO save(DetalleVentaDTO detalleVentaDTO) {
         LOG.debug("Request to save DetalleVenta : {}", detalleVentaDTO);
         final DetalleVenta detalleVenta = detalleVentaMapper.toEntity(detalleVentaDTO);
+        asignarVenta(detalleVenta);
 
-        // Actualización de Inventario (Resta)
+        // Actualización de Inventario (Resta), con el costo vigente del artículo
         if (detalleVenta.getArticulo() != null) {
             articuloRepository
-                    .findByIdWithLock(detalleVenta.getArticulo().getId())
-                    .ifPresent(articulo -> {
-                        articulo.setExistencia(articulo.getExistencia().subtract(detalleVenta.getCantidad()));
-                        articuloRepository.save(articulo);
-                    });
+                    .findCostosByIdIn(List.of(detalleVenta.getArticulo().getId()))
+                    .forEach(fila -> detalleVenta.setCostoUnitario((BigDecimal) fila[1]));
+            Long ventaId = detalleVenta.getVenta() != null ? detalleVenta.getVenta().getId() : null;
+            inventoryService.aplicarCambio(detalleVenta.getArticulo().getId(), detalleVenta.getCantidad().negate(),
+                    TipoMovimientoInventario.VENTA, ventaId);
         }
 
         DetalleVenta savedDetalleVenta = detalleVentaRepository.save(detalleVenta);
@@ -62,6 +76,7 @@ public class DetalleVentaServiceImpl implements DetalleVentaService {
     public DetalleVentaDTO update(DetalleVentaDTO detalleVentaDTO) {
         LOG.debug("Request to update DetalleVenta : {}", detalleVentaDTO);
         DetalleVenta detalleVenta = detalleVentaMapper.toEntity(detalleVentaDTO);
+        asignarVenta(detalleVenta);
         detalleVenta = detalleVentaRepository.save(detalleVenta);
         return detalleVentaMapper.toDto(detalleVenta);
     }
@@ -74,6 +89,9 @@ public class DetalleVentaServiceImpl implements DetalleVentaService {
                 .findById(detalleVentaDTO.getId())
                 .map(existingDetalleVenta -> {
                     detalleVentaMapper.partialUpdate(existingDetalleVenta, detalleVentaDTO);
+                    if (detalleVentaDTO.getVenta() != null) {
+                        asignarVenta(existingDetalleVenta);
+                    }
 
                     return existingDetalleVenta;
                 })
@@ -101,4 +119,18 @@ public class DetalleVentaServiceImpl implements DetalleVentaService {
         LOG.debug("Request to delete DetalleVenta : {}", id);
         detalleVentaRepository.deleteById(id);
     }
+
+    /**
+     * Sustituye la venta referenciada por la línea por la entidad gestionada y
+     * copia su fecha, que es la clave de partición de detalle_venta.
+     */
+    private void asignarVenta(DetalleVenta detalleVenta) {
+        if (detalleVenta.getVenta() == null || detalleVenta.getVenta().getId() == null) {
+            return;
+        }
+        ventaRepository.findById(detalleVenta.getVenta().getId()).ifPresent(venta -> {
+            detalleVenta.setVenta(venta);
+            detalleVenta.setVentaFecha(venta.getFecha());
+        });
+    }
 }
@@ -1,14 +1,25 @@
 package com.ferronica.app.service.impl;
 
-import com.ferronica.app.domain.Articulo;
 import com.ferronica.app.domain.DetalleDevolucion;
 import com.ferronica.app.domain.Devolucion;
+import com.ferronica.app.domain.Venta;
+import com.ferronica.app.domain.enumeration.TipoMovimientoInventario;
+import com.ferronica.app.repository.DetalleVentaRepository;
 import com.ferronica.app.repository.DevolucionRepository;
+import com.ferronica.app.repository.VentaRepository;
+import com.ferronica.app.service.DevolucionException;
 import com.ferronica.app.service.DevolucionService;
+import com.ferronica.app.service.InventoryService;
+import com.ferronica.app.service.dto.CantidadRetornableDTO;
 import com.ferronica.app.service.dto.DevolucionDTO;
 import com.ferronica.app.service.mapper.DevolucionMapper;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -30,15 +41,23 @@ public class DevolucionServiceImpl implements DevolucionService {
 
     private final DevolucionMapper devolucionMapper;
 
-    private final com.ferronica.app.repository.ArticuloRepository articuloRepository;
+    private final InventoryService inventoryService;
+
+    private final VentaRepository ventaRepository;
+
+    private final DetalleVentaRepository detalleVentaRepository;
 
     public DevolucionServiceImpl(
             DevolucionRepository devolucionRepository,
             DevolucionMapper devolucionMapper,
-            com.ferronica.app.repository.ArticuloRepository articuloRepository) {
+            InventoryService inventoryService,
+            VentaRepository ventaRepository,
+            DetalleVentaRepository detalleVentaRepository) {
         this.devolucionRepository = devolucionRepository;
         this.devolucionMapper = devolucionMapper;
-        this.articuloRepository = articuloRepository;
+        this.inventoryService = inventoryService;
+        this.ventaRepository = ventaRepository;
+        this.detalleVentaRepository = detalleVentaRepository;
     }
 
     @Override
@@ -52,20 +71,19 @@ public class DevolucionServiceImpl implements DevolucionService {
         // Asegurar relación bidireccional y actualización de inventario
         if (devolucion.getDetalles() != null) {
             final Devolucion fixedDev = devolucion; // Efectivamente final para lambda
-            devolucion.getDetalles().forEach((DetalleDevolucion detalleDev) -> {
-                detalleDev.setDevolucion(fixedDev);
-
-                // 1. Actualizar inventario (Sumar al stock)
-                if (detalleDev.getArticulo() != null && detalleDev.getArticulo().getId() != null) {
-                    articuloRepository.findById(detalleDev.getArticulo().getId()).ifPresent((Articulo articulo) -> {
-                        articulo.setExistencia(articulo.getExistencia().add(detalleDev.getCantidad()));
-                        articuloRepository.save(articulo);
-                    });
-                }
-            });
+            devolucion.getDetalles().forEach((DetalleDevolucion detalleDev) -> detalleDev.setDevolucion(fixedDev));
+        }
+        Map<Long, BigDecimal> cantidades = cantidades(devolucion.getDetalles());
+
+        // Validar contra lo que queda por devolver, con la venta bloqueada
+        if (!cantidades.isEmpty()) {
+            devolucion.setVenta(validarRetornable(devolucion.getVenta(), cantidades));
         }
 
         Devolucion result = devolucionRepository.save(devolucion);
+
+        // 1. Actualizar inventario (Sumar al stock) de todas las líneas a la vez
+        inventoryService.aplicarCambios(cantidades, TipoMovimientoInventario.DEVOLUCION, result.getId());
         return devolucionMapper.toDto(result);
     }
 
@@ -73,6 +91,18 @@ public class DevolucionServiceImpl implements DevolucionService {
     public DevolucionDTO update(DevolucionDTO devolucionDTO) {
         LOG.debug("Request to update Devolucion : {}", devolucionDTO);
         Devolucion devolucion = devolucionMapper.toEntity(devolucionDTO);
+        if (devolucion.getDetalles() != null) {
+            final Devolucion fixedDev = devolucion; // Efectivamente final para lambda
+            devolucion.getDetalles().forEach((DetalleDevolucion detalleDev) -> detalleDev.setDevolucion(fixedDev));
+        }
+
+        // Validar y mover el stock antes de que el merge ensucie la sesión
+        Devolucion existente = devolucionRepository
+                .findById(devolucion.getId())
+                .orElseThrow(() -> new DevolucionException("Devolucion " + devolucionDTO.getId() + " not found"));
+        comprobarVenta(existente, devolucion.getVenta());
+        ajustar(existente, cambios(cantidades(existente.getDetalles()), cantidades(devolucion.getDetalles())));
+
         devolucion = devolucionRepository.save(devolucion);
         return devolucionMapper.toDto(devolucion);
     }
@@ -84,6 +114,13 @@ public class DevolucionServiceImpl implements DevolucionService {
         return devolucionRepository
                 .findById(devolucionDTO.getId())
                 .map(existingDevolucion -> {
+                    // Aplicar el cambio sobre una copia para validar sin ensuciar la sesión
+                    Devolucion propuesta = devolucionMapper.toEntity(devolucionMapper.toDto(existingDevolucion));
+                    devolucionMapper.partialUpdate(propuesta, devolucionDTO);
+                    comprobarVenta(existingDevolucion, propuesta.getVenta());
+                    ajustar(existingDevolucion,
+                            cambios(cantidades(existingDevolucion.getDetalles()), cantidades(propuesta.getDetalles())));
+
                     devolucionMapper.partialUpdate(existingDevolucion, devolucionDTO);
 
                     return existingDevolucion;
@@ -92,14 +129,6 @@ public class DevolucionServiceImpl implements DevolucionService {
                 .map(devolucionMapper::toDto);
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public List<DevolucionDTO> findAll() {
-        LOG.debug("Request to get all Devolucions");
-        return devolucionRepository.findAll().stream().map(devolucionMapper::toDto)
-                .collect(Collectors.toCollection(LinkedList::new));
-    }
-
     @Override
     @Transactional(readOnly = true)
     public Optional<DevolucionDTO> findOne(Long id) {
@@ -121,4 +150,112 @@ public class DevolucionServiceImpl implements DevolucionService {
                 .map(devolucionMapper::toDto)
                 .collect(Collectors.toCollection(LinkedList::new));
     }
+
+    @Override
+    public void ajustarDetalles(Long devolucionId, Map<Long, BigDecimal> cambios) {
+        LOG.debug("Request to change the detalles of Devolucion {} : {}", devolucionId, cambios);
+        Devolucion devolucion = devolucionRepository
+                .findById(devolucionId)
+                .orElseThrow(() -> new DevolucionException("Devolucion " + devolucionId + " not found"));
+        ajustar(devolucion, cambios);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<List<CantidadRetornableDTO>> findRetornable(Long ventaId) {
+        LOG.debug("Request to get returnable quantities of Venta : {}", ventaId);
+        return ventaRepository.findById(ventaId).map(venta -> {
+            boolean anulada = Boolean.TRUE.equals(venta.getAnulada());
+            List<CantidadRetornableDTO> cantidades = new LinkedList<>();
+            for (Object[] fila : detalleVentaRepository.sumRetornablePorArticulo(venta.getId(), venta.getFecha())) {
+                CantidadRetornableDTO dto = new CantidadRetornableDTO();
+                dto.setArticuloId((Long) fila[0]);
+                dto.setVendida((BigDecimal) fila[1]);
+                dto.setDevuelta(fila[2] != null ? (BigDecimal) fila[2] : BigDecimal.ZERO);
+                dto.setRetornable(anulada ? BigDecimal.ZERO : retornable(dto.getVendida(), dto.getDevuelta()));
+                cantidades.add(dto);
+            }
+            return cantidades;
+        });
+    }
+
+    /**
+     * Bloquea la venta y comprueba, con una sola consulta agrupada, que ninguna
+     * cantidad supere lo vendido menos lo ya devuelto. El bloqueo serializa las
+     * devoluciones de una misma venta y su anulación.
+     */
+    private Venta validarRetornable(Venta ventaDevolucion, Map<Long, BigDecimal> cantidades) {
+        if (ventaDevolucion == null || ventaDevolucion.getId() == null) {
+            throw new DevolucionException("A devolucion with detalles must reference its venta");
+        }
+        Venta venta = ventaRepository
+                .findAllByIdInWithLock(List.of(ventaDevolucion.getId()))
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new DevolucionException("Venta " + ventaDevolucion.getId() + " not found"));
+        if (Boolean.TRUE.equals(venta.getAnulada())) {
+            throw new DevolucionException("Venta " + venta.getId() + " is cancelled");
+        }
+
+        Map<Long, BigDecimal> retornables = new HashMap<>();
+        for (Object[] fila : detalleVentaRepository.sumRetornablePorArticulo(venta.getId(), venta.getFecha())) {
+            retornables.put((Long) fila[0], retornable((BigDecimal) fila[1], (BigDecimal) fila[2]));
+        }
+        cantidades.forEach((articuloId, cantidad) -> {
+            BigDecimal disponible = retornables.getOrDefault(articuloId, BigDecimal.ZERO);
+            if (cantidad != null && cantidad.compareTo(disponible) > 0) {
+                throw new DevolucionException("Articulo " + articuloId + ": " + cantidad + " to return, "
+                        + disponible + " returnable");
+            }
+        });
+        return venta;
+    }
+
+    /**
+     * Valida los cambios de cantidad de una devolución ya guardada y mueve el
+     * stock por la diferencia. Debe llamarse antes de modificar sus líneas en la
+     * sesión: la consulta de lo devuelto cuenta aún las cantidades anteriores,
+     * así que basta comparar los aumentos con lo que queda por devolver.
+     */
+    private void ajustar(Devolucion devolucion, Map<Long, BigDecimal> cambios) {
+        Map<Long, BigDecimal> netos = new HashMap<>(cambios);
+        netos.values().removeIf(cambio -> cambio.signum() == 0);
+        if (netos.isEmpty()) {
+            return;
+        }
+        validarRetornable(devolucion.getVenta(), netos);
+        inventoryService.aplicarCambios(netos, TipoMovimientoInventario.DEVOLUCION, devolucion.getId());
+    }
+
+    private static void comprobarVenta(Devolucion existente, Venta venta) {
+        Long ventaId = existente.getVenta() != null ? existente.getVenta().getId() : null;
+        if (venta != null && !Objects.equals(venta.getId(), ventaId)) {
+            throw new DevolucionException("The venta of Devolucion " + existente.getId() + " cannot change");
+        }
+    }
+
+    private static Map<Long, BigDecimal> cantidades(Collection<DetalleDevolucion> detalles) {
+        Map<Long, BigDecimal> cantidades = new HashMap<>();
+        if (detalles != null) {
+            for (DetalleDevolucion detalle : detalles) {
+                if (detalle.getArticulo() != null && detalle.getArticulo().getId() != null
+                        && detalle.getCantidad() != null) {
+                    cantidades.merge(detalle.getArticulo().getId(), detalle.getCantidad(), BigDecimal::add);
+                }
+            }
+        }
+        return cantidades;
+    }
+
+    private static Map<Long, BigDecimal> cambios(Map<Long, BigDecimal> anteriores, Map<Long, BigDecimal> nuevas) {
+        Map<Long, BigDecimal> cambios = new HashMap<>(nuevas);
+        anteriores.forEach((articuloId, cantidad) -> cambios.merge(articuloId, cantidad.negate(), BigDecimal::add));
+        return cambios;
+    }
+
+    private static BigDecimal retornable(BigDecimal vendida, BigDecimal devuelta) {
+        BigDecimal resto = (vendida != null ? vendida : BigDecimal.ZERO)
+                .subtract(devuelta != null ? devuelta : BigDecimal.ZERO);
+        return resto.signum() > 0 ? resto : BigDecimal.ZERO;
+    }
 }
@@ -2,13 +2,12 @@ package com.ferronica.app.service.impl;
 
 import com.ferronica.app.domain.Ingreso;
 import com.ferronica.app.repository.IngresoRepository;
-import com.ferronica.app.repository.ArticuloRepository;
 import com.ferronica.app.repository.UsuarioRepository;
 import com.ferronica.app.security.SecurityUtils;
 import com.ferronica.app.service.IngresoService;
+import com.ferronica.app.service.RecepcionIngresoService;
 import com.ferronica.app.service.dto.IngresoDTO;
 import com.ferronica.app.service.mapper.IngresoMapper;
-import java.math.BigDecimal;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,16 +27,16 @@ public class IngresoServiceImpl implements IngresoService {
 
     private final IngresoMapper ingresoMapper;
 
-    private final ArticuloRepository articuloRepository;
-
     private final UsuarioRepository usuarioRepository;
 
+    private final RecepcionIngresoService recepcionIngresoService;
+
     public IngresoServiceImpl(IngresoRepository ingresoRepository, IngresoMapper ingresoMapper,
-            ArticuloRepository articuloRepository, UsuarioRepository usuarioRepository) {
+            UsuarioRepository usuarioRepository, RecepcionIngresoService recepcionIngresoService) {
         this.ingresoRepository = ingresoRepository;
         this.ingresoMapper = ingresoMapper;
-        this.articuloRepository = articuloRepository;
         this.usuarioRepository = usuarioRepository;
+        this.recepcionIngresoService = recepcionIngresoService;
     }
 
     @Override
@@ -60,34 +59,9 @@ public class IngresoServiceImpl implements IngresoService {
 
         Ingreso savedIngreso = ingresoRepository.save(ingreso);
 
-        // Actualizar stock y revisar márgenes de productos
+        // Costo y stock de todos los productos en un solo paso, con los artículos bloqueados en orden de id
         if (ingreso.getDetalles() != null && !ingreso.getDetalles().isEmpty()) {
-            ingreso.getDetalles().forEach(detalle -> {
-                if (detalle.getArticulo() != null && detalle.getArticulo().getId() != null) {
-                    articuloRepository.findById(detalle.getArticulo().getId()).ifPresent(articulo -> {
-                        BigDecimal existenciaActual = articulo.getExistencia() != null ? articulo.getExistencia()
-                                : BigDecimal.ZERO;
-                        BigDecimal cantidadIngreso = detalle.getCantidad() != null ? detalle.getCantidad()
-                                : BigDecimal.ZERO;
-                        BigDecimal costoNuevo = detalle.getCostoUnitario() != null ? detalle.getCostoUnitario()
-                                : BigDecimal.ZERO;
-                        BigDecimal costoAnterior = articulo.getCosto() != null ? articulo.getCosto()
-                                : BigDecimal.ZERO;
-
-                        // Si el costo sube, guardamos el anterior para mostrarlo en el Dashboard
-                        if (costoNuevo.compareTo(costoAnterior) > 0) {
-                            articulo.setUltimoCosto(costoAnterior); // Aquí guardamos el "Costo Anterior"
-                        }
-
-                        articulo.setExistencia(existenciaActual.add(cantidadIngreso));
-                        articulo.setCosto(costoNuevo); // Actualizamos al último costo
-                        articuloRepository.save(articulo);
-
-                        LOG.debug("Procesado Articulo ID {}: Stock +{}, Costo {} -> {}",
-                                articulo.getId(), cantidadIngreso, costoAnterior, costoNuevo);
-                    });
-                }
-            });
+            recepcionIngresoService.recibir(ingreso.getDetalles(), savedIngreso.getId());
         }
 
         return ingresoMapper.toDto(savedIngreso);
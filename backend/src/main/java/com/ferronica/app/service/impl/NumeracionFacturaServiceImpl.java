@@ -2,8 +2,10 @@ package com.ferronica.app.service.impl;
 
 import com.ferronica.app.domain.NumeracionFactura;
 import com.ferronica.app.repository.NumeracionFacturaRepository;
+import com.ferronica.app.service.NumeracionFacturaAllocator;
 import com.ferronica.app.service.NumeracionFacturaService;
 import com.ferronica.app.service.dto.NumeracionFacturaDTO;
+import com.ferronica.app.service.dto.NumeracionFacturaEstadoDTO;
 import com.ferronica.app.service.mapper.NumeracionFacturaMapper;
 import java.util.LinkedList;
 import java.util.List;
@@ -28,11 +30,15 @@ public class NumeracionFacturaServiceImpl implements NumeracionFacturaService {
 
     private final NumeracionFacturaMapper numeracionFacturaMapper;
 
+    private final NumeracionFacturaAllocator numeracionFacturaAllocator;
+
     public NumeracionFacturaServiceImpl(
             NumeracionFacturaRepository numeracionFacturaRepository,
-            NumeracionFacturaMapper numeracionFacturaMapper) {
+            NumeracionFacturaMapper numeracionFacturaMapper,
+            NumeracionFacturaAllocator numeracionFacturaAllocator) {
         this.numeracionFacturaRepository = numeracionFacturaRepository;
         this.numeracionFacturaMapper = numeracionFacturaMapper;
+        this.numeracionFacturaAllocator = numeracionFacturaAllocator;
     }
 
     @Override
@@ -40,6 +46,7 @@ public class NumeracionFacturaServiceImpl implements NumeracionFacturaService {
         LOG.debug("Request to save NumeracionFactura : {}", numeracionFacturaDTO);
         NumeracionFactura numeracionFactura = numeracionFacturaMapper.toEntity(numeracionFacturaDTO);
         numeracionFactura = numeracionFacturaRepository.save(numeracionFactura);
+        numeracionFacturaAllocator.ajustarSecuencia(numeracionFactura);
         return numeracionFacturaMapper.toDto(numeracionFactura);
     }
 
@@ -48,6 +55,7 @@ public class NumeracionFacturaServiceImpl implements NumeracionFacturaService {
         LOG.debug("Request to update NumeracionFactura : {}", numeracionFacturaDTO);
         NumeracionFactura numeracionFactura = numeracionFacturaMapper.toEntity(numeracionFacturaDTO);
         numeracionFactura = numeracionFacturaRepository.save(numeracionFactura);
+        numeracionFacturaAllocator.ajustarSecuencia(numeracionFactura);
         return numeracionFacturaMapper.toDto(numeracionFactura);
     }
 
@@ -63,6 +71,10 @@ public class NumeracionFacturaServiceImpl implements NumeracionFacturaService {
                     return existingNumeracionFactura;
                 })
                 .map(numeracionFacturaRepository::save)
+                .map(numeracionFactura -> {
+                    numeracionFacturaAllocator.ajustarSecuencia(numeracionFactura);
+                    return numeracionFactura;
+                })
                 .map(numeracionFacturaMapper::toDto);
     }
 
@@ -92,4 +104,11 @@ public class NumeracionFacturaServiceImpl implements NumeracionFacturaService {
             numeracionFacturaRepository.save(numeracionFactura);
         });
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NumeracionFacturaEstadoDTO> findEstado() {
+        LOG.debug("Request to get NumeracionFactura allocation state");
+        return numeracionFacturaAllocator.estado();
+    }
 }
@@ -3,15 +3,18 @@ package com.ferronica.app.service.impl;
 import com.ferronica.app.domain.UnidadMedida;
 import com.ferronica.app.repository.ArticuloRepository;
 import com.ferronica.app.repository.UnidadMedidaRepository;
+import com.ferronica.app.service.ExistenciaCambiadaEvent;
 import com.ferronica.app.service.UnidadMedidaService;
 import com.ferronica.app.service.dto.UnidadMedidaDTO;
 import com.ferronica.app.service.mapper.UnidadMedidaMapper;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,13 +31,16 @@ public class UnidadMedidaServiceImpl implements UnidadMedidaService {
     private final UnidadMedidaRepository unidadMedidaRepository;
     private final ArticuloRepository articuloRepository;
     private final UnidadMedidaMapper unidadMedidaMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UnidadMedidaServiceImpl(UnidadMedidaRepository unidadMedidaRepository,
             ArticuloRepository articuloRepository,
-            UnidadMedidaMapper unidadMedidaMapper) {
+            UnidadMedidaMapper unidadMedidaMapper,
+            ApplicationEventPublisher eventPublisher) {
         this.unidadMedidaRepository = unidadMedidaRepository;
         this.articuloRepository = articuloRepository;
         this.unidadMedidaMapper = unidadMedidaMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -90,12 +96,15 @@ public class UnidadMedidaServiceImpl implements UnidadMedidaService {
             unidadMedida.setActivo(false);
             unidadMedidaRepository.save(unidadMedida);
             // Cascada: desactivar todos los productos que usen esta unidad
+            List<Long> desactivados = new ArrayList<>();
             articuloRepository.findAll().stream()
                     .filter(a -> a.getUnidadMedida() != null && a.getUnidadMedida().getId().equals(id))
                     .forEach(articulo -> {
                         articulo.setActivo(false);
                         articuloRepository.save(articulo);
+                        desactivados.add(articulo.getId());
                     });
+            eventPublisher.publishEvent(new ExistenciaCambiadaEvent(desactivados));
         });
     }
 }
@@ -1,13 +1,28 @@
 package com.ferronica.app.service.impl;
 
+import com.ferronica.app.domain.Articulo;
+import com.ferronica.app.domain.DetalleVenta;
 import com.ferronica.app.domain.Venta;
+import com.ferronica.app.domain.enumeration.TipoMovimientoInventario;
+import com.ferronica.app.repository.DetalleVentaRepository;
 import com.ferronica.app.repository.VentaRepository;
 import com.ferronica.app.service.VentaService;
 import com.ferronica.app.service.dto.VentaDTO;
 import com.ferronica.app.service.mapper.VentaMapper;
 import com.ferronica.app.repository.UsuarioRepository;
 import com.ferronica.app.security.SecurityUtils;
+import com.ferronica.app.service.InventoryService;
+import com.ferronica.app.service.NumeracionFacturaAllocator;
+import com.ferronica.app.service.SesionCajaService;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -29,37 +44,89 @@ public class VentaServiceImpl implements VentaService {
     private final com.ferronica.app.repository.NumeracionFacturaRepository numeracionFacturaRepository;
     private final UsuarioRepository usuarioRepository;
     private final com.ferronica.app.repository.ArticuloRepository articuloRepository;
+    private final NumeracionFacturaAllocator numeracionFacturaAllocator;
+    private final InventoryService inventoryService;
+    private final DetalleVentaRepository detalleVentaRepository;
+    private final SesionCajaService sesionCajaService;
 
     public VentaServiceImpl(
             VentaRepository ventaRepository,
             VentaMapper ventaMapper,
             com.ferronica.app.repository.NumeracionFacturaRepository numeracionFacturaRepository,
             UsuarioRepository usuarioRepository,
-            com.ferronica.app.repository.ArticuloRepository articuloRepository) {
+            com.ferronica.app.repository.ArticuloRepository articuloRepository,
+            NumeracionFacturaAllocator numeracionFacturaAllocator,
+            InventoryService inventoryService,
+            DetalleVentaRepository detalleVentaRepository,
+            SesionCajaService sesionCajaService) {
         this.ventaRepository = ventaRepository;
         this.ventaMapper = ventaMapper;
         this.numeracionFacturaRepository = numeracionFacturaRepository;
         this.usuarioRepository = usuarioRepository;
         this.articuloRepository = articuloRepository;
+        this.numeracionFacturaAllocator = numeracionFacturaAllocator;
+        this.inventoryService = inventoryService;
+        this.detalleVentaRepository = detalleVentaRepository;
+        this.sesionCajaService = sesionCajaService;
     }
 
     @Override
     public VentaDTO save(VentaDTO ventaDTO) {
         LOG.debug("Request to save Venta : {}", ventaDTO);
         final Venta venta = ventaMapper.toEntity(ventaDTO);
+        prepararNuevaVenta(venta);
 
+        Venta savedVenta = ventaRepository.save(venta);
+        sesionCajaService.registrarVentas(Collections.singletonList(savedVenta));
+        return ventaMapper.toDto(savedVenta);
+    }
+
+    @Override
+    public VentaDTO checkout(VentaDTO ventaDTO) {
+        LOG.debug("Request to checkout Venta : {}", ventaDTO);
+        final Venta venta = ventaMapper.toEntity(ventaDTO);
+        prepararNuevaVenta(venta);
+
+        // El id de la venta se asigna al persistir; los INSERT se difieren hasta el flush
+        Venta savedVenta = ventaRepository.save(venta);
+
+        // Descontar el stock del ticket: un solo INSERT en la bitácora, la existencia se consolida al confirmar
+        Map<Long, BigDecimal> cantidades = cantidadesPorArticulo(savedVenta.getDetalles());
+        Map<Long, BigDecimal> descuentos = new HashMap<>();
+        cantidades.forEach((articuloId, cantidad) -> descuentos.put(articuloId, cantidad.negate()));
+        inventoryService.aplicarCambios(descuentos, TipoMovimientoInventario.VENTA, savedVenta.getId());
+
+        // Totales de la caja abierta del vendedor
+        sesionCajaService.registrarVentas(Collections.singletonList(savedVenta));
+
+        // Las líneas apuntan a los artículos gestionados (una sola consulta); Hibernate
+        // agrupa los INSERT de las líneas en lotes JDBC al hacer flush
+        Map<Long, Articulo> articulos = articuloRepository
+                .findAllById(cantidades.keySet())
+                .stream()
+                .collect(Collectors.toMap(Articulo::getId, Function.identity()));
+        savedVenta.getDetalles().forEach(detalle -> {
+            if (detalle.getArticulo() != null && articulos.containsKey(detalle.getArticulo().getId())) {
+                detalle.setArticulo(articulos.get(detalle.getArticulo().getId()));
+            }
+        });
+
+        return ventaMapper.toDto(savedVenta);
+    }
+
+    /**
+     * Completa una venta nueva: fecha, numeración, estado, usuario autenticado
+     * y costo de cada línea al momento de la venta.
+     */
+    private void prepararNuevaVenta(Venta venta) {
         // Automatización de Fecha
         venta.setFecha(java.time.Instant.now());
 
-        // Automatización de Numeración
+        // Automatización de Numeración (secuencia por serie, sin bloquear la fila)
         numeracionFacturaRepository
                 .findByActivoTrue()
                 .ifPresent(numeracion -> {
-                    Long proximoCorrelativo = numeracion.getCorrelativoActual() + 1;
-                    numeracion.setCorrelativoActual(proximoCorrelativo);
-                    numeracionFacturaRepository.save(numeracion);
-
-                    venta.setNoFactura(proximoCorrelativo);
+                    venta.setNoFactura(numeracionFacturaAllocator.siguienteNumero(numeracion));
                     venta.setNumeracion(numeracion);
                 });
 
@@ -73,14 +140,28 @@ public class VentaServiceImpl implements VentaService {
             usuarioRepository.findByIdKeycloak(idKeycloak).ifPresent(venta::setUsuario);
         });
 
-        Venta savedVenta = ventaRepository.save(venta);
-        return ventaMapper.toDto(savedVenta);
+        // Costo vigente de los artículos, leído en una sola consulta antes de persistir las líneas
+        Map<Long, BigDecimal> cantidades = cantidadesPorArticulo(venta.getDetalles());
+        if (!cantidades.isEmpty()) {
+            Map<Long, BigDecimal> costos = new HashMap<>();
+            for (Object[] fila : articuloRepository.findCostosByIdIn(cantidades.keySet())) {
+                if (fila[1] != null) {
+                    costos.put((Long) fila[0], (BigDecimal) fila[1]);
+                }
+            }
+            venta.getDetalles().forEach(detalle -> {
+                if (detalle.getArticulo() != null && detalle.getArticulo().getId() != null) {
+                    detalle.setCostoUnitario(costos.get(detalle.getArticulo().getId()));
+                }
+            });
+        }
     }
 
     @Override
     public VentaDTO update(VentaDTO ventaDTO) {
         LOG.debug("Request to update Venta : {}", ventaDTO);
         Venta venta = ventaMapper.toEntity(ventaDTO);
+        copiarFechaALineas(venta);
         venta = ventaRepository.save(venta);
         return ventaMapper.toDto(venta);
     }
@@ -93,6 +174,7 @@ public class VentaServiceImpl implements VentaService {
                 .findById(ventaDTO.getId())
                 .map(existingVenta -> {
                     ventaMapper.partialUpdate(existingVenta, ventaDTO);
+                    copiarFechaALineas(existingVenta);
 
                     return existingVenta;
                 })
@@ -100,6 +182,18 @@ public class VentaServiceImpl implements VentaService {
                 .map(ventaMapper::toDto);
     }
 
+    /**
+     * Las líneas que llegan del DTO no traen venta_fecha, la clave de partición
+     * de detalle_venta: se toma de la venta antes de fusionarlas.
+     */
+    private static void copiarFechaALineas(Venta venta) {
+        if (venta.getDetalles() != null) {
+            venta.getDetalles().stream()
+                    .filter(detalle -> detalle.getVentaFecha() == null)
+                    .forEach(detalle -> detalle.setVentaFecha(venta.getFecha()));
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<VentaDTO> findOne(Long id) {
@@ -110,29 +204,56 @@ public class VentaServiceImpl implements VentaService {
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete Venta (Anulacion Logica) : {}", id);
-        ventaRepository.findById(id).ifPresent(venta -> {
-            // Si ya está anulada, no hacemos nada para evitar duplicar stock devuelto
-            if (venta.getAnulada() != null && venta.getAnulada()) {
-                return;
-            }
+        anular(Collections.singletonList(id));
+    }
 
-            // 1. Devolver productos al inventario
-            if (venta.getDetalles() != null) {
-                venta.getDetalles().forEach(detalle -> {
-                    if (detalle.getArticulo() != null) {
-                        articuloRepository.findById(detalle.getArticulo().getId()).ifPresent(articulo -> {
-                            LOG.debug("Restaurando stock para articulo {}: {} + {}", articulo.getNombre(),
-                                    articulo.getExistencia(), detalle.getCantidad());
-                            articulo.setExistencia(articulo.getExistencia().add(detalle.getCantidad()));
-                            articuloRepository.save(articulo);
-                        });
-                    }
-                });
-            }
+    @Override
+    public List<Long> anular(Collection<Long> ids) {
+        LOG.debug("Request to anular Ventas : {}", ids);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-            // 2. Marcar como anulada
-            venta.setAnulada(true);
-            ventaRepository.save(venta);
-        });
+        // 1. Bloquear las cabeceras; las ya anuladas se omiten para no duplicar stock devuelto
+        List<Venta> ventas = ventaRepository
+                .findAllByIdInWithLock(ids)
+                .stream()
+                .filter(venta -> !Boolean.TRUE.equals(venta.getAnulada()))
+                .toList();
+        if (ventas.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> anuladas = ventas.stream().map(Venta::getId).toList();
+
+        // 2. Cantidades agrupadas por venta y artículo en una sola consulta
+        Map<Long, Map<Long, BigDecimal>> cantidadesPorVenta = new HashMap<>();
+        for (Object[] fila : detalleVentaRepository.sumCantidadesPorVentaYArticulo(anuladas)) {
+            cantidadesPorVenta
+                    .computeIfAbsent((Long) fila[0], ventaId -> new HashMap<>())
+                    .put((Long) fila[1], (BigDecimal) fila[2]);
+        }
+
+        // 3. Devolver productos al inventario en un solo INSERT
+        inventoryService.aplicarCambiosPorReferencia(cantidadesPorVenta, TipoMovimientoInventario.ANULACION);
+
+        // 4. Marcar como anuladas (UPDATE agrupado en lote al hacer flush)
+        ventas.forEach(venta -> venta.setAnulada(true));
+
+        // 5. Totales de anulación de la caja abierta
+        sesionCajaService.registrarAnulaciones(ventas);
+        return anuladas;
+    }
+
+    /**
+     * Suma las cantidades de las líneas por id de artículo.
+     */
+    private static Map<Long, BigDecimal> cantidadesPorArticulo(Collection<DetalleVenta> detalles) {
+        Map<Long, BigDecimal> cantidades = new HashMap<>();
+        for (DetalleVenta detalle : detalles) {
+            if (detalle.getArticulo() != null && detalle.getArticulo().getId() != null && detalle.getCantidad() != null) {
+                cantidades.merge(detalle.getArticulo().getId(), detalle.getCantidad(), BigDecimal::add);
+            }
+        }
+        return cantidades;
     }
 }
@@ -12,6 +12,14 @@ public interface CategoriaMapper extends EntityMapper<CategoriaDTO, Categoria> {
     @Mapping(target = "padre", source = "padre", qualifiedByName = "categoriaId")
     CategoriaDTO toDto(Categoria s);
 
+    @Mapping(target = "ancestros", ignore = true)
+    Categoria toEntity(CategoriaDTO categoriaDTO);
+
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "ancestros", ignore = true)
+    void partialUpdate(@MappingTarget Categoria entity, CategoriaDTO dto);
+
     @Named("categoriaId")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
@@ -0,0 +1,26 @@
+package com.ferronica.app.service.mapper;
+
+import com.ferronica.app.domain.SesionCaja;
+import com.ferronica.app.domain.Usuario;
+import com.ferronica.app.service.dto.SesionCajaDTO;
+import com.ferronica.app.service.dto.UsuarioDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link SesionCaja} and its DTO {@link SesionCajaDTO}.
+ * The totals are read separately by
+ * {@link com.ferronica.app.service.SesionCajaService}.
+ */
+@Mapper(componentModel = "spring")
+public interface SesionCajaMapper extends EntityMapper<SesionCajaDTO, SesionCaja> {
+    @Mapping(target = "usuario", source = "usuario", qualifiedByName = "usuarioUsername")
+    @Mapping(target = "totales", ignore = true)
+    SesionCajaDTO toDto(SesionCaja s);
+
+    @Named("usuarioUsername")
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "id", source = "id")
+    @Mapping(target = "username", source = "username")
+    @Mapping(target = "nombre", source = "nombre")
+    UsuarioDTO toDtoUsuarioUsername(Usuario usuario);
+}
@@ -1,16 +1,37 @@
 package com.ferronica.app.web.rest;
 
+import com.ferronica.app.domain.Articulo;
+import com.ferronica.app.domain.Categoria;
+import com.ferronica.app.domain.UnidadMedida;
 import com.ferronica.app.repository.ArticuloRepository;
+import com.ferronica.app.service.AjustePreciosService;
+import com.ferronica.app.service.ArticuloBusquedaService;
+import com.ferronica.app.service.ArticuloImportService;
 import com.ferronica.app.service.ArticuloQueryService;
+import com.ferronica.app.service.KeysetPage;
 import com.ferronica.app.service.ArticuloService;
+import com.ferronica.app.service.CatalogoPosService;
+import com.ferronica.app.service.MovimientoInventarioService;
+import com.ferronica.app.service.StockBajoService;
+import com.ferronica.app.service.VersionTablaService;
+import com.ferronica.app.service.VersionTablaService.ExistenciaArticulo;
 import com.ferronica.app.service.criteria.ArticuloCriteria;
+import com.ferronica.app.service.dto.AjustePreciosDTO;
+import com.ferronica.app.service.dto.ArticuloBajoStockDTO;
 import com.ferronica.app.service.dto.ArticuloDTO;
+import com.ferronica.app.service.dto.ImportacionArticulosDTO;
 import com.ferronica.app.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
@@ -19,10 +40,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.service.filter.LongFilter;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
@@ -38,6 +63,11 @@ public class ArticuloResource {
 
     private static final String ENTITY_NAME = "articulo";
 
+    // El cliente se vuelve a conectar al expirar
+    private static final long SSE_TIMEOUT_MS = 30L * 60 * 1000;
+
+    private static final int MAX_CODIGOS_POR_LOTE = 500;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -47,13 +77,41 @@ public class ArticuloResource {
 
     private final ArticuloQueryService articuloQueryService;
 
+    private final MovimientoInventarioService movimientoInventarioService;
+
+    private final StockBajoService stockBajoService;
+
+    private final ArticuloBusquedaService articuloBusquedaService;
+
+    private final CatalogoPosService catalogoPosService;
+
+    private final VersionTablaService versionTablaService;
+
+    private final ArticuloImportService articuloImportService;
+
+    private final AjustePreciosService ajustePreciosService;
+
     public ArticuloResource(
             ArticuloService articuloService,
             ArticuloRepository articuloRepository,
-            ArticuloQueryService articuloQueryService) {
+            ArticuloQueryService articuloQueryService,
+            MovimientoInventarioService movimientoInventarioService,
+            StockBajoService stockBajoService,
+            ArticuloBusquedaService articuloBusquedaService,
+            CatalogoPosService catalogoPosService,
+            VersionTablaService versionTablaService,
+            ArticuloImportService articuloImportService,
+            AjustePreciosService ajustePreciosService) {
         this.articuloService = articuloService;
         this.articuloRepository = articuloRepository;
         this.articuloQueryService = articuloQueryService;
+        this.movimientoInventarioService = movimientoInventarioService;
+        this.stockBajoService = stockBajoService;
+        this.articuloBusquedaService = articuloBusquedaService;
+        this.catalogoPosService = catalogoPosService;
+        this.versionTablaService = versionTablaService;
+        this.articuloImportService = articuloImportService;
+        this.ajustePreciosService = ajustePreciosService;
     }
 
     /**
@@ -160,37 +218,284 @@ public class ArticuloResource {
 
     /**
      * {@code GET  /articulos} : get all the articulos.
+     * <p>
+     * In keyset mode (a {@code cursor} parameter, empty for the first page) the
+     * rows after the cursor are returned with a {@code Link rel="next"} header and
+     * no count; {@code page} and {@code sort} are ignored.
      *
-     * @param pageable the pagination information.
-     * @param criteria the criteria which the requested entities should match.
+     * @param pageable    the pagination information.
+     * @param criteria    the criteria which the requested entities should match.
+     * @param cursor      the keyset cursor, to opt into keyset mode.
+     * @param ifNoneMatch the ETag of the copy held by the client, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
-     *         of articulos in body.
+     *         of articulos in body, or with status {@code 304 (Not Modified)} if
+     *         the client copy is current.
      */
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_JEFE_BODEGA', 'ROLE_VENDEDOR')")
     @GetMapping("")
     public ResponseEntity<List<ArticuloDTO>> getAllArticulos(
             ArticuloCriteria criteria,
-            @org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+            @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+            @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAM, required = false) String cursor,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         LOG.debug("REST request to get Articulos by criteria: {}", criteria);
+        validarCategoriaSubtree(criteria);
+        // Los DTO incluyen la existencia, la categoría y la unidad de medida
+        String etag = versionTablaService.etag(Articulo.class, ExistenciaArticulo.class, Categoria.class,
+                UnidadMedida.class);
+        if (EtagUtil.noModificado(ifNoneMatch, etag)) {
+            return EtagUtil.respuestaNoModificada(etag);
+        }
 
+        if (cursor != null) {
+            KeysetPage<ArticuloDTO> keysetPage = articuloQueryService.findByCriteria(criteria,
+                    KeysetPaginationUtil.parseCursor(cursor, false, ENTITY_NAME), pageable.getPageSize());
+            HttpHeaders headers = KeysetPaginationUtil
+                    .generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), keysetPage);
+            return EtagUtil.ok(etag).headers(headers).body(keysetPage.getContent());
+        }
         Page<ArticuloDTO> page = articuloQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil
                 .generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return EtagUtil.ok(etag).headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /articulos/search?q=} : search the active articulos by code,
+     * name or description, ignoring case and accents and tolerating typos.
+     *
+     * @param q           the text to search.
+     * @param categoriaId restrict the search to a categoria, optional.
+     * @param pageable    the pagination information; results are sorted by
+     *                    relevance.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     *         of articulos in body, most relevant first.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_JEFE_BODEGA', 'ROLE_VENDEDOR')")
+    @GetMapping("/search")
+    public ResponseEntity<List<ArticuloDTO>> searchArticulos(
+            @RequestParam(name = "q") String q,
+            @RequestParam(name = "categoriaId", required = false) Long categoriaId,
+            @org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+        LOG.debug("REST request to search Articulos : {}", q);
+        return ResponseEntity.ok().body(articuloBusquedaService.buscar(q, categoriaId, pageable));
+    }
+
+    /**
+     * {@code GET  /articulos/catalogo?q=} : typeahead of the POS, served from the
+     * in-memory catalog of active articulos.
+     *
+     * @param q           the text typed; every word must appear in the code or
+     *                    the name.
+     * @param categoriaId restrict the search to a categoria, optional.
+     * @param limite      the maximum number of results (at most
+     *                    {@value CatalogoPosService#LIMITE_MAXIMO}).
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     *         of articulos in body, exact code first.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_JEFE_BODEGA', 'ROLE_VENDEDOR')")
+    @GetMapping("/catalogo")
+    public ResponseEntity<List<ArticuloDTO>> buscarEnCatalogo(
+            @RequestParam(name = "q") String q,
+            @RequestParam(name = "categoriaId", required = false) Long categoriaId,
+            @RequestParam(name = "limite", defaultValue = "12") int limite) {
+        LOG.debug("REST request to search the POS catalog : {}", q);
+        return ResponseEntity.ok().body(catalogoPosService.buscar(q, categoriaId, limite));
     }
 
     /**
      * {@code GET  /articulos/count} : count all the articulos.
      *
-     * @param criteria the criteria which the requested entities should match.
+     * @param criteria    the criteria which the requested entities should match.
+     * @param ifNoneMatch the ETag of the copy held by the client, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count
-     *         in body.
+     *         in body, or with status {@code 304 (Not Modified)} if the client copy
+     *         is current.
      */
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_JEFE_BODEGA', 'ROLE_VENDEDOR')")
     @GetMapping("/count")
-    public ResponseEntity<Long> countArticulos(ArticuloCriteria criteria) {
+    public ResponseEntity<Long> countArticulos(ArticuloCriteria criteria,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         LOG.debug("REST request to count Articulos by criteria: {}", criteria);
-        return ResponseEntity.ok().body(articuloQueryService.countByCriteria(criteria));
+        validarCategoriaSubtree(criteria);
+        // Una venta solo cambia el conteo si se filtra por existencia
+        String etag = criteria != null && criteria.getExistencia() != null
+                ? versionTablaService.etag(Articulo.class, ExistenciaArticulo.class, Categoria.class)
+                : versionTablaService.etag(Articulo.class, Categoria.class);
+        if (EtagUtil.noModificado(ifNoneMatch, etag)) {
+            return EtagUtil.respuestaNoModificada(etag);
+        }
+        return EtagUtil.ok(etag).body(articuloQueryService.countByCriteria(criteria));
+    }
+
+    /**
+     * {@code GET  /articulos/bajo-stock} : get the active articulos at or below
+     * their minimum stock, served from memory.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     *         of articulos in body, lowest stock first.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_JEFE_BODEGA')")
+    @GetMapping("/bajo-stock")
+    public ResponseEntity<List<ArticuloBajoStockDTO>> getArticulosBajoStock() {
+        LOG.debug("REST request to get Articulos bajo stock");
+        return ResponseEntity.ok().body(stockBajoService.findAll());
+    }
+
+    /**
+     * {@code GET  /articulos/bajo-stock/stream} : Server-Sent Events stream of
+     * the low-stock changes. The first {@code lista} event carries the whole
+     * list; then each {@code bajo-stock} event carries an articulo that entered
+     * the list, changed its level in it, or left it ({@code bajoStock = false}).
+     * A client that falls behind is disconnected and gets the list again when it
+     * reconnects.
+     *
+     * @return the event stream.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_JEFE_BODEGA')")
+    @GetMapping(value = "/bajo-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamArticulosBajoStock() {
+        LOG.debug("REST request to stream Articulos bajo stock");
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        Runnable cancelar = stockBajoService.suscribir(nivel -> {
+            try {
+                emitter.send(SseEmitter.event().name("bajo-stock").data(nivel, MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        }, emitter::complete);
+        emitter.onCompletion(cancelar);
+        emitter.onTimeout(cancelar);
+        emitter.onError(e -> cancelar.run());
+        // La lista se toma después de suscribirse: un cambio posterior llega como evento
+        try {
+            emitter.send(SseEmitter.event().name("lista").data(stockBajoService.findAll(), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * {@code GET  /articulos/codigo/:codigo} : get the active articulo with the
+     * "codigo", ignoring case (barcode scan).
+     *
+     * @param codigo the code of the articuloDTO to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body
+     *         the articuloDTO, or with status {@code 404 (Not Found)}.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_JEFE_BODEGA', 'ROLE_VENDEDOR')")
+    @GetMapping("/codigo/{codigo}")
+    public ResponseEntity<ArticuloDTO> getArticuloByCodigo(@PathVariable("codigo") String codigo) {
+        LOG.debug("REST request to get Articulo by codigo : {}", codigo);
+        return ResponseUtil.wrapOrNotFound(articuloService.findOneByCodigo(codigo));
+    }
+
+    /**
+     * {@code POST  /articulos/codigo/lote} : get the articulos with several codes
+     * in one round trip.
+     *
+     * @param codigos the codes to look up.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     *         of articulos found in body, in the order of the codes; codes without
+     *         articulo are left out.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_JEFE_BODEGA', 'ROLE_VENDEDOR')")
+    @PostMapping("/codigo/lote")
+    public ResponseEntity<List<ArticuloDTO>> getArticulosByCodigo(@RequestBody List<String> codigos) {
+        LOG.debug("REST request to get Articulos by codigo : {}", codigos);
+        if (codigos.size() > MAX_CODIGOS_POR_LOTE) {
+            throw new BadRequestAlertException("Too many codes, at most " + MAX_CODIGOS_POR_LOTE, ENTITY_NAME,
+                    "toomanycodes");
+        }
+        return ResponseEntity.ok().body(articuloService.findAllByCodigo(codigos));
+    }
+
+    /**
+     * {@code POST  /articulos/ajuste-precios} : change by a percentage or a
+     * fixed amount the price of the active articulos of a categoria (with its
+     * subcategorias), of a proveedor, or of a list of ids, recording the price
+     * history.
+     *
+     * @param ajusteDTO the change, its rounding and the articulos it applies to.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         number of articulos whose price changed in body, or with status
+     *         {@code 400 (Bad Request)} if no articulos were selected or the
+     *         change would take every price to zero.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_JEFE_BODEGA')")
+    @PostMapping("/ajuste-precios")
+    public ResponseEntity<Integer> ajustarPrecios(@Valid @RequestBody AjustePreciosDTO ajusteDTO) {
+        LOG.debug("REST request to adjust prices of Articulos : {}", ajusteDTO);
+        boolean conFiltro = ajusteDTO.getCategoriaId() != null || ajusteDTO.getProveedorId() != null
+                || (ajusteDTO.getArticuloIds() != null && !ajusteDTO.getArticuloIds().isEmpty());
+        if (!conFiltro && !ajusteDTO.isTodos()) {
+            throw new BadRequestAlertException("Choose a categoria, a proveedor or articulos, or set todos",
+                    ENTITY_NAME, "nofilter");
+        }
+        if (ajusteDTO.getTipo() == AjustePreciosDTO.TipoAjuste.PORCENTAJE
+                && ajusteDTO.getValor().compareTo(BigDecimal.valueOf(-100)) <= 0) {
+            throw new BadRequestAlertException("The percentage must be greater than -100", ENTITY_NAME,
+                    "invalidpercentage");
+        }
+        int cambiados = ajustePreciosService.ajustar(ajusteDTO).size();
+        return ResponseEntity.ok()
+                .headers(HeaderUtil.createAlert(applicationName, "Adjusted the price of " + cambiados + " articulos",
+                        String.valueOf(cambiados)))
+                .body(cambiados);
+    }
+
+    /**
+     * {@code POST  /articulos/importaciones} : start importing articulos from a
+     * CSV or XLSX file, inserting or updating them by "codigo".
+     *
+     * @param file the file to import.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and
+     *         the initial state of the import in body, or with status
+     *         {@code 400 (Bad Request)} if the file is empty or not CSV or XLSX.
+     * @throws IOException        if the file cannot be stored for the import.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_JEFE_BODEGA')")
+    @PostMapping(value = "/importaciones", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportacionArticulosDTO> importarArticulos(@RequestParam("file") MultipartFile file)
+            throws IOException, URISyntaxException {
+        LOG.debug("REST request to import Articulos : {}", file.getOriginalFilename());
+        if (file.isEmpty()) {
+            throw new BadRequestAlertException("Empty file", ENTITY_NAME, "emptyfile");
+        }
+        ArticuloImportService.Formato formato = ArticuloImportService.Formato.deArchivo(file.getOriginalFilename())
+                .orElseThrow(() -> new BadRequestAlertException("Only CSV and XLSX files can be imported", ENTITY_NAME,
+                        "invalidformat"));
+        // El archivo temporal pasa a la importación, que lo borra al terminar
+        Path archivo = Files.createTempFile("importacion_", "." + formato.name().toLowerCase(Locale.ROOT));
+        try {
+            file.transferTo(archivo);
+        } catch (IOException e) {
+            Files.deleteIfExists(archivo);
+            throw e;
+        }
+        ImportacionArticulosDTO importacion = articuloImportService.iniciar(archivo, file.getOriginalFilename(),
+                formato);
+        return ResponseEntity.accepted()
+                .location(new URI("/api/articulos/importaciones/" + importacion.getId()))
+                .body(importacion);
+    }
+
+    /**
+     * {@code GET  /articulos/importaciones/:id} : get the progress and the
+     * rejected rows of an import.
+     *
+     * @param id the id of the import.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         state of the import in body, or with status {@code 404 (Not Found)}
+     *         if it is unknown or expired.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_JEFE_BODEGA')")
+    @GetMapping("/importaciones/{id}")
+    public ResponseEntity<ImportacionArticulosDTO> getImportacion(@PathVariable("id") String id) {
+        LOG.debug("REST request to get import of Articulos : {}", id);
+        return ResponseUtil.wrapOrNotFound(articuloImportService.findOne(id));
     }
 
     /**
@@ -208,6 +513,50 @@ public class ArticuloResource {
         return ResponseUtil.wrapOrNotFound(articuloDTO);
     }
 
+    /**
+     * {@code GET  /articulos/:id/existencia} : get the stock of the "id" articulo
+     * at a past instant, rebuilt from the inventory ledger.
+     *
+     * @param id    the id of the articulo.
+     * @param fecha the instant; defaults to now.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         existencia in body, or with status {@code 404 (Not Found)}.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_JEFE_BODEGA')")
+    @GetMapping("/{id}/existencia")
+    public ResponseEntity<BigDecimal> getExistenciaArticulo(
+            @PathVariable("id") Long id,
+            @RequestParam(name = "fecha", required = false) Instant fecha) {
+        LOG.debug("REST request to get existencia of Articulo : {} at {}", id, fecha);
+        if (!articuloRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(movimientoInventarioService.existenciaAl(id, fecha != null ? fecha : Instant.now()));
+    }
+
+    /**
+     * Only the {@code equals} and {@code in} conditions of
+     * {@code categoriaSubtreeId} have a meaning over a subtree; any other one is
+     * rejected rather than silently ignored.
+     *
+     * @param criteria the criteria of the request.
+     * @throws BadRequestAlertException if {@code categoriaSubtreeId} has another
+     *                                  condition.
+     */
+    private static void validarCategoriaSubtree(ArticuloCriteria criteria) {
+        LongFilter subarbol = criteria != null ? criteria.getCategoriaSubtreeId() : null;
+        if (subarbol == null) {
+            return;
+        }
+        LongFilter admitido = new LongFilter();
+        admitido.setEquals(subarbol.getEquals());
+        admitido.setIn(subarbol.getIn());
+        if (!admitido.equals(subarbol)) {
+            throw new BadRequestAlertException("Only equals and in are supported on categoriaSubtreeId", ENTITY_NAME,
+                    "categoriasubtreeinvalid");
+        }
+    }
+
     /**
      * {@code DELETE  /articulos/:id} : delete the "id" articulo.
      *
@@ -1,8 +1,11 @@
 package com.ferronica.app.web.rest;
 
+import com.ferronica.app.domain.Categoria;
 import com.ferronica.app.repository.CategoriaRepository;
 import com.ferronica.app.service.CategoriaService;
+import com.ferronica.app.service.VersionTablaService;
 import com.ferronica.app.service.dto.CategoriaDTO;
+import com.ferronica.app.service.dto.DesactivacionCategoriaDTO;
 import com.ferronica.app.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -43,9 +46,13 @@ public class CategoriaResource {
 
     private final CategoriaRepository categoriaRepository;
 
-    public CategoriaResource(CategoriaService categoriaService, CategoriaRepository categoriaRepository) {
+    private final VersionTablaService versionTablaService;
+
+    public CategoriaResource(CategoriaService categoriaService, CategoriaRepository categoriaRepository,
+            VersionTablaService versionTablaService) {
         this.categoriaService = categoriaService;
         this.categoriaRepository = categoriaRepository;
+        this.versionTablaService = versionTablaService;
     }
 
     /**
@@ -153,19 +160,26 @@ public class CategoriaResource {
     /**
      * {@code GET  /categorias} : get all the categorias.
      *
-     * @param pageable the pagination information.
+     * @param pageable    the pagination information.
+     * @param ifNoneMatch the ETag of the copy held by the client, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
-     *         of categorias in body.
+     *         of categorias in body, or with status {@code 304 (Not Modified)} if
+     *         the client copy is current.
      */
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_JEFE_BODEGA', 'ROLE_VENDEDOR')")
     @GetMapping("")
     public ResponseEntity<List<CategoriaDTO>> getAllCategorias(
-            @org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+            @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         LOG.debug("REST request to get a page of Categorias");
+        String etag = versionTablaService.etag(Categoria.class);
+        if (EtagUtil.noModificado(ifNoneMatch, etag)) {
+            return EtagUtil.respuestaNoModificada(etag);
+        }
         Page<CategoriaDTO> page = categoriaService.findAll(pageable);
         HttpHeaders headers = PaginationUtil
                 .generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return EtagUtil.ok(etag).headers(headers).body(page.getContent());
     }
 
     /**
@@ -184,18 +198,20 @@ public class CategoriaResource {
     }
 
     /**
-     * {@code DELETE  /categorias/:id} : delete the "id" categoria.
+     * {@code DELETE  /categorias/:id} : delete (deactivate) the "id" categoria,
+     * its subcategorias and their articulos.
      *
      * @param id the id of the categoriaDTO to delete.
-     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         number of categorias and articulos deactivated in body.
      */
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteCategoria(@PathVariable("id") Long id) {
+    public ResponseEntity<DesactivacionCategoriaDTO> deleteCategoria(@PathVariable("id") Long id) {
         LOG.debug("REST request to delete Categoria : {}", id);
-        categoriaService.delete(id);
-        return ResponseEntity.noContent()
+        DesactivacionCategoriaDTO desactivacion = categoriaService.delete(id);
+        return ResponseEntity.ok()
                 .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
-                .build();
+                .body(desactivacion);
     }
 }
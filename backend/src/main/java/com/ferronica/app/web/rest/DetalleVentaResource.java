@@ -2,6 +2,8 @@ package com.ferronica.app.web.rest;
 
 import com.ferronica.app.repository.DetalleVentaRepository;
 import com.ferronica.app.service.DetalleVentaService;
+import com.ferronica.app.service.VentaExportService;
+import com.ferronica.app.service.criteria.VentaCriteria;
 import com.ferronica.app.service.dto.DetalleVentaDTO;
 import com.ferronica.app.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
@@ -17,6 +19,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -38,10 +41,13 @@ public class DetalleVentaResource {
 
     private final DetalleVentaRepository detalleVentaRepository;
 
+    private final VentaExportService ventaExportService;
+
     public DetalleVentaResource(DetalleVentaService detalleVentaService,
-            DetalleVentaRepository detalleVentaRepository) {
+            DetalleVentaRepository detalleVentaRepository, VentaExportService ventaExportService) {
         this.detalleVentaService = detalleVentaService;
         this.detalleVentaRepository = detalleVentaRepository;
+        this.ventaExportService = ventaExportService;
     }
 
     /**
@@ -159,6 +165,26 @@ public class DetalleVentaResource {
         return detalleVentaService.findAll();
     }
 
+    /**
+     * {@code GET  /detalle-ventas/export} : stream the lines of the ventas matching
+     * the criteria (typically a {@code fecha} range) as a CSV or NDJSON download.
+     *
+     * @param criteria the criteria which the ventas of the exported lines should
+     *                 match.
+     * @param formato  {@code csv} (default) or {@code ndjson}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the rows
+     *         streamed in body.
+     */
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDetalleVentas(
+            VentaCriteria criteria,
+            @RequestParam(name = "formato", defaultValue = "csv") String formato) {
+        LOG.debug("REST request to export DetalleVentas by criteria: {}", criteria);
+        return ExportResponseUtil.stream("detalle-ventas", formato, ENTITY_NAME,
+                (tipo, out) -> ventaExportService.exportarDetalles(criteria, tipo, out));
+    }
+
     /**
      * {@code GET  /detalle-ventas/:id} : get the "id" detalleVenta.
      *
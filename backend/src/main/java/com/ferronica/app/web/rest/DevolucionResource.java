@@ -1,7 +1,9 @@
 package com.ferronica.app.web.rest;
 
 import com.ferronica.app.repository.DevolucionRepository;
+import com.ferronica.app.service.DevolucionQueryService;
 import com.ferronica.app.service.DevolucionService;
+import com.ferronica.app.service.criteria.DevolucionCriteria;
 import com.ferronica.app.service.dto.DevolucionDTO;
 import com.ferronica.app.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
@@ -14,10 +16,15 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -38,9 +45,13 @@ public class DevolucionResource {
 
     private final DevolucionRepository devolucionRepository;
 
-    public DevolucionResource(DevolucionService devolucionService, DevolucionRepository devolucionRepository) {
+    private final DevolucionQueryService devolucionQueryService;
+
+    public DevolucionResource(DevolucionService devolucionService, DevolucionRepository devolucionRepository,
+            DevolucionQueryService devolucionQueryService) {
         this.devolucionService = devolucionService;
         this.devolucionRepository = devolucionRepository;
+        this.devolucionQueryService = devolucionQueryService;
     }
 
     /**
@@ -146,16 +157,38 @@ public class DevolucionResource {
     }
 
     /**
-     * {@code GET  /devolucions} : get all the devolucions.
+     * {@code GET  /devolucions} : get a page of the devolucions, newest first
+     * unless a sort is given.
      *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
      *         of devolucions in body.
      */
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_VENDEDOR')")
     @GetMapping("")
-    public List<DevolucionDTO> getAllDevolucions() {
-        LOG.debug("REST request to get all Devolucions");
-        return devolucionService.findAll();
+    public ResponseEntity<List<DevolucionDTO>> getAllDevolucions(
+            DevolucionCriteria criteria,
+            @org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+        LOG.debug("REST request to get Devolucions by criteria: {}", criteria);
+        Page<DevolucionDTO> page = devolucionQueryService.findByCriteria(criteria, pageable);
+        HttpHeaders headers = PaginationUtil
+                .generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /devolucions/count} : count all the devolucions.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count
+     *         in body.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_VENDEDOR')")
+    @GetMapping("/count")
+    public ResponseEntity<Long> countDevolucions(DevolucionCriteria criteria) {
+        LOG.debug("REST request to count Devolucions by criteria: {}", criteria);
+        return ResponseEntity.ok().body(devolucionQueryService.countByCriteria(criteria));
     }
 
     /**
@@ -1,7 +1,9 @@
 package com.ferronica.app.web.rest;
 
+import com.ferronica.app.domain.Empresa;
 import com.ferronica.app.repository.EmpresaRepository;
 import com.ferronica.app.service.EmpresaService;
+import com.ferronica.app.service.VersionTablaService;
 import com.ferronica.app.service.dto.EmpresaDTO;
 import com.ferronica.app.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
@@ -14,6 +16,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -38,9 +41,13 @@ public class EmpresaResource {
 
     private final EmpresaRepository empresaRepository;
 
-    public EmpresaResource(EmpresaService empresaService, EmpresaRepository empresaRepository) {
+    private final VersionTablaService versionTablaService;
+
+    public EmpresaResource(EmpresaService empresaService, EmpresaRepository empresaRepository,
+            VersionTablaService versionTablaService) {
         this.empresaService = empresaService;
         this.empresaRepository = empresaRepository;
+        this.versionTablaService = versionTablaService;
     }
 
     /**
@@ -147,14 +154,21 @@ public class EmpresaResource {
     /**
      * {@code GET  /empresas} : get all the empresas.
      *
+     * @param ifNoneMatch the ETag of the copy held by the client, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
-     *         of empresas in body.
+     *         of empresas in body, or with status {@code 304 (Not Modified)} if
+     *         the client copy is current.
      */
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_VENDEDOR')")
     @GetMapping("")
-    public List<EmpresaDTO> getAllEmpresas() {
+    public ResponseEntity<List<EmpresaDTO>> getAllEmpresas(
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         LOG.debug("REST request to get all Empresas");
-        return empresaService.findAll();
+        String etag = versionTablaService.etag(Empresa.class);
+        if (EtagUtil.noModificado(ifNoneMatch, etag)) {
+            return EtagUtil.respuestaNoModificada(etag);
+        }
+        return EtagUtil.ok(etag).body(empresaService.findAll());
     }
 
     /**
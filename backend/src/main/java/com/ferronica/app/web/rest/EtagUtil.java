@@ -0,0 +1,62 @@
+package com.ferronica.app.web.rest;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Utility class for conditional GETs on the endpoints versioned by
+ * {@link com.ferronica.app.service.VersionTablaService}.
+ * <p>
+ * The ETag is computed before the query; when the {@code If-None-Match}
+ * header already holds it the endpoint answers {@code 304 (Not Modified)}
+ * without running the query. Responses are marked {@code no-cache, private}
+ * so the browser keeps them but revalidates each time.
+ */
+final class EtagUtil {
+
+    private static final CacheControl REVALIDAR = CacheControl.noCache().cachePrivate();
+
+    private EtagUtil() {}
+
+    /**
+     * Check the {@code If-None-Match} header against the current ETag, with the
+     * weak comparison of RFC 9110.
+     *
+     * @param ifNoneMatch the header value, may be {@code null}.
+     * @param etag        the current ETag.
+     * @return {@code true} if the client already has the current data.
+     */
+    static boolean noModificado(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.strip();
+            if (valor.equals("*") || sinPrefijoDebil(valor).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param etag the current ETag.
+     * @return an empty {@code 304 (Not Modified)} response.
+     */
+    static <T> ResponseEntity<T> respuestaNoModificada(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDAR).build();
+    }
+
+    /**
+     * @param etag the current ETag.
+     * @return a {@code 200 (OK)} builder carrying the ETag.
+     */
+    static ResponseEntity.BodyBuilder ok(String etag) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDAR);
+    }
+
+    private static String sinPrefijoDebil(String valor) {
+        return valor.startsWith("W/") ? valor.substring(2) : valor;
+    }
+}
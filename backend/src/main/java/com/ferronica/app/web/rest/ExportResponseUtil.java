@@ -0,0 +1,50 @@
+package com.ferronica.app.web.rest;
+
+import com.ferronica.app.service.VentaExportService.Formato;
+import com.ferronica.app.web.rest.errors.BadRequestAlertException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.function.BiConsumer;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Utility class to answer streaming exports as a file download.
+ */
+final class ExportResponseUtil {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private ExportResponseUtil() {}
+
+    /**
+     * Build a response whose body is written by {@code exportador} while the
+     * client downloads it.
+     *
+     * @param nombre     the file name, without extension.
+     * @param formato    the requested format ({@code csv} or {@code ndjson}).
+     * @param entityName the entity name, for the error alert.
+     * @param exportador writes the rows in the given format to the stream.
+     * @return the response.
+     * @throws BadRequestAlertException if the format is unknown.
+     */
+    static ResponseEntity<StreamingResponseBody> stream(String nombre, String formato, String entityName,
+            BiConsumer<Formato, OutputStream> exportador) {
+        Formato tipo;
+        try {
+            tipo = Formato.valueOf(formato.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Unknown export format", entityName, "formatoinvalido");
+        }
+        String archivo = nombre + "." + tipo.name().toLowerCase(Locale.ROOT);
+        return ResponseEntity.ok()
+                .contentType(tipo == Formato.NDJSON ? MediaType.APPLICATION_NDJSON : TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(archivo).build().toString())
+                .body(out -> exportador.accept(tipo, out));
+    }
+}
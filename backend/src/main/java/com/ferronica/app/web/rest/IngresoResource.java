@@ -2,6 +2,7 @@ package com.ferronica.app.web.rest;
 
 import com.ferronica.app.repository.IngresoRepository;
 import com.ferronica.app.service.IngresoQueryService;
+import com.ferronica.app.service.KeysetPage;
 import com.ferronica.app.service.IngresoService;
 import com.ferronica.app.service.criteria.IngresoCriteria;
 import com.ferronica.app.service.dto.IngresoDTO;
@@ -157,9 +158,14 @@ public class IngresoResource {
 
     /**
      * {@code GET  /ingresos} : get all the ingresos.
+     * <p>
+     * In keyset mode (a {@code cursor} parameter, empty for the first page) the
+     * rows after the cursor are returned with a {@code Link rel="next"} header and
+     * no count; {@code page} and {@code sort} are ignored.
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
+     * @param cursor   the keyset cursor, to opt into keyset mode.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
      *         of ingresos in body.
      */
@@ -167,9 +173,17 @@ public class IngresoResource {
     @GetMapping("")
     public ResponseEntity<List<IngresoDTO>> getAllIngresos(
             IngresoCriteria criteria,
-            @org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+            @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+            @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAM, required = false) String cursor) {
         LOG.debug("REST request to get Ingresos by criteria: {}", criteria);
 
+        if (cursor != null) {
+            KeysetPage<IngresoDTO> keysetPage = ingresoQueryService.findByCriteria(criteria,
+                    KeysetPaginationUtil.parseCursor(cursor, true, ENTITY_NAME), pageable.getPageSize());
+            HttpHeaders headers = KeysetPaginationUtil
+                    .generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), keysetPage);
+            return ResponseEntity.ok().headers(headers).body(keysetPage.getContent());
+        }
         Page<IngresoDTO> page = ingresoQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil
                 .generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
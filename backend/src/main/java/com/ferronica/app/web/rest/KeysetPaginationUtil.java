@@ -0,0 +1,62 @@
+package com.ferronica.app.web.rest;
+
+import com.ferronica.app.service.KeysetCursor;
+import com.ferronica.app.service.KeysetPage;
+import com.ferronica.app.web.rest.errors.BadRequestAlertException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for the opt-in keyset (cursor) mode of the listings.
+ * <p>
+ * A request with a {@code cursor} parameter (empty for the first page) is
+ * answered with the rows after that cursor and, when more rows exist, a
+ * {@code Link} header with {@code rel="next"} pointing to the next page.
+ * No {@code X-Total-Count} header is sent.
+ */
+final class KeysetPaginationUtil {
+
+    static final String CURSOR_PARAM = "cursor";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Decode the {@code cursor} request parameter.
+     *
+     * @param token        the parameter value.
+     * @param requiereFecha whether the listing is keyed on {@code (fecha, id)}.
+     * @param entityName   the entity name, for the error alert.
+     * @return the cursor, or {@code null} for the first page.
+     * @throws BadRequestAlertException if the cursor is malformed.
+     */
+    static KeysetCursor parseCursor(String token, boolean requiereFecha, String entityName) {
+        try {
+            KeysetCursor cursor = KeysetCursor.decode(token);
+            if (cursor != null && requiereFecha && cursor.getFecha() == null) {
+                throw new IllegalArgumentException("Cursor without fecha");
+            }
+            return cursor;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+    }
+
+    /**
+     * Generate the {@code Link} header of a keyset page.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param page       the page.
+     * @return the headers.
+     */
+    static HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, KeysetPage<?> page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            String next = uriBuilder
+                    .replaceQueryParam("page")
+                    .replaceQueryParam(CURSOR_PARAM, page.getNext().encode())
+                    .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
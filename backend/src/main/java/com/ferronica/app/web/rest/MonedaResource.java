@@ -1,7 +1,9 @@
 package com.ferronica.app.web.rest;
 
+import com.ferronica.app.domain.Moneda;
 import com.ferronica.app.repository.MonedaRepository;
 import com.ferronica.app.service.MonedaService;
+import com.ferronica.app.service.VersionTablaService;
 import com.ferronica.app.service.dto.MonedaDTO;
 import com.ferronica.app.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
@@ -14,6 +16,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -38,9 +41,13 @@ public class MonedaResource {
 
     private final MonedaRepository monedaRepository;
 
-    public MonedaResource(MonedaService monedaService, MonedaRepository monedaRepository) {
+    private final VersionTablaService versionTablaService;
+
+    public MonedaResource(MonedaService monedaService, MonedaRepository monedaRepository,
+            VersionTablaService versionTablaService) {
         this.monedaService = monedaService;
         this.monedaRepository = monedaRepository;
+        this.versionTablaService = versionTablaService;
     }
 
     /**
@@ -145,14 +152,21 @@ public class MonedaResource {
     /**
      * {@code GET  /monedas} : get all the monedas.
      *
+     * @param ifNoneMatch the ETag of the copy held by the client, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
-     *         of monedas in body.
+     *         of monedas in body, or with status {@code 304 (Not Modified)} if
+     *         the client copy is current.
      */
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_JEFE_BODEGA', 'ROLE_VENDEDOR')")
     @GetMapping("")
-    public List<MonedaDTO> getAllMonedas() {
+    public ResponseEntity<List<MonedaDTO>> getAllMonedas(
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         LOG.debug("REST request to get all Monedas");
-        return monedaService.findAll();
+        String etag = versionTablaService.etag(Moneda.class);
+        if (EtagUtil.noModificado(ifNoneMatch, etag)) {
+            return EtagUtil.respuestaNoModificada(etag);
+        }
+        return EtagUtil.ok(etag).body(monedaService.findAll());
     }
 
     /**
@@ -3,6 +3,7 @@ package com.ferronica.app.web.rest;
 import com.ferronica.app.repository.NumeracionFacturaRepository;
 import com.ferronica.app.service.NumeracionFacturaService;
 import com.ferronica.app.service.dto.NumeracionFacturaDTO;
+import com.ferronica.app.service.dto.NumeracionFacturaEstadoDTO;
 import com.ferronica.app.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -164,6 +165,20 @@ public class NumeracionFacturaResource {
         return numeracionFacturaService.findAll();
     }
 
+    /**
+     * {@code GET  /numeracion-facturas/estado} : get the allocation state of every
+     * series: last number handed out by its sequence, pending sync of
+     * {@code correlativoActual} and unused numbers (gaps).
+     *
+     * @return the list of states.
+     */
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @GetMapping("/estado")
+    public List<NumeracionFacturaEstadoDTO> getEstadoNumeracionFacturas() {
+        LOG.debug("REST request to get NumeracionFactura allocation state");
+        return numeracionFacturaService.findEstado();
+    }
+
     /**
      * {@code GET  /numeracion-facturas/:id} : get the "id" numeracionFactura.
      *
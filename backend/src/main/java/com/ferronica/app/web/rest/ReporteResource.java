@@ -0,0 +1,287 @@
+package com.ferronica.app.web.rest;
+
+import com.ferronica.app.domain.Articulo;
+import com.ferronica.app.domain.Categoria;
+import com.ferronica.app.domain.DetalleDevolucion;
+import com.ferronica.app.domain.DetalleIngreso;
+import com.ferronica.app.domain.DetalleVenta;
+import com.ferronica.app.domain.Devolucion;
+import com.ferronica.app.domain.Ingreso;
+import com.ferronica.app.domain.Proveedor;
+import com.ferronica.app.domain.Venta;
+import com.ferronica.app.service.ReporteService;
+import com.ferronica.app.service.VersionTablaService;
+import com.ferronica.app.service.dto.CompraArticuloProveedorDTO;
+import com.ferronica.app.service.dto.CompraProveedorDTO;
+import com.ferronica.app.service.dto.GananciaArticuloDTO;
+import com.ferronica.app.service.dto.GananciaCategoriaDTO;
+import com.ferronica.app.service.dto.GananciaPeriodoDTO;
+import com.ferronica.app.web.rest.errors.BadRequestAlertException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * REST controller for the aggregated reports.
+ * <p>
+ * Responses carry an ETag built from the versions of the tables they read, so
+ * a client holding the current copy gets {@code 304 (Not Modified)} without the
+ * aggregation being run again.
+ */
+@RestController
+@RequestMapping("/api/reportes")
+public class ReporteResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReporteResource.class);
+
+    private static final String ENTITY_NAME = "reporte";
+
+    private final ReporteService reporteService;
+
+    private final VersionTablaService versionTablaService;
+
+    public ReporteResource(ReporteService reporteService, VersionTablaService versionTablaService) {
+        this.reporteService = reporteService;
+        this.versionTablaService = versionTablaService;
+    }
+
+    /**
+     * {@code GET  /reportes/compras-proveedor} : get the purchases of each
+     * proveedor over a date range.
+     *
+     * @param desde       the first instant of the range, inclusive.
+     * @param hasta       the last instant of the range, exclusive; defaults to now.
+     * @param pageable    the pagination information.
+     * @param ifNoneMatch the ETag of the copy held by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         proveedores of the page in body, or with status
+     *         {@code 304 (Not Modified)} if the client copy is current.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
+    @GetMapping("/compras-proveedor")
+    public ResponseEntity<List<CompraProveedorDTO>> getComprasPorProveedor(
+            @RequestParam(name = "desde", required = false) Instant desde,
+            @RequestParam(name = "hasta", required = false) Instant hasta,
+            @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        LOG.debug("REST request to get purchases by proveedor from {} to {}", desde, hasta);
+        validarRango(desde, hasta);
+        String etag = etagCompras();
+        if (EtagUtil.noModificado(ifNoneMatch, etag)) {
+            return EtagUtil.respuestaNoModificada(etag);
+        }
+        Page<CompraProveedorDTO> page = reporteService.comprasPorProveedor(desde, hasta, pageable);
+        HttpHeaders headers = PaginationUtil
+                .generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return EtagUtil.ok(etag).headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /reportes/compras-proveedor/:proveedorId/articulos} : get the
+     * articulos bought from a proveedor over a date range.
+     *
+     * @param proveedorId the id of the proveedor.
+     * @param desde       the first instant of the range, inclusive.
+     * @param hasta       the last instant of the range, exclusive; defaults to now.
+     * @param pageable    the pagination information.
+     * @param ifNoneMatch the ETag of the copy held by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         articulos of the page in body, or with status
+     *         {@code 304 (Not Modified)} if the client copy is current.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
+    @GetMapping("/compras-proveedor/{proveedorId}/articulos")
+    public ResponseEntity<List<CompraArticuloProveedorDTO>> getComprasPorArticulo(
+            @PathVariable("proveedorId") Long proveedorId,
+            @RequestParam(name = "desde", required = false) Instant desde,
+            @RequestParam(name = "hasta", required = false) Instant hasta,
+            @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        LOG.debug("REST request to get purchases of proveedor {} by articulo from {} to {}", proveedorId, desde,
+                hasta);
+        validarRango(desde, hasta);
+        String etag = etagCompras();
+        if (EtagUtil.noModificado(ifNoneMatch, etag)) {
+            return EtagUtil.respuestaNoModificada(etag);
+        }
+        Page<CompraArticuloProveedorDTO> page = reporteService.comprasPorArticulo(proveedorId, desde, hasta,
+                pageable);
+        HttpHeaders headers = PaginationUtil
+                .generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return EtagUtil.ok(etag).headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /reportes/ganancias} : get the gross profit over a date range.
+     *
+     * @param desde       the first instant of the range, inclusive.
+     * @param hasta       the last instant of the range, exclusive; defaults to now.
+     * @param ifNoneMatch the ETag of the copy held by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         totals of the range in body, or with status
+     *         {@code 304 (Not Modified)} if the client copy is current.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
+    @GetMapping("/ganancias")
+    public ResponseEntity<GananciaPeriodoDTO> getGanancias(
+            @RequestParam(name = "desde", required = false) Instant desde,
+            @RequestParam(name = "hasta", required = false) Instant hasta,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        LOG.debug("REST request to get profit from {} to {}", desde, hasta);
+        validarRango(desde, hasta);
+        String etag = etagGanancias();
+        if (EtagUtil.noModificado(ifNoneMatch, etag)) {
+            return EtagUtil.respuestaNoModificada(etag);
+        }
+        return EtagUtil.ok(etag).body(reporteService.resumenGanancias(desde, hasta));
+    }
+
+    /**
+     * {@code GET  /reportes/ganancias/articulos} : get the gross profit of each
+     * articulo over a date range.
+     *
+     * @param desde       the first instant of the range, inclusive.
+     * @param hasta       the last instant of the range, exclusive; defaults to now.
+     * @param categoriaId the categoria whose subtree the articulos must belong to, if any.
+     * @param pageable    the pagination information.
+     * @param ifNoneMatch the ETag of the copy held by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         articulos of the page in body, or with status
+     *         {@code 304 (Not Modified)} if the client copy is current.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
+    @GetMapping("/ganancias/articulos")
+    public ResponseEntity<List<GananciaArticuloDTO>> getGananciasPorArticulo(
+            @RequestParam(name = "desde", required = false) Instant desde,
+            @RequestParam(name = "hasta", required = false) Instant hasta,
+            @RequestParam(name = "categoriaId", required = false) Long categoriaId,
+            @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        LOG.debug("REST request to get profit by articulo from {} to {}", desde, hasta);
+        validarRango(desde, hasta);
+        String etag = etagGanancias();
+        if (EtagUtil.noModificado(ifNoneMatch, etag)) {
+            return EtagUtil.respuestaNoModificada(etag);
+        }
+        Page<GananciaArticuloDTO> page = reporteService.gananciasPorArticulo(desde, hasta, categoriaId, pageable);
+        HttpHeaders headers = PaginationUtil
+                .generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return EtagUtil.ok(etag).headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /reportes/ganancias/categorias} : get the gross profit of each
+     * categoria over a date range.
+     *
+     * @param desde       the first instant of the range, inclusive.
+     * @param hasta       the last instant of the range, exclusive; defaults to now.
+     * @param pageable    the pagination information.
+     * @param ifNoneMatch the ETag of the copy held by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         categorias of the page in body, or with status
+     *         {@code 304 (Not Modified)} if the client copy is current.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
+    @GetMapping("/ganancias/categorias")
+    public ResponseEntity<List<GananciaCategoriaDTO>> getGananciasPorCategoria(
+            @RequestParam(name = "desde", required = false) Instant desde,
+            @RequestParam(name = "hasta", required = false) Instant hasta,
+            @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        LOG.debug("REST request to get profit by categoria from {} to {}", desde, hasta);
+        validarRango(desde, hasta);
+        String etag = etagGanancias();
+        if (EtagUtil.noModificado(ifNoneMatch, etag)) {
+            return EtagUtil.respuestaNoModificada(etag);
+        }
+        Page<GananciaCategoriaDTO> page = reporteService.gananciasPorCategoria(desde, hasta, pageable);
+        HttpHeaders headers = PaginationUtil
+                .generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return EtagUtil.ok(etag).headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /reportes/ganancias/periodos} : get the gross profit of each
+     * day, week or month of a date range.
+     *
+     * @param desde       the first instant of the range, inclusive; defaults to the first venta.
+     * @param hasta       the last instant of the range, exclusive; defaults to now.
+     * @param periodo     {@code dia}, {@code semana} or {@code mes} (default).
+     * @param zona        the time zone the periods are measured in; defaults to the server zone.
+     * @param pageable    the pagination information, counted in periods.
+     * @param ifNoneMatch the ETag of the copy held by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         periods of the page in body, or with status
+     *         {@code 304 (Not Modified)} if the client copy is current.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
+    @GetMapping("/ganancias/periodos")
+    public ResponseEntity<List<GananciaPeriodoDTO>> getGananciasPorPeriodo(
+            @RequestParam(name = "desde", required = false) Instant desde,
+            @RequestParam(name = "hasta", required = false) Instant hasta,
+            @RequestParam(name = "periodo", defaultValue = "mes") String periodo,
+            @RequestParam(name = "zona", required = false) String zona,
+            @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        LOG.debug("REST request to get profit by {} from {} to {}", periodo, desde, hasta);
+        validarRango(desde, hasta);
+        ReporteService.Periodo tipo = periodo(periodo);
+        ZoneId zonaId = zona(zona);
+        String etag = etagGanancias();
+        if (EtagUtil.noModificado(ifNoneMatch, etag)) {
+            return EtagUtil.respuestaNoModificada(etag);
+        }
+        Page<GananciaPeriodoDTO> page = reporteService.gananciasPorPeriodo(desde, hasta, tipo, zonaId, pageable);
+        HttpHeaders headers = PaginationUtil
+                .generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return EtagUtil.ok(etag).headers(headers).body(page.getContent());
+    }
+
+    private static ReporteService.Periodo periodo(String periodo) {
+        try {
+            return ReporteService.Periodo.valueOf(periodo.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid period", ENTITY_NAME, "invalidperiod");
+        }
+    }
+
+    private static ZoneId zona(String zona) {
+        if (zona == null || zona.isBlank()) {
+            return ZoneId.systemDefault();
+        }
+        try {
+            return ZoneId.of(zona);
+        } catch (DateTimeException e) {
+            throw new BadRequestAlertException("Invalid time zone", ENTITY_NAME, "invalidzone");
+        }
+    }
+
+    private static void validarRango(Instant desde, Instant hasta) {
+        if (desde != null && hasta != null && !desde.isBefore(hasta)) {
+            throw new BadRequestAlertException("Invalid date range", ENTITY_NAME, "invalidrange");
+        }
+    }
+
+    // Sin hasta, el rango termina ahora: los datos solo cambian al registrarse o editarse una compra
+    private String etagCompras() {
+        return versionTablaService.etag(Ingreso.class, DetalleIngreso.class, Proveedor.class, Articulo.class);
+    }
+
+    // Los costos van copiados en cada línea: un cambio de costo posterior no altera el reporte
+    private String etagGanancias() {
+        return versionTablaService.etag(Venta.class, DetalleVenta.class, Devolucion.class, DetalleDevolucion.class,
+                Articulo.class, Categoria.class);
+    }
+}
@@ -0,0 +1,108 @@
+package com.ferronica.app.web.rest;
+
+import com.ferronica.app.service.SesionCajaService;
+import com.ferronica.app.service.dto.SesionCajaDTO;
+import jakarta.validation.Valid;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for opening and closing cash register shifts
+ * ({@link com.ferronica.app.domain.SesionCaja}) of the current usuario.
+ */
+@RestController
+@RequestMapping("/api/sesiones-caja")
+public class SesionCajaResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SesionCajaResource.class);
+
+    private static final String ENTITY_NAME = "sesionCaja";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final SesionCajaService sesionCajaService;
+
+    public SesionCajaResource(SesionCajaService sesionCajaService) {
+        this.sesionCajaService = sesionCajaService;
+    }
+
+    /**
+     * {@code POST  /sesiones-caja/abrir} : Open a session for the current usuario.
+     *
+     * @param sesionCajaDTO the opening data ({@code montoInicial}).
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with
+     *         body the new session, or with status {@code 409 (Conflict)} if the
+     *         usuario already has an open session.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_VENDEDOR')")
+    @PostMapping("/abrir")
+    public ResponseEntity<SesionCajaDTO> abrirSesionCaja(@Valid @RequestBody SesionCajaDTO sesionCajaDTO)
+            throws URISyntaxException {
+        LOG.debug("REST request to open SesionCaja : {}", sesionCajaDTO);
+        SesionCajaDTO result = sesionCajaService.abrir(sesionCajaDTO.getMontoInicial());
+        return ResponseEntity.created(new URI("/api/sesiones-caja/" + result.getId()))
+                .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME,
+                        result.getId().toString()))
+                .body(result);
+    }
+
+    /**
+     * {@code POST  /sesiones-caja/cerrar} : Close the open session of the current
+     * usuario.
+     *
+     * @param sesionCajaDTO the closing data ({@code montoContado}).
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body
+     *         the closed session and its totals, or with status
+     *         {@code 409 (Conflict)} if the usuario has no open session.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_VENDEDOR')")
+    @PostMapping("/cerrar")
+    public ResponseEntity<SesionCajaDTO> cerrarSesionCaja(@Valid @RequestBody SesionCajaDTO sesionCajaDTO) {
+        LOG.debug("REST request to close SesionCaja : {}", sesionCajaDTO);
+        SesionCajaDTO result = sesionCajaService.cerrar(sesionCajaDTO.getMontoContado());
+        return ResponseEntity.ok()
+                .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME,
+                        result.getId().toString()))
+                .body(result);
+    }
+
+    /**
+     * {@code GET  /sesiones-caja/actual} : get the open session of the current
+     * usuario with its running totals.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body
+     *         the session, or with status {@code 404 (Not Found)} if none is open.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_VENDEDOR')")
+    @GetMapping("/actual")
+    public ResponseEntity<SesionCajaDTO> getSesionCajaActual() {
+        LOG.debug("REST request to get the open SesionCaja");
+        return ResponseUtil.wrapOrNotFound(sesionCajaService.actual());
+    }
+
+    /**
+     * {@code GET  /sesiones-caja/:id} : get the "id" session with its totals.
+     *
+     * @param id the id of the session to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body
+     *         the session, or with status {@code 404 (Not Found)}.
+     */
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @GetMapping("/{id}")
+    public ResponseEntity<SesionCajaDTO> getSesionCaja(@PathVariable("id") Long id) {
+        LOG.debug("REST request to get SesionCaja : {}", id);
+        Optional<SesionCajaDTO> sesionCajaDTO = sesionCajaService.findOne(id);
+        return ResponseUtil.wrapOrNotFound(sesionCajaDTO);
+    }
+}
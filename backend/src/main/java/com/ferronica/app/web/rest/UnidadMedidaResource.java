@@ -1,7 +1,9 @@
 package com.ferronica.app.web.rest;
 
+import com.ferronica.app.domain.UnidadMedida;
 import com.ferronica.app.repository.UnidadMedidaRepository;
 import com.ferronica.app.service.UnidadMedidaService;
+import com.ferronica.app.service.VersionTablaService;
 import com.ferronica.app.service.dto.UnidadMedidaDTO;
 import com.ferronica.app.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
@@ -14,6 +16,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -38,10 +41,14 @@ public class UnidadMedidaResource {
 
     private final UnidadMedidaRepository unidadMedidaRepository;
 
+    private final VersionTablaService versionTablaService;
+
     public UnidadMedidaResource(UnidadMedidaService unidadMedidaService,
-            UnidadMedidaRepository unidadMedidaRepository) {
+            UnidadMedidaRepository unidadMedidaRepository,
+            VersionTablaService versionTablaService) {
         this.unidadMedidaService = unidadMedidaService;
         this.unidadMedidaRepository = unidadMedidaRepository;
+        this.versionTablaService = versionTablaService;
     }
 
     /**
@@ -149,14 +156,21 @@ public class UnidadMedidaResource {
     /**
      * {@code GET  /unidad-medidas} : get all the unidadMedidas.
      *
+     * @param ifNoneMatch the ETag of the copy held by the client, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
-     *         of unidadMedidas in body.
+     *         of unidadMedidas in body, or with status {@code 304 (Not Modified)} if
+     *         the client copy is current.
      */
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_JEFE_BODEGA', 'ROLE_VENDEDOR')")
     @GetMapping("")
-    public List<UnidadMedidaDTO> getAllUnidadMedidas() {
+    public ResponseEntity<List<UnidadMedidaDTO>> getAllUnidadMedidas(
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         LOG.debug("REST request to get all UnidadMedidas");
-        return unidadMedidaService.findAll();
+        String etag = versionTablaService.etag(UnidadMedida.class);
+        if (EtagUtil.noModificado(ifNoneMatch, etag)) {
+            return EtagUtil.respuestaNoModificada(etag);
+        }
+        return EtagUtil.ok(etag).body(unidadMedidaService.findAll());
     }
 
     /**
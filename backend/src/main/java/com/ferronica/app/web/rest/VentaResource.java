@@ -4,10 +4,15 @@ import com.ferronica.app.repository.UsuarioRepository;
 import com.ferronica.app.repository.VentaRepository;
 import com.ferronica.app.security.AuthoritiesConstants;
 import com.ferronica.app.security.SecurityUtils;
+import com.ferronica.app.service.DevolucionService;
+import com.ferronica.app.service.KeysetPage;
+import com.ferronica.app.service.VentaExportService;
 import com.ferronica.app.service.VentaQueryService;
 import com.ferronica.app.service.VentaService;
 import com.ferronica.app.service.criteria.VentaCriteria;
+import com.ferronica.app.service.dto.CantidadRetornableDTO;
 import com.ferronica.app.service.dto.VentaDTO;
+import com.ferronica.app.service.dto.VentaResumenDTO;
 import com.ferronica.app.web.rest.errors.BadRequestAlertException;
 import tech.jhipster.service.filter.LongFilter;
 import jakarta.validation.Valid;
@@ -26,6 +31,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -52,12 +58,19 @@ public class VentaResource {
     private final VentaQueryService ventaQueryService;
     private final UsuarioRepository usuarioRepository;
 
+    private final VentaExportService ventaExportService;
+
+    private final DevolucionService devolucionService;
+
     public VentaResource(VentaService ventaService, VentaRepository ventaRepository,
-            VentaQueryService ventaQueryService, UsuarioRepository usuarioRepository) {
+            VentaQueryService ventaQueryService, UsuarioRepository usuarioRepository,
+            VentaExportService ventaExportService, DevolucionService devolucionService) {
         this.ventaService = ventaService;
         this.ventaRepository = ventaRepository;
         this.ventaQueryService = ventaQueryService;
         this.usuarioRepository = usuarioRepository;
+        this.ventaExportService = ventaExportService;
+        this.devolucionService = devolucionService;
     }
 
     /**
@@ -83,6 +96,52 @@ public class VentaResource {
                 .body(ventaDTO);
     }
 
+    /**
+     * {@code POST  /ventas/checkout} : Create a complete venta (header and lines)
+     * in a single request.
+     *
+     * @param ventaDTO the ventaDTO to create, with its {@code detalles}.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with
+     *         body the new ventaDTO, or with status {@code 400 (Bad Request)} if
+     *         the venta has already an ID or has no lines.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_VENDEDOR')")
+    @PostMapping("/checkout")
+    public ResponseEntity<VentaDTO> checkoutVenta(@Valid @RequestBody VentaDTO ventaDTO) throws URISyntaxException {
+        LOG.debug("REST request to checkout Venta : {}", ventaDTO);
+        if (ventaDTO.getId() != null) {
+            throw new BadRequestAlertException("A new venta cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        if (ventaDTO.getDetalles() == null || ventaDTO.getDetalles().isEmpty()) {
+            throw new BadRequestAlertException("A venta must have at least one line", ENTITY_NAME, "detallesempty");
+        }
+        ventaDTO = ventaService.checkout(ventaDTO);
+        return ResponseEntity.created(new URI("/api/ventas/" + ventaDTO.getId()))
+                .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME,
+                        ventaDTO.getId().toString()))
+                .body(ventaDTO);
+    }
+
+    /**
+     * {@code POST  /ventas/anular} : Cancel several ventas in a single transaction
+     * (end-of-day corrections), returning their stock.
+     *
+     * @param ids the ids of the ventas to cancel.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the ids
+     *         of the ventas actually cancelled in body; ventas already cancelled
+     *         are skipped.
+     */
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @PostMapping("/anular")
+    public ResponseEntity<List<Long>> anularVentas(@RequestBody List<Long> ids) {
+        LOG.debug("REST request to anular Ventas : {}", ids);
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestAlertException("At least one venta id is required", ENTITY_NAME, "idsempty");
+        }
+        return ResponseEntity.ok().body(ventaService.anular(ids));
+    }
+
     /**
      * {@code PUT  /ventas/:id} : Updates an existing venta.
      *
@@ -91,7 +150,7 @@ public class VentaResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body
      *         the updated ventaDTO,
      *         or with status {@code 400 (Bad Request)} if the ventaDTO is not
-     *         valid,
+     *         valid or changes the fecha,
      *         or with status {@code 500 (Internal Server Error)} if the ventaDTO
      *         couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
@@ -112,6 +171,7 @@ public class VentaResource {
         if (!ventaRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        validarFechaSinCambios(ventaDTO);
 
         ventaDTO = ventaService.update(ventaDTO);
         return ResponseEntity.ok()
@@ -129,7 +189,7 @@ public class VentaResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body
      *         the updated ventaDTO,
      *         or with status {@code 400 (Bad Request)} if the ventaDTO is not
-     *         valid,
+     *         valid or changes the fecha,
      *         or with status {@code 404 (Not Found)} if the ventaDTO is not found,
      *         or with status {@code 500 (Internal Server Error)} if the ventaDTO
      *         couldn't be updated.
@@ -151,6 +211,7 @@ public class VentaResource {
         if (!ventaRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        validarFechaSinCambios(ventaDTO);
 
         Optional<VentaDTO> result = ventaService.partialUpdate(ventaDTO);
 
@@ -160,26 +221,71 @@ public class VentaResource {
     }
 
     /**
-     * {@code GET  /ventas} : get all the ventas.
+     * La fecha es la clave de partición de venta y detalle_venta y no se
+     * actualiza: un cambio se rechaza en lugar de ignorarse.
+     */
+    private void validarFechaSinCambios(VentaDTO ventaDTO) {
+        if (ventaDTO.getFecha() != null && ventaRepository.findFechaById(ventaDTO.getId())
+                .filter(fecha -> fecha.compareTo(ventaDTO.getFecha()) != 0).isPresent()) {
+            throw new BadRequestAlertException("The fecha of a venta cannot change", ENTITY_NAME, "fechainmutable");
+        }
+    }
+
+    /**
+     * {@code GET  /ventas} : get all the ventas, as list-view summaries without
+     * their detalles. Use {@code GET /ventas/:id} for the full venta.
+     * <p>
+     * In keyset mode (a {@code cursor} parameter, empty for the first page) the
+     * rows after the cursor are returned with a {@code Link rel="next"} header and
+     * no count; {@code page} and {@code sort} are ignored.
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
+     * @param cursor   the keyset cursor, to opt into keyset mode.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
      *         of ventas in body.
      */
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_VENDEDOR')")
     @GetMapping("")
-    public ResponseEntity<List<VentaDTO>> getAllVentas(
+    public ResponseEntity<List<VentaResumenDTO>> getAllVentas(
             VentaCriteria criteria,
-            @org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+            @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+            @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAM, required = false) String cursor) {
         LOG.debug("REST request to get Ventas by criteria: {}", criteria);
         applySellerFilter(criteria);
-        Page<VentaDTO> page = ventaQueryService.findByCriteria(criteria, pageable);
+        if (cursor != null) {
+            KeysetPage<VentaResumenDTO> keysetPage = ventaQueryService.findResumenByCriteria(criteria,
+                    KeysetPaginationUtil.parseCursor(cursor, true, ENTITY_NAME), pageable.getPageSize());
+            HttpHeaders headers = KeysetPaginationUtil
+                    .generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), keysetPage);
+            return ResponseEntity.ok().headers(headers).body(keysetPage.getContent());
+        }
+        Page<VentaResumenDTO> page = ventaQueryService.findResumenByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil
                 .generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /ventas/export} : stream the ventas matching the criteria
+     * (typically a {@code fecha} range) as a CSV or NDJSON download.
+     *
+     * @param criteria the criteria which the exported ventas should match.
+     * @param formato  {@code csv} (default) or {@code ndjson}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the rows
+     *         streamed in body.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_VENDEDOR')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportVentas(
+            VentaCriteria criteria,
+            @RequestParam(name = "formato", defaultValue = "csv") String formato) {
+        LOG.debug("REST request to export Ventas by criteria: {}", criteria);
+        applySellerFilter(criteria);
+        return ExportResponseUtil.stream("ventas", formato, ENTITY_NAME,
+                (tipo, out) -> ventaExportService.exportarVentas(criteria, tipo, out));
+    }
+
     /**
      * {@code GET  /ventas/count} : count all the ventas.
      *
@@ -222,6 +328,22 @@ public class VentaResource {
         return ResponseUtil.wrapOrNotFound(ventaDTO);
     }
 
+    /**
+     * {@code GET  /ventas/:id/retornable} : get how much of each articulo of the
+     * "id" venta can still be returned.
+     *
+     * @param id the id of the venta.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         quantities by articulo in body, or with status
+     *         {@code 404 (Not Found)}.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_VENDEDOR')")
+    @GetMapping("/{id}/retornable")
+    public ResponseEntity<List<CantidadRetornableDTO>> getRetornable(@PathVariable("id") Long id) {
+        LOG.debug("REST request to get returnable quantities of Venta : {}", id);
+        return ResponseUtil.wrapOrNotFound(devolucionService.findRetornable(id));
+    }
+
     /**
      * {@code DELETE  /ventas/:id} : delete the "id" venta.
      *
@@ -0,0 +1,26 @@
+package com.ferronica.app.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ferronica.app.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class CategoriaJerarquiaTest {
+
+    @Test
+    void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(CategoriaJerarquia.class);
+        CategoriaJerarquia categoriaJerarquia1 = new CategoriaJerarquia();
+        categoriaJerarquia1.setAncestroId(1L);
+        categoriaJerarquia1.setDescendienteId(2L);
+        CategoriaJerarquia categoriaJerarquia2 = new CategoriaJerarquia();
+        assertThat(categoriaJerarquia1).isNotEqualTo(categoriaJerarquia2);
+
+        categoriaJerarquia2.setAncestroId(1L);
+        categoriaJerarquia2.setDescendienteId(2L);
+        assertThat(categoriaJerarquia1).isEqualTo(categoriaJerarquia2);
+
+        categoriaJerarquia2.setDescendienteId(3L);
+        assertThat(categoriaJerarquia1).isNotEqualTo(categoriaJerarquia2);
+    }
+}
@@ -0,0 +1,37 @@
+package com.ferronica.app.domain;
+
+import static com.ferronica.app.domain.ArticuloTestSamples.*;
+import static com.ferronica.app.domain.MovimientoInventarioTestSamples.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ferronica.app.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class MovimientoInventarioTest {
+
+    @Test
+    void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(MovimientoInventario.class);
+        MovimientoInventario movimientoInventario1 = getMovimientoInventarioSample1();
+        MovimientoInventario movimientoInventario2 = new MovimientoInventario();
+        assertThat(movimientoInventario1).isNotEqualTo(movimientoInventario2);
+
+        movimientoInventario2.setId(movimientoInventario1.getId());
+        assertThat(movimientoInventario1).isEqualTo(movimientoInventario2);
+
+        movimientoInventario2 = getMovimientoInventarioSample2();
+        assertThat(movimientoInventario1).isNotEqualTo(movimientoInventario2);
+    }
+
+    @Test
+    void articuloTest() {
+        MovimientoInventario movimientoInventario = getMovimientoInventarioRandomSampleGenerator();
+        Articulo articuloBack = getArticuloRandomSampleGenerator();
+
+        movimientoInventario.setArticulo(articuloBack);
+        assertThat(movimientoInventario.getArticulo()).isEqualTo(articuloBack);
+
+        movimientoInventario.articulo(null);
+        assertThat(movimientoInventario.getArticulo()).isNull();
+    }
+}
@@ -0,0 +1,22 @@
+package com.ferronica.app.domain;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MovimientoInventarioTestSamples {
+
+    private static final Random random = new Random();
+    private static final AtomicLong longCount = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
+
+    public static MovimientoInventario getMovimientoInventarioSample1() {
+        return new MovimientoInventario().id(1L).referenciaId(1L);
+    }
+
+    public static MovimientoInventario getMovimientoInventarioSample2() {
+        return new MovimientoInventario().id(2L).referenciaId(2L);
+    }
+
+    public static MovimientoInventario getMovimientoInventarioRandomSampleGenerator() {
+        return new MovimientoInventario().id(longCount.incrementAndGet()).referenciaId(longCount.incrementAndGet());
+    }
+}
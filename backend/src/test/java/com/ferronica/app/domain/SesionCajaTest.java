@@ -0,0 +1,37 @@
+package com.ferronica.app.domain;
+
+import static com.ferronica.app.domain.SesionCajaTestSamples.*;
+import static com.ferronica.app.domain.UsuarioTestSamples.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ferronica.app.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class SesionCajaTest {
+
+    @Test
+    void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(SesionCaja.class);
+        SesionCaja sesionCaja1 = getSesionCajaSample1();
+        SesionCaja sesionCaja2 = new SesionCaja();
+        assertThat(sesionCaja1).isNotEqualTo(sesionCaja2);
+
+        sesionCaja2.setId(sesionCaja1.getId());
+        assertThat(sesionCaja1).isEqualTo(sesionCaja2);
+
+        sesionCaja2 = getSesionCajaSample2();
+        assertThat(sesionCaja1).isNotEqualTo(sesionCaja2);
+    }
+
+    @Test
+    void usuarioTest() {
+        SesionCaja sesionCaja = getSesionCajaRandomSampleGenerator();
+        Usuario usuarioBack = getUsuarioRandomSampleGenerator();
+
+        sesionCaja.setUsuario(usuarioBack);
+        assertThat(sesionCaja.getUsuario()).isEqualTo(usuarioBack);
+
+        sesionCaja.usuario(null);
+        assertThat(sesionCaja.getUsuario()).isNull();
+    }
+}
@@ -0,0 +1,22 @@
+package com.ferronica.app.domain;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SesionCajaTestSamples {
+
+    private static final Random random = new Random();
+    private static final AtomicLong longCount = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
+
+    public static SesionCaja getSesionCajaSample1() {
+        return new SesionCaja().id(1L);
+    }
+
+    public static SesionCaja getSesionCajaSample2() {
+        return new SesionCaja().id(2L);
+    }
+
+    public static SesionCaja getSesionCajaRandomSampleGenerator() {
+        return new SesionCaja().id(longCount.incrementAndGet());
+    }
+}
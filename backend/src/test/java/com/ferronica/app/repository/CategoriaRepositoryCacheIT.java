@@ -0,0 +1,124 @@
+package com.ferronica.app.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ferronica.app.IntegrationTest;
+import com.ferronica.app.domain.Categoria;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the second-level and query caches of
+ * {@link CategoriaRepository}, read from the Hibernate statistics.
+ * <p>
+ * The test configuration turns both caches off, so this class turns them back
+ * on in its own context. The caches are only filled and invalidated as
+ * transactions commit, so every step runs in its own transaction and the
+ * categoria is deleted afterwards.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+    }
+)
+class CategoriaRepositoryCacheIT {
+
+    private static final String REGION = Categoria.class.getName();
+
+    // La más reciente primero: la página incluye la categoría de la prueba
+    private static final Pageable PAGINA = PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "id"));
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    private Long categoriaId;
+
+    @BeforeEach
+    void initTest() {
+        categoriaId = transactionTemplate.execute(status ->
+            categoriaRepository.save(new Categoria().nombre("Caché").activo(true)).getId()
+        );
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> categoriaRepository.deleteById(categoriaId));
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void repeatedReadsHitTheCaches() {
+        leerCategoria();
+        assertThat(statistics.getDomainDataRegionStatistics(REGION).getMissCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(REGION).getHitCount()).isZero();
+
+        // La segunda lectura no va a la base de datos
+        leerCategoria();
+        assertThat(statistics.getDomainDataRegionStatistics(REGION).getHitCount()).isEqualTo(1);
+
+        leerPagina();
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+        long consultas = statistics.getPrepareStatementCount();
+        leerPagina();
+        assertThat(statistics.getQueryCacheHitCount()).isPositive();
+        // Ids de la consulta en caché y entidades de la región: ninguna sentencia nueva
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(consultas);
+    }
+
+    @Test
+    void desactivarEvictsTheCachedQueryAndEntity() {
+        leerCategoria();
+        leerPagina();
+        assertThat(entityManagerFactory.getCache().contains(Categoria.class, categoriaId)).isTrue();
+
+        int desactivadas = transactionTemplate.execute(status -> categoriaRepository.desactivar(List.of(categoriaId)));
+        assertThat(desactivadas).isEqualTo(1);
+        assertThat(entityManagerFactory.getCache().contains(Categoria.class, categoriaId)).isFalse();
+
+        // Ni la consulta ni la entidad se sirven de la caché: se ve el cambio
+        statistics.clear();
+        assertThat(leerCategoria().getActivo()).isFalse();
+        assertThat(statistics.getDomainDataRegionStatistics(REGION).getHitCount()).isZero();
+        Page<Categoria> pagina = leerPagina();
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+        assertThat(pagina.getContent())
+            .filteredOn(categoria -> categoria.getId().equals(categoriaId))
+            .singleElement()
+            .extracting(Categoria::getActivo)
+            .isEqualTo(false);
+    }
+
+    private Categoria leerCategoria() {
+        return transactionTemplate.execute(status -> categoriaRepository.findById(categoriaId).orElseThrow());
+    }
+
+    private Page<Categoria> leerPagina() {
+        return transactionTemplate.execute(status -> categoriaRepository.findAll(PAGINA));
+    }
+}
@@ -0,0 +1,168 @@
+package com.ferronica.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ferronica.app.IntegrationTest;
+import com.ferronica.app.domain.Articulo;
+import com.ferronica.app.repository.ArticuloRepository;
+import com.ferronica.app.service.dto.ImportacionArticulosDTO;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Integration tests for the {@link ArticuloImportService}.
+ * <p>
+ * Each batch commits in its own transaction, so the tests are not
+ * transactional and remove their articulos afterwards.
+ */
+@IntegrationTest
+class ArticuloImportServiceIT {
+
+    private static final String PREFIJO = "IMP-";
+
+    private static final AtomicLong contador = new AtomicLong(System.currentTimeMillis());
+
+    @Autowired
+    private ArticuloImportService articuloImportService;
+
+    @Autowired
+    private ArticuloRepository articuloRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanup() {
+        String filtro = "(SELECT id FROM articulo WHERE codigo LIKE '" + PREFIJO + "%')";
+        jdbcTemplate.update("DELETE FROM historial_precio WHERE articulo_id IN " + filtro);
+        jdbcTemplate.update("DELETE FROM movimiento_inventario WHERE articulo_id IN " + filtro);
+        jdbcTemplate.update("DELETE FROM articulo WHERE codigo LIKE '" + PREFIJO + "%'");
+    }
+
+    @Test
+    void updatingExistingArticulosDoesNotConsumeIds() throws Exception {
+        Articulo existente = guardar(codigo(), new BigDecimal("10.00"), new BigDecimal("3"));
+        long secuenciaAntes = ultimoValorSecuencia();
+
+        // Mismo precio: ni artículo nuevo ni historial, así que nada debe pedir ids
+        ImportacionArticulosDTO resultado = importar(
+            "codigo;nombre;precio;costo\n" + existente.getCodigo() + ";Nombre importado;10.00;6.00\n"
+        );
+
+        assertThat(resultado.getEstado()).isEqualTo(ImportacionArticulosDTO.Estado.TERMINADA);
+        assertThat(resultado.getInsertados()).isZero();
+        assertThat(resultado.getActualizados()).isEqualTo(1);
+        assertThat(ultimoValorSecuencia()).isEqualTo(secuenciaAntes);
+        Map<String, Object> fila = jdbcTemplate.queryForMap(
+            "SELECT id, nombre, existencia FROM articulo WHERE codigo = ?",
+            existente.getCodigo()
+        );
+        assertThat(fila.get("id")).isEqualTo(existente.getId());
+        assertThat(fila.get("nombre")).isEqualTo("Nombre importado");
+        // La existencia de un artículo existente no se toca
+        assertThat((BigDecimal) fila.get("existencia")).isEqualByComparingTo("3");
+    }
+
+    @Test
+    void importInsertsNewArticulosAndRecordsPriceChanges() throws Exception {
+        Articulo existente = guardar(codigo(), new BigDecimal("10.00"), new BigDecimal("3"));
+        String nuevo = codigo();
+
+        ImportacionArticulosDTO resultado = importar(
+            "codigo;nombre;precio;costo;existencia\n" +
+            existente.getCodigo() +
+            ";Martillo;12.50;6.00;\n" +
+            nuevo +
+            ";Serrucho;20.00;11.00;4\n"
+        );
+
+        assertThat(resultado.getEstado()).isEqualTo(ImportacionArticulosDTO.Estado.TERMINADA);
+        assertThat(resultado.getInsertados()).isEqualTo(1);
+        assertThat(resultado.getActualizados()).isEqualTo(1);
+
+        List<Map<String, Object>> historial = jdbcTemplate.queryForList(
+            "SELECT precio_anterior, precio_nuevo FROM historial_precio WHERE articulo_id = ?",
+            existente.getId()
+        );
+        assertThat(historial).hasSize(1);
+        assertThat((BigDecimal) historial.get(0).get("precio_anterior")).isEqualByComparingTo("10.00");
+        assertThat((BigDecimal) historial.get(0).get("precio_nuevo")).isEqualByComparingTo("12.50");
+
+        // La existencia inicial del nuevo queda en la bitácora como ajuste
+        List<Map<String, Object>> movimientos = jdbcTemplate.queryForList(
+            "SELECT m.tipo, m.cantidad FROM movimiento_inventario m JOIN articulo a ON a.id = m.articulo_id WHERE a.codigo = ?",
+            nuevo
+        );
+        assertThat(movimientos).hasSize(1);
+        assertThat(movimientos.get(0).get("tipo")).isEqualTo("AJUSTE");
+        assertThat((BigDecimal) movimientos.get(0).get("cantidad")).isEqualByComparingTo("4");
+    }
+
+    @Test
+    void invalidRowsAreReportedAndTheRestIsImported() throws Exception {
+        String valido = codigo();
+        String sinPrecio = codigo();
+
+        ImportacionArticulosDTO resultado = importar(
+            "codigo;nombre;precio;costo\n" + valido + ";Cinta métrica;5.00;2.50\n" + sinPrecio + ";Nivel;;3.00\n"
+        );
+
+        assertThat(resultado.getEstado()).isEqualTo(ImportacionArticulosDTO.Estado.TERMINADA);
+        assertThat(resultado.getFilasLeidas()).isEqualTo(2);
+        assertThat(resultado.getInsertados()).isEqualTo(1);
+        assertThat(resultado.getFilasConError()).isEqualTo(1);
+        assertThat(resultado.getErrores())
+            .singleElement()
+            .satisfies(error -> {
+                assertThat(error.getFila()).isEqualTo(3);
+                assertThat(error.getCodigo()).isEqualTo(sinPrecio);
+            });
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM articulo WHERE codigo = ?", Long.class, sinPrecio)).isZero();
+    }
+
+    @Test
+    void missingRequiredColumnsFailTheImport() throws Exception {
+        ImportacionArticulosDTO resultado = importar("codigo;nombre\n" + codigo() + ";Sin precio\n");
+
+        assertThat(resultado.getEstado()).isEqualTo(ImportacionArticulosDTO.Estado.FALLIDA);
+        assertThat(resultado.getMensaje()).contains("costo").contains("precio");
+    }
+
+    // El taskExecutor de los tests es síncrono: la importación termina antes de volver
+    private ImportacionArticulosDTO importar(String contenido) throws Exception {
+        Path archivo = Files.createTempFile("importacion_", ".csv");
+        Files.writeString(archivo, contenido, StandardCharsets.UTF_8);
+        String id = articuloImportService.iniciar(archivo, "articulos.csv", ArticuloImportService.Formato.CSV).getId();
+        return articuloImportService.findOne(id).orElseThrow();
+    }
+
+    private Articulo guardar(String codigo, BigDecimal precio, BigDecimal existencia) {
+        return articuloRepository.saveAndFlush(
+            new Articulo()
+                .codigo(codigo)
+                .nombre("Artículo " + codigo)
+                .existencia(existencia)
+                .existenciaMinima(BigDecimal.ZERO)
+                .precio(precio)
+                .costo(new BigDecimal("6.00"))
+                .activo(true)
+        );
+    }
+
+    private long ultimoValorSecuencia() {
+        return jdbcTemplate.queryForObject("SELECT last_value FROM sequence_generator", Long.class);
+    }
+
+    private static String codigo() {
+        return PREFIJO + contador.incrementAndGet();
+    }
+}
@@ -0,0 +1,234 @@
+package com.ferronica.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.ferronica.app.service.dto.ArticuloDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.TaskScheduler;
+
+/**
+ * Unit tests for the {@link CatalogoPosService} class.
+ */
+class CatalogoPosServiceTest {
+
+    private final Map<Long, Object[]> tabla = new LinkedHashMap<>();
+
+    private final List<Runnable> programados = new ArrayList<>();
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TaskScheduler taskScheduler;
+
+    private CatalogoPosService catalogoPosService;
+
+    @BeforeEach
+    void setup() throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        // Carga completa: solo artículos activos
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Object[] fila : tabla.values()) {
+                if ((Boolean) fila[6]) {
+                    handler.processRow(resultSet(fila));
+                }
+            }
+            return null;
+        })
+            .when(jdbcTemplate)
+            .query(anyString(), any(RowCallbackHandler.class));
+        // Refresco: las filas de los ids pedidos, activas o no
+        doAnswer(invocation -> {
+            PreparedStatementSetter setter = invocation.getArgument(1);
+            RowMapper<?> mapper = invocation.getArgument(2);
+            List<Object> ids = new ArrayList<>();
+            Connection connection = mock(Connection.class);
+            when(connection.createArrayOf(eq("bigint"), any())).thenAnswer(i -> {
+                ids.addAll(Arrays.asList((Object[]) i.getArgument(1)));
+                return mock(Array.class);
+            });
+            PreparedStatement ps = mock(PreparedStatement.class);
+            when(ps.getConnection()).thenReturn(connection);
+            setter.setValues(ps);
+            List<Object> filas = new ArrayList<>();
+            for (Object id : ids) {
+                Object[] fila = tabla.get(id);
+                if (fila != null) {
+                    filas.add(mapper.mapRow(resultSet(fila), filas.size()));
+                }
+            }
+            return filas;
+        })
+            .when(jdbcTemplate)
+            .query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class));
+
+        taskScheduler = mock(TaskScheduler.class);
+        when(taskScheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            programados.add(invocation.getArgument(0));
+            return null;
+        });
+        Executor directo = Runnable::run;
+
+        catalogoPosService = new CatalogoPosService(jdbcTemplate, new SimpleMeterRegistry(), directo, taskScheduler);
+    }
+
+    @Test
+    void searchRanksExactCodeThenCodePrefixThenNamePrefix() {
+        articulo(1L, "MART-16", "Martillo de uña 16 oz", null);
+        articulo(2L, "MART", "Mazo de goma", null);
+        articulo(3L, "CL-001", "Martillo de bola", null);
+        articulo(4L, "HER-9", "Juego de martillos", null);
+        articulo(5L, "PIN-1", "Pintura blanca", null);
+        catalogoPosService.cargar();
+
+        assertThat(catalogoPosService.buscar("mart", null, 10))
+            .extracting(ArticuloDTO::getId)
+            .containsExactly(2L, 1L, 3L, 4L);
+    }
+
+    @Test
+    void searchIgnoresCaseAndAccentsAndMatchesShortPrefixes() {
+        articulo(1L, "TUB-1", "Tubo PVC ½ pulgada", null);
+        articulo(2L, "LLA-1", "Llave de paso", null);
+        articulo(3L, "CAN-1", "Cañería galvanizada", null);
+        catalogoPosService.cargar();
+
+        assertThat(catalogoPosService.buscar("CANERIA", null, 10)).extracting(ArticuloDTO::getId).containsExactly(3L);
+        assertThat(catalogoPosService.buscar("ll", null, 10)).extracting(ArticuloDTO::getId).containsExactly(2L);
+        // Una o dos letras solo coinciden al inicio de una palabra
+        assertThat(catalogoPosService.buscar("ub", null, 10)).isEmpty();
+        assertThat(catalogoPosService.buscar("tubo pvc", null, 10)).extracting(ArticuloDTO::getId).containsExactly(1L);
+        assertThat(catalogoPosService.buscar("tubo cobre", null, 10)).isEmpty();
+    }
+
+    @Test
+    void searchFiltersByCategoriaAndLimit() {
+        articulo(1L, "TOR-1", "Tornillo 1/4", 10L);
+        articulo(2L, "TOR-2", "Tornillo 3/8", 10L);
+        articulo(3L, "TOR-3", "Tornillo madera", 20L);
+        catalogoPosService.cargar();
+
+        assertThat(catalogoPosService.buscar("tornillo", 20L, 10)).extracting(ArticuloDTO::getId).containsExactly(3L);
+        assertThat(catalogoPosService.buscar("tornillo", null, 2)).hasSize(2);
+        assertThat(catalogoPosService.buscar("  ", null, 10)).isEmpty();
+    }
+
+    @Test
+    void loadSkipsInactiveArticles() {
+        articulo(1L, "CLA-1", "Clavo 2 pulgadas", null);
+        articulo(2L, "CLA-2", "Clavo 3 pulgadas", null)[6] = false;
+        catalogoPosService.cargar();
+
+        assertThat(catalogoPosService.size()).isEqualTo(1);
+        assertThat(catalogoPosService.buscar("clavo", null, 10)).extracting(ArticuloDTO::getId).containsExactly(1L);
+    }
+
+    @Test
+    void changesAreAppliedOnceTheScheduledRefreshRuns() {
+        articulo(1L, "SIE-1", "Sierra manual", null);
+        articulo(2L, "SEG-1", "Segueta", null);
+        catalogoPosService.cargar();
+
+        tabla.get(1L)[2] = "Serrucho de poda";
+        tabla.get(2L)[6] = false;
+        articulo(3L, "SIE-2", "Sierra circular", null);
+        catalogoPosService.onExistenciaCambiada(new ExistenciaCambiadaEvent(Set.of(1L, 2L)));
+        catalogoPosService.onExistenciaCambiada(new ExistenciaCambiadaEvent(Set.of(3L)));
+
+        // Nada cambia en el hilo del commit, y una ráfaga de eventos programa un solo refresco
+        assertThat(catalogoPosService.buscar("sierra", null, 10)).extracting(ArticuloDTO::getId).containsExactly(1L);
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+        verify(jdbcTemplate, never()).query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class));
+
+        ejecutarProgramados();
+
+        assertThat(catalogoPosService.buscar("sierra", null, 10)).extracting(ArticuloDTO::getId).containsExactly(3L);
+        assertThat(catalogoPosService.buscar("serrucho", null, 10)).extracting(ArticuloDTO::getId).containsExactly(1L);
+        assertThat(catalogoPosService.buscar("segueta", null, 10)).isEmpty();
+        assertThat(catalogoPosService.size()).isEqualTo(2);
+        verify(jdbcTemplate, times(1)).query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class));
+    }
+
+    @Test
+    void refreshUpdatesStockAndPriceWithoutReindexing() {
+        articulo(1L, "CEM-1", "Cemento gris", null);
+        catalogoPosService.cargar();
+
+        tabla.get(1L)[3] = new BigDecimal("310.50");
+        tabla.get(1L)[4] = new BigDecimal("7.000");
+        catalogoPosService.onExistenciaCambiada(new ExistenciaCambiadaEvent(Set.of(1L)));
+        ejecutarProgramados();
+
+        assertThat(catalogoPosService.buscar("cemento", null, 10))
+            .singleElement()
+            .satisfies(articulo -> {
+                assertThat(articulo.getPrecio()).isEqualByComparingTo("310.50");
+                assertThat(articulo.getExistencia()).isEqualByComparingTo("7");
+            });
+
+        // Tras el refresco, un cambio nuevo programa otro
+        catalogoPosService.onExistenciaCambiada(new ExistenciaCambiadaEvent(Set.of(1L)));
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void refreshRemovesDeletedArticles() {
+        articulo(1L, "BRO-1", "Brocha 2 pulgadas", null);
+        catalogoPosService.cargar();
+
+        tabla.remove(1L);
+        catalogoPosService.onExistenciaCambiada(new ExistenciaCambiadaEvent(Set.of(1L)));
+        ejecutarProgramados();
+
+        assertThat(catalogoPosService.size()).isZero();
+        assertThat(catalogoPosService.buscar("brocha", null, 10)).isEmpty();
+    }
+
+    private void ejecutarProgramados() {
+        List<Runnable> tareas = new ArrayList<>(programados);
+        programados.clear();
+        tareas.forEach(Runnable::run);
+    }
+
+    // id, codigo, nombre, precio, existencia, categoria_id, activo
+    private Object[] articulo(Long id, String codigo, String nombre, Long categoriaId) {
+        Object[] fila = { id, codigo, nombre, new BigDecimal("100.00"), new BigDecimal("10.000"), categoriaId, true };
+        tabla.put(id, fila);
+        return fila;
+    }
+
+    private static ResultSet resultSet(Object[] fila) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn((Long) fila[0]);
+        when(rs.getString("codigo")).thenReturn((String) fila[1]);
+        when(rs.getString("nombre")).thenReturn((String) fila[2]);
+        when(rs.getBigDecimal("precio")).thenReturn((BigDecimal) fila[3]);
+        when(rs.getBigDecimal("costo")).thenReturn(new BigDecimal("60.00"));
+        when(rs.getBigDecimal("existencia")).thenReturn((BigDecimal) fila[4]);
+        when(rs.getLong("categoria_id")).thenReturn(fila[5] == null ? 0L : (Long) fila[5]);
+        when(rs.getBoolean("activo")).thenReturn((Boolean) fila[6]);
+        return rs;
+    }
+}
@@ -0,0 +1,174 @@
+package com.ferronica.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ferronica.app.IntegrationTest;
+import com.ferronica.app.domain.Articulo;
+import com.ferronica.app.domain.enumeration.TipoMovimientoInventario;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link InventoryService}.
+ * <p>
+ * The test transaction never commits, so the consolidation queued after commit
+ * does not run; the tests call {@link InventoryService#consolidar} themselves.
+ */
+@IntegrationTest
+@RecordApplicationEvents
+@Transactional
+class InventoryServiceIT {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private Articulo martillo;
+
+    private Articulo clavos;
+
+    @BeforeEach
+    void initTest() {
+        martillo = crearArticulo("INV-MARTILLO", "20");
+        clavos = crearArticulo("INV-CLAVOS", "100");
+        em.flush();
+    }
+
+    @Test
+    void aplicarCambiosLeavesExistenciaUntilConsolidated() {
+        inventoryService.aplicarCambios(
+            Map.of(martillo.getId(), new BigDecimal("-2"), clavos.getId(), new BigDecimal("-30")),
+            TipoMovimientoInventario.VENTA,
+            7L
+        );
+
+        assertThat(existencia(martillo)).isEqualByComparingTo("20");
+        assertThat(pendiente(martillo)).isEqualByComparingTo("-2");
+        assertThat(pendiente(clavos)).isEqualByComparingTo("-30");
+
+        assertThat(inventoryService.consolidar(List.of(martillo.getId(), clavos.getId()))).isEqualTo(2);
+        assertThat(existencia(martillo)).isEqualByComparingTo("18");
+        assertThat(existencia(clavos)).isEqualByComparingTo("70");
+        assertThat(pendiente(martillo)).isEqualByComparingTo("0");
+        assertThat(events.stream(ExistenciaCambiadaEvent.class)).isNotEmpty();
+    }
+
+    @Test
+    void repeatedArticuloIdsAreAddedUp() {
+        inventoryService.aplicarCambio(martillo.getId(), new BigDecimal("-1"), TipoMovimientoInventario.VENTA, 1L);
+        inventoryService.aplicarCambio(martillo.getId(), new BigDecimal("-4"), TipoMovimientoInventario.VENTA, 2L);
+        inventoryService.aplicarCambio(martillo.getId(), new BigDecimal("10"), TipoMovimientoInventario.INGRESO, 3L);
+        // Un delta cero no deja rastro
+        inventoryService.aplicarCambio(martillo.getId(), BigDecimal.ZERO, TipoMovimientoInventario.VENTA, 4L);
+
+        assertThat(movimientos(martillo)).hasSize(3);
+        // El mismo id repetido se consolida una vez
+        assertThat(inventoryService.consolidar(List.of(martillo.getId(), martillo.getId()))).isEqualTo(1);
+        assertThat(existencia(martillo)).isEqualByComparingTo("25");
+        // Sin pendientes, no hay nada que actualizar
+        assertThat(inventoryService.consolidar(List.of(martillo.getId()))).isZero();
+    }
+
+    @Test
+    void aplicarCambiosPorReferenciaWritesOneLedgerRowPerReferenceAndArticulo() {
+        Map<Long, Map<Long, BigDecimal>> porVenta = new LinkedHashMap<>();
+        porVenta.put(101L, Map.of(martillo.getId(), new BigDecimal("1"), clavos.getId(), new BigDecimal("5")));
+        porVenta.put(102L, Map.of(martillo.getId(), new BigDecimal("2")));
+
+        inventoryService.aplicarCambiosPorReferencia(porVenta, TipoMovimientoInventario.ANULACION);
+
+        assertThat(movimientos(martillo)).containsExactlyInAnyOrder(
+            List.of("ANULACION", new BigDecimal("1.00"), 101L),
+            List.of("ANULACION", new BigDecimal("2.00"), 102L)
+        );
+        assertThat(movimientos(clavos)).containsExactly(List.of("ANULACION", new BigDecimal("5.00"), 101L));
+
+        inventoryService.consolidar(null);
+        assertThat(existencia(martillo)).isEqualByComparingTo("23");
+        assertThat(existencia(clavos)).isEqualByComparingTo("105");
+    }
+
+    @Test
+    void registrarMovimientosOnlyWritesTheLedger() {
+        // Existencia inicial ya escrita por la entidad
+        inventoryService.registrarMovimientos(Map.of(martillo.getId(), new BigDecimal("20")), TipoMovimientoInventario.AJUSTE, null);
+
+        assertThat(movimientos(martillo)).containsExactly(Arrays.asList("AJUSTE", new BigDecimal("20.00"), null));
+        assertThat(pendiente(martillo)).isEqualByComparingTo("0");
+        assertThat(existencia(martillo)).isEqualByComparingTo("20");
+    }
+
+    @Test
+    void ajustarExistenciaConsolidatesFirstAndRecordsTheDifference() {
+        inventoryService.aplicarCambio(martillo.getId(), new BigDecimal("-3"), TipoMovimientoInventario.VENTA, 1L);
+
+        BigDecimal ajuste = inventoryService.ajustarExistencia(martillo.getId(), new BigDecimal("15"));
+
+        // 20 - 3 pendientes = 17; el ajuste a 15 registra -2
+        assertThat(ajuste).isEqualByComparingTo("-2");
+        assertThat(existencia(martillo)).isEqualByComparingTo("15");
+        assertThat(pendiente(martillo)).isEqualByComparingTo("0");
+        assertThat(movimientos(martillo)).contains(Arrays.asList("AJUSTE", new BigDecimal("-2.00"), null));
+        assertThat(inventoryService.ajustarExistencia(martillo.getId(), new BigDecimal("15"))).isEqualByComparingTo("0");
+    }
+
+    private Articulo crearArticulo(String codigo, String existencia) {
+        Articulo articulo = new Articulo()
+            .codigo(codigo)
+            .nombre(codigo)
+            .existencia(new BigDecimal(existencia))
+            .existenciaMinima(BigDecimal.ZERO)
+            .precio(BigDecimal.TEN)
+            .costo(BigDecimal.ONE)
+            .activo(true);
+        em.persist(articulo);
+        return articulo;
+    }
+
+    private BigDecimal existencia(Articulo articulo) {
+        return jdbcTemplate.queryForObject("SELECT existencia FROM articulo WHERE id = ?", BigDecimal.class, articulo.getId());
+    }
+
+    private BigDecimal pendiente(Articulo articulo) {
+        return jdbcTemplate.queryForObject(
+            "SELECT coalesce(sum(cantidad), 0) FROM existencia_pendiente WHERE articulo_id = ?",
+            BigDecimal.class,
+            articulo.getId()
+        );
+    }
+
+    /**
+     * Filas de la bitácora del artículo: tipo, cantidad y referencia.
+     */
+    private List<List<Object>> movimientos(Articulo articulo) {
+        List<List<Object>> filas = new ArrayList<>();
+        jdbcTemplate.query(
+            "SELECT tipo, cantidad, referencia_id FROM movimiento_inventario WHERE articulo_id = ? ORDER BY id",
+            rs -> {
+                filas.add(Arrays.asList(rs.getString(1), rs.getBigDecimal(2), rs.getObject(3, Long.class)));
+            },
+            articulo.getId()
+        );
+        return filas;
+    }
+}
@@ -0,0 +1,171 @@
+package com.ferronica.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ferronica.app.IntegrationTest;
+import com.ferronica.app.domain.NumeracionFactura;
+import com.ferronica.app.domain.Venta;
+import com.ferronica.app.domain.enumeration.MetodoPagoEnum;
+import com.ferronica.app.service.dto.NumeracionFacturaEstadoDTO;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link NumeracionFacturaAllocator}.
+ * <p>
+ * Every test works on a new, inactive series: its sequence is created inside
+ * the test transaction and dropped with its rollback.
+ */
+@IntegrationTest
+@Transactional
+class NumeracionFacturaAllocatorIT {
+
+    @Autowired
+    private NumeracionFacturaAllocator allocator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    void siguienteNumeroCreatesTheSequenceAfterCorrelativoActual() {
+        NumeracionFactura numeracion = crearNumeracion(41L);
+        assertThat(existeSecuencia(numeracion)).isFalse();
+
+        assertThat(allocator.siguienteNumero(numeracion)).isEqualTo(42L);
+        assertThat(existeSecuencia(numeracion)).isTrue();
+        assertThat(allocator.siguienteNumero(numeracion)).isEqualTo(43L);
+    }
+
+    @Test
+    void ajustarSecuenciaNeverMovesBackwards() {
+        NumeracionFactura numeracion = crearNumeracion(10L);
+        assertThat(allocator.siguienteNumero(numeracion)).isEqualTo(11L);
+
+        // Hacia adelante, el siguiente número sigue al correlativo editado
+        numeracion.setCorrelativoActual(100L);
+        allocator.ajustarSecuencia(numeracion);
+        assertThat(allocator.siguienteNumero(numeracion)).isEqualTo(101L);
+
+        // Hacia atrás no: el 6 ya pudo haberse emitido
+        numeracion.setCorrelativoActual(5L);
+        allocator.ajustarSecuencia(numeracion);
+        assertThat(allocator.siguienteNumero(numeracion)).isEqualTo(102L);
+    }
+
+    @Test
+    void ajustarSecuenciaCreatesTheSequenceOfANewSeries() {
+        NumeracionFactura numeracion = crearNumeracion(500L);
+
+        allocator.ajustarSecuencia(numeracion);
+
+        assertThat(existeSecuencia(numeracion)).isTrue();
+        assertThat(allocator.siguienteNumero(numeracion)).isEqualTo(501L);
+    }
+
+    @Test
+    void sincronizarCorrelativosCatchesUpWithTheSequence() {
+        NumeracionFactura numeracion = crearNumeracion(0L);
+        NumeracionFactura sinSecuencia = crearNumeracion(7L);
+        for (int i = 0; i < 3; i++) {
+            allocator.siguienteNumero(numeracion);
+        }
+
+        allocator.sincronizarCorrelativos();
+
+        assertThat(correlativo(numeracion)).isEqualTo(3L);
+        // Una serie que nunca numeró no tiene secuencia y conserva su correlativo
+        assertThat(correlativo(sinSecuencia)).isEqualTo(7L);
+
+        // El correlativo nunca baja, aunque alguien lo haya adelantado a mano
+        jdbcTemplate.update("UPDATE numeracion_factura SET correlativo_actual = 50 WHERE id = ?", numeracion.getId());
+        allocator.sincronizarCorrelativos();
+        assertThat(correlativo(numeracion)).isEqualTo(50L);
+    }
+
+    @Test
+    void estadoCountsTheNumbersNoVentaUsed() {
+        NumeracionFactura numeracion = crearNumeracion(0L);
+        for (int i = 0; i < 5; i++) {
+            allocator.siguienteNumero(numeracion);
+        }
+        // Los números 3 y 5 se asignaron a transacciones que no confirmaron
+        crearVenta(numeracion, 1L);
+        crearVenta(numeracion, 2L);
+        crearVenta(numeracion, 4L);
+        em.flush();
+
+        NumeracionFacturaEstadoDTO estado = estado(numeracion);
+        assertThat(estado.getSerie()).isEqualTo(numeracion.getSerie());
+        assertThat(estado.getCorrelativoActual()).isZero();
+        assertThat(estado.getUltimoAsignado()).isEqualTo(5L);
+        assertThat(estado.getFacturasEmitidas()).isEqualTo(3L);
+        assertThat(estado.getHuecos()).isEqualTo(2L);
+
+        // Tras sincronizar, el correlativo alcanza la secuencia y los huecos siguen ahí
+        allocator.sincronizarCorrelativos();
+        estado = estado(numeracion);
+        assertThat(estado.getCorrelativoActual()).isEqualTo(5L);
+        assertThat(estado.getHuecos()).isEqualTo(2L);
+    }
+
+    @Test
+    void estadoOfASeriesWithoutSequenceHasNoGaps() {
+        NumeracionFactura numeracion = crearNumeracion(20L);
+
+        NumeracionFacturaEstadoDTO estado = estado(numeracion);
+        assertThat(estado.getUltimoAsignado()).isEqualTo(20L);
+        assertThat(estado.getFacturasEmitidas()).isZero();
+        assertThat(estado.getHuecos()).isZero();
+    }
+
+    private NumeracionFactura crearNumeracion(long correlativoActual) {
+        // Inactiva: la serie activa de los datos iniciales sigue siendo la única
+        NumeracionFactura numeracion = new NumeracionFactura().serie("T").correlativoActual(correlativoActual).activo(false);
+        em.persist(numeracion);
+        em.flush();
+        return numeracion;
+    }
+
+    private void crearVenta(NumeracionFactura numeracion, long noFactura) {
+        em.persist(
+            new Venta()
+                .fecha(Instant.now())
+                .noFactura(noFactura)
+                .numeracion(numeracion)
+                .subtotal(BigDecimal.TEN)
+                .iva(BigDecimal.ZERO)
+                .total(BigDecimal.TEN)
+                .metodoPago(MetodoPagoEnum.EFECTIVO)
+                .esContado(true)
+                .anulada(false)
+        );
+    }
+
+    private NumeracionFacturaEstadoDTO estado(NumeracionFactura numeracion) {
+        return allocator.estado().stream().filter(estado -> estado.getNumeracionId().equals(numeracion.getId())).findFirst().orElseThrow();
+    }
+
+    private boolean existeSecuencia(NumeracionFactura numeracion) {
+        return jdbcTemplate.queryForObject(
+            "SELECT to_regclass(?) IS NOT NULL",
+            Boolean.class,
+            "numeracion_factura_seq_" + numeracion.getId()
+        );
+    }
+
+    private long correlativo(NumeracionFactura numeracion) {
+        return jdbcTemplate.queryForObject(
+            "SELECT correlativo_actual FROM numeracion_factura WHERE id = ?",
+            Long.class,
+            numeracion.getId()
+        );
+    }
+}
@@ -0,0 +1,104 @@
+package com.ferronica.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.ferronica.app.domain.Articulo;
+import com.ferronica.app.domain.DetalleIngreso;
+import com.ferronica.app.domain.enumeration.TipoMovimientoInventario;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+/**
+ * Unit tests for the {@link RecepcionIngresoService} class.
+ */
+class RecepcionIngresoServiceTest {
+
+    private static final Long INGRESO_ID = 50L;
+
+    private final Map<Long, BigDecimal> costos = new HashMap<>();
+
+    private InventoryService inventoryService;
+
+    private RecepcionIngresoService recepcionIngresoService;
+
+    @BeforeEach
+    void setup() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        // El UPDATE de costos recibe dos arreglos paralelos: ids y costos
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(invocation -> {
+            PreparedStatementSetter setter = invocation.getArgument(1);
+            Map<String, Object[]> arreglos = new HashMap<>();
+            Connection connection = mock(Connection.class);
+            when(connection.createArrayOf(anyString(), any())).thenAnswer(i -> {
+                arreglos.put(i.getArgument(0), i.getArgument(1));
+                return mock(Array.class);
+            });
+            PreparedStatement ps = mock(PreparedStatement.class);
+            when(ps.getConnection()).thenReturn(connection);
+            setter.setValues(ps);
+            Object[] ids = arreglos.get("bigint");
+            Object[] valores = arreglos.get("numeric");
+            for (int i = 0; i < ids.length; i++) {
+                costos.put((Long) ids[i], (BigDecimal) valores[i]);
+            }
+            return ids.length;
+        });
+        inventoryService = mock(InventoryService.class);
+
+        recepcionIngresoService = new RecepcionIngresoService(jdbcTemplate, inventoryService, mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void costIsTheAverageOfTheLinesWeightedByQuantity() {
+        recepcionIngresoService.recibir(List.of(linea(1L, "10", "4.00"), linea(1L, "30", "8.00")), INGRESO_ID);
+
+        assertThat(costos.get(1L)).isEqualByComparingTo("7.00");
+        verify(inventoryService).aplicarCambios(eq(Map.of(1L, new BigDecimal("40"))), eq(TipoMovimientoInventario.INGRESO), eq(INGRESO_ID));
+    }
+
+    @Test
+    void linesWithoutCostAddStockButDoNotDiluteTheAverage() {
+        recepcionIngresoService.recibir(
+            List.of(linea(1L, "10", "6.00"), linea(1L, "90", null), linea(2L, "5", null), linea(1L, "10", "9.00")),
+            INGRESO_ID
+        );
+
+        // 10 a 6.00 y 10 a 9.00: las 90 unidades sin costo no cuentan
+        assertThat(costos.get(1L)).isEqualByComparingTo("7.50");
+        // Sin ninguna línea con costo, el costo del artículo no se toca
+        assertThat(costos).doesNotContainKey(2L);
+        verify(inventoryService).aplicarCambios(
+            eq(Map.of(1L, new BigDecimal("110"), 2L, new BigDecimal("5"))),
+            eq(TipoMovimientoInventario.INGRESO),
+            eq(INGRESO_ID)
+        );
+    }
+
+    @Test
+    void costedLinesWithZeroQuantityKeepTheLastUnitCost() {
+        recepcionIngresoService.recibir(List.of(linea(1L, "0", "5.00"), linea(1L, "12", null)), INGRESO_ID);
+
+        assertThat(costos.get(1L)).isEqualByComparingTo("5.00");
+    }
+
+    private static DetalleIngreso linea(Long articuloId, String cantidad, String costoUnitario) {
+        return new DetalleIngreso()
+            .articulo(new Articulo().id(articuloId))
+            .cantidad(new BigDecimal(cantidad))
+            .costoUnitario(costoUnitario != null ? new BigDecimal(costoUnitario) : null);
+    }
+}
@@ -0,0 +1,161 @@
+package com.ferronica.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ferronica.app.IntegrationTest;
+import com.ferronica.app.domain.DetalleVenta;
+import com.ferronica.app.domain.Venta;
+import com.ferronica.app.domain.enumeration.MetodoPagoEnum;
+import com.ferronica.app.service.criteria.VentaCriteria;
+import com.ferronica.app.service.dto.VentaResumenDTO;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.filter.InstantFilter;
+
+/**
+ * Integration tests for the partition pruning of the venta listing and export.
+ * <p>
+ * The queries are run through the services and the partitions they touched are
+ * read from the scan counters of the current transaction
+ * ({@code pg_stat_xact_user_tables}), so the checked plan is the one executed
+ * with the bound parameters.
+ */
+@IntegrationTest
+@Transactional
+class VentaParticionIT {
+
+    private static final DateTimeFormatter SUFIJO = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @Autowired
+    private VentaQueryService ventaQueryService;
+
+    @Autowired
+    private VentaExportService ventaExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager em;
+
+    private LocalDate mes;
+
+    private Instant inicio;
+
+    private Instant fin;
+
+    private long noFactura;
+
+    @BeforeEach
+    void initTest() {
+        // El mes siguiente: su partición existe desde el arranque (VentaParticionService) y no tiene otras ventas
+        mes = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1).plusMonths(1);
+        inicio = mes.atStartOfDay(ZoneOffset.UTC).toInstant();
+        fin = mes.plusMonths(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+
+        // Dos ventas con la misma fecha en el mes buscado y una en cada mes vecino
+        Instant fecha = inicio.plus(3, ChronoUnit.DAYS);
+        crearVenta(fecha);
+        crearVenta(fecha);
+        crearVenta(inicio.minus(1, ChronoUnit.DAYS));
+        crearVenta(fin.plus(1, ChronoUnit.DAYS));
+        em.flush();
+    }
+
+    @Test
+    void keysetListingOfAMonthScansOnlyItsVentaPartition() {
+        Map<String, Long> antes = escaneos("venta");
+
+        KeysetPage<VentaResumenDTO> primera = ventaQueryService.findResumenByCriteria(criteriaDelMes(), null, 1);
+        KeysetPage<VentaResumenDTO> segunda = ventaQueryService.findResumenByCriteria(
+            criteriaDelMes(),
+            primera.getNext(),
+            1
+        );
+
+        assertThat(primera.getContent()).hasSize(1);
+        assertThat(segunda.getContent()).hasSize(1);
+        assertSoloParticionDelMes("venta", antes, escaneos("venta"));
+    }
+
+    @Test
+    void detalleExportOfAMonthScansOnlyItsPartitions() {
+        Map<String, Long> ventasAntes = escaneos("venta");
+        Map<String, Long> detallesAntes = escaneos("detalle_venta");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ventaExportService.exportarDetalles(criteriaDelMes(), VentaExportService.Formato.CSV, out);
+
+        // Cabecera y una línea por venta del mes
+        assertThat(out.toString().split("\r\n")).hasSize(3);
+        assertSoloParticionDelMes("detalle_venta", detallesAntes, escaneos("detalle_venta"));
+        assertSoloParticionDelMes("venta", ventasAntes, escaneos("venta"));
+    }
+
+    private VentaCriteria criteriaDelMes() {
+        VentaCriteria criteria = new VentaCriteria();
+        InstantFilter fecha = new InstantFilter();
+        fecha.setGreaterThanOrEqual(inicio);
+        fecha.setLessThan(fin);
+        criteria.setFecha(fecha);
+        return criteria;
+    }
+
+    private void crearVenta(Instant fecha) {
+        Venta venta = new Venta()
+            .fecha(fecha)
+            .noFactura(++noFactura)
+            .subtotal(BigDecimal.TEN)
+            .iva(BigDecimal.ZERO)
+            .total(BigDecimal.TEN)
+            .metodoPago(MetodoPagoEnum.EFECTIVO)
+            .esContado(true)
+            .anulada(false);
+        em.persist(venta);
+        em.persist(new DetalleVenta().cantidad(BigDecimal.ONE).precioVenta(BigDecimal.TEN).monto(BigDecimal.TEN).venta(venta));
+    }
+
+    /**
+     * Lecturas (secuenciales y por índice) de cada partición de la tabla en la
+     * transacción actual.
+     */
+    private Map<String, Long> escaneos(String tabla) {
+        Map<String, Long> escaneos = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT c.relname, coalesce(s.seq_scan, 0) + coalesce(s.idx_scan, 0) FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid LEFT JOIN pg_stat_xact_user_tables s ON s.relid = c.oid " +
+            "WHERE i.inhparent = ?::regclass",
+            rs -> {
+                escaneos.put(rs.getString(1), rs.getLong(2));
+            },
+            tabla
+        );
+        return escaneos;
+    }
+
+    private void assertSoloParticionDelMes(String tabla, Map<String, Long> antes, Map<String, Long> despues) {
+        String particion = tabla + "_" + mes.format(SUFIJO);
+        assertThat(despues).containsKey(particion);
+        despues.forEach((nombre, escaneos) -> {
+            long leidas = escaneos - antes.getOrDefault(nombre, 0L);
+            if (nombre.equals(particion)) {
+                assertThat(leidas).as("scans of %s", nombre).isPositive();
+            } else {
+                assertThat(leidas).as("scans of %s", nombre).isZero();
+            }
+        });
+    }
+}
@@ -85,6 +85,7 @@ class ArticuloCriteriaTest {
         articuloCriteria.costo();
         articuloCriteria.activo();
         articuloCriteria.categoriaId();
+        articuloCriteria.categoriaSubtreeId();
         articuloCriteria.unidadMedidaId();
         articuloCriteria.distinct();
     }
@@ -102,6 +103,7 @@ class ArticuloCriteriaTest {
                 condition.apply(criteria.getCosto()) &&
                 condition.apply(criteria.getActivo()) &&
                 condition.apply(criteria.getCategoriaId()) &&
+                condition.apply(criteria.getCategoriaSubtreeId()) &&
                 condition.apply(criteria.getUnidadMedidaId()) &&
                 condition.apply(criteria.getDistinct()),
             "every filter matches"
@@ -121,6 +123,7 @@ class ArticuloCriteriaTest {
                 condition.apply(criteria.getCosto(), copy.getCosto()) &&
                 condition.apply(criteria.getActivo(), copy.getActivo()) &&
                 condition.apply(criteria.getCategoriaId(), copy.getCategoriaId()) &&
+                condition.apply(criteria.getCategoriaSubtreeId(), copy.getCategoriaSubtreeId()) &&
                 condition.apply(criteria.getUnidadMedidaId(), copy.getUnidadMedidaId()) &&
                 condition.apply(criteria.getDistinct(), copy.getDistinct()),
             "every filter matches"
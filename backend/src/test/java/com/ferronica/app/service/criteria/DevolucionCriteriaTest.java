@@ -0,0 +1,120 @@
+package com.ferronica.app.service.criteria;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.assertj.core.api.Condition;
+import org.junit.jupiter.api.Test;
+
+class DevolucionCriteriaTest {
+
+    @Test
+    void newDevolucionCriteriaHasAllFiltersNullTest() {
+        var devolucionCriteria = new DevolucionCriteria();
+        assertThat(devolucionCriteria).is(criteriaFiltersAre(Objects::isNull));
+    }
+
+    @Test
+    void devolucionCriteriaFluentMethodsCreatesFiltersTest() {
+        var devolucionCriteria = new DevolucionCriteria();
+
+        setAllFilters(devolucionCriteria);
+
+        assertThat(devolucionCriteria).is(criteriaFiltersAre(Objects::nonNull));
+    }
+
+    @Test
+    void devolucionCriteriaCopyCreatesNullFilterTest() {
+        var devolucionCriteria = new DevolucionCriteria();
+        var copy = devolucionCriteria.copy();
+
+        assertThat(devolucionCriteria).satisfies(
+            criteria ->
+                assertThat(criteria).is(
+                    copyFiltersAre(copy, (a, b) -> (a == null || a instanceof Boolean) ? a == b : (a != b && a.equals(b)))
+                ),
+            criteria -> assertThat(criteria).isEqualTo(copy),
+            criteria -> assertThat(criteria).hasSameHashCodeAs(copy)
+        );
+
+        assertThat(copy).satisfies(
+            criteria -> assertThat(criteria).is(criteriaFiltersAre(Objects::isNull)),
+            criteria -> assertThat(criteria).isEqualTo(devolucionCriteria)
+        );
+    }
+
+    @Test
+    void devolucionCriteriaCopyDuplicatesEveryExistingFilterTest() {
+        var devolucionCriteria = new DevolucionCriteria();
+        setAllFilters(devolucionCriteria);
+
+        var copy = devolucionCriteria.copy();
+
+        assertThat(devolucionCriteria).satisfies(
+            criteria ->
+                assertThat(criteria).is(
+                    copyFiltersAre(copy, (a, b) -> (a == null || a instanceof Boolean) ? a == b : (a != b && a.equals(b)))
+                ),
+            criteria -> assertThat(criteria).isEqualTo(copy),
+            criteria -> assertThat(criteria).hasSameHashCodeAs(copy)
+        );
+
+        assertThat(copy).satisfies(
+            criteria -> assertThat(criteria).is(criteriaFiltersAre(Objects::nonNull)),
+            criteria -> assertThat(criteria).isEqualTo(devolucionCriteria)
+        );
+    }
+
+    @Test
+    void toStringVerifier() {
+        var devolucionCriteria = new DevolucionCriteria();
+
+        assertThat(devolucionCriteria).hasToString("DevolucionCriteria{}");
+    }
+
+    private static void setAllFilters(DevolucionCriteria devolucionCriteria) {
+        devolucionCriteria.id();
+        devolucionCriteria.fecha();
+        devolucionCriteria.motivo();
+        devolucionCriteria.total();
+        devolucionCriteria.ventaId();
+        devolucionCriteria.clienteId();
+        devolucionCriteria.noFactura();
+        devolucionCriteria.clienteNombre();
+        devolucionCriteria.distinct();
+    }
+
+    private static Condition<DevolucionCriteria> criteriaFiltersAre(Function<Object, Boolean> condition) {
+        return new Condition<>(
+            criteria ->
+                condition.apply(criteria.getId()) &&
+                condition.apply(criteria.getFecha()) &&
+                condition.apply(criteria.getMotivo()) &&
+                condition.apply(criteria.getTotal()) &&
+                condition.apply(criteria.getVentaId()) &&
+                condition.apply(criteria.getClienteId()) &&
+                condition.apply(criteria.getNoFactura()) &&
+                condition.apply(criteria.getClienteNombre()) &&
+                condition.apply(criteria.getDistinct()),
+            "every filter matches"
+        );
+    }
+
+    private static Condition<DevolucionCriteria> copyFiltersAre(DevolucionCriteria copy, BiFunction<Object, Object, Boolean> condition) {
+        return new Condition<>(
+            criteria ->
+                condition.apply(criteria.getId(), copy.getId()) &&
+                condition.apply(criteria.getFecha(), copy.getFecha()) &&
+                condition.apply(criteria.getMotivo(), copy.getMotivo()) &&
+                condition.apply(criteria.getTotal(), copy.getTotal()) &&
+                condition.apply(criteria.getVentaId(), copy.getVentaId()) &&
+                condition.apply(criteria.getClienteId(), copy.getClienteId()) &&
+                condition.apply(criteria.getNoFactura(), copy.getNoFactura()) &&
+                condition.apply(criteria.getClienteNombre(), copy.getClienteNombre()) &&
+                condition.apply(criteria.getDistinct(), copy.getDistinct()),
+            "every filter matches"
+        );
+    }
+}
@@ -0,0 +1,24 @@
+package com.ferronica.app.service.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ferronica.app.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class ArticuloBajoStockDTOTest {
+
+    @Test
+    void dtoEqualsVerifier() throws Exception {
+        TestUtil.equalsVerifier(ArticuloBajoStockDTO.class);
+        ArticuloBajoStockDTO articuloBajoStockDTO1 = new ArticuloBajoStockDTO();
+        articuloBajoStockDTO1.setId(1L);
+        ArticuloBajoStockDTO articuloBajoStockDTO2 = new ArticuloBajoStockDTO();
+        assertThat(articuloBajoStockDTO1).isNotEqualTo(articuloBajoStockDTO2);
+        articuloBajoStockDTO2.setId(articuloBajoStockDTO1.getId());
+        assertThat(articuloBajoStockDTO1).isEqualTo(articuloBajoStockDTO2);
+        articuloBajoStockDTO2.setId(2L);
+        assertThat(articuloBajoStockDTO1).isNotEqualTo(articuloBajoStockDTO2);
+        articuloBajoStockDTO1.setId(null);
+        assertThat(articuloBajoStockDTO1).isNotEqualTo(articuloBajoStockDTO2);
+    }
+}
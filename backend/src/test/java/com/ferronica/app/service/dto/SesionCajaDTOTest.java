@@ -0,0 +1,24 @@
+package com.ferronica.app.service.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ferronica.app.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class SesionCajaDTOTest {
+
+    @Test
+    void dtoEqualsVerifier() throws Exception {
+        TestUtil.equalsVerifier(SesionCajaDTO.class);
+        SesionCajaDTO sesionCajaDTO1 = new SesionCajaDTO();
+        sesionCajaDTO1.setId(1L);
+        SesionCajaDTO sesionCajaDTO2 = new SesionCajaDTO();
+        assertThat(sesionCajaDTO1).isNotEqualTo(sesionCajaDTO2);
+        sesionCajaDTO2.setId(sesionCajaDTO1.getId());
+        assertThat(sesionCajaDTO1).isEqualTo(sesionCajaDTO2);
+        sesionCajaDTO2.setId(2L);
+        assertThat(sesionCajaDTO1).isNotEqualTo(sesionCajaDTO2);
+        sesionCajaDTO1.setId(null);
+        assertThat(sesionCajaDTO1).isNotEqualTo(sesionCajaDTO2);
+    }
+}
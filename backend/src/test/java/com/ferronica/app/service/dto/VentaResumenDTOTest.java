@@ -0,0 +1,24 @@
+package com.ferronica.app.service.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ferronica.app.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class VentaResumenDTOTest {
+
+    @Test
+    void dtoEqualsVerifier() throws Exception {
+        TestUtil.equalsVerifier(VentaResumenDTO.class);
+        VentaResumenDTO ventaResumenDTO1 = new VentaResumenDTO();
+        ventaResumenDTO1.setId(1L);
+        VentaResumenDTO ventaResumenDTO2 = new VentaResumenDTO();
+        assertThat(ventaResumenDTO1).isNotEqualTo(ventaResumenDTO2);
+        ventaResumenDTO2.setId(ventaResumenDTO1.getId());
+        assertThat(ventaResumenDTO1).isEqualTo(ventaResumenDTO2);
+        ventaResumenDTO2.setId(2L);
+        assertThat(ventaResumenDTO1).isNotEqualTo(ventaResumenDTO2);
+        ventaResumenDTO1.setId(null);
+        assertThat(ventaResumenDTO1).isNotEqualTo(ventaResumenDTO2);
+    }
+}
@@ -0,0 +1,175 @@
+package com.ferronica.app.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ferronica.app.IntegrationTest;
+import com.ferronica.app.security.AuthoritiesConstants;
+import com.ferronica.app.service.InventoryService;
+import com.ferronica.app.service.StockBajoService;
+import com.ferronica.app.service.dto.ArticuloBajoStockDTO;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the low-stock list of {@link ArticuloResource}, kept by
+ * {@link StockBajoService}.
+ * <p>
+ * The list only follows committed changes, so these tests are not
+ * transactional: every change commits (or rolls back) in its own
+ * transaction, and the articulo is removed afterwards. The test
+ * {@code taskExecutor} is synchronous, so the list is up to date as soon as
+ * the transaction ends.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+class ArticuloBajoStockResourceIT {
+
+    private static final String BAJO_STOCK_URL = "/api/articulos/bajo-stock";
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private MockMvc restArticuloMockMvc;
+
+    private Long articuloId;
+
+    @BeforeEach
+    void initTest() {
+        // Diez en existencia con mínimo cinco: fuera de la lista
+        articuloId = transactionTemplate.execute(status ->
+            jdbcTemplate.queryForObject(
+                "INSERT INTO articulo (id, codigo, nombre, existencia, existencia_minima, precio, costo, activo) " +
+                "VALUES (nextval('sequence_generator'), 'BAJO-' || currval('sequence_generator'), 'Bajo stock', 10, 5, 1, 1, true) " +
+                "RETURNING id",
+                Long.class
+            )
+        );
+    }
+
+    @AfterEach
+    void cleanup() {
+        // Sale de la lista antes de borrarlo: un artículo borrado ya no se relee
+        ajustar("10", true);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM movimiento_inventario WHERE articulo_id = ?", articuloId);
+            jdbcTemplate.update("DELETE FROM existencia_pendiente WHERE articulo_id = ?", articuloId);
+            jdbcTemplate.update("DELETE FROM articulo WHERE id = ?", articuloId);
+        });
+    }
+
+    @Test
+    void committedChangesAddAndRemoveTheArticulo() throws Exception {
+        restArticuloMockMvc
+            .perform(get(BAJO_STOCK_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(articuloId.intValue()))));
+
+        ajustar("5", true);
+        restArticuloMockMvc
+            .perform(get(BAJO_STOCK_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[?(@.id == " + articuloId + ")].existencia").value(hasItem(5.0)));
+
+        ajustar("6", true);
+        restArticuloMockMvc
+            .perform(get(BAJO_STOCK_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(articuloId.intValue()))));
+    }
+
+    @Test
+    void rolledBackChangesLeaveTheListAlone() throws Exception {
+        ajustar("2", false);
+
+        restArticuloMockMvc
+            .perform(get(BAJO_STOCK_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(articuloId.intValue()))));
+
+        // Y al revés: una salida revertida lo deja en la lista
+        ajustar("2", true);
+        ajustar("9", false);
+        restArticuloMockMvc
+            .perform(get(BAJO_STOCK_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[?(@.id == " + articuloId + ")].existencia").value(hasItem(2.0)));
+    }
+
+    @Test
+    void streamSendsTheListAndThenEveryChange() throws Exception {
+        MvcResult stream = restArticuloMockMvc
+            .perform(get(BAJO_STOCK_URL + "/stream"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        try {
+            ajustar("3", true);
+            ajustar("1", false);
+            ajustar("4", true);
+            ajustar("7", true);
+
+            String contenido = stream.getResponse().getContentAsString();
+            assertThat(contenido).startsWith("event:lista\n");
+            // Entra, cambia de nivel y sale; el cambio revertido no se envía
+            List<ArticuloBajoStockDTO> cambios = cambiosDelArticulo(contenido);
+            assertThat(cambios).extracting(cambio -> cambio.getExistencia().intValue()).containsExactly(3, 4, 7);
+            assertThat(cambios).extracting(ArticuloBajoStockDTO::getBajoStock).containsExactly(true, true, false);
+        } finally {
+            // Cierra el stream y retira la suscripción
+            stream.getRequest().getAsyncContext().complete();
+        }
+    }
+
+    private void ajustar(String existencia, boolean confirmar) {
+        transactionTemplate.executeWithoutResult(status -> {
+            inventoryService.ajustarExistencia(articuloId, new BigDecimal(existencia));
+            if (!confirmar) {
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+    /**
+     * Eventos {@code bajo-stock} del artículo de la prueba, en orden.
+     */
+    private List<ArticuloBajoStockDTO> cambiosDelArticulo(String contenido) throws Exception {
+        List<ArticuloBajoStockDTO> cambios = new ArrayList<>();
+        for (String evento : contenido.split("\n\n")) {
+            if (!evento.startsWith("event:bajo-stock\n")) {
+                continue;
+            }
+            String data = evento.substring(evento.indexOf("data:") + "data:".length());
+            ArticuloBajoStockDTO cambio = om.readValue(data, ArticuloBajoStockDTO.class);
+            if (articuloId.equals(cambio.getId())) {
+                cambios.add(cambio);
+            }
+        }
+        return cambios;
+    }
+}
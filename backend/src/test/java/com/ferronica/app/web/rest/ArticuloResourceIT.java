@@ -5,6 +5,7 @@ import static com.ferronica.app.web.rest.TestUtil.createUpdateProxyForBean;
 import static com.ferronica.app.web.rest.TestUtil.sameNumber;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -13,13 +14,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ferronica.app.IntegrationTest;
 import com.ferronica.app.domain.Articulo;
 import com.ferronica.app.domain.Categoria;
+import com.ferronica.app.domain.MovimientoInventario;
 import com.ferronica.app.domain.UnidadMedida;
+import com.ferronica.app.domain.enumeration.TipoMovimientoInventario;
 import com.ferronica.app.repository.ArticuloRepository;
+import com.ferronica.app.repository.HistorialPrecioRepository;
+import com.ferronica.app.repository.MovimientoInventarioRepository;
+import com.ferronica.app.security.AuthoritiesConstants;
+import com.ferronica.app.service.dto.AjustePreciosDTO;
 import com.ferronica.app.service.dto.ArticuloDTO;
 import com.ferronica.app.service.mapper.ArticuloMapper;
 import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
-
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
@@ -27,9 +35,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -37,7 +47,7 @@ import org.springframework.transaction.annotation.Transactional;
  */
 @IntegrationTest
 @AutoConfigureMockMvc
-@WithMockUser
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
 class ArticuloResourceIT {
 
     private static final String DEFAULT_CODIGO = "AAAAAAAAAA";
@@ -86,6 +96,12 @@ class ArticuloResourceIT {
     @Autowired
     private ArticuloMapper articuloMapper;
 
+    @Autowired
+    private MovimientoInventarioRepository movimientoInventarioRepository;
+
+    @Autowired
+    private HistorialPrecioRepository historialPrecioRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -173,6 +189,194 @@ class ArticuloResourceIT {
         insertedArticulo = returnedArticulo;
     }
 
+    @Test
+    @Transactional
+    void createArticuloWithExistenciaRegistersAjuste() throws Exception {
+        articulo.setExistencia(new BigDecimal(5));
+        ArticuloDTO articuloDTO = articuloMapper.toDto(articulo);
+
+        var returnedArticuloDTO = om.readValue(
+            restArticuloMockMvc
+                .perform(
+                    post(ENTITY_API_URL).with(csrf()).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(articuloDTO))
+                )
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            ArticuloDTO.class
+        );
+
+        // The initial stock is recorded as a single AJUSTE movement
+        List<MovimientoInventario> movimientos = getMovimientos(returnedArticuloDTO.getId());
+        assertThat(movimientos).hasSize(1);
+        assertThat(movimientos.get(0).getTipo()).isEqualTo(TipoMovimientoInventario.AJUSTE);
+        assertThat(movimientos.get(0).getCantidad()).isEqualByComparingTo(new BigDecimal(5));
+    }
+
+    @Test
+    @Transactional
+    void putArticuloAppliesExistenciaAsAjusteDelta() throws Exception {
+        articulo.setExistencia(new BigDecimal(10));
+        articuloRepository.saveAndFlush(articulo);
+
+        // A sale commits between loading the form and saving it, and is not consolidated yet
+        em.createNativeQuery("INSERT INTO existencia_pendiente (articulo_id, cantidad) VALUES (?1, -3)")
+            .setParameter(1, articulo.getId())
+            .executeUpdate();
+        em.detach(articulo);
+
+        ArticuloDTO articuloDTO = articuloMapper.toDto(articulo);
+        articuloDTO.setExistencia(new BigDecimal(12));
+
+        restArticuloMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, articuloDTO.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(articuloDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.existencia").value(sameNumber(new BigDecimal(12))));
+
+        // The adjustment is measured against the consolidated stock (7), not the stock the form loaded (10)
+        assertThat(getPersistedArticulo(articulo).getExistencia()).isEqualByComparingTo(new BigDecimal(12));
+        List<MovimientoInventario> movimientos = getMovimientos(articulo.getId());
+        assertThat(movimientos).hasSize(1);
+        assertThat(movimientos.get(0).getTipo()).isEqualTo(TipoMovimientoInventario.AJUSTE);
+        assertThat(movimientos.get(0).getCantidad()).isEqualByComparingTo(new BigDecimal(5));
+    }
+
+    @Test
+    @Transactional
+    void ajustarPreciosByPercentageRoundsAndRecordsHistory() throws Exception {
+        Articulo martillo = articuloRepository.saveAndFlush(createEntity().codigo("AJ-1").activo(true).precio(new BigDecimal("100.00")));
+        Articulo clavo = articuloRepository.saveAndFlush(createEntity().codigo("AJ-2").activo(true).precio(new BigDecimal("33.33")));
+        AjustePreciosDTO ajuste = new AjustePreciosDTO();
+        ajuste.setTipo(AjustePreciosDTO.TipoAjuste.PORCENTAJE);
+        ajuste.setValor(new BigDecimal("10"));
+        ajuste.setRedondeo(new BigDecimal("0.50"));
+        ajuste.setArticuloIds(List.of(martillo.getId(), clavo.getId()));
+        ajuste.setMotivo("Inflación");
+
+        restArticuloMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/ajuste-precios")
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(ajuste))
+            )
+            .andExpect(status().isOk())
+            .andExpect(content().string("2"));
+
+        // 100 + 10 % = 110; 33.33 + 10 % = 36.663, al múltiplo de 0.50 más cercano = 36.50
+        em.clear();
+        assertThat(articuloRepository.findById(martillo.getId()).orElseThrow().getPrecio()).isEqualByComparingTo("110.00");
+        assertThat(articuloRepository.findById(clavo.getId()).orElseThrow().getPrecio()).isEqualByComparingTo("36.50");
+        assertThat(historialPrecioRepository.findByArticuloIdOrderByFechaDesc(clavo.getId()))
+            .singleElement()
+            .satisfies(historial -> {
+                assertThat(historial.getPrecioAnterior()).isEqualByComparingTo("33.33");
+                assertThat(historial.getPrecioNuevo()).isEqualByComparingTo("36.50");
+                assertThat(historial.getMotivo()).isEqualTo("Inflación");
+            });
+    }
+
+    @Test
+    @Transactional
+    void ajustarPreciosByAmountRoundsUpAndNeverGoesBelowZero() throws Exception {
+        Articulo caro = articuloRepository.saveAndFlush(createEntity().codigo("AJ-3").activo(true).precio(new BigDecimal("100.00")));
+        Articulo barato = articuloRepository.saveAndFlush(createEntity().codigo("AJ-4").activo(true).precio(new BigDecimal("3.00")));
+        AjustePreciosDTO ajuste = new AjustePreciosDTO();
+        ajuste.setTipo(AjustePreciosDTO.TipoAjuste.MONTO);
+        ajuste.setValor(new BigDecimal("-4.30"));
+        ajuste.setRedondeo(new BigDecimal("1"));
+        ajuste.setModoRedondeo(AjustePreciosDTO.ModoRedondeo.ARRIBA);
+        ajuste.setArticuloIds(List.of(caro.getId(), barato.getId()));
+
+        restArticuloMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/ajuste-precios")
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(ajuste))
+            )
+            .andExpect(status().isOk())
+            .andExpect(content().string("2"));
+
+        em.clear();
+        assertThat(articuloRepository.findById(caro.getId()).orElseThrow().getPrecio()).isEqualByComparingTo("96.00");
+        assertThat(articuloRepository.findById(barato.getId()).orElseThrow().getPrecio()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    @Transactional
+    void ajustarPreciosSkipsInactiveAndUnchangedArticulos() throws Exception {
+        Articulo inactivo = articuloRepository.saveAndFlush(createEntity().codigo("AJ-5").activo(false).precio(new BigDecimal("10.00")));
+        Articulo redondo = articuloRepository.saveAndFlush(createEntity().codigo("AJ-6").activo(true).precio(new BigDecimal("10.00")));
+        AjustePreciosDTO ajuste = new AjustePreciosDTO();
+        ajuste.setTipo(AjustePreciosDTO.TipoAjuste.MONTO);
+        // 10.20 redondeado al múltiplo de 1 más cercano vuelve a 10: sin cambio ni historial
+        ajuste.setValor(new BigDecimal("0.20"));
+        ajuste.setRedondeo(BigDecimal.ONE);
+        ajuste.setArticuloIds(List.of(inactivo.getId(), redondo.getId()));
+
+        restArticuloMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/ajuste-precios")
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(ajuste))
+            )
+            .andExpect(status().isOk())
+            .andExpect(content().string("0"));
+
+        ajuste.setValor(new BigDecimal("5"));
+        restArticuloMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/ajuste-precios")
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(ajuste))
+            )
+            .andExpect(status().isOk())
+            .andExpect(content().string("1"));
+
+        em.clear();
+        assertThat(articuloRepository.findById(inactivo.getId()).orElseThrow().getPrecio()).isEqualByComparingTo("10.00");
+        assertThat(articuloRepository.findById(redondo.getId()).orElseThrow().getPrecio()).isEqualByComparingTo("15.00");
+        assertThat(historialPrecioRepository.findByArticuloIdOrderByFechaDesc(inactivo.getId())).isEmpty();
+        assertThat(historialPrecioRepository.findByArticuloIdOrderByFechaDesc(redondo.getId())).hasSize(1);
+    }
+
+    @Test
+    @Transactional
+    void ajustarPreciosRequiresAFilterAndAValidPercentage() throws Exception {
+        AjustePreciosDTO ajuste = new AjustePreciosDTO();
+        ajuste.setTipo(AjustePreciosDTO.TipoAjuste.PORCENTAJE);
+        ajuste.setValor(new BigDecimal("5"));
+
+        restArticuloMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/ajuste-precios")
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(ajuste))
+            )
+            .andExpect(status().isBadRequest());
+
+        ajuste.setTodos(true);
+        ajuste.setValor(new BigDecimal("-100"));
+        restArticuloMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/ajuste-precios")
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(ajuste))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void createArticuloWithExistingId() throws Exception {
@@ -339,6 +543,225 @@ class ArticuloResourceIT {
             .andExpect(jsonPath("$.activo").value(DEFAULT_ACTIVO));
     }
 
+    @Test
+    @Transactional
+    void getArticuloByCodigoIgnoresCase() throws Exception {
+        // Código propio: la caché por código vive más que la transacción del test
+        String codigo = "Bar-" + longCount.incrementAndGet();
+        articulo.setCodigo(codigo);
+        articulo.setActivo(true);
+        insertedArticulo = articuloRepository.saveAndFlush(articulo);
+
+        restArticuloMockMvc
+            .perform(get(ENTITY_API_URL + "/codigo/{codigo}", codigo.toUpperCase()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(articulo.getId().intValue()))
+            .andExpect(jsonPath("$.codigo").value(codigo));
+
+        restArticuloMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/codigo/lote")
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(List.of(codigo.toLowerCase(), " " + codigo + " ")))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(articulo.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getArticuloByCodigoSkipsInactive() throws Exception {
+        String codigo = "BAR-" + longCount.incrementAndGet();
+        articulo.setCodigo(codigo);
+        articulo.setActivo(false);
+        insertedArticulo = articuloRepository.saveAndFlush(articulo);
+
+        restArticuloMockMvc.perform(get(ENTITY_API_URL + "/codigo/{codigo}", codigo)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void searchArticulosIgnoresCaseAndAccents() throws Exception {
+        Articulo tuberia = articuloDeBusqueda("BUS-" + longCount.incrementAndGet(), "Tubería Galvánica Ñandú");
+
+        buscar("TUBERIA GALVANICA").andExpect(jsonPath("$.[*].id").value(hasItem(tuberia.getId().intValue())));
+        buscar("galvánica ñandu").andExpect(jsonPath("$.[*].id").value(hasItem(tuberia.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void searchArticulosToleratesTypos() throws Exception {
+        Articulo destornillador = articuloDeBusqueda("BUS-" + longCount.incrementAndGet(), "Destornillador Xilofónico");
+
+        // Una letra de menos en cada palabra: no es subcadena, pero sí palabra parecida
+        buscar("destornilador xilofonco").andExpect(jsonPath("$.[*].id").value(hasItem(destornillador.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void searchArticulosRanksTheExactCodeFirst() throws Exception {
+        String codigo = "BUS-" + longCount.incrementAndGet();
+        // El nombre contiene el código entero: sin el orden por código exacto empataría
+        Articulo parecido = articuloDeBusqueda(codigo + "-X", "Juego " + codigo);
+        Articulo exacto = articuloDeBusqueda(codigo, "Zócalo");
+
+        buscar(codigo.toLowerCase())
+            .andExpect(jsonPath("$.[0].id").value(exacto.getId().intValue()))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(parecido.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void searchArticulosMatchesWildcardsLiterally() throws Exception {
+        long n = longCount.incrementAndGet();
+        Articulo porcentaje = articuloDeBusqueda("BUS-" + n + "-P", "Cupón 10%x");
+        Articulo sinPorcentaje = articuloDeBusqueda("BUS-" + n + "-Q", "Q10abcdefxQ");
+        Articulo guionBajo = articuloDeBusqueda("BUS-" + n + "-G", "Tornillo 7_9");
+        Articulo sinGuionBajo = articuloDeBusqueda("BUS-" + n + "-H", "Tornillo 7x9");
+
+        buscar("10%x")
+            .andExpect(jsonPath("$.[*].id").value(hasItem(porcentaje.getId().intValue())))
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(sinPorcentaje.getId().intValue()))));
+        buscar("7_9")
+            .andExpect(jsonPath("$.[*].id").value(hasItem(guionBajo.getId().intValue())))
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(sinGuionBajo.getId().intValue()))));
+    }
+
+    @Test
+    @Transactional
+    void searchArticulosFiltersByCategoria() throws Exception {
+        Categoria categoria = CategoriaResourceIT.createEntity();
+        em.persist(categoria);
+        String nombre = "Brida Quelónica " + longCount.incrementAndGet();
+        Articulo enCategoria = articuloDeBusqueda("BUS-" + longCount.incrementAndGet(), nombre);
+        enCategoria.setCategoria(categoria);
+        articuloRepository.saveAndFlush(enCategoria);
+        Articulo fuera = articuloDeBusqueda("BUS-" + longCount.incrementAndGet(), nombre);
+
+        restArticuloMockMvc
+            .perform(get(ENTITY_API_URL + "/search").param("q", nombre).param("categoriaId", categoria.getId().toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(enCategoria.getId().intValue()));
+        buscar(nombre).andExpect(jsonPath("$.[*].id").value(hasItem(fuera.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void searchArticulosSkipsInactive() throws Exception {
+        String nombre = "Bisagra Pentagonal " + longCount.incrementAndGet();
+        Articulo activo = articuloDeBusqueda("BUS-" + longCount.incrementAndGet(), nombre);
+        Articulo inactivo = articuloDeBusqueda("BUS-" + longCount.incrementAndGet(), nombre);
+        inactivo.setActivo(false);
+        articuloRepository.saveAndFlush(inactivo);
+
+        buscar(nombre)
+            .andExpect(jsonPath("$.[*].id").value(hasItem(activo.getId().intValue())))
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(inactivo.getId().intValue()))));
+        // Un texto vacío no busca nada
+        buscar(" ").andExpect(jsonPath("$.length()").value(0));
+    }
+
+    private Articulo articuloDeBusqueda(String codigo, String nombre) {
+        return articuloRepository.saveAndFlush(createEntity().codigo(codigo).nombre(nombre).activo(true));
+    }
+
+    private ResultActions buscar(String q) throws Exception {
+        return restArticuloMockMvc
+            .perform(get(ENTITY_API_URL + "/search").param("q", q))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE));
+    }
+
+    @Test
+    @Transactional
+    void getAllArticulosAnswersNotModifiedUntilTheCatalogChanges() throws Exception {
+        insertedArticulo = articuloRepository.saveAndFlush(articulo);
+
+        String etag = restArticuloMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restArticuloMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, "W/" + etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag))
+            .andExpect(content().string(""));
+
+        // La lista muestra la existencia: la consolidación de una venta la invalida
+        cambiarArticulo("existencia = existencia - 1", articulo.getId());
+        restArticuloMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(articulo.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void countArticulosKeepsEtagWhenOnlyStockChanges() throws Exception {
+        insertedArticulo = articuloRepository.saveAndFlush(articulo);
+
+        String etag = restArticuloMockMvc
+            .perform(get(ENTITY_API_URL + "/count?activo.equals=true"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        String etagExistencia = restArticuloMockMvc
+            .perform(get(ENTITY_API_URL + "/count?existencia.lessThan=5"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        cambiarArticulo("existencia = existencia - 1", articulo.getId());
+
+        restArticuloMockMvc
+            .perform(get(ENTITY_API_URL + "/count?activo.equals=true").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+        restArticuloMockMvc
+            .perform(get(ENTITY_API_URL + "/count?existencia.lessThan=5").header(HttpHeaders.IF_NONE_MATCH, etagExistencia))
+            .andExpect(status().isOk());
+
+        // Un cambio de precio o de costo sí es del catálogo, aunque se haga en SQL
+        cambiarArticulo("costo = costo + 1", articulo.getId());
+        restArticuloMockMvc
+            .perform(get(ENTITY_API_URL + "/count?activo.equals=true").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @Transactional
+    void etagChangesWhenAnotherWriterCommitsThroughTheDatabase() throws Exception {
+        String etag = restArticuloMockMvc
+            .perform(get(ENTITY_API_URL + "/count"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // Otra instancia inserta sin pasar por este proceso: solo queda la fila de version_tabla
+        em.createNativeQuery(
+            "INSERT INTO articulo (id, codigo, nombre, existencia, existencia_minima, precio, costo, activo) " +
+            "VALUES (nextval('sequence_generator'), 'ETAG-' || currval('sequence_generator'), 'Otro', 0, 0, 1, 1, true)"
+        ).executeUpdate();
+
+        restArticuloMockMvc
+            .perform(get(ENTITY_API_URL + "/count").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    private void cambiarArticulo(String asignacion, Long id) {
+        em.createNativeQuery("UPDATE articulo SET " + asignacion + " WHERE id = ?1").setParameter(1, id).executeUpdate();
+    }
+
     @Test
     @Transactional
     void getArticulosByIdFiltering() throws Exception {
@@ -882,6 +1305,47 @@ class ArticuloResourceIT {
         defaultArticuloShouldNotBeFound("unidadMedidaId.equals=" + (unidadMedidaId + 1));
     }
 
+    @Test
+    @Transactional
+    void getAllArticulosByCategoriaSubtreeIdMatchesEveryLevelOnce() throws Exception {
+        // El trigger de categoria escribe las filas de clausura
+        Categoria raiz = CategoriaResourceIT.createEntity();
+        em.persist(raiz);
+        Categoria hija = CategoriaResourceIT.createEntity().padre(raiz);
+        em.persist(hija);
+        Categoria otra = CategoriaResourceIT.createEntity();
+        em.persist(otra);
+        em.flush();
+        articulo.setCategoria(hija);
+        articuloRepository.saveAndFlush(articulo);
+
+        defaultArticuloFiltering("categoriaSubtreeId.equals=" + raiz.getId(), "categoriaSubtreeId.equals=" + otra.getId());
+        defaultArticuloShouldBeFound("categoriaSubtreeId.equals=" + hija.getId());
+        // Raíz e hija a la vez: el artículo sale una sola vez en la lista y en el conteo
+        defaultArticuloShouldBeFound("categoriaSubtreeId.in=" + raiz.getId() + "," + hija.getId());
+    }
+
+    @Test
+    @Transactional
+    void getAllArticulosByCategoriaSubtreeIdRejectsOtherConditions() throws Exception {
+        for (String filtro : List.of(
+            "categoriaSubtreeId.notEquals=1",
+            "categoriaSubtreeId.notIn=1,2",
+            "categoriaSubtreeId.specified=true",
+            "categoriaSubtreeId.greaterThan=1",
+            "categoriaSubtreeId.equals=1&categoriaSubtreeId.lessThan=5"
+        )) {
+            restArticuloMockMvc
+                .perform(get(ENTITY_API_URL + "?" + filtro))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("error.categoriasubtreeinvalid"));
+            restArticuloMockMvc
+                .perform(get(ENTITY_API_URL + "/count?" + filtro))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("error.categoriasubtreeinvalid"));
+        }
+    }
+
     private void defaultArticuloFiltering(String shouldBeFound, String shouldNotBeFound) throws Exception {
         defaultArticuloShouldBeFound(shouldBeFound);
         defaultArticuloShouldNotBeFound(shouldNotBeFound);
@@ -933,6 +1397,33 @@ class ArticuloResourceIT {
             .andExpect(content().string("0"));
     }
 
+    @Test
+    @Transactional
+    void getAllArticulosWithCursorWalksEveryPageOnce() throws Exception {
+        String codigo = "KEY-" + longCount.incrementAndGet();
+        List<Long> esperados = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            esperados.add(articuloRepository.saveAndFlush(createEntity().codigo(codigo + "-" + i)).getId());
+        }
+
+        // Por id ascendente, sea cual sea sort
+        List<List<Long>> paginas = TestUtil.keysetPages(
+            restArticuloMockMvc,
+            ENTITY_API_URL + "?codigo.contains=" + codigo + "&sort=nombre,desc&size=2&cursor="
+        );
+        assertThat(paginas).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(paginas.stream().flatMap(List::stream).toList()).containsExactlyElementsOf(esperados);
+    }
+
+    @Test
+    @Transactional
+    void getAllArticulosWithInvalidCursorIsRejected() throws Exception {
+        restArticuloMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor=no-es-un-cursor"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.cursorinvalid"));
+    }
+
     @Test
     @Transactional
     void getNonExistingArticulo() throws Exception {
@@ -1208,6 +1699,14 @@ class ArticuloResourceIT {
         assertThat(countBefore).isEqualTo(getRepositoryCount());
     }
 
+    protected List<MovimientoInventario> getMovimientos(Long articuloId) {
+        return movimientoInventarioRepository
+            .findAll()
+            .stream()
+            .filter(movimiento -> articuloId.equals(movimiento.getArticulo().getId()))
+            .toList();
+    }
+
     protected Articulo getPersistedArticulo(Articulo articulo) {
         return articuloRepository.findById(articulo.getId()).orElseThrow();
     }
@@ -10,12 +10,17 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ferronica.app.IntegrationTest;
+import com.ferronica.app.domain.Articulo;
 import com.ferronica.app.domain.Categoria;
+import com.ferronica.app.repository.ArticuloRepository;
 import com.ferronica.app.repository.CategoriaRepository;
+import com.ferronica.app.security.AuthoritiesConstants;
+import com.ferronica.app.service.CategoriaService;
 import com.ferronica.app.service.dto.CategoriaDTO;
 import com.ferronica.app.service.mapper.CategoriaMapper;
 import jakarta.persistence.EntityManager;
 import java.util.Base64;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
@@ -24,6 +29,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,7 +39,7 @@ import org.springframework.transaction.annotation.Transactional;
  */
 @IntegrationTest
 @AutoConfigureMockMvc
-@WithMockUser
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
 class CategoriaResourceIT {
 
     private static final String DEFAULT_NOMBRE = "AAAAAAAAAA";
@@ -65,6 +71,15 @@ class CategoriaResourceIT {
     @Autowired
     private CategoriaMapper categoriaMapper;
 
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private ArticuloRepository articuloRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Autowired
     private EntityManager em;
 
@@ -455,18 +470,148 @@ class CategoriaResourceIT {
     @Test
     @Transactional
     void deleteCategoria() throws Exception {
-        // Initialize the database
-        insertedCategoria = categoriaRepository.saveAndFlush(categoria);
+        // Initialize the database: a categoria with a subcategoria, both with products
+        Categoria raiz = crearCategoria("Herramientas", null);
+        Categoria hija = crearCategoria("Manuales", raiz);
+        Articulo enRaiz = crearArticulo("DEL-1", raiz, true);
+        Articulo enHija = crearArticulo("DEL-2", hija, true);
+        Articulo yaInactivo = crearArticulo("DEL-3", hija, false);
 
         long databaseSizeBeforeDelete = getRepositoryCount();
 
         // Delete the categoria
         restCategoriaMockMvc
-            .perform(delete(ENTITY_API_URL_ID, categoria.getId()).with(csrf()).accept(MediaType.APPLICATION_JSON))
-            .andExpect(status().isNoContent());
+            .perform(delete(ENTITY_API_URL_ID, raiz.getId()).with(csrf()).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.categorias").value(2))
+            .andExpect(jsonPath("$.articulos").value(2));
+
+        // The delete is logical: the rows remain, deactivated
+        assertSameRepositoryCount(databaseSizeBeforeDelete);
+        em.clear();
+        assertThat(categoriaRepository.findById(raiz.getId())).hasValueSatisfying(c -> assertThat(c.getActivo()).isFalse());
+        assertThat(categoriaRepository.findById(hija.getId())).hasValueSatisfying(c -> assertThat(c.getActivo()).isFalse());
+        assertThat(articuloRepository.findAllById(List.of(enRaiz.getId(), enHija.getId(), yaInactivo.getId())))
+            .hasSize(3)
+            .allSatisfy(a -> assertThat(a.getActivo()).isFalse());
+    }
+
+    @Test
+    @Transactional
+    void deleteUnknownCategoriaDeactivatesNothing() throws Exception {
+        restCategoriaMockMvc
+            .perform(delete(ENTITY_API_URL_ID, Long.MAX_VALUE).with(csrf()).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.categorias").value(0))
+            .andExpect(jsonPath("$.articulos").value(0));
+    }
+
+    @Test
+    @Transactional
+    void deleteCategoriaSavedOutsideTheServiceDeactivatesItsSubtree() throws Exception {
+        // Sin pasar por CategoriaService: las filas de clausura las escribe el trigger
+        Categoria raiz = categoriaRepository.saveAndFlush(createEntity().nombre("Pinturas").activo(true));
+        Categoria hija = categoriaRepository.saveAndFlush(createEntity().nombre("Esmaltes").activo(true).padre(raiz));
+        Articulo articulo = crearArticulo("DEL-4", hija, true);
+
+        restCategoriaMockMvc
+            .perform(delete(ENTITY_API_URL_ID, raiz.getId()).with(csrf()).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.categorias").value(2))
+            .andExpect(jsonPath("$.articulos").value(1));
+
+        em.clear();
+        assertThat(categoriaRepository.findById(hija.getId())).hasValueSatisfying(c -> assertThat(c.getActivo()).isFalse());
+        assertThat(articuloRepository.findById(articulo.getId())).hasValueSatisfying(a -> assertThat(a.getActivo()).isFalse());
+    }
+
+    @Test
+    @Transactional
+    void moveCategoriaMovesItsSubtree() throws Exception {
+        Categoria origen = crearCategoria("Electricidad", null);
+        Categoria destino = crearCategoria("Iluminación", null);
+        Categoria movida = crearCategoria("Bombillos", origen);
+        Categoria nieta = crearCategoria("LED", movida);
+
+        CategoriaDTO categoriaDTO = categoriaMapper.toDto(movida);
+        categoriaDTO.setPadre(categoriaMapper.toDto(destino));
+        restCategoriaMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, movida.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(categoriaDTO))
+            )
+            .andExpect(status().isOk());
+
+        // La nieta se mueve con su padre, y el origen ya no tiene a ninguna de las dos
+        assertThat(ancestros(movida)).containsExactly(List.of(movida.getId(), 0), List.of(destino.getId(), 1));
+        assertThat(ancestros(nieta)).containsExactly(
+            List.of(nieta.getId(), 0),
+            List.of(movida.getId(), 1),
+            List.of(destino.getId(), 2)
+        );
+        assertThat(subarbol(origen)).containsExactly(origen.getId());
+        assertThat(subarbol(destino)).containsExactlyInAnyOrder(destino.getId(), movida.getId(), nieta.getId());
+    }
+
+    @Test
+    @Transactional
+    void moveCategoriaUnderItsDescendantIsRejected() throws Exception {
+        Categoria raiz = crearCategoria("Plomería", null);
+        Categoria hija = crearCategoria("Tubos", raiz);
+        Categoria nieta = crearCategoria("Codos", hija);
+
+        CategoriaDTO categoriaDTO = categoriaMapper.toDto(raiz);
+        categoriaDTO.setPadre(categoriaMapper.toDto(nieta));
+        restCategoriaMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, raiz.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(categoriaDTO))
+            )
+            .andExpect(status().isBadRequest());
+
+        // Tampoco bajo sí misma
+        categoriaDTO.setPadre(categoriaMapper.toDto(raiz));
+        restCategoriaMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, raiz.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(categoriaDTO))
+            )
+            .andExpect(status().isBadRequest());
+
+        assertThat(subarbol(raiz)).containsExactlyInAnyOrder(raiz.getId(), hija.getId(), nieta.getId());
+        assertThat(ancestros(raiz)).containsExactly(List.of(raiz.getId(), 0));
+    }
+
+    private List<List<Object>> ancestros(Categoria categoria) {
+        return jdbcTemplate.query(
+            "SELECT ancestro_id, profundidad FROM categoria_jerarquia WHERE descendiente_id = ? ORDER BY profundidad",
+            (rs, rowNum) -> List.of(rs.getLong(1), rs.getInt(2)),
+            categoria.getId()
+        );
+    }
+
+    private List<Long> subarbol(Categoria categoria) {
+        return jdbcTemplate.queryForList(
+            "SELECT descendiente_id FROM categoria_jerarquia WHERE ancestro_id = ?",
+            Long.class,
+            categoria.getId()
+        );
+    }
+
+    // Through the service, which also writes the categoria_jerarquia rows
+    private Categoria crearCategoria(String nombre, Categoria padre) {
+        CategoriaDTO categoriaDTO = categoriaMapper.toDto(createEntity().nombre(nombre).activo(true).padre(padre));
+        return categoriaRepository.findById(categoriaService.save(categoriaDTO).getId()).orElseThrow();
+    }
 
-        // Validate the database contains one less item
-        assertDecrementedRepositoryCount(databaseSizeBeforeDelete);
+    private Articulo crearArticulo(String codigo, Categoria categoria, boolean activo) {
+        return articuloRepository.saveAndFlush(ArticuloResourceIT.createEntity().codigo(codigo).activo(activo).categoria(categoria));
     }
 
     protected long getRepositoryCount() {
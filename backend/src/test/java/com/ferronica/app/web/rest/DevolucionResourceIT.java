@@ -11,14 +11,23 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ferronica.app.IntegrationTest;
+import com.ferronica.app.domain.Articulo;
+import com.ferronica.app.domain.Cliente;
+import com.ferronica.app.domain.DetalleDevolucion;
 import com.ferronica.app.domain.Devolucion;
+import com.ferronica.app.domain.Venta;
 import com.ferronica.app.repository.DevolucionRepository;
+import com.ferronica.app.security.AuthoritiesConstants;
+import com.ferronica.app.service.InventoryService;
+import com.ferronica.app.service.dto.DetalleDevolucionDTO;
 import com.ferronica.app.service.dto.DevolucionDTO;
+import com.ferronica.app.service.mapper.DetalleDevolucionMapper;
 import com.ferronica.app.service.mapper.DevolucionMapper;
 import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
@@ -36,7 +45,7 @@ import org.springframework.transaction.annotation.Transactional;
  */
 @IntegrationTest
 @AutoConfigureMockMvc
-@WithMockUser
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
 class DevolucionResourceIT {
 
     private static final Instant DEFAULT_FECHA = Instant.ofEpochMilli(0L);
@@ -47,9 +56,11 @@ class DevolucionResourceIT {
 
     private static final BigDecimal DEFAULT_TOTAL = new BigDecimal(1);
     private static final BigDecimal UPDATED_TOTAL = new BigDecimal(2);
+    private static final BigDecimal SMALLER_TOTAL = new BigDecimal(1 - 1);
 
     private static final String ENTITY_API_URL = "/api/devolucions";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+    private static final String VENTA_RETORNABLE_URL = "/api/ventas/{id}/retornable";
 
     private static Random random = new Random();
     private static AtomicLong longCount = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
@@ -63,6 +74,12 @@ class DevolucionResourceIT {
     @Autowired
     private DevolucionMapper devolucionMapper;
 
+    @Autowired
+    private DetalleDevolucionMapper detalleMapper;
+
+    @Autowired
+    private InventoryService inventoryService;
+
     @Autowired
     private EntityManager em;
 
@@ -201,6 +218,287 @@ class DevolucionResourceIT {
             .andExpect(jsonPath("$.total").value(sameNumber(DEFAULT_TOTAL)));
     }
 
+    @Test
+    @Transactional
+    void getDevolucionsByIdFiltering() throws Exception {
+        // Initialize the database
+        insertedDevolucion = devolucionRepository.saveAndFlush(devolucion);
+
+        Long id = devolucion.getId();
+
+        defaultDevolucionFiltering("id.equals=" + id, "id.notEquals=" + id);
+
+        defaultDevolucionFiltering("id.greaterThanOrEqual=" + id, "id.greaterThan=" + id);
+
+        defaultDevolucionFiltering("id.lessThanOrEqual=" + id, "id.lessThan=" + id);
+    }
+
+    @Test
+    @Transactional
+    void getAllDevolucionsByFechaIsEqualToSomething() throws Exception {
+        // Initialize the database
+        insertedDevolucion = devolucionRepository.saveAndFlush(devolucion);
+
+        // Get all the devolucionList where fecha equals to
+        defaultDevolucionFiltering("fecha.equals=" + DEFAULT_FECHA, "fecha.equals=" + UPDATED_FECHA);
+    }
+
+    @Test
+    @Transactional
+    void getAllDevolucionsByFechaIsInShouldWork() throws Exception {
+        // Initialize the database
+        insertedDevolucion = devolucionRepository.saveAndFlush(devolucion);
+
+        // Get all the devolucionList where fecha in
+        defaultDevolucionFiltering("fecha.in=" + DEFAULT_FECHA + "," + UPDATED_FECHA, "fecha.in=" + UPDATED_FECHA);
+    }
+
+    @Test
+    @Transactional
+    void getAllDevolucionsByFechaIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        insertedDevolucion = devolucionRepository.saveAndFlush(devolucion);
+
+        // Get all the devolucionList where fecha is not null
+        defaultDevolucionFiltering("fecha.specified=true", "fecha.specified=false");
+    }
+
+    @Test
+    @Transactional
+    void getAllDevolucionsByMotivoIsEqualToSomething() throws Exception {
+        // Initialize the database
+        insertedDevolucion = devolucionRepository.saveAndFlush(devolucion);
+
+        // Get all the devolucionList where motivo equals to
+        defaultDevolucionFiltering("motivo.equals=" + DEFAULT_MOTIVO, "motivo.equals=" + UPDATED_MOTIVO);
+    }
+
+    @Test
+    @Transactional
+    void getAllDevolucionsByMotivoIsInShouldWork() throws Exception {
+        // Initialize the database
+        insertedDevolucion = devolucionRepository.saveAndFlush(devolucion);
+
+        // Get all the devolucionList where motivo in
+        defaultDevolucionFiltering("motivo.in=" + DEFAULT_MOTIVO + "," + UPDATED_MOTIVO, "motivo.in=" + UPDATED_MOTIVO);
+    }
+
+    @Test
+    @Transactional
+    void getAllDevolucionsByMotivoIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        insertedDevolucion = devolucionRepository.saveAndFlush(devolucion);
+
+        // Get all the devolucionList where motivo is not null
+        defaultDevolucionFiltering("motivo.specified=true", "motivo.specified=false");
+    }
+
+    @Test
+    @Transactional
+    void getAllDevolucionsByMotivoContainsSomething() throws Exception {
+        // Initialize the database
+        insertedDevolucion = devolucionRepository.saveAndFlush(devolucion);
+
+        // Get all the devolucionList where motivo contains
+        defaultDevolucionFiltering("motivo.contains=" + DEFAULT_MOTIVO, "motivo.contains=" + UPDATED_MOTIVO);
+    }
+
+    @Test
+    @Transactional
+    void getAllDevolucionsByMotivoNotContainsSomething() throws Exception {
+        // Initialize the database
+        insertedDevolucion = devolucionRepository.saveAndFlush(devolucion);
+
+        // Get all the devolucionList where motivo does not contain
+        defaultDevolucionFiltering("motivo.doesNotContain=" + UPDATED_MOTIVO, "motivo.doesNotContain=" + DEFAULT_MOTIVO);
+    }
+
+    @Test
+    @Transactional
+    void getAllDevolucionsByTotalIsEqualToSomething() throws Exception {
+        // Initialize the database
+        insertedDevolucion = devolucionRepository.saveAndFlush(devolucion);
+
+        // Get all the devolucionList where total equals to
+        defaultDevolucionFiltering("total.equals=" + DEFAULT_TOTAL, "total.equals=" + UPDATED_TOTAL);
+    }
+
+    @Test
+    @Transactional
+    void getAllDevolucionsByTotalIsInShouldWork() throws Exception {
+        // Initialize the database
+        insertedDevolucion = devolucionRepository.saveAndFlush(devolucion);
+
+        // Get all the devolucionList where total in
+        defaultDevolucionFiltering("total.in=" + DEFAULT_TOTAL + "," + UPDATED_TOTAL, "total.in=" + UPDATED_TOTAL);
+    }
+
+    @Test
+    @Transactional
+    void getAllDevolucionsByTotalIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        insertedDevolucion = devolucionRepository.saveAndFlush(devolucion);
+
+        // Get all the devolucionList where total is not null
+        defaultDevolucionFiltering("total.specified=true", "total.specified=false");
+    }
+
+    @Test
+    @Transactional
+    void getAllDevolucionsByTotalIsGreaterThanOrEqualToSomething() throws Exception {
+        // Initialize the database
+        insertedDevolucion = devolucionRepository.saveAndFlush(devolucion);
+
+        // Get all the devolucionList where total is greater than or equal to
+        defaultDevolucionFiltering("total.greaterThanOrEqual=" + DEFAULT_TOTAL, "total.greaterThanOrEqual=" + UPDATED_TOTAL);
+    }
+
+    @Test
+    @Transactional
+    void getAllDevolucionsByTotalIsLessThanOrEqualToSomething() throws Exception {
+        // Initialize the database
+        insertedDevolucion = devolucionRepository.saveAndFlush(devolucion);
+
+        // Get all the devolucionList where total is less than or equal to
+        defaultDevolucionFiltering("total.lessThanOrEqual=" + DEFAULT_TOTAL, "total.lessThanOrEqual=" + SMALLER_TOTAL);
+    }
+
+    @Test
+    @Transactional
+    void getAllDevolucionsByTotalIsLessThanSomething() throws Exception {
+        // Initialize the database
+        insertedDevolucion = devolucionRepository.saveAndFlush(devolucion);
+
+        // Get all the devolucionList where total is less than
+        defaultDevolucionFiltering("total.lessThan=" + UPDATED_TOTAL, "total.lessThan=" + DEFAULT_TOTAL);
+    }
+
+    @Test
+    @Transactional
+    void getAllDevolucionsByTotalIsGreaterThanSomething() throws Exception {
+        // Initialize the database
+        insertedDevolucion = devolucionRepository.saveAndFlush(devolucion);
+
+        // Get all the devolucionList where total is greater than
+        defaultDevolucionFiltering("total.greaterThan=" + SMALLER_TOTAL, "total.greaterThan=" + DEFAULT_TOTAL);
+    }
+
+    @Test
+    @Transactional
+    void getAllDevolucionsByVentaAndClienteIsEqualToSomething() throws Exception {
+        Cliente cliente = ClienteResourceIT.createEntity();
+        em.persist(cliente);
+        Venta venta = VentaResourceIT.createEntity().noFactura(longCount.incrementAndGet()).cliente(cliente);
+        em.persist(venta);
+        em.flush();
+        devolucion.setVenta(venta);
+        insertedDevolucion = devolucionRepository.saveAndFlush(devolucion);
+
+        // Get all the devolucionList where venta, its factura or its cliente match
+        defaultDevolucionFiltering("ventaId.equals=" + venta.getId(), "ventaId.equals=" + (venta.getId() + 1));
+        defaultDevolucionFiltering("noFactura.equals=" + venta.getNoFactura(), "noFactura.equals=" + (venta.getNoFactura() + 1));
+        defaultDevolucionFiltering("clienteId.equals=" + cliente.getId(), "clienteId.equals=" + (cliente.getId() + 1));
+        defaultDevolucionFiltering(
+            "clienteNombre.contains=" + cliente.getNombre().substring(1),
+            "clienteNombre.contains=" + cliente.getNombre() + "X"
+        );
+    }
+
+    @Test
+    @Transactional
+    void getAllDevolucionsPagesNewestFirstWithTotalCount() throws Exception {
+        // Tres devoluciones del mismo motivo, una por día
+        String motivo = "PAG-" + longCount.incrementAndGet();
+        Devolucion antigua = devolucionRepository.saveAndFlush(createEntity().motivo(motivo).fecha(Instant.parse("2001-01-01T10:00:00Z")));
+        Devolucion media = devolucionRepository.saveAndFlush(createEntity().motivo(motivo).fecha(Instant.parse("2001-01-02T10:00:00Z")));
+        Devolucion reciente = devolucionRepository.saveAndFlush(createEntity().motivo(motivo).fecha(Instant.parse("2001-01-03T10:00:00Z")));
+
+        // Sin orden explícito, la más reciente primero; el total llega en X-Total-Count
+        restDevolucionMockMvc
+            .perform(get(ENTITY_API_URL + "?motivo.equals=" + motivo + "&page=0&size=2"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "3"))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].id").value(reciente.getId().intValue()))
+            .andExpect(jsonPath("$[1].id").value(media.getId().intValue()));
+
+        restDevolucionMockMvc
+            .perform(get(ENTITY_API_URL + "?motivo.equals=" + motivo + "&page=1&size=2"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "3"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(antigua.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getAllDevolucionsSortedByATiedColumnPagesEveryRowOnce() throws Exception {
+        // Mismo motivo y misma fecha: solo el id las distingue
+        String motivo = "EMP-" + longCount.incrementAndGet();
+        Instant fecha = Instant.parse("2001-01-01T10:00:00Z");
+        Devolucion primera = devolucionRepository.saveAndFlush(createEntity().motivo(motivo).fecha(fecha));
+        Devolucion segunda = devolucionRepository.saveAndFlush(createEntity().motivo(motivo).fecha(fecha));
+        Devolucion tercera = devolucionRepository.saveAndFlush(createEntity().motivo(motivo).fecha(fecha));
+
+        restDevolucionMockMvc
+            .perform(get(ENTITY_API_URL + "?motivo.equals=" + motivo + "&sort=fecha,desc&page=0&size=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].id").value(primera.getId().intValue()))
+            .andExpect(jsonPath("$[1].id").value(segunda.getId().intValue()));
+
+        restDevolucionMockMvc
+            .perform(get(ENTITY_API_URL + "?motivo.equals=" + motivo + "&sort=fecha,desc&page=1&size=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(tercera.getId().intValue()));
+    }
+
+    private void defaultDevolucionFiltering(String shouldBeFound, String shouldNotBeFound) throws Exception {
+        defaultDevolucionShouldBeFound(shouldBeFound);
+        defaultDevolucionShouldNotBeFound(shouldNotBeFound);
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultDevolucionShouldBeFound(String filter) throws Exception {
+        restDevolucionMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(devolucion.getId().intValue())))
+            .andExpect(jsonPath("$.[*].fecha").value(hasItem(DEFAULT_FECHA.toString())))
+            .andExpect(jsonPath("$.[*].motivo").value(hasItem(DEFAULT_MOTIVO)))
+            .andExpect(jsonPath("$.[*].total").value(hasItem(sameNumber(DEFAULT_TOTAL))));
+
+        // Check, that the count call also returns 1
+        restDevolucionMockMvc
+            .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultDevolucionShouldNotBeFound(String filter) throws Exception {
+        restDevolucionMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restDevolucionMockMvc
+            .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
     @Test
     @Transactional
     void getNonExistingDevolucion() throws Exception {
@@ -428,6 +726,200 @@ class DevolucionResourceIT {
         assertSameRepositoryCount(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    void putDevolucionReturningMoreThanWasSoldIsRejected() throws Exception {
+        Devolucion existente = devolucionDeVenta(false);
+        Articulo articulo = existente.getDetalles().iterator().next().getArticulo();
+        BigDecimal existenciaAntes = articulo.getExistencia();
+
+        // Se vendieron cinco: seis no caben aunque la devolución ya tenga dos
+        DevolucionDTO devolucionDTO = devolucionMapper.toDto(existente);
+        devolucionDTO.getDetalles().forEach(detalle -> detalle.setCantidad(new BigDecimal("6")));
+        restDevolucionMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, existente.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(devolucionDTO))
+            )
+            .andExpect(status().isBadRequest());
+
+        em.refresh(articulo);
+        assertThat(articulo.getExistencia()).isEqualByComparingTo(existenciaAntes);
+    }
+
+    @Test
+    @Transactional
+    void putDevolucionUpToTheSoldQuantityMovesTheStockByTheDifference() throws Exception {
+        Devolucion existente = devolucionDeVenta(false);
+        Articulo articulo = existente.getDetalles().iterator().next().getArticulo();
+        BigDecimal existenciaAntes = articulo.getExistencia();
+
+        DevolucionDTO devolucionDTO = devolucionMapper.toDto(existente);
+        devolucionDTO.getDetalles().forEach(detalle -> detalle.setCantidad(new BigDecimal("5")));
+        restDevolucionMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, existente.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(devolucionDTO))
+            )
+            .andExpect(status().isOk());
+
+        // De dos a cinco: entran tres unidades más (la prueba no confirma: se consolida aquí)
+        em.flush();
+        inventoryService.consolidar(List.of(articulo.getId()));
+        em.refresh(articulo);
+        assertThat(articulo.getExistencia()).isEqualByComparingTo(existenciaAntes.add(new BigDecimal("3")));
+    }
+
+    @Test
+    @Transactional
+    void patchDevolucionOfCancelledVentaIsRejected() throws Exception {
+        Devolucion existente = devolucionDeVenta(true);
+
+        DevolucionDTO devolucionDTO = devolucionMapper.toDto(existente);
+        devolucionDTO.getDetalles().forEach(detalle -> detalle.setCantidad(new BigDecimal("3")));
+        restDevolucionMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, existente.getId())
+                    .with(csrf())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(devolucionDTO))
+            )
+            .andExpect(status().isBadRequest());
+
+        // Cambiar solo el motivo no toca las líneas y sigue permitido
+        DevolucionDTO soloMotivo = new DevolucionDTO();
+        soloMotivo.setId(existente.getId());
+        soloMotivo.setMotivo(UPDATED_MOTIVO);
+        soloMotivo.setDetalles(null);
+        restDevolucionMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, existente.getId())
+                    .with(csrf())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(soloMotivo))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.motivo").value(UPDATED_MOTIVO));
+    }
+
+    @Test
+    @Transactional
+    void postDetalleDevolucionBeyondWhatIsLeftIsRejected() throws Exception {
+        Devolucion existente = devolucionDeVenta(false);
+        DetalleDevolucionDTO detalle = detalleMapper.toDto(existente.getDetalles().iterator().next());
+        detalle.setId(null);
+
+        // Quedan tres por devolver
+        detalle.setCantidad(new BigDecimal("4"));
+        restDevolucionMockMvc
+            .perform(
+                post("/api/detalle-devolucions").with(csrf()).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(detalle))
+            )
+            .andExpect(status().isBadRequest());
+
+        detalle.setCantidad(new BigDecimal("3"));
+        restDevolucionMockMvc
+            .perform(
+                post("/api/detalle-devolucions").with(csrf()).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(detalle))
+            )
+            .andExpect(status().isCreated());
+    }
+
+    @Test
+    @Transactional
+    void postDetalleDevolucionOfCancelledVentaIsRejected() throws Exception {
+        Devolucion existente = devolucionDeVenta(true);
+        DetalleDevolucionDTO detalle = detalleMapper.toDto(existente.getDetalles().iterator().next());
+        detalle.setId(null);
+        detalle.setCantidad(BigDecimal.ONE);
+
+        restDevolucionMockMvc
+            .perform(
+                post("/api/detalle-devolucions").with(csrf()).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(detalle))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void postDevolucionBeyondWhatIsLeftIsRejected() throws Exception {
+        Devolucion existente = devolucionDeVenta(false);
+        Articulo articulo = existente.getDetalles().iterator().next().getArticulo();
+        BigDecimal existenciaAntes = articulo.getExistencia();
+        long databaseSizeBeforeCreate = getRepositoryCount();
+
+        // Otra devolución de la misma venta: de cinco vendidos quedan tres
+        DevolucionDTO devolucionDTO = devolucionMapper.toDto(existente);
+        devolucionDTO.setId(null);
+        devolucionDTO.getDetalles().forEach(detalle -> {
+            detalle.setId(null);
+            detalle.setCantidad(new BigDecimal("4"));
+        });
+        restDevolucionMockMvc
+            .perform(post(ENTITY_API_URL).with(csrf()).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(devolucionDTO)))
+            .andExpect(status().isBadRequest());
+
+        assertSameRepositoryCount(databaseSizeBeforeCreate);
+        em.flush();
+        inventoryService.consolidar(List.of(articulo.getId()));
+        em.refresh(articulo);
+        assertThat(articulo.getExistencia()).isEqualByComparingTo(existenciaAntes);
+
+        devolucionDTO.getDetalles().forEach(detalle -> detalle.setCantidad(new BigDecimal("3")));
+        restDevolucionMockMvc
+            .perform(post(ENTITY_API_URL).with(csrf()).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(devolucionDTO)))
+            .andExpect(status().isCreated());
+
+        assertIncrementedRepositoryCount(databaseSizeBeforeCreate);
+        restDevolucionMockMvc
+            .perform(get(VENTA_RETORNABLE_URL, existente.getVenta().getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].devuelta").value(sameNumber(new BigDecimal("5"))))
+            .andExpect(jsonPath("$[0].retornable").value(sameNumber(BigDecimal.ZERO)));
+    }
+
+    @Test
+    @Transactional
+    void getRetornableOfVenta() throws Exception {
+        Devolucion existente = devolucionDeVenta(false);
+        Articulo articulo = existente.getDetalles().iterator().next().getArticulo();
+
+        // Cinco vendidos, dos devueltos
+        restDevolucionMockMvc
+            .perform(get(VENTA_RETORNABLE_URL, existente.getVenta().getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].articuloId").value(articulo.getId().intValue()))
+            .andExpect(jsonPath("$[0].vendida").value(sameNumber(new BigDecimal("5"))))
+            .andExpect(jsonPath("$[0].devuelta").value(sameNumber(new BigDecimal("2"))))
+            .andExpect(jsonPath("$[0].retornable").value(sameNumber(new BigDecimal("3"))));
+    }
+
+    @Test
+    @Transactional
+    void getRetornableOfCancelledVentaIsZero() throws Exception {
+        Devolucion existente = devolucionDeVenta(true);
+
+        // Lo vendido y lo devuelto se informan, pero ya no se puede devolver nada
+        restDevolucionMockMvc
+            .perform(get(VENTA_RETORNABLE_URL, existente.getVenta().getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].vendida").value(sameNumber(new BigDecimal("5"))))
+            .andExpect(jsonPath("$[0].devuelta").value(sameNumber(new BigDecimal("2"))))
+            .andExpect(jsonPath("$[0].retornable").value(sameNumber(BigDecimal.ZERO)));
+    }
+
+    @Test
+    @Transactional
+    void getRetornableOfNonExistingVenta() throws Exception {
+        restDevolucionMockMvc.perform(get(VENTA_RETORNABLE_URL, Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
     @Test
     @Transactional
     void deleteDevolucion() throws Exception {
@@ -445,6 +937,26 @@ class DevolucionResourceIT {
         assertDecrementedRepositoryCount(databaseSizeBeforeDelete);
     }
 
+    // Venta de cinco unidades de un artículo, con una devolución guardada de dos
+    private Devolucion devolucionDeVenta(boolean anulada) {
+        Articulo articulo = ArticuloResourceIT.createEntity().codigo("DEV-" + longCount.incrementAndGet());
+        em.persist(articulo);
+        Venta venta = VentaResourceIT.createEntity().noFactura(longCount.incrementAndGet()).anulada(anulada);
+        em.persist(venta);
+        em.persist(DetalleVentaResourceIT.createEntity().venta(venta).articulo(articulo).cantidad(new BigDecimal("5")));
+
+        Devolucion existente = createEntity().venta(venta);
+        DetalleDevolucion detalle = new DetalleDevolucion();
+        detalle.setArticulo(articulo);
+        detalle.setCantidad(new BigDecimal("2"));
+        detalle.setPrecioUnitario(BigDecimal.TEN);
+        detalle.setMontoTotal(new BigDecimal("20"));
+        existente.addDetalles(detalle);
+        em.persist(existente);
+        em.flush();
+        return existente;
+    }
+
     protected long getRepositoryCount() {
         return devolucionRepository.count();
     }
@@ -15,12 +15,16 @@ import com.ferronica.app.domain.Ingreso;
 import com.ferronica.app.domain.Proveedor;
 import com.ferronica.app.domain.Usuario;
 import com.ferronica.app.repository.IngresoRepository;
+import com.ferronica.app.service.KeysetCursor;
 import com.ferronica.app.service.dto.IngresoDTO;
 import com.ferronica.app.service.mapper.IngresoMapper;
 import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
@@ -609,6 +613,43 @@ class IngresoResourceIT {
                 .andExpect(content().string("0"));
     }
 
+    @Test
+    @Transactional
+    void getAllIngresosWithCursorWalksEveryPageOnce() throws Exception {
+        // Tres ingresos a la misma hora: el id desempata
+        String noDocumento = "KEY-" + longCount.incrementAndGet();
+        Instant empate = Instant.parse("2001-02-01T10:00:00Z");
+        List<Ingreso> ingresos = new ArrayList<>();
+        for (Instant fecha : List.of(empate, Instant.parse("2001-02-02T10:00:00Z"), empate,
+                Instant.parse("2001-01-31T10:00:00Z"), empate)) {
+            ingresos.add(ingresoRepository.saveAndFlush(createEntity().fecha(fecha).noDocumento(noDocumento)));
+        }
+        List<Long> esperados = ingresos.stream()
+                .sorted(Comparator.comparing(Ingreso::getFecha).thenComparing(Ingreso::getId).reversed())
+                .map(Ingreso::getId)
+                .toList();
+
+        // El orden del cursor manda sobre sort
+        List<List<Long>> paginas = TestUtil.keysetPages(restIngresoMockMvc,
+                ENTITY_API_URL + "?noDocumento.equals=" + noDocumento + "&sort=id,asc&size=2&cursor=");
+        assertThat(paginas).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(paginas.stream().flatMap(List::stream).toList()).containsExactlyElementsOf(esperados);
+    }
+
+    @Test
+    @Transactional
+    void getAllIngresosWithInvalidCursorIsRejected() throws Exception {
+        restIngresoMockMvc
+                .perform(get(ENTITY_API_URL + "?cursor=no-es-un-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("error.cursorinvalid"));
+        // Un cursor de id sin fecha no sirve para un listado por fecha
+        restIngresoMockMvc
+                .perform(get(ENTITY_API_URL + "?cursor=" + KeysetCursor.of(1L).encode()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("error.cursorinvalid"));
+    }
+
     @Test
     @Transactional
     void getNonExistingIngreso() throws Exception {
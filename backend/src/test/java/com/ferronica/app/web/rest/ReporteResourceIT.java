@@ -0,0 +1,445 @@
+package com.ferronica.app.web.rest;
+
+import static com.ferronica.app.web.rest.TestUtil.sameNumber;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.ferronica.app.IntegrationTest;
+import com.ferronica.app.domain.Articulo;
+import com.ferronica.app.domain.Categoria;
+import com.ferronica.app.domain.DetalleDevolucion;
+import com.ferronica.app.domain.DetalleIngreso;
+import com.ferronica.app.domain.DetalleVenta;
+import com.ferronica.app.domain.Devolucion;
+import com.ferronica.app.domain.Ingreso;
+import com.ferronica.app.domain.Proveedor;
+import com.ferronica.app.domain.Venta;
+import com.ferronica.app.security.AuthoritiesConstants;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.TimeZone;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link ReporteResource} REST controller.
+ * <p>
+ * The fixtures are dated in 2001, so the data of other tests never falls in
+ * the ranges queried here.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+class ReporteResourceIT {
+
+    private static final String COMPRAS_API_URL = "/api/reportes/compras-proveedor";
+
+    private static final String GANANCIAS_API_URL = "/api/reportes/ganancias";
+
+    private static final String RANGO = "desde=2001-01-01T00:00:00Z&hasta=2001-02-01T00:00:00Z";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restReporteMockMvc;
+
+    private Categoria herramientas;
+
+    private Categoria martillos;
+
+    private Categoria pinturas;
+
+    private Articulo martillo;
+
+    private Articulo pintura;
+
+    @Test
+    @Transactional
+    void getComprasPorProveedorOrdersByTotalAndSkipsInactiveIngresos() throws Exception {
+        Proveedor ferreteria = proveedor("Ferretería Central");
+        Proveedor cementera = proveedor("Cementos del Norte");
+        Articulo martillo = articulo("REP-C1");
+        Articulo cemento = articulo("REP-C2");
+        Ingreso primera = ingreso(ferreteria, "2001-01-05T10:00:00Z", true);
+        linea(primera, martillo, "10", "100.00");
+        linea(primera, cemento, "5", "50.00");
+        linea(ingreso(ferreteria, "2001-01-20T10:00:00Z", true), martillo, "3", "30.00");
+        linea(ingreso(cementera, "2001-01-10T10:00:00Z", true), cemento, "50", "500.00");
+        // Ni el ingreso anulado ni el de fuera del rango cuentan
+        linea(ingreso(ferreteria, "2001-01-15T10:00:00Z", false), martillo, "100", "1000.00");
+        linea(ingreso(ferreteria, "2001-02-01T00:00:00Z", true), martillo, "100", "1000.00");
+        em.flush();
+
+        restReporteMockMvc
+            .perform(get(COMPRAS_API_URL + "?" + RANGO))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$[0].proveedorId").value(cementera.getId().intValue()))
+            .andExpect(jsonPath("$[0].total").value(sameNumber(new BigDecimal("500.00"))))
+            .andExpect(jsonPath("$[0].compras").value(1))
+            .andExpect(jsonPath("$[1].proveedorId").value(ferreteria.getId().intValue()))
+            .andExpect(jsonPath("$[1].total").value(sameNumber(new BigDecimal("180.00"))))
+            .andExpect(jsonPath("$[1].compras").value(2))
+            .andExpect(jsonPath("$[1].ultimaCompra").value("2001-01-20T10:00:00Z"));
+
+        // Segunda página de uno en uno
+        restReporteMockMvc
+            .perform(get(COMPRAS_API_URL + "?" + RANGO + "&page=1&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].proveedorId").value(ferreteria.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getComprasPorArticuloTotalsTheLinesOfTheProveedor() throws Exception {
+        Proveedor ferreteria = proveedor("Ferretería Central");
+        Proveedor otro = proveedor("Distribuidora Sur");
+        Articulo martillo = articulo("REP-A1");
+        Articulo clavo = articulo("REP-A2");
+        Ingreso primera = ingreso(ferreteria, "2001-01-05T10:00:00Z", true);
+        linea(primera, martillo, "10", "100.00");
+        linea(primera, clavo, "5", "50.00");
+        linea(ingreso(ferreteria, "2001-01-20T10:00:00Z", true), martillo, "5", "30.00");
+        // Otro proveedor: no suma
+        linea(ingreso(otro, "2001-01-10T10:00:00Z", true), clavo, "100", "900.00");
+        em.flush();
+
+        restReporteMockMvc
+            .perform(get(COMPRAS_API_URL + "/" + ferreteria.getId() + "/articulos?" + RANGO))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$[0].articuloId").value(martillo.getId().intValue()))
+            .andExpect(jsonPath("$[0].compras").value(2))
+            .andExpect(jsonPath("$[0].cantidad").value(sameNumber(new BigDecimal("15"))))
+            .andExpect(jsonPath("$[0].total").value(sameNumber(new BigDecimal("130.00"))))
+            .andExpect(jsonPath("$[0].costoPromedio").value(sameNumber(new BigDecimal("8.67"))))
+            .andExpect(jsonPath("$[1].articuloId").value(clavo.getId().intValue()))
+            .andExpect(jsonPath("$[1].total").value(sameNumber(new BigDecimal("50.00"))));
+    }
+
+    @Test
+    @Transactional
+    void getComprasAnswersNotModifiedAndRejectsEmptyRanges() throws Exception {
+        String etag = restReporteMockMvc
+            .perform(get(COMPRAS_API_URL + "?" + RANGO))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restReporteMockMvc
+            .perform(get(COMPRAS_API_URL + "?" + RANGO).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+
+        restReporteMockMvc
+            .perform(get(COMPRAS_API_URL + "?desde=2001-02-01T00:00:00Z&hasta=2001-01-01T00:00:00Z"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getGananciasNetsReturnsAndSkipsCancelledVentas() throws Exception {
+        ventasDeEnero();
+
+        // 300 vendidos menos 65 devueltos; la venta anulada no cuenta
+        restReporteMockMvc
+            .perform(get(GANANCIAS_API_URL + "?" + RANGO))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.cantidad").value(sameNumber(new BigDecimal("11"))))
+            .andExpect(jsonPath("$.ventas").value(sameNumber(new BigDecimal("235.00"))))
+            .andExpect(jsonPath("$.costo").value(sameNumber(new BigDecimal("141.00"))))
+            .andExpect(jsonPath("$.utilidad").value(sameNumber(new BigDecimal("94.00"))))
+            .andExpect(jsonPath("$.margen").value(sameNumber(new BigDecimal("40.00"))));
+
+        // Un rango sin movimientos sale en cero y sin margen
+        restReporteMockMvc
+            .perform(get(GANANCIAS_API_URL + "?desde=2001-03-01T00:00:00Z&hasta=2001-04-01T00:00:00Z"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.cantidad").value(sameNumber(BigDecimal.ZERO)))
+            .andExpect(jsonPath("$.ventas").value(sameNumber(BigDecimal.ZERO)))
+            .andExpect(jsonPath("$.utilidad").value(sameNumber(BigDecimal.ZERO)))
+            .andExpect(jsonPath("$.margen").isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void getGananciasPorArticuloFiltersByCategoriaSubtreeAndPages() throws Exception {
+        ventasDeEnero();
+
+        restReporteMockMvc
+            .perform(get(GANANCIAS_API_URL + "/articulos?" + RANGO))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$[0].articuloId").value(martillo.getId().intValue()))
+            .andExpect(jsonPath("$[0].categoria").value(martillos.getNombre()))
+            .andExpect(jsonPath("$[0].cantidad").value(sameNumber(new BigDecimal("8"))))
+            .andExpect(jsonPath("$[0].ventas").value(sameNumber(new BigDecimal("160.00"))))
+            .andExpect(jsonPath("$[0].costo").value(sameNumber(new BigDecimal("96.00"))))
+            .andExpect(jsonPath("$[0].utilidad").value(sameNumber(new BigDecimal("64.00"))))
+            .andExpect(jsonPath("$[1].articuloId").value(pintura.getId().intValue()))
+            .andExpect(jsonPath("$[1].cantidad").value(sameNumber(new BigDecimal("3"))))
+            .andExpect(jsonPath("$[1].utilidad").value(sameNumber(new BigDecimal("30.00"))));
+
+        // La raíz incluye los artículos de sus subcategorías
+        restReporteMockMvc
+            .perform(get(GANANCIAS_API_URL + "/articulos?" + RANGO + "&categoriaId=" + herramientas.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$[0].articuloId").value(martillo.getId().intValue()));
+
+        restReporteMockMvc
+            .perform(get(GANANCIAS_API_URL + "/articulos?" + RANGO + "&page=1&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].articuloId").value(pintura.getId().intValue()));
+
+        // Más allá de la última página: vacía, pero con el total
+        restReporteMockMvc
+            .perform(get(GANANCIAS_API_URL + "/articulos?" + RANGO + "&page=3&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    @Transactional
+    void getGananciasPorCategoriaOrdersByProfit() throws Exception {
+        ventasDeEnero();
+
+        restReporteMockMvc
+            .perform(get(GANANCIAS_API_URL + "/categorias?" + RANGO))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$[0].categoriaId").value(martillos.getId().intValue()))
+            .andExpect(jsonPath("$[0].utilidad").value(sameNumber(new BigDecimal("64.00"))))
+            .andExpect(jsonPath("$[1].categoriaId").value(pinturas.getId().intValue()))
+            .andExpect(jsonPath("$[1].ventas").value(sameNumber(new BigDecimal("75.00"))))
+            .andExpect(jsonPath("$[1].utilidad").value(sameNumber(new BigDecimal("30.00"))))
+            .andExpect(jsonPath("$[1].margen").value(sameNumber(new BigDecimal("40.00"))));
+    }
+
+    @Test
+    @Transactional
+    void getGananciasPorSemanaCountsReturnsWhenRegisteredAndPagesEmptyWeeks() throws Exception {
+        ventasDeEnero();
+
+        // El 1 de enero de 2001 es lunes: cinco semanas, la última cortada al rango
+        restReporteMockMvc
+            .perform(get(GANANCIAS_API_URL + "/periodos?" + RANGO + "&periodo=semana&zona=UTC&size=3"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "5"))
+            .andExpect(jsonPath("$.length()").value(3))
+            // La devolución de una venta de diciembre cuenta en la semana en que se registró
+            .andExpect(jsonPath("$[0].inicio").value("2001-01-01T00:00:00Z"))
+            .andExpect(jsonPath("$[0].cantidad").value(sameNumber(new BigDecimal("-1"))))
+            .andExpect(jsonPath("$[0].ventas").value(sameNumber(new BigDecimal("-25.00"))))
+            .andExpect(jsonPath("$[1].inicio").value("2001-01-08T00:00:00Z"))
+            .andExpect(jsonPath("$[1].ventas").value(sameNumber(new BigDecimal("300.00"))))
+            .andExpect(jsonPath("$[1].costo").value(sameNumber(new BigDecimal("180.00"))))
+            .andExpect(jsonPath("$[2].inicio").value("2001-01-15T00:00:00Z"))
+            .andExpect(jsonPath("$[2].utilidad").value(sameNumber(new BigDecimal("-16.00"))));
+
+        // Las semanas sin movimientos salen en cero
+        restReporteMockMvc
+            .perform(get(GANANCIAS_API_URL + "/periodos?" + RANGO + "&periodo=semana&zona=UTC&page=1&size=3"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "5"))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].inicio").value("2001-01-22T00:00:00Z"))
+            .andExpect(jsonPath("$[0].ventas").value(sameNumber(BigDecimal.ZERO)))
+            .andExpect(jsonPath("$[1].inicio").value("2001-01-29T00:00:00Z"))
+            .andExpect(jsonPath("$[1].fin").value("2001-02-01T00:00:00Z"))
+            .andExpect(jsonPath("$[1].margen").isEmpty());
+
+        restReporteMockMvc
+            .perform(get(GANANCIAS_API_URL + "/periodos?" + RANGO + "&periodo=semana&zona=UTC&page=2&size=3"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "5"))
+            .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    @Transactional
+    void getGananciasPorDiaFollowsTheZoneAcrossDaylightSavingTime() throws Exception {
+        martillo = articulo("REP-G3");
+        // 00:30 del 2 de abril en Nueva York, ya en horario de verano
+        vendido(venta("2001-04-02T04:30:00Z", false), martillo, "1", "20.00", "12.00");
+        em.flush();
+
+        // El 1 de abril de 2001 dura 23 horas en Nueva York
+        restReporteMockMvc
+            .perform(
+                get(
+                    GANANCIAS_API_URL +
+                    "/periodos?desde=2001-03-31T05:00:00Z&hasta=2001-04-03T04:00:00Z&periodo=dia&zona=America/New_York"
+                )
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "3"))
+            .andExpect(jsonPath("$[1].inicio").value("2001-04-01T05:00:00Z"))
+            .andExpect(jsonPath("$[1].fin").value("2001-04-02T04:00:00Z"))
+            .andExpect(jsonPath("$[1].cantidad").value(sameNumber(BigDecimal.ZERO)))
+            .andExpect(jsonPath("$[2].inicio").value("2001-04-02T04:00:00Z"))
+            .andExpect(jsonPath("$[2].cantidad").value(sameNumber(BigDecimal.ONE)))
+            .andExpect(jsonPath("$[2].utilidad").value(sameNumber(new BigDecimal("8.00"))));
+    }
+
+    @Test
+    @Transactional
+    void getGananciasPorSemanaStartsOnMondayInTheZone() throws Exception {
+        martillo = articulo("REP-G4");
+        // Domingo 7 de enero a las 21:00 en Managua, aunque en UTC ya sea lunes
+        vendido(venta("2001-01-08T03:00:00Z", false), martillo, "2", "40.00", "12.00");
+        em.flush();
+
+        restReporteMockMvc
+            .perform(
+                get(
+                    GANANCIAS_API_URL +
+                    "/periodos?desde=2001-01-01T06:00:00Z&hasta=2001-01-15T06:00:00Z&periodo=semana&zona=America/Managua"
+                )
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$[0].fin").value("2001-01-08T06:00:00Z"))
+            .andExpect(jsonPath("$[0].cantidad").value(sameNumber(new BigDecimal("2"))))
+            .andExpect(jsonPath("$[1].cantidad").value(sameNumber(BigDecimal.ZERO)));
+    }
+
+    @Test
+    @Transactional
+    void getGananciasBindsTheRangeInUtcWhateverTheDefaultZone() throws Exception {
+        martillo = articulo("REP-G5");
+        // 16:00 del 31 de enero en Managua: aún enero en UTC, por dos horas
+        vendido(venta("2001-01-31T22:00:00Z", false), martillo, "3", "60.00", "12.00");
+        vendido(venta("2001-02-01T03:00:00Z", false), martillo, "7", "140.00", "12.00");
+        em.flush();
+
+        TimeZone zonaPorDefecto = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Managua"));
+        try {
+            restReporteMockMvc
+                .perform(get(GANANCIAS_API_URL + "?" + RANGO))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cantidad").value(sameNumber(new BigDecimal("3"))))
+                .andExpect(jsonPath("$.ventas").value(sameNumber(new BigDecimal("60.00"))));
+
+            restReporteMockMvc
+                .perform(get(GANANCIAS_API_URL + "/periodos?desde=2001-01-31T00:00:00Z&hasta=2001-02-02T00:00:00Z&periodo=dia&zona=UTC"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "2"))
+                .andExpect(jsonPath("$[0].cantidad").value(sameNumber(new BigDecimal("3"))))
+                .andExpect(jsonPath("$[1].cantidad").value(sameNumber(new BigDecimal("7"))));
+        } finally {
+            TimeZone.setDefault(zonaPorDefecto);
+        }
+    }
+
+    @Test
+    @Transactional
+    void getGananciasPorPeriodoRejectsUnknownPeriodsAndZones() throws Exception {
+        restReporteMockMvc.perform(get(GANANCIAS_API_URL + "/periodos?" + RANGO + "&periodo=hora")).andExpect(status().isBadRequest());
+        restReporteMockMvc
+            .perform(get(GANANCIAS_API_URL + "/periodos?" + RANGO + "&zona=Marte/Olimpo"))
+            .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Ventas de enero de 2001: martillos (bajo herramientas) y pinturas, una
+     * venta anulada, una devolución de enero y otra de una venta de diciembre.
+     * Todas las líneas dejan un margen del 40 %.
+     */
+    private void ventasDeEnero() {
+        herramientas = categoria("Herramientas", null);
+        martillos = categoria("Martillos", herramientas);
+        pinturas = categoria("Pinturas", null);
+        martillo = articulo("REP-G1");
+        martillo.setCategoria(martillos);
+        pintura = articulo("REP-G2");
+        pintura.setCategoria(pinturas);
+
+        Venta enero = venta("2001-01-10T15:00:00Z", false);
+        vendido(enero, martillo, "10", "200.00", "12.00");
+        vendido(enero, pintura, "4", "100.00", "15.00");
+        devuelto(enero, "2001-01-20T15:00:00Z", martillo, "2");
+        vendido(venta("2001-01-12T15:00:00Z", true), martillo, "5", "100.00", "10.00");
+        Venta diciembre = venta("2000-12-28T15:00:00Z", false);
+        vendido(diciembre, pintura, "2", "50.00", "15.00");
+        devuelto(diciembre, "2001-01-05T15:00:00Z", pintura, "1");
+        em.flush();
+    }
+
+    private Proveedor proveedor(String nombre) {
+        Proveedor proveedor = ProveedorResourceIT.createEntity().nombre(nombre).activo(true);
+        em.persist(proveedor);
+        return proveedor;
+    }
+
+    private Articulo articulo(String codigo) {
+        Articulo articulo = ArticuloResourceIT.createEntity().codigo(codigo).activo(true);
+        em.persist(articulo);
+        return articulo;
+    }
+
+    private Ingreso ingreso(Proveedor proveedor, String fecha, boolean activo) {
+        Ingreso ingreso = IngresoResourceIT.createEntity().fecha(Instant.parse(fecha)).activo(activo).proveedor(proveedor);
+        em.persist(ingreso);
+        return ingreso;
+    }
+
+    private Categoria categoria(String nombre, Categoria padre) {
+        Categoria categoria = CategoriaResourceIT.createEntity().nombre(nombre).padre(padre);
+        em.persist(categoria);
+        return categoria;
+    }
+
+    private Venta venta(String fecha, boolean anulada) {
+        Venta venta = VentaResourceIT.createEntity().fecha(Instant.parse(fecha)).anulada(anulada);
+        em.persist(venta);
+        return venta;
+    }
+
+    private void vendido(Venta venta, Articulo articulo, String cantidad, String monto, String costoUnitario) {
+        DetalleVenta detalle = DetalleVentaResourceIT.createEntity()
+            .venta(venta)
+            .articulo(articulo)
+            .cantidad(new BigDecimal(cantidad))
+            .monto(new BigDecimal(monto))
+            .costoUnitario(new BigDecimal(costoUnitario));
+        em.persist(detalle);
+    }
+
+    private void devuelto(Venta venta, String fecha, Articulo articulo, String cantidad) {
+        Devolucion devolucion = DevolucionResourceIT.createEntity().fecha(Instant.parse(fecha)).venta(venta);
+        DetalleDevolucion detalle = new DetalleDevolucion();
+        detalle.setArticulo(articulo);
+        detalle.setCantidad(new BigDecimal(cantidad));
+        detalle.setPrecioUnitario(BigDecimal.ZERO);
+        detalle.setMontoTotal(BigDecimal.ZERO);
+        devolucion.addDetalles(detalle);
+        em.persist(devolucion);
+    }
+
+    private void linea(Ingreso ingreso, Articulo articulo, String cantidad, String monto) {
+        DetalleIngreso detalle = DetalleIngresoResourceIT.createEntity()
+            .ingreso(ingreso)
+            .articulo(articulo)
+            .cantidad(new BigDecimal(cantidad))
+            .monto(new BigDecimal(monto));
+        em.persist(detalle);
+    }
+}
@@ -0,0 +1,297 @@
+package com.ferronica.app.web.rest;
+
+import static com.ferronica.app.web.rest.TestUtil.sameNumber;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ferronica.app.IntegrationTest;
+import com.ferronica.app.domain.Articulo;
+import com.ferronica.app.domain.SesionCaja;
+import com.ferronica.app.domain.Usuario;
+import com.ferronica.app.domain.enumeration.MetodoPagoEnum;
+import com.ferronica.app.security.AuthoritiesConstants;
+import com.ferronica.app.service.dto.ArticuloDTO;
+import com.ferronica.app.service.dto.DetalleVentaDTO;
+import com.ferronica.app.service.dto.SesionCajaDTO;
+import com.ferronica.app.service.dto.VentaDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link SesionCajaResource} REST controller and the
+ * totals accumulated by checkout and cancellation.
+ * <p>
+ * The session belongs to the usuario of the token subject, so the requests
+ * are authenticated with a JWT instead of a mock user.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@Transactional
+class SesionCajaResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/sesiones-caja";
+
+    private static final String ID_KEYCLOAK = "sesion-caja-it";
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restSesionCajaMockMvc;
+
+    private Usuario usuario;
+
+    private Articulo articulo;
+
+    @BeforeEach
+    void initTest() {
+        usuario = UsuarioResourceIT.createEntity().idKeycloak(ID_KEYCLOAK);
+        em.persist(usuario);
+        articulo = ArticuloResourceIT.createEntity().existencia(new BigDecimal("100"));
+        em.persist(articulo);
+        em.flush();
+    }
+
+    @Test
+    void abrirSesionCaja() throws Exception {
+        restSesionCajaMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/abrir").with(csrf()).with(cajero()).contentType(MediaType.APPLICATION_JSON).content(monto("100"))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").isNumber())
+            .andExpect(jsonPath("$.montoInicial").value(sameNumber(new BigDecimal("100"))))
+            .andExpect(jsonPath("$.fechaCierre").value(nullValue()))
+            .andExpect(jsonPath("$.totales", hasSize(0)));
+
+        restSesionCajaMockMvc
+            .perform(get(ENTITY_API_URL + "/actual").with(cajero()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.usuario.id").value(usuario.getId()));
+    }
+
+    @Test
+    void abrirSesionCajaTwiceIsRejected() throws Exception {
+        abrir();
+
+        restSesionCajaMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/abrir").with(csrf()).with(cajero()).contentType(MediaType.APPLICATION_JSON).content(monto("50"))
+            )
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    void databaseAllowsOneOpenSessionPerUsuario() {
+        em.persist(new SesionCaja().fechaApertura(Instant.now()).montoInicial(BigDecimal.ZERO).usuario(usuario));
+        em.flush();
+        // Una cerrada no cuenta
+        em.persist(
+            new SesionCaja().fechaApertura(Instant.now()).fechaCierre(Instant.now()).montoInicial(BigDecimal.ZERO).usuario(usuario)
+        );
+        em.flush();
+
+        em.persist(new SesionCaja().fechaApertura(Instant.now()).montoInicial(BigDecimal.ZERO).usuario(usuario));
+        assertThatThrownBy(() -> em.flush()).isInstanceOf(PersistenceException.class);
+    }
+
+    @Test
+    void cerrarSesionCaja() throws Exception {
+        Long sesionId = abrir();
+
+        restSesionCajaMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/cerrar").with(csrf()).with(cajero()).contentType(MediaType.APPLICATION_JSON).content(contado("150"))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(sesionId))
+            .andExpect(jsonPath("$.fechaCierre").isNotEmpty())
+            .andExpect(jsonPath("$.montoContado").value(sameNumber(new BigDecimal("150"))));
+
+        restSesionCajaMockMvc.perform(get(ENTITY_API_URL + "/actual").with(cajero())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void cerrarSesionCajaWithoutAnOpenOneIsRejected() throws Exception {
+        restSesionCajaMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/cerrar").with(csrf()).with(cajero()).contentType(MediaType.APPLICATION_JSON).content(contado("0"))
+            )
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    void checkoutAccumulatesIntoTheOpenSession() throws Exception {
+        abrir();
+
+        checkout("10.00", "2.00");
+        checkout("15.50", "4.50");
+
+        restSesionCajaMockMvc
+            .perform(get(ENTITY_API_URL + "/actual").with(cajero()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totales", hasSize(1)))
+            .andExpect(jsonPath("$.totales[0].metodoPago").value(MetodoPagoEnum.EFECTIVO.toString()))
+            .andExpect(jsonPath("$.totales[0].cantidadVentas").value(2))
+            .andExpect(jsonPath("$.totales[0].total").value(sameNumber(new BigDecimal("25.50"))))
+            .andExpect(jsonPath("$.totales[0].cambio").value(sameNumber(new BigDecimal("6.50"))))
+            .andExpect(jsonPath("$.totales[0].cantidadAnuladas").value(0));
+    }
+
+    @Test
+    void checkoutWithoutAnOpenSessionIsNotAccumulated() throws Exception {
+        checkout("10.00", "0");
+        Long sesionId = abrir();
+
+        restSesionCajaMockMvc
+            .perform(get(ENTITY_API_URL + "/" + sesionId).with(cajero()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totales", hasSize(0)));
+    }
+
+    @Test
+    void anularAccumulatesOnTheRowOfTheSale() throws Exception {
+        abrir();
+        Long ventaId = checkout("10.00", "0");
+        checkout("20.00", "0");
+
+        anular(ventaId);
+
+        restSesionCajaMockMvc
+            .perform(get(ENTITY_API_URL + "/actual").with(cajero()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totales", hasSize(1)))
+            .andExpect(jsonPath("$.totales[0].cantidadVentas").value(2))
+            .andExpect(jsonPath("$.totales[0].total").value(sameNumber(new BigDecimal("30.00"))))
+            .andExpect(jsonPath("$.totales[0].cantidadAnuladas").value(1))
+            .andExpect(jsonPath("$.totales[0].totalAnulado").value(sameNumber(new BigDecimal("10.00"))));
+    }
+
+    @Test
+    void anularCreditsTheSessionTheVentaWasRungInto() throws Exception {
+        Long primeraId = abrir();
+        Long ventaId = checkout("10.00", "0");
+        cerrar();
+        Long segundaId = abrir();
+
+        anular(ventaId);
+
+        restSesionCajaMockMvc
+            .perform(get(ENTITY_API_URL + "/" + primeraId).with(cajero()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totales", hasSize(1)))
+            .andExpect(jsonPath("$.totales[0].cantidadVentas").value(1))
+            .andExpect(jsonPath("$.totales[0].cantidadAnuladas").value(1))
+            .andExpect(jsonPath("$.totales[0].totalAnulado").value(sameNumber(new BigDecimal("10.00"))));
+        restSesionCajaMockMvc
+            .perform(get(ENTITY_API_URL + "/" + segundaId).with(cajero()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totales", hasSize(0)));
+    }
+
+    private Long abrir() throws Exception {
+        String body = restSesionCajaMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/abrir").with(csrf()).with(cajero()).contentType(MediaType.APPLICATION_JSON).content(monto("0"))
+            )
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        return om.readValue(body, SesionCajaDTO.class).getId();
+    }
+
+    private void cerrar() throws Exception {
+        restSesionCajaMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/cerrar").with(csrf()).with(cajero()).contentType(MediaType.APPLICATION_JSON).content(contado("0"))
+            )
+            .andExpect(status().isOk());
+    }
+
+    private Long checkout(String total, String cambio) throws Exception {
+        DetalleVentaDTO linea = new DetalleVentaDTO();
+        ArticuloDTO articuloDTO = new ArticuloDTO();
+        articuloDTO.setId(articulo.getId());
+        linea.setArticulo(articuloDTO);
+        linea.setCantidad(BigDecimal.ONE);
+        linea.setPrecioVenta(new BigDecimal(total));
+        linea.setMonto(new BigDecimal(total));
+        VentaDTO venta = new VentaDTO();
+        venta.setSubtotal(new BigDecimal(total));
+        venta.setIva(BigDecimal.ZERO);
+        venta.setTotal(new BigDecimal(total));
+        venta.setTotalEnMonedaBase(new BigDecimal(total));
+        venta.setCambio(new BigDecimal(cambio));
+        venta.setMetodoPago(MetodoPagoEnum.EFECTIVO);
+        venta.setEsContado(true);
+        venta.setDetalles(List.of(linea));
+
+        String body = restSesionCajaMockMvc
+            .perform(
+                post("/api/ventas/checkout")
+                    .with(csrf())
+                    .with(cajero())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(venta))
+            )
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        return om.readValue(body, VentaDTO.class).getId();
+    }
+
+    private void anular(Long ventaId) throws Exception {
+        restSesionCajaMockMvc
+            .perform(
+                post("/api/ventas/anular")
+                    .with(csrf())
+                    .with(cajero())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(List.of(ventaId)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    private byte[] monto(String montoInicial) throws Exception {
+        SesionCajaDTO sesion = new SesionCajaDTO();
+        sesion.setMontoInicial(new BigDecimal(montoInicial));
+        return om.writeValueAsBytes(sesion);
+    }
+
+    private byte[] contado(String montoContado) throws Exception {
+        SesionCajaDTO sesion = new SesionCajaDTO();
+        sesion.setMontoContado(new BigDecimal(montoContado));
+        return om.writeValueAsBytes(sesion);
+    }
+
+    /**
+     * Token del usuario de la prueba: la caja se busca por el sujeto del JWT.
+     */
+    private static RequestPostProcessor cajero() {
+        return jwt().jwt(token -> token.subject(ID_KEYCLOAK)).authorities(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN));
+    }
+}
@@ -1,7 +1,11 @@
 package com.ferronica.app.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.jayway.jsonpath.JsonPath;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
@@ -9,8 +13,10 @@ import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
+import java.net.URI;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import org.hamcrest.Description;
 import org.hamcrest.TypeSafeDiagnosingMatcher;
@@ -21,6 +27,9 @@ import org.springframework.cglib.proxy.MethodProxy;
 import org.springframework.format.datetime.standard.DateTimeFormatterRegistrar;
 import org.springframework.format.support.DefaultFormattingConversionService;
 import org.springframework.format.support.FormattingConversionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
 
 /**
  * Utility class for testing REST controllers.
@@ -198,5 +207,32 @@ public final class TestUtil {
         return (T) e.create();
     }
 
+    /**
+     * Walks a keyset listing, following its {@code Link rel="next"} headers from
+     * the first page. Every page must answer {@code 200} without a
+     * {@code X-Total-Count} header.
+     * @param mockMvc The MockMvc of the resource
+     * @param url The URL of the first page, with an empty {@code cursor} parameter
+     * @return The ids of each page, in order
+     */
+    public static List<List<Long>> keysetPages(MockMvc mockMvc, String url) throws Exception {
+        List<List<Long>> pages = new ArrayList<>();
+        URI next = URI.create(url);
+        while (next != null) {
+            assertThat(pages).as("keyset pages of %s", url).hasSizeLessThan(100);
+            MockHttpServletResponse response = mockMvc
+                .perform(get(next))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andReturn()
+                .getResponse();
+            List<Number> ids = JsonPath.read(response.getContentAsString(), "$[*].id");
+            pages.add(ids.stream().map(Number::longValue).toList());
+            String link = response.getHeader(HttpHeaders.LINK);
+            next = link != null ? URI.create(link.substring(link.indexOf('<') + 1, link.indexOf('>'))) : null;
+        }
+        return pages;
+    }
+
     private TestUtil() {}
 }
@@ -0,0 +1,306 @@
+package com.ferronica.app.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ferronica.app.IntegrationTest;
+import com.ferronica.app.domain.Cliente;
+import com.ferronica.app.domain.DetalleVenta;
+import com.ferronica.app.domain.Moneda;
+import com.ferronica.app.domain.NumeracionFactura;
+import com.ferronica.app.domain.Usuario;
+import com.ferronica.app.domain.Venta;
+import com.ferronica.app.domain.enumeration.MetodoPagoEnum;
+import com.ferronica.app.security.AuthoritiesConstants;
+import com.ferronica.app.service.VentaExportService;
+import com.ferronica.app.service.VentaExportService.Formato;
+import com.ferronica.app.service.criteria.VentaCriteria;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the venta exports: the {@code /export} endpoints of
+ * {@link VentaResource} and {@link DetalleVentaResource}, and the rows written
+ * by {@link VentaExportService}.
+ * <p>
+ * The rows are written on an MVC async thread, outside the test transaction,
+ * so they are checked through the service; the endpoints are checked up to the
+ * start of the download.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@Transactional
+class VentaExportResourceIT {
+
+    private static final String VENTAS_EXPORT_URL = "/api/ventas/export";
+
+    private static final String DETALLES_EXPORT_URL = "/api/detalle-ventas/export";
+
+    @Autowired
+    private VentaExportService ventaExportService;
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restVentaMockMvc;
+
+    private Cliente cliente;
+
+    private Usuario usuario;
+
+    private Moneda moneda;
+
+    private NumeracionFactura numeracion;
+
+    private Venta contado;
+
+    private Venta credito;
+
+    private DetalleVenta linea;
+
+    @BeforeEach
+    void initTest() {
+        cliente = ClienteResourceIT.createEntity().nombre("Ferretería, \"El Clavo\"");
+        em.persist(cliente);
+        usuario = UsuarioResourceIT.createEntity();
+        em.persist(usuario);
+        moneda = MonedaResourceIT.createEntity();
+        em.persist(moneda);
+        numeracion = NumeracionFacturaResourceIT.createEntity().activo(false);
+        em.persist(numeracion);
+
+        contado = new Venta()
+            .fecha(Instant.parse("2001-01-10T15:00:00Z"))
+            .noFactura(1001L)
+            .subtotal(new BigDecimal("10.00"))
+            .iva(new BigDecimal("1.50"))
+            .total(new BigDecimal("11.50"))
+            .totalEnMonedaBase(new BigDecimal("11.50"))
+            .metodoPago(MetodoPagoEnum.EFECTIVO)
+            .stripeId("pi_contado")
+            .esContado(true)
+            .tipoCambioVenta(BigDecimal.ONE)
+            .anulada(false)
+            .cliente(cliente)
+            .usuario(usuario)
+            .moneda(moneda)
+            .numeracion(numeracion);
+        em.persist(contado);
+        linea = new DetalleVenta()
+            .cantidad(new BigDecimal("2"))
+            .precioVenta(new BigDecimal("5.00"))
+            .monto(new BigDecimal("10.00"))
+            .venta(contado);
+        em.persist(linea);
+
+        // Dos horas antes de fin de mes en UTC: es otro día en Managua
+        credito = new Venta()
+            .fecha(Instant.parse("2001-01-31T22:00:00Z"))
+            .noFactura(1002L)
+            .subtotal(new BigDecimal("20.00"))
+            .iva(new BigDecimal("3.00"))
+            .total(new BigDecimal("23.00"))
+            .totalEnMonedaBase(new BigDecimal("839.50"))
+            .metodoPago(MetodoPagoEnum.TARJETA_STRIPE)
+            .esContado(false)
+            .tipoCambioVenta(new BigDecimal("36.50"))
+            .anulada(true);
+        em.persist(credito);
+        em.flush();
+    }
+
+    @Test
+    void exportVentasStartsACsvDownloadByDefault() throws Exception {
+        restVentaMockMvc
+            .perform(get(VENTAS_EXPORT_URL))
+            .andExpect(request().asyncStarted())
+            .andExpect(content().contentType("text/csv;charset=UTF-8"))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"ventas.csv\""));
+        restVentaMockMvc
+            .perform(get(DETALLES_EXPORT_URL + "?formato=NDJSON"))
+            .andExpect(request().asyncStarted())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"detalle-ventas.ndjson\""));
+    }
+
+    @Test
+    void exportRejectsAnUnknownFormato() throws Exception {
+        restVentaMockMvc
+            .perform(get(VENTAS_EXPORT_URL + "?formato=xlsx"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.formatoinvalido"));
+        restVentaMockMvc
+            .perform(get(DETALLES_EXPORT_URL + "?formato=pdf"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.formatoinvalido"));
+    }
+
+    @Test
+    void exportVentasAsCsvQuotesTheFieldsThatNeedIt() {
+        String[] filas = exportar(ventaExportService::exportarVentas, soloDePrueba(), Formato.CSV).split("\r\n");
+
+        assertThat(filas).hasSize(3);
+        assertThat(filas[0]).isEqualTo(
+            "id,fecha,serie,no_factura,cliente_cedula,cliente,usuario,metodo_pago,moneda,subtotal,iva,descuento,total," +
+            "total_en_moneda_base,anulada"
+        );
+        assertThat(filas[1])
+            .startsWith(contado.getId() + ",2001-01-10T15:00:00Z," + numeracion.getSerie() + ",1001,")
+            .contains(",\"Ferretería, \"\"El Clavo\"\"\",")
+            .contains(",EFECTIVO,")
+            .endsWith(",11.50,11.50,false");
+        assertThat(filas[2]).startsWith(credito.getId() + ",2001-01-31T22:00:00Z,,1002,,,,TARJETA_STRIPE,").endsWith(",true");
+    }
+
+    @Test
+    void exportVentasAsNdjsonWritesOneObjectPerLine() throws Exception {
+        String[] filas = exportar(ventaExportService::exportarVentas, soloDePrueba(), Formato.NDJSON).split("\n");
+
+        assertThat(filas).hasSize(2);
+        JsonNode primera = om.readTree(filas[0]);
+        assertThat(primera.get("id").asLong()).isEqualTo(contado.getId());
+        assertThat(primera.get("fecha").asText()).isEqualTo("2001-01-10T15:00:00Z");
+        assertThat(primera.get("cliente").asText()).isEqualTo("Ferretería, \"El Clavo\"");
+        assertThat(primera.get("total").decimalValue()).isEqualByComparingTo("11.50");
+        assertThat(primera.get("anulada").asBoolean()).isFalse();
+        JsonNode segunda = om.readTree(filas[1]);
+        assertThat(segunda.get("id").asLong()).isEqualTo(credito.getId());
+        assertThat(segunda.get("cliente").isNull()).isTrue();
+        assertThat(segunda.get("anulada").asBoolean()).isTrue();
+    }
+
+    @Test
+    void exportDetallesWritesTheLinesWithTheirVenta() throws Exception {
+        String[] filas = exportar(ventaExportService::exportarDetalles, soloDePrueba(), Formato.NDJSON).split("\n");
+
+        assertThat(filas).hasSize(1);
+        JsonNode fila = om.readTree(filas[0]);
+        assertThat(fila.get("venta_id").asLong()).isEqualTo(contado.getId());
+        assertThat(fila.get("detalle_id").asLong()).isEqualTo(linea.getId());
+        assertThat(fila.get("no_factura").asLong()).isEqualTo(1001L);
+        assertThat(fila.get("cantidad").decimalValue()).isEqualByComparingTo("2");
+        assertThat(fila.get("monto").decimalValue()).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void exportAppliesEveryVentaCriteriaFilter() {
+        Map<String, Consumer<VentaCriteria>> soloContado = Map.ofEntries(
+            Map.entry("id.notEquals", c -> c.id().setNotEquals(credito.getId())),
+            Map.entry("fecha.lessThan", c -> c.fecha().setLessThan(Instant.parse("2001-01-20T00:00:00Z"))),
+            Map.entry("noFactura.equals", c -> c.noFactura().setEquals(1001L)),
+            Map.entry("subtotal.lessThanOrEqual", c -> c.subtotal().setLessThanOrEqual(new BigDecimal("10.00"))),
+            Map.entry("iva.lessThan", c -> c.iva().setLessThan(new BigDecimal("2"))),
+            Map.entry("total.in", c -> c.total().setIn(List.of(new BigDecimal("11.50")))),
+            Map.entry("totalEnMonedaBase.lessThan", c -> c.totalEnMonedaBase().setLessThan(new BigDecimal("100"))),
+            Map.entry("metodoPago.equals", c -> c.metodoPago().setEquals(MetodoPagoEnum.EFECTIVO)),
+            Map.entry("stripeId.contains", c -> c.stripeId().setContains("CONTADO")),
+            Map.entry("esContado.equals", c -> c.esContado().setEquals(true)),
+            Map.entry("tipoCambioVenta.lessThan", c -> c.tipoCambioVenta().setLessThan(new BigDecimal("2"))),
+            Map.entry("anulada.equals", c -> c.anulada().setEquals(false)),
+            Map.entry("clienteId.equals", c -> c.clienteId().setEquals(cliente.getId())),
+            Map.entry("usuarioId.equals", c -> c.usuarioId().setEquals(usuario.getId())),
+            Map.entry("monedaId.in", c -> c.monedaId().setIn(List.of(moneda.getId()))),
+            Map.entry("numeracionId.specified", c -> c.numeracionId().setSpecified(true)),
+            Map.entry("detallesId.equals", c -> c.detallesId().setEquals(linea.getId()))
+        );
+        Map<String, Consumer<VentaCriteria>> soloCredito = Map.ofEntries(
+            Map.entry("id.equals", c -> c.id().setEquals(credito.getId())),
+            Map.entry("fecha.greaterThanOrEqual", c -> c.fecha().setGreaterThanOrEqual(Instant.parse("2001-01-31T21:00:00Z"))),
+            Map.entry("noFactura.greaterThan", c -> c.noFactura().setGreaterThan(1001L)),
+            Map.entry("subtotal.greaterThan", c -> c.subtotal().setGreaterThan(new BigDecimal("10.00"))),
+            Map.entry("iva.notEquals", c -> c.iva().setNotEquals(new BigDecimal("1.50"))),
+            Map.entry("total.notIn", c -> c.total().setNotIn(List.of(new BigDecimal("11.50")))),
+            Map.entry("totalEnMonedaBase.greaterThanOrEqual", c -> c.totalEnMonedaBase().setGreaterThanOrEqual(new BigDecimal("100"))),
+            Map.entry("metodoPago.notEquals", c -> c.metodoPago().setNotEquals(MetodoPagoEnum.EFECTIVO)),
+            Map.entry("stripeId.specified", c -> c.stripeId().setSpecified(false)),
+            Map.entry("esContado.notEquals", c -> c.esContado().setNotEquals(true)),
+            Map.entry("tipoCambioVenta.greaterThan", c -> c.tipoCambioVenta().setGreaterThan(BigDecimal.ONE)),
+            Map.entry("anulada.in", c -> c.anulada().setIn(List.of(true))),
+            Map.entry("clienteId.specified", c -> c.clienteId().setSpecified(false)),
+            Map.entry("usuarioId.specified", c -> c.usuarioId().setSpecified(false)),
+            Map.entry("monedaId.specified", c -> c.monedaId().setSpecified(false)),
+            Map.entry("numeracionId.specified", c -> c.numeracionId().setSpecified(false)),
+            Map.entry("detallesId.specified", c -> c.detallesId().setSpecified(false))
+        );
+
+        soloContado.forEach((filtro, aplicar) -> assertThat(idsExportados(aplicar)).as(filtro).containsExactly(contado.getId()));
+        soloCredito.forEach((filtro, aplicar) -> assertThat(idsExportados(aplicar)).as(filtro).containsExactly(credito.getId()));
+        assertThat(idsExportados(c -> c.stripeId().setDoesNotContain("contado"))).containsExactly();
+    }
+
+    @Test
+    void exportBindsTheFechaRangeInUtcWhateverTheDefaultZone() {
+        TimeZone zonaPorDefecto = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Managua"));
+        try {
+            assertThat(idsExportados(c -> c.fecha().setLessThan(Instant.parse("2001-02-01T00:00:00Z")))).containsExactly(
+                contado.getId(),
+                credito.getId()
+            );
+            assertThat(idsExportados(c -> c.fecha().setGreaterThan(Instant.parse("2001-01-31T20:00:00Z")))).containsExactly(
+                credito.getId()
+            );
+            // La fecha exportada tampoco pasa por la zona de la JVM
+            assertThat(exportar(ventaExportService::exportarVentas, soloDePrueba(), Formato.CSV)).contains(
+                ",2001-01-31T22:00:00Z,"
+            );
+        } finally {
+            TimeZone.setDefault(zonaPorDefecto);
+        }
+    }
+
+    /**
+     * Criterios limitados a las dos ventas de la prueba.
+     */
+    private VentaCriteria soloDePrueba() {
+        VentaCriteria criteria = new VentaCriteria();
+        criteria.id().setIn(List.of(contado.getId(), credito.getId()));
+        return criteria;
+    }
+
+    private List<Long> idsExportados(Consumer<VentaCriteria> filtro) {
+        VentaCriteria criteria = soloDePrueba();
+        filtro.accept(criteria);
+        String csv = exportar(ventaExportService::exportarVentas, criteria, Formato.CSV);
+        return Arrays.stream(csv.split("\r\n"))
+            .skip(1)
+            .filter(fila -> !fila.isEmpty())
+            .map(fila -> Long.valueOf(fila.substring(0, fila.indexOf(','))))
+            .toList();
+    }
+
+    private static String exportar(Exportador exportador, VentaCriteria criteria, Formato formato) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportador.exportar(criteria, formato, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface Exportador {
+        void exportar(VentaCriteria criteria, Formato formato, ByteArrayOutputStream out);
+    }
+}
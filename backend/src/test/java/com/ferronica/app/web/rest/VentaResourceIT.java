@@ -4,6 +4,7 @@ import static com.ferronica.app.domain.VentaAsserts.*;
 import static com.ferronica.app.web.rest.TestUtil.createUpdateProxyForBean;
 import static com.ferronica.app.web.rest.TestUtil.sameNumber;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -11,6 +12,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ferronica.app.IntegrationTest;
+import com.ferronica.app.domain.Articulo;
 import com.ferronica.app.domain.Cliente;
 import com.ferronica.app.domain.Moneda;
 import com.ferronica.app.domain.NumeracionFactura;
@@ -18,12 +20,22 @@ import com.ferronica.app.domain.Usuario;
 import com.ferronica.app.domain.Venta;
 import com.ferronica.app.domain.enumeration.MetodoPagoEnum;
 import com.ferronica.app.repository.VentaRepository;
+import com.ferronica.app.security.AuthoritiesConstants;
+import com.ferronica.app.service.InventoryService;
+import com.ferronica.app.service.KeysetCursor;
+import com.ferronica.app.service.dto.ArticuloDTO;
+import com.ferronica.app.service.dto.DetalleVentaDTO;
 import com.ferronica.app.service.dto.VentaDTO;
 import com.ferronica.app.service.mapper.VentaMapper;
 import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
@@ -31,7 +43,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -41,7 +55,7 @@ import org.springframework.transaction.annotation.Transactional;
  */
 @IntegrationTest
 @AutoConfigureMockMvc
-@WithMockUser
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
 class VentaResourceIT {
 
     private static final Instant DEFAULT_FECHA = Instant.ofEpochMilli(0L);
@@ -104,6 +118,12 @@ class VentaResourceIT {
     @Autowired
     private MockMvc restVentaMockMvc;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryService inventoryService;
+
     private Venta venta;
 
     private Venta insertedVenta;
@@ -1109,6 +1129,19 @@ class VentaResourceIT {
         defaultVentaShouldNotBeFound("numeracionId.equals=" + (numeracionId + 1));
     }
 
+    @Test
+    @Transactional
+    void noFacturaIsUniquePerNumeracionAcrossPartitions() {
+        NumeracionFactura numeracion = NumeracionFacturaResourceIT.createEntity();
+        em.persist(numeracion);
+        venta.setNumeracion(numeracion);
+        ventaRepository.saveAndFlush(venta);
+
+        // Same series and number a month later: a unique index on venta could not catch it
+        Venta repetida = createEntity().numeracion(numeracion).fecha(DEFAULT_FECHA.plus(40, ChronoUnit.DAYS));
+        assertThatThrownBy(() -> ventaRepository.saveAndFlush(repetida)).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
     private void defaultVentaFiltering(String shouldBeFound, String shouldNotBeFound) throws Exception {
         defaultVentaShouldBeFound(shouldBeFound);
         defaultVentaShouldNotBeFound(shouldNotBeFound);
@@ -1162,6 +1195,46 @@ class VentaResourceIT {
                 .andExpect(content().string("0"));
     }
 
+    @Test
+    @Transactional
+    void getAllVentasWithCursorWalksEveryPageOnce() throws Exception {
+        // Tres ventas a la misma hora: el id desempata
+        String stripeId = "KEY-" + longCount.incrementAndGet();
+        Instant empate = Instant.parse("2001-02-01T10:00:00Z");
+        List<Venta> ventas = new ArrayList<>();
+        for (Instant fecha : List.of(empate, Instant.parse("2001-02-02T10:00:00Z"), empate,
+                Instant.parse("2001-01-31T10:00:00Z"), empate)) {
+            Venta guardada = createEntity().fecha(fecha).noFactura(longCount.incrementAndGet()).stripeId(stripeId);
+            em.persist(guardada);
+            ventas.add(guardada);
+        }
+        em.flush();
+        List<Long> esperados = ventas.stream()
+                .sorted(Comparator.comparing(Venta::getFecha).thenComparing(Venta::getId).reversed())
+                .map(Venta::getId)
+                .toList();
+
+        // El orden del cursor manda sobre sort
+        List<List<Long>> paginas = TestUtil.keysetPages(restVentaMockMvc,
+                ENTITY_API_URL + "?stripeId.equals=" + stripeId + "&sort=id,asc&size=2&cursor=");
+        assertThat(paginas).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(paginas.stream().flatMap(List::stream).toList()).containsExactlyElementsOf(esperados);
+    }
+
+    @Test
+    @Transactional
+    void getAllVentasWithInvalidCursorIsRejected() throws Exception {
+        restVentaMockMvc
+                .perform(get(ENTITY_API_URL + "?cursor=no-es-un-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("error.cursorinvalid"));
+        // Un cursor de id sin fecha no sirve para un listado por fecha
+        restVentaMockMvc
+                .perform(get(ENTITY_API_URL + "?cursor=" + KeysetCursor.of(1L).encode()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("error.cursorinvalid"));
+    }
+
     @Test
     @Transactional
     void getNonExistingVenta() throws Exception {
@@ -1183,7 +1256,6 @@ class VentaResourceIT {
         // saved in db
         em.detach(updatedVenta);
         updatedVenta
-                .fecha(UPDATED_FECHA)
                 .noFactura(UPDATED_NO_FACTURA)
                 .subtotal(UPDATED_SUBTOTAL)
                 .iva(UPDATED_IVA)
@@ -1204,11 +1276,35 @@ class VentaResourceIT {
                                 .content(om.writeValueAsBytes(ventaDTO)))
                 .andExpect(status().isOk());
 
-        // Validate the Venta in the database
+        // Validate the Venta in the database, read back from the table rather than the session
+        em.flush();
+        em.clear();
         assertSameRepositoryCount(databaseSizeBeforeUpdate);
         assertPersistedVentaToMatchAllProperties(updatedVenta);
     }
 
+    @Test
+    @Transactional
+    void putVentaChangingFechaIsRejected() throws Exception {
+        insertedVenta = ventaRepository.saveAndFlush(venta);
+
+        // La fecha es la clave de partición: cambiarla no se ignora en silencio
+        VentaDTO ventaDTO = ventaMapper.toDto(venta);
+        ventaDTO.setFecha(UPDATED_FECHA);
+        restVentaMockMvc
+                .perform(
+                        put(ENTITY_API_URL_ID, ventaDTO.getId())
+                                .with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(om.writeValueAsBytes(ventaDTO)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("error.fechainmutable"));
+
+        em.flush();
+        em.clear();
+        assertThat(getPersistedVenta(venta).getFecha()).isEqualTo(DEFAULT_FECHA);
+    }
+
     @Test
     @Transactional
     void putNonExistingVenta() throws Exception {
@@ -1319,7 +1415,7 @@ class VentaResourceIT {
         partialUpdatedVenta.setId(venta.getId());
 
         partialUpdatedVenta
-                .fecha(UPDATED_FECHA)
+                .fecha(DEFAULT_FECHA)
                 .noFactura(UPDATED_NO_FACTURA)
                 .subtotal(UPDATED_SUBTOTAL)
                 .iva(UPDATED_IVA)
@@ -1339,12 +1435,38 @@ class VentaResourceIT {
                                 .content(om.writeValueAsBytes(partialUpdatedVenta)))
                 .andExpect(status().isOk());
 
-        // Validate the Venta in the database
-
+        // Validate the Venta in the database, read back from the table rather than the session
+        em.flush();
+        em.clear();
         assertSameRepositoryCount(databaseSizeBeforeUpdate);
         assertVentaUpdatableFieldsEquals(partialUpdatedVenta, getPersistedVenta(partialUpdatedVenta));
     }
 
+    @Test
+    @Transactional
+    void patchVentaChangingFechaIsRejected() throws Exception {
+        insertedVenta = ventaRepository.saveAndFlush(venta);
+
+        Venta partialUpdatedVenta = new Venta();
+        partialUpdatedVenta.setId(venta.getId());
+        partialUpdatedVenta.fecha(UPDATED_FECHA).total(UPDATED_TOTAL);
+
+        restVentaMockMvc
+                .perform(
+                        patch(ENTITY_API_URL_ID, partialUpdatedVenta.getId())
+                                .with(csrf())
+                                .contentType("application/merge-patch+json")
+                                .content(om.writeValueAsBytes(partialUpdatedVenta)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("error.fechainmutable"));
+
+        em.flush();
+        em.clear();
+        Venta persistida = getPersistedVenta(venta);
+        assertThat(persistida.getFecha()).isEqualTo(DEFAULT_FECHA);
+        assertThat(persistida.getTotal()).isEqualByComparingTo(DEFAULT_TOTAL);
+    }
+
     @Test
     @Transactional
     void patchNonExistingVenta() throws Exception {
@@ -1425,6 +1547,194 @@ class VentaResourceIT {
         assertDecrementedRepositoryCount(databaseSizeBeforeDelete);
     }
 
+    @Test
+    @Transactional
+    void checkoutVenta() throws Exception {
+        Articulo martillo = ArticuloResourceIT.createEntity()
+                .codigo("CHK-MARTILLO")
+                .existencia(new BigDecimal("20.00"))
+                .costo(new BigDecimal("4.25"));
+        Articulo clavos = ArticuloResourceIT.createEntity()
+                .codigo("CHK-CLAVOS")
+                .existencia(new BigDecimal("100.00"))
+                .costo(new BigDecimal("0.10"));
+        em.persist(martillo);
+        em.persist(clavos);
+        em.flush();
+
+        // Dos líneas del mismo artículo se descuentan juntas
+        VentaDTO ventaDTO = ventaMapper.toDto(venta);
+        ventaDTO.setFecha(null);
+        ventaDTO.setNoFactura(null);
+        ventaDTO.setDetalles(List.of(
+                linea(martillo, "2", "10.00"),
+                linea(martillo, "1", "10.00"),
+                linea(clavos, "30", "0.50")));
+
+        VentaDTO creada = om.readValue(
+                restVentaMockMvc
+                        .perform(post(ENTITY_API_URL + "/checkout").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(ventaDTO)))
+                        .andExpect(status().isCreated())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString(),
+                VentaDTO.class);
+        em.flush();
+
+        // Número tomado de la secuencia de la serie activa
+        assertThat(creada.getNumeracion()).isNotNull();
+        Long ultimoAsignado = jdbcTemplate.queryForObject(
+                "SELECT last_value FROM numeracion_factura_seq_" + creada.getNumeracion().getId(), Long.class);
+        assertThat(creada.getNoFactura()).isEqualTo(ultimoAsignado);
+        assertThat(creada.getFecha()).isNotNull();
+        assertThat(creada.getAnulada()).isFalse();
+
+        // Líneas con el costo vigente y la clave de partición de la venta
+        List<Map<String, Object>> lineas = jdbcTemplate.queryForList(
+                "SELECT articulo_id, cantidad, costo_unitario, venta_fecha = (SELECT fecha FROM venta WHERE id = ?) "
+                        + "AS misma_fecha FROM detalle_venta WHERE venta_id = ? ORDER BY id",
+                creada.getId(), creada.getId());
+        assertThat(lineas).hasSize(3);
+        assertThat(lineas).allSatisfy(fila -> assertThat(fila.get("misma_fecha")).isEqualTo(true));
+        assertThat((BigDecimal) lineas.get(0).get("costo_unitario")).isEqualByComparingTo("4.25");
+        assertThat((BigDecimal) lineas.get(2).get("costo_unitario")).isEqualByComparingTo("0.10");
+
+        // Una fila de bitácora por artículo
+        Map<Long, BigDecimal> movimientos = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT articulo_id, cantidad FROM movimiento_inventario WHERE tipo = 'VENTA' AND referencia_id = ?",
+                rs -> {
+                    assertThat(movimientos.put(rs.getLong(1), rs.getBigDecimal(2))).isNull();
+                },
+                creada.getId());
+        assertThat(movimientos).containsOnlyKeys(martillo.getId(), clavos.getId());
+        assertThat(movimientos.get(martillo.getId())).isEqualByComparingTo("-3");
+        assertThat(movimientos.get(clavos.getId())).isEqualByComparingTo("-30");
+
+        // La existencia se descuenta al consolidar lo pendiente
+        inventoryService.consolidar(List.of(martillo.getId(), clavos.getId()));
+        assertThat(existencia(martillo)).isEqualByComparingTo("17");
+        assertThat(existencia(clavos)).isEqualByComparingTo("70");
+    }
+
+    @Test
+    @Transactional
+    void checkoutVentaWithoutLinesIsRejected() throws Exception {
+        VentaDTO ventaDTO = ventaMapper.toDto(venta);
+        ventaDTO.setDetalles(List.of());
+
+        restVentaMockMvc
+                .perform(post(ENTITY_API_URL + "/checkout").with(csrf()).contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsBytes(ventaDTO)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("error.detallesempty"));
+    }
+
+    @Test
+    @Transactional
+    void anularVentasRestoresStockOnceAndSkipsCancelledVentas() throws Exception {
+        Articulo martillo = ArticuloResourceIT.createEntity()
+                .codigo("ANU-MARTILLO")
+                .existencia(new BigDecimal("20.00"));
+        Articulo clavos = ArticuloResourceIT.createEntity()
+                .codigo("ANU-CLAVOS")
+                .existencia(new BigDecimal("100.00"));
+        em.persist(martillo);
+        em.persist(clavos);
+        Venta primera = ventaGuardada(false);
+        lineaGuardada(primera, martillo, "2");
+        lineaGuardada(primera, martillo, "1");
+        lineaGuardada(primera, clavos, "10");
+        Venta segunda = ventaGuardada(false);
+        lineaGuardada(segunda, martillo, "4");
+        Venta yaAnulada = ventaGuardada(true);
+        lineaGuardada(yaAnulada, martillo, "5");
+        em.flush();
+
+        // La anulada y el id repetido no devuelven stock ni salen en la respuesta
+        restVentaMockMvc
+                .perform(post(ENTITY_API_URL + "/anular").with(csrf()).contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsBytes(
+                                List.of(primera.getId(), segunda.getId(), yaAnulada.getId(), primera.getId()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$.[*]").value(hasItem(primera.getId().intValue())))
+                .andExpect(jsonPath("$.[*]").value(hasItem(segunda.getId().intValue())));
+        em.flush();
+
+        // Una fila ANULACION por venta y artículo, con las líneas sumadas
+        Map<List<Long>, BigDecimal> movimientos = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT referencia_id, articulo_id, cantidad FROM movimiento_inventario "
+                        + "WHERE tipo = 'ANULACION' AND articulo_id IN (?, ?)",
+                rs -> {
+                    assertThat(movimientos.put(List.of(rs.getLong(1), rs.getLong(2)), rs.getBigDecimal(3))).isNull();
+                },
+                martillo.getId(), clavos.getId());
+        assertThat(movimientos).containsOnlyKeys(
+                List.of(primera.getId(), martillo.getId()),
+                List.of(primera.getId(), clavos.getId()),
+                List.of(segunda.getId(), martillo.getId()));
+        assertThat(movimientos.get(List.of(primera.getId(), martillo.getId()))).isEqualByComparingTo("3");
+        assertThat(movimientos.get(List.of(primera.getId(), clavos.getId()))).isEqualByComparingTo("10");
+        assertThat(movimientos.get(List.of(segunda.getId(), martillo.getId()))).isEqualByComparingTo("4");
+
+        assertThat(jdbcTemplate.queryForList("SELECT anulada FROM venta WHERE id IN (?, ?)", Boolean.class,
+                primera.getId(), segunda.getId())).containsExactly(true, true);
+
+        // Anular otra vez no hace nada
+        restVentaMockMvc
+                .perform(post(ENTITY_API_URL + "/anular").with(csrf()).contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsBytes(List.of(primera.getId(), segunda.getId()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        em.flush();
+
+        inventoryService.consolidar(List.of(martillo.getId(), clavos.getId()));
+        assertThat(existencia(martillo)).isEqualByComparingTo("27");
+        assertThat(existencia(clavos)).isEqualByComparingTo("110");
+    }
+
+    @Test
+    @Transactional
+    void anularVentasWithoutIdsIsRejected() throws Exception {
+        restVentaMockMvc
+                .perform(post(ENTITY_API_URL + "/anular").with(csrf()).contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsBytes(List.of())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("error.idsempty"));
+    }
+
+    private Venta ventaGuardada(boolean anulada) {
+        Venta guardada = createEntity().noFactura(longCount.incrementAndGet()).anulada(anulada);
+        em.persist(guardada);
+        return guardada;
+    }
+
+    private void lineaGuardada(Venta venta, Articulo articulo, String cantidad) {
+        em.persist(DetalleVentaResourceIT.createEntity()
+                .venta(venta)
+                .articulo(articulo)
+                .cantidad(new BigDecimal(cantidad)));
+    }
+
+    private static DetalleVentaDTO linea(Articulo articulo, String cantidad, String precio) {
+        ArticuloDTO articuloDTO = new ArticuloDTO();
+        articuloDTO.setId(articulo.getId());
+        DetalleVentaDTO linea = new DetalleVentaDTO();
+        linea.setArticulo(articuloDTO);
+        linea.setCantidad(new BigDecimal(cantidad));
+        linea.setPrecioVenta(new BigDecimal(precio));
+        linea.setMonto(new BigDecimal(cantidad).multiply(new BigDecimal(precio)));
+        return linea;
+    }
+
+    private BigDecimal existencia(Articulo articulo) {
+        return jdbcTemplate.queryForObject("SELECT existencia FROM articulo WHERE id = ?", BigDecimal.class,
+                articulo.getId());
+    }
+
     protected long getRepositoryCount() {
         return ventaRepository.count();
     }
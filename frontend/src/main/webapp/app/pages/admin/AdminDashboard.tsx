@@ -82,18 +82,14 @@ export const AdminDashboard = () => {
       ArticuloService.getAll(),
       VentaService.getAll({ size: 1000, sort: 'fecha,desc' }),
       VentaService.getAllDetalles({ size: 2000 }),
-      DevolucionService.getAll(),
       DetalleDevolucionService.getAll({ size: 2000 }),
     ])
-      .then(([artRes, venRes, detRes, devRes, detDevRes]) => {
+      .then(([artRes, venRes, detRes, detDevRes]) => {
         setAllArticulos(artRes.data);
         setVentasRecientes(venRes.data);
-        setDevolucionesRecientes(devRes.data);
         setAllDetallesVenta(detRes.data);
         setAllDetallesDevolucion(detDevRes.data);
 
-        const low = artRes.data.filter(a => a.activo && (a.existencia || 0) <= (a.existenciaMinima || 0));
-        setBajoStock(low);
         const revision = artRes.data.filter(a => a.activo && a.ultimoCosto && (a.costo || 0) > (a.ultimoCosto || 0));
         setRevisionPrecios(revision);
         setLoading(false);
@@ -102,6 +98,26 @@ export const AdminDashboard = () => {
       .finally(() => setLoading(false));
   }, []);
 
+  // Devoluciones desde el inicio del mes elegido o de la semana de la gráfica, todas las páginas
+  useEffect(() => {
+    const inicioMes = selectedDate.startOf('month');
+    const inicioSemana = dayjs().subtract(6, 'day').startOf('day');
+    const desde = inicioMes.isBefore(inicioSemana) ? inicioMes : inicioSemana;
+    DevolucionService.getAllPages({ 'fecha.greaterThanOrEqual': desde.toISOString(), sort: 'fecha,desc' })
+      .then(setDevolucionesRecientes)
+      .catch(console.error);
+  }, [selectedDate]);
+
+  // Alertas de stock bajo en vivo: la lista llega al conectar y luego solo los cambios
+  useEffect(() => {
+    return ArticuloService.suscribirBajoStock(setBajoStock, cambio => {
+      setBajoStock(prev => {
+        const resto = prev.filter(a => a.id !== cambio.id);
+        return cambio.bajoStock ? [...resto, cambio].sort((a, b) => (a.existencia || 0) - (b.existencia || 0)) : resto;
+      });
+    });
+  }, []);
+
   useEffect(() => {
     if (loading) return;
 
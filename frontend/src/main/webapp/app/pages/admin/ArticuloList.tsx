@@ -1,7 +1,28 @@
-import React, { useEffect, useState } from 'react';
+import React, { useEffect, useRef, useState } from 'react';
 import { Link } from 'react-router-dom';
-import { Table, Button, Input, Card, CardHeader, CardBody, Badge, Row, Col, Modal, ModalHeader, ModalBody } from 'reactstrap';
-import { IArticulo } from 'app/shared/model/articulo.model';
+import {
+  Table,
+  Button,
+  Input,
+  Card,
+  CardHeader,
+  CardBody,
+  Badge,
+  Row,
+  Col,
+  Modal,
+  ModalHeader,
+  ModalBody,
+  ModalFooter,
+  Progress,
+  FormGroup,
+  Label,
+} from 'reactstrap';
+import { IAjustePrecios, IArticulo, IImportacionArticulos } from 'app/shared/model/articulo.model';
+import CategoriaService from 'app/services/categoria.service';
+import ProveedorService from 'app/services/proveedor.service';
+import { ICategoria } from 'app/shared/model/categoria.model';
+import { IProveedor } from 'app/shared/model/proveedor.model';
 import ArticuloService from 'app/services/articulo.service';
 import HistorialPrecioService from 'app/services/historial-precio.service';
 import { IHistorialPrecio } from 'app/shared/model/historial-precio.model';
@@ -22,7 +43,9 @@ import {
   faChevronLeft,
   faChevronRight,
   faTools,
-  faCheck
+  faCheck,
+  faFileImport,
+  faPercent,
 } from '@fortawesome/free-solid-svg-icons';
 import { Pagination, PaginationItem, PaginationLink } from 'reactstrap';
 import { useAppSelector } from 'app/config/store';
@@ -30,6 +53,9 @@ import { AUTHORITIES } from 'app/config/constants';
 import * as XLSX from 'xlsx-js-style';
 import jsPDF from 'jspdf';
 import autoTable from 'jspdf-autotable';
+import { toast } from 'react-toastify';
+
+const AJUSTE_INICIAL: IAjustePrecios = { tipo: 'PORCENTAJE', valor: NaN, redondeo: 0.01, modoRedondeo: 'CERCANO' };
 
 export const ArticuloList = () => {
   const isAdmin = useAppSelector(state => state.authentication.account.authorities.includes(AUTHORITIES.ADMIN));
@@ -42,6 +68,14 @@ export const ArticuloList = () => {
   const [historial, setHistorial] = useState<IHistorialPrecio[]>([]);
   const [loadingHistory, setLoadingHistory] = useState(false);
   const [showInactive, setShowInactive] = useState(false);
+  const [importacion, setImportacion] = useState<IImportacionArticulos | null>(null);
+  const archivoRef = useRef<HTMLInputElement>(null);
+  const [showAjuste, setShowAjuste] = useState(false);
+  const [ajuste, setAjuste] = useState<IAjustePrecios>(AJUSTE_INICIAL);
+  const [alcanceAjuste, setAlcanceAjuste] = useState<'categoria' | 'proveedor' | 'todos'>('categoria');
+  const [categorias, setCategorias] = useState<ICategoria[]>([]);
+  const [proveedores, setProveedores] = useState<IProveedor[]>([]);
+  const [ajustando, setAjustando] = useState(false);
 
   const loadAll = () => {
     setLoading(true);
@@ -67,6 +101,79 @@ export const ArticuloList = () => {
     loadAll();
   }, []);
 
+  // El servidor procesa la importación en segundo plano: se consulta su progreso cada segundo
+  useEffect(() => {
+    if (importacion?.estado !== 'EN_PROCESO') return undefined;
+    const timer = setTimeout(() => {
+      ArticuloService.getImportacion(importacion.id)
+        .then(res => {
+          setImportacion(res.data);
+          if (res.data.estado === 'TERMINADA') {
+            toast.success(`Importación terminada: ${res.data.insertados} nuevos, ${res.data.actualizados} actualizados`);
+            loadAll();
+          } else if (res.data.estado === 'FALLIDA') {
+            toast.error(res.data.mensaje || 'La importación falló');
+          }
+        })
+        .catch(() => {
+          setImportacion({ ...importacion, estado: 'FALLIDA', mensaje: 'No se pudo consultar el progreso de la importación' });
+        });
+    }, 1000);
+    return () => clearTimeout(timer);
+  }, [importacion]);
+
+  const abrirAjuste = () => {
+    setAjuste(AJUSTE_INICIAL);
+    setAlcanceAjuste('categoria');
+    setShowAjuste(true);
+    CategoriaService.getAll().then(res => setCategorias(res.data.filter(c => c.activo !== false)));
+    ProveedorService.getAll().then(res => setProveedores(res.data.filter(p => p.activo !== false)));
+  };
+
+  const handleAjustarPrecios = () => {
+    const alcance =
+      alcanceAjuste === 'categoria'
+        ? { categoriaId: ajuste.categoriaId }
+        : alcanceAjuste === 'proveedor'
+          ? { proveedorId: ajuste.proveedorId }
+          : { todos: true };
+    const descripcion = alcanceAjuste === 'todos' ? 'TODOS los artículos activos' : 'los artículos seleccionados';
+    if (!window.confirm(`¿Aplicar el ajuste de precios a ${descripcion}?`)) return;
+    setAjustando(true);
+    ArticuloService.ajustarPrecios({
+      tipo: ajuste.tipo,
+      valor: ajuste.valor,
+      redondeo: ajuste.redondeo,
+      modoRedondeo: ajuste.modoRedondeo,
+      motivo: ajuste.motivo,
+      ...alcance,
+    })
+      .then(res => {
+        toast.success(`Se actualizó el precio de ${res.data} artículos`);
+        setShowAjuste(false);
+        loadAll();
+      })
+      .catch(() => toast.error('No se pudo aplicar el ajuste de precios'))
+      .finally(() => setAjustando(false));
+  };
+
+  const ajusteValido =
+    ajuste.valor !== undefined &&
+    !Number.isNaN(ajuste.valor) &&
+    ajuste.valor !== 0 &&
+    (ajuste.tipo !== 'PORCENTAJE' || ajuste.valor > -100) &&
+    (alcanceAjuste !== 'categoria' || !!ajuste.categoriaId) &&
+    (alcanceAjuste !== 'proveedor' || !!ajuste.proveedorId);
+
+  const handleImportar = (e: React.ChangeEvent<HTMLInputElement>) => {
+    const file = e.target.files?.[0];
+    e.target.value = '';
+    if (!file) return;
+    ArticuloService.importar(file)
+      .then(res => setImportacion(res.data))
+      .catch(() => toast.error('No se pudo iniciar la importación. Use un archivo CSV o XLSX.'));
+  };
+
   const articulosFiltrados = articulos
     .filter(a => {
       const matchesSearch =
@@ -237,6 +344,23 @@ export const ArticuloList = () => {
           <Button color="success" size="sm" className="opacity-90" onClick={exportAllToExcel}>
             <FontAwesomeIcon icon={faFileExcel} className="me-2" /> Exportar Todo
           </Button>
+          {(isAdmin || isJefeBodega) && (
+            <>
+              <input ref={archivoRef} type="file" accept=".csv,.xlsx" className="d-none" onChange={handleImportar} />
+              <Button
+                color="info"
+                size="sm"
+                className="opacity-90 text-white"
+                disabled={importacion?.estado === 'EN_PROCESO'}
+                onClick={() => archivoRef.current?.click()}
+              >
+                <FontAwesomeIcon icon={faFileImport} className="me-2" /> Importar
+              </Button>
+              <Button color="warning" size="sm" className="opacity-90" onClick={abrirAjuste}>
+                <FontAwesomeIcon icon={faPercent} className="me-2" /> Ajustar Precios
+              </Button>
+            </>
+          )}
           {isAdmin && (
             <Button
               color="dark"
@@ -535,6 +659,193 @@ export const ArticuloList = () => {
           </Card>
         )}
 
+        {/* MODAL AJUSTE MASIVO DE PRECIOS */}
+        <Modal isOpen={showAjuste} toggle={() => setShowAjuste(false)} centered>
+          <ModalHeader toggle={() => setShowAjuste(false)} className="bg-warning">
+            <FontAwesomeIcon icon={faPercent} className="me-2" /> Ajuste Masivo de Precios
+          </ModalHeader>
+          <ModalBody>
+            <FormGroup>
+              <Label className="small fw-bold text-uppercase">Aplicar a</Label>
+              <Input
+                type="select"
+                value={alcanceAjuste}
+                onChange={e => setAlcanceAjuste(e.target.value as 'categoria' | 'proveedor' | 'todos')}
+              >
+                <option value="categoria">Una categoría (con sus subcategorías)</option>
+                <option value="proveedor">Artículos de un proveedor</option>
+                <option value="todos">Todos los artículos activos</option>
+              </Input>
+            </FormGroup>
+            {alcanceAjuste === 'categoria' && (
+              <FormGroup>
+                <Label className="small fw-bold text-uppercase">Categoría</Label>
+                <Input
+                  type="select"
+                  value={ajuste.categoriaId ?? ''}
+                  onChange={e => setAjuste({ ...ajuste, categoriaId: e.target.value ? Number(e.target.value) : null })}
+                >
+                  <option value="">Seleccione...</option>
+                  {categorias.map(c => (
+                    <option key={c.id} value={c.id}>
+                      {c.nombre}
+                    </option>
+                  ))}
+                </Input>
+              </FormGroup>
+            )}
+            {alcanceAjuste === 'proveedor' && (
+              <FormGroup>
+                <Label className="small fw-bold text-uppercase">Proveedor</Label>
+                <Input
+                  type="select"
+                  value={ajuste.proveedorId ?? ''}
+                  onChange={e => setAjuste({ ...ajuste, proveedorId: e.target.value ? Number(e.target.value) : null })}
+                >
+                  <option value="">Seleccione...</option>
+                  {proveedores.map(p => (
+                    <option key={p.id} value={p.id}>
+                      {p.nombre}
+                    </option>
+                  ))}
+                </Input>
+              </FormGroup>
+            )}
+            <Row>
+              <Col md="6">
+                <FormGroup>
+                  <Label className="small fw-bold text-uppercase">Tipo</Label>
+                  <Input
+                    type="select"
+                    value={ajuste.tipo}
+                    onChange={e => setAjuste({ ...ajuste, tipo: e.target.value as IAjustePrecios['tipo'] })}
+                  >
+                    <option value="PORCENTAJE">Porcentaje (%)</option>
+                    <option value="MONTO">Monto fijo (C$)</option>
+                  </Input>
+                </FormGroup>
+              </Col>
+              <Col md="6">
+                <FormGroup>
+                  <Label className="small fw-bold text-uppercase">Valor (negativo para rebajar)</Label>
+                  <Input
+                    type="number"
+                    step="0.01"
+                    value={Number.isNaN(ajuste.valor) ? '' : ajuste.valor}
+                    onChange={e => setAjuste({ ...ajuste, valor: parseFloat(e.target.value) })}
+                  />
+                </FormGroup>
+              </Col>
+            </Row>
+            <Row>
+              <Col md="6">
+                <FormGroup>
+                  <Label className="small fw-bold text-uppercase">Redondear a</Label>
+                  <Input
+                    type="select"
+                    value={ajuste.redondeo}
+                    onChange={e => setAjuste({ ...ajuste, redondeo: Number(e.target.value) })}
+                  >
+                    <option value={0.01}>C$ 0.01</option>
+                    <option value={0.05}>C$ 0.05</option>
+                    <option value={0.5}>C$ 0.50</option>
+                    <option value={1}>C$ 1.00</option>
+                    <option value={5}>C$ 5.00</option>
+                  </Input>
+                </FormGroup>
+              </Col>
+              <Col md="6">
+                <FormGroup>
+                  <Label className="small fw-bold text-uppercase">Redondeo</Label>
+                  <Input
+                    type="select"
+                    value={ajuste.modoRedondeo}
+                    onChange={e => setAjuste({ ...ajuste, modoRedondeo: e.target.value as IAjustePrecios['modoRedondeo'] })}
+                  >
+                    <option value="CERCANO">Al más cercano</option>
+                    <option value="ARRIBA">Hacia arriba</option>
+                    <option value="ABAJO">Hacia abajo</option>
+                  </Input>
+                </FormGroup>
+              </Col>
+            </Row>
+            <FormGroup className="mb-0">
+              <Label className="small fw-bold text-uppercase">Motivo</Label>
+              <Input
+                type="text"
+                maxLength={100}
+                placeholder="Ajuste masivo de precios"
+                value={ajuste.motivo ?? ''}
+                onChange={e => setAjuste({ ...ajuste, motivo: e.target.value })}
+              />
+            </FormGroup>
+          </ModalBody>
+          <ModalFooter>
+            <Button color="secondary" onClick={() => setShowAjuste(false)}>
+              Cancelar
+            </Button>
+            <Button color="warning" disabled={!ajusteValido || ajustando} onClick={handleAjustarPrecios}>
+              {ajustando ? 'Aplicando...' : 'Aplicar Ajuste'}
+            </Button>
+          </ModalFooter>
+        </Modal>
+
+        {/* MODAL IMPORTACIÓN */}
+        <Modal isOpen={importacion !== null} centered size="lg">
+          <ModalHeader className="bg-info text-white">
+            <FontAwesomeIcon icon={faFileImport} className="me-2" /> Importación: {importacion?.archivo}
+          </ModalHeader>
+          <ModalBody>
+            {importacion?.estado === 'EN_PROCESO' && <Progress animated color="info" value={100} className="mb-3" />}
+            {importacion?.estado === 'FALLIDA' && <div className="alert alert-danger">{importacion.mensaje}</div>}
+            <Row className="text-center mb-3">
+              <Col>
+                <div className="text-muted small text-uppercase fw-bold">Filas leídas</div>
+                <div className="fs-5">{importacion?.filasLeidas}</div>
+              </Col>
+              <Col>
+                <div className="text-muted small text-uppercase fw-bold">Nuevos</div>
+                <div className="fs-5 text-success">{importacion?.insertados}</div>
+              </Col>
+              <Col>
+                <div className="text-muted small text-uppercase fw-bold">Actualizados</div>
+                <div className="fs-5 text-primary">{importacion?.actualizados}</div>
+              </Col>
+              <Col>
+                <div className="text-muted small text-uppercase fw-bold">Con error</div>
+                <div className="fs-5 text-danger">{importacion?.filasConError}</div>
+              </Col>
+            </Row>
+            {importacion?.errores?.length > 0 && (
+              <div style={{ maxHeight: '250px', overflowY: 'auto' }}>
+                <Table size="sm" striped className="mb-0">
+                  <thead className="table-dark">
+                    <tr>
+                      <th>Fila</th>
+                      <th>Código</th>
+                      <th>Error</th>
+                    </tr>
+                  </thead>
+                  <tbody>
+                    {importacion.errores.map((error, i) => (
+                      <tr key={i}>
+                        <td>{error.fila}</td>
+                        <td>{error.codigo || '-'}</td>
+                        <td>{error.mensaje}</td>
+                      </tr>
+                    ))}
+                  </tbody>
+                </Table>
+              </div>
+            )}
+          </ModalBody>
+          <ModalFooter>
+            <Button color="secondary" disabled={importacion?.estado === 'EN_PROCESO'} onClick={() => setImportacion(null)}>
+              Cerrar
+            </Button>
+          </ModalFooter>
+        </Modal>
+
         {/* MODAL HISTORIAL DE PRECIOS */}
         <Modal isOpen={showHistory} toggle={() => setShowHistory(!showHistory)} centered size="lg">
           <ModalHeader toggle={() => setShowHistory(!showHistory)} className="bg-info text-white">
@@ -28,16 +28,28 @@ const DevolucionList = () => {
   const [devoluciones, setDevoluciones] = useState<IDevolucion[]>([]);
   const [loading, setLoading] = useState(false);
   const [filter, setFilter] = useState('');
+  const [campoBusqueda, setCampoBusqueda] = useState<'cliente' | 'factura' | 'motivo'>('cliente');
   const [currentPage, setCurrentPage] = useState(1);
+  const [totalItems, setTotalItems] = useState(0);
   const [selectedDevolucion, setSelectedDevolucion] = useState<IDevolucion | null>(null);
   const [showDetailModal, setShowDetailModal] = useState(false);
   const itemsPerPage = 10;
 
+  // La búsqueda se resuelve en el servidor con los criterios de devoluciones
+  const criterios = () => {
+    const texto = filter.trim();
+    if (!texto) return {};
+    if (campoBusqueda === 'factura') return { 'noFactura.equals': texto };
+    if (campoBusqueda === 'motivo') return { 'motivo.contains': texto };
+    return { 'clienteNombre.contains': texto };
+  };
+
   const loadAll = () => {
     setLoading(true);
-    DevolucionService.getAll()
+    DevolucionService.getAll({ ...criterios(), page: currentPage - 1, size: itemsPerPage, sort: 'fecha,desc' })
       .then(res => {
         setDevoluciones(res.data);
+        setTotalItems(parseInt(res.headers['x-total-count'] || '0', 10));
         setLoading(false);
       })
       .catch(err => {
@@ -47,8 +59,9 @@ const DevolucionList = () => {
   };
 
   useEffect(() => {
-    loadAll();
-  }, []);
+    const timer = setTimeout(loadAll, 300);
+    return () => clearTimeout(timer);
+  }, [currentPage, filter, campoBusqueda]);
 
   const toggleDetailModal = () => setShowDetailModal(!showDetailModal);
 
@@ -57,21 +70,23 @@ const DevolucionList = () => {
     toggleDetailModal();
   };
 
-  const filteredDevoluciones = devoluciones.filter(
-    d =>
-      d.venta?.noFactura?.toString().includes(filter) ||
-      d.motivo?.toLowerCase().includes(filter.toLowerCase()) ||
-      d.venta?.cliente?.nombre?.toLowerCase().includes(filter.toLowerCase()),
-  );
-
   const indexOfLastItem = currentPage * itemsPerPage;
   const indexOfFirstItem = indexOfLastItem - itemsPerPage;
-  const currentItems = filteredDevoluciones.slice(indexOfFirstItem, indexOfLastItem);
-  const totalPages = Math.ceil(filteredDevoluciones.length / itemsPerPage);
+  const totalPages = Math.ceil(totalItems / itemsPerPage);
 
   const paginate = (pageNumber: number) => setCurrentPage(pageNumber);
 
-  const exportToExcel = () => {
+  const cambiarBusqueda = (campo: 'cliente' | 'factura' | 'motivo', texto: string) => {
+    setCampoBusqueda(campo);
+    setFilter(texto);
+    setCurrentPage(1);
+  };
+
+  // Las exportaciones llevan todas las devoluciones del filtro, no solo la página visible
+  const cargarFiltradas = () => DevolucionService.getAllPages({ ...criterios(), sort: 'fecha,desc' });
+
+  const exportToExcel = async () => {
+    const filteredDevoluciones = await cargarFiltradas();
     // Preparar datos para exportar
     const dataToExport = filteredDevoluciones.map(d => ({
       ID: d.id,
@@ -116,7 +131,8 @@ const DevolucionList = () => {
     XLSX.writeFile(wb, fileName);
   };
 
-  const exportToPDF = () => {
+  const exportToPDF = async () => {
+    const filteredDevoluciones = await cargarFiltradas();
     const doc = new jsPDF();
 
     // Título
@@ -178,8 +194,6 @@ const DevolucionList = () => {
     doc.save(fileName);
   };
 
-
-
   return (
     <div className="p-4" style={{ backgroundColor: '#f8f9fa', minHeight: '100vh' }}>
       <Card className="border-0 shadow-sm" style={{ borderRadius: '15px', overflow: 'hidden' }}>
@@ -209,13 +223,26 @@ const DevolucionList = () => {
 
         <CardBody className="p-4">
           <Row className="mb-4 align-items-center">
-            <Col md="6">
+            <Col md="2">
+              <Input
+                type="select"
+                value={campoBusqueda}
+                onChange={e => cambiarBusqueda(e.target.value as 'cliente' | 'factura' | 'motivo', '')}
+                className="py-2 border-0 shadow-sm"
+                style={{ borderRadius: '10px', backgroundColor: '#f1f3f9' }}
+              >
+                <option value="cliente">Cliente</option>
+                <option value="factura">N° Factura</option>
+                <option value="motivo">Motivo</option>
+              </Input>
+            </Col>
+            <Col md="4">
               <div className="search-box position-relative">
                 <Input
-                  type="text"
-                  placeholder="Buscar por factura, motivo o cliente..."
+                  type={campoBusqueda === 'factura' ? 'number' : 'text'}
+                  placeholder={campoBusqueda === 'factura' ? 'Buscar por número de factura...' : `Buscar por ${campoBusqueda}...`}
                   value={filter}
-                  onChange={e => setFilter(e.target.value)}
+                  onChange={e => cambiarBusqueda(campoBusqueda, e.target.value)}
                   className="ps-5 py-2 border-0 shadow-sm"
                   style={{ borderRadius: '10px', backgroundColor: '#f1f3f9' }}
                 />
@@ -256,8 +283,8 @@ const DevolucionList = () => {
                       <div className="spinner-border text-primary" role="status"></div>
                     </td>
                   </tr>
-                ) : currentItems.length > 0 ? (
-                  currentItems.map(d => (
+                ) : devoluciones.length > 0 ? (
+                  devoluciones.map(d => (
                     <tr key={d.id} className="border-bottom" style={{ transition: 'all 0.2s' }}>
                       <td className="px-4 fw-bold text-primary">#{d.id}</td>
                       <td>
@@ -320,8 +347,7 @@ const DevolucionList = () => {
           {totalPages > 1 && (
             <div className="d-flex justify-content-between align-items-center mt-4 px-2">
               <span className="text-muted small">
-                Mostrando {indexOfFirstItem + 1} - {Math.min(indexOfLastItem, filteredDevoluciones.length)} de {filteredDevoluciones.length}{' '}
-                resultados
+                Mostrando {indexOfFirstItem + 1} - {Math.min(indexOfLastItem, totalItems)} de {totalItems} resultados
               </span>
               <Pagination aria-label="Page navigation" className="m-0 border-0">
                 <PaginationItem disabled={currentPage === 1}>
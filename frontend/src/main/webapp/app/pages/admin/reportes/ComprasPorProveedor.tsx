@@ -1,122 +1,90 @@
 import React, { useEffect, useState } from 'react';
-import { Card, CardBody, Table, Badge, Button, Row, Col, Input, Spinner } from 'reactstrap';
+import { Card, CardBody, Table, Badge, Button, Input, Spinner } from 'reactstrap';
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
-import { faTruck, faArrowLeft, faEye, faFileExcel, faCalendar, faClipboardList } from '@fortawesome/free-solid-svg-icons';
+import { faTruck, faArrowLeft, faEye, faFileExcel, faCalendar } from '@fortawesome/free-solid-svg-icons';
 import { useNavigate } from 'react-router-dom';
-import IngresoService from 'app/services/ingreso.service';
-import ProveedorService from 'app/services/proveedor.service';
-import ArticuloService from 'app/services/articulo.service';
-import { IIngreso } from 'app/shared/model/ingreso.model';
-import { IProveedor } from 'app/shared/model/proveedor.model';
+import ReporteService from 'app/services/reporte.service';
+import { ICompraArticuloProveedor, ICompraProveedor } from 'app/shared/model/reporte.model';
 import dayjs from 'dayjs';
 import * as XLSX from 'xlsx-js-style';
 
+// Una sola página con todas las filas del reporte; el servidor ya las agrega
+const TAMANO_PAGINA = 1000;
+
 export const ComprasPorProveedor = () => {
   const navigate = useNavigate();
-  const [proveedores, setProveedores] = useState<IProveedor[]>([]);
-  const [ingresos, setIngresos] = useState<IIngreso[]>([]);
+  const [compras, setCompras] = useState<ICompraProveedor[]>([]);
   const [loading, setLoading] = useState(false);
   const [loadingItems, setLoadingItems] = useState(false);
-  const [proveedorSeleccionado, setProveedorSeleccionado] = useState<IProveedor | null>(null);
-  const [itemsProveedor, setItemsProveedor] = useState<any[]>([]);
+  const [desde, setDesde] = useState(dayjs().subtract(1, 'year').format('YYYY-MM-DD'));
+  const [hasta, setHasta] = useState(dayjs().format('YYYY-MM-DD'));
+  const [proveedorSeleccionado, setProveedorSeleccionado] = useState<ICompraProveedor | null>(null);
+  const [itemsProveedor, setItemsProveedor] = useState<ICompraArticuloProveedor[]>([]);
+
+  const rango = () => ({
+    desde: dayjs(desde).startOf('day').toISOString(),
+    hasta: dayjs(hasta).add(1, 'day').startOf('day').toISOString(),
+    size: TAMANO_PAGINA,
+  });
 
   useEffect(() => {
     loadData();
-  }, []);
+  }, [desde, hasta]);
 
   const loadData = async () => {
     setLoading(true);
     try {
-      const [provRes, ingRes] = await Promise.all([ProveedorService.getAll(), IngresoService.getAll({ size: 5000, sort: 'id,desc' })]);
-      setProveedores(provRes.data);
-      setIngresos(ingRes.data);
+      const res = await ReporteService.getComprasPorProveedor(rango());
+      setCompras(res.data);
     } catch (error) {
       console.error(error);
     }
     setLoading(false);
   };
 
-  const calcularTotalPorProveedor = (proveedorId: number) => {
-    return ingresos.filter(ing => ing.proveedor?.id === proveedorId && ing.activo).reduce((sum, ing) => sum + (ing.total || 0), 0);
-  };
-
-  const contarComprasPorProveedor = (proveedorId: number) => {
-    return ingresos.filter(ing => ing.proveedor?.id === proveedorId && ing.activo).length;
-  };
-
-  const verDetallesDirecto = async (proveedor: IProveedor) => {
-    setProveedorSeleccionado(proveedor);
+  const verDetallesDirecto = async (compra: ICompraProveedor) => {
+    setProveedorSeleccionado(compra);
     setLoadingItems(true);
     setItemsProveedor([]);
     try {
-      const comprasProv = ingresos.filter(ing => ing.proveedor?.id === proveedor.id && ing.activo);
-
-      // Cargamos los detalles de cada ingreso de forma paralela para ser "directos"
-      const detailedIngresos = await Promise.all(comprasProv.map(ing => IngresoService.get(ing.id)));
-
-      // Aplanamos todos los detalles en una sola lista para el reporte
-      const allItems: any[] = [];
-      detailedIngresos.forEach(res => {
-        const ing = res.data;
-        ing.detalles?.forEach(det => {
-          allItems.push({
-            ...det,
-            fecha: ing.fecha,
-            noDocumento: ing.noDocumento,
-          });
-        });
-      });
-
-      // Ordenar por fecha descendente
-      setItemsProveedor(allItems.sort((a, b) => dayjs(b.fecha).unix() - dayjs(a.fecha).unix()));
+      const res = await ReporteService.getComprasPorArticulo(compra.proveedorId, rango());
+      setItemsProveedor(res.data);
     } catch (error) {
       console.error('Error cargando detalles del proveedor:', error);
     }
     setLoadingItems(false);
   };
 
-  const exportDetalleExcel = async () => {
+  const exportDetalleExcel = () => {
     if (!proveedorSeleccionado) return;
 
-    // Cargamos los artículos solo para obtener los códigos para el Excel
-    let todosLosArticulos: any[] = [];
-    try {
-      const artRes = await ArticuloService.getAll({ page: 0, size: 5000 });
-      todosLosArticulos = artRes.data;
-    } catch (e) {
-      console.error('Error al obtener códigos de artículos para el reporte', e);
-    }
-
     const wb = XLSX.utils.book_new();
-    const totalHistorico = itemsProveedor.reduce((sum, item) => sum + (item.monto || 0), 0);
+    const totalHistorico = itemsProveedor.reduce((sum, item) => sum + (item.total || 0), 0);
     const wsData = [
-      ['HISTORIAL DE COMPRAS'],
+      ['COMPRAS POR PRODUCTO'],
       [`Proveedor: ${proveedorSeleccionado.nombre}`],
       [`RUC: ${proveedorSeleccionado.ruc || '-'}`],
+      [`Del ${dayjs(desde).format('DD/MM/YYYY')} al ${dayjs(hasta).format('DD/MM/YYYY')}`],
       [''],
-      ['Fecha', 'No. Factura', 'Producto', 'Código', 'Cantidad', 'Costo Unit. (C$)', 'Subtotal (C$)'],
+      ['Código', 'Producto', 'Compras', 'Cantidad', 'Costo Prom. (C$)', 'Total (C$)', 'Última Compra'],
     ];
     itemsProveedor.forEach(item => {
-      // Buscamos el código real del artículo en la lista que acabamos de traer
-      const artCompleto = todosLosArticulos.find(a => a.id === item.articulo?.id);
-      const codigoReal = artCompleto?.codigo || item.articulo?.codigo || '-';
-
       wsData.push([
-        dayjs(item.fecha).format('DD/MM/YYYY'),
-        item.noDocumento || '-',
-        item.articulo?.nombre || '-',
-        codigoReal,
+        item.codigo || '-',
+        item.nombre || '-',
+        item.compras?.toString(),
         item.cantidad?.toString(),
-        item.costoUnitario?.toLocaleString(),
-        item.monto?.toLocaleString(),
+        item.costoPromedio?.toLocaleString() || '-',
+        item.total?.toLocaleString(),
+        item.ultimaCompra ? dayjs(item.ultimaCompra).format('DD/MM/YYYY') : '-',
       ]);
     });
 
     // Añadir fila de TOTAL
-    wsData.push(['', '', '', '', '', 'TOTAL:', totalHistorico.toLocaleString()]);
+    wsData.push(['', '', '', '', 'TOTAL:', totalHistorico.toLocaleString(), '']);
 
     const ws = XLSX.utils.aoa_to_sheet(wsData);
-    XLSX.utils.book_append_sheet(wb, ws, 'Historial');
+    XLSX.utils.book_append_sheet(wb, ws, 'Compras');
     XLSX.writeFile(wb, `Compras_${proveedorSeleccionado.nombre.replace(/ /g, '_')}.xlsx`);
   };
 
@@ -163,33 +131,33 @@ export const ComprasPorProveedor = () => {
               <Table hover responsive size="sm" className="mb-0 align-middle">
                 <thead className="text-center text-uppercase small bg-light fw-bold" style={{ fontSize: '0.7rem' }}>
                   <tr>
-                    <th className="py-2 px-3 text-start">Fecha</th>
-                    <th className="py-2">Factura</th>
-                    <th className="py-2 text-start">Producto</th>
+                    <th className="py-2 px-3 text-start">Producto</th>
+                    <th className="py-2">Compras</th>
                     <th className="py-2">Cantidad</th>
-                    <th className="py-2 text-end">Costo Unit.</th>
-                    <th className="py-2 text-end px-3">Subtotal</th>
+                    <th className="py-2 text-end">Costo Prom.</th>
+                    <th className="py-2">Última Compra</th>
+                    <th className="py-2 text-end px-3">Total</th>
                   </tr>
                 </thead>
                 <tbody>
                   {itemsProveedor.length > 0 ? (
-                    itemsProveedor.map((item, idx) => (
-                      <tr key={idx} style={{ fontSize: '0.8rem' }}>
-                        <td className="px-3 text-muted">{dayjs(item.fecha).format('DD/MM/YY')}</td>
-                        <td className="text-center fw-bold text-primary">{item.noDocumento}</td>
-                        <td>
-                          <div className="fw-bold">{item.articulo?.nombre}</div>
+                    itemsProveedor.map(item => (
+                      <tr key={item.articuloId} style={{ fontSize: '0.8rem' }}>
+                        <td className="px-3">
+                          <div className="fw-bold">{item.nombre}</div>
                           <small className="text-muted" style={{ fontSize: '0.65rem' }}>
-                            {item.articulo?.codigo}
+                            {item.codigo}
                           </small>
                         </td>
+                        <td className="text-center">{item.compras}</td>
                         <td className="text-center">
                           <Badge color="light" className="text-dark border">
                             {item.cantidad}
                           </Badge>
                         </td>
-                        <td className="text-end">C$ {item.costoUnitario?.toLocaleString()}</td>
-                        <td className="text-end fw-bold px-3 text-success">C$ {item.monto?.toLocaleString()}</td>
+                        <td className="text-end">C$ {item.costoPromedio?.toLocaleString()}</td>
+                        <td className="text-center text-muted">{item.ultimaCompra ? dayjs(item.ultimaCompra).format('DD/MM/YY') : '-'}</td>
+                        <td className="text-end fw-bold px-3 text-success">C$ {item.total?.toLocaleString()}</td>
                       </tr>
                     ))
                   ) : (
@@ -204,10 +172,10 @@ export const ComprasPorProveedor = () => {
                   <tfoot>
                     <tr className="bg-light fw-bold border-top" style={{ fontSize: '0.85rem' }}>
                       <td colSpan={5} className="text-end py-2">
-                        TOTAL HISTÓRICO:
+                        TOTAL DEL PERIODO:
                       </td>
                       <td className="text-end px-3 text-primary">
-                        C$ {itemsProveedor.reduce((sum, item) => sum + (item.monto || 0), 0).toLocaleString()}
+                        C$ {itemsProveedor.reduce((sum, item) => sum + (item.total || 0), 0).toLocaleString()}
                       </td>
                     </tr>
                   </tfoot>
@@ -230,7 +198,10 @@ export const ComprasPorProveedor = () => {
           <FontAwesomeIcon icon={faTruck} />
           <h5 className="m-0 fw-bold">Reporte de Compras por Proveedor</h5>
         </div>
-        <div className="d-flex gap-2">
+        <div className="d-flex gap-2 align-items-center">
+          <FontAwesomeIcon icon={faCalendar} />
+          <Input type="date" bsSize="sm" value={desde} max={hasta} onChange={e => setDesde(e.target.value)} style={{ width: '140px' }} />
+          <Input type="date" bsSize="sm" value={hasta} min={desde} onChange={e => setHasta(e.target.value)} style={{ width: '140px' }} />
           <Button color="secondary" size="sm" outline onClick={() => navigate('/admin/reportes')} style={{ fontSize: '0.75rem' }}>
             <FontAwesomeIcon icon={faArrowLeft} className="me-1" /> Volver
           </Button>
@@ -243,8 +214,8 @@ export const ComprasPorProveedor = () => {
             <tr>
               <th className="py-2 text-start px-3">Proveedor</th>
               <th className="py-2">RUC / ID</th>
-              <th className="py-2">Teléfono</th>
               <th className="py-2">No. Compras</th>
+              <th className="py-2">Última Compra</th>
               <th className="py-2 text-end">Total Comprado</th>
               <th className="py-2 px-3 text-center">Acciones</th>
             </tr>
@@ -256,45 +227,35 @@ export const ComprasPorProveedor = () => {
                   <Spinner color="primary" />
                 </td>
               </tr>
-            ) : proveedores.length > 0 ? (
-              proveedores.map(prov => {
-                const totalCompras = calcularTotalPorProveedor(prov.id);
-                const numCompras = contarComprasPorProveedor(prov.id);
-                return (
-                  <tr key={prov.id} className="align-middle" style={{ fontSize: '0.8rem' }}>
-                    <td className="fw-bold px-3">{prov.nombre}</td>
-                    <td className="text-center text-muted small">{prov.ruc || '-'}</td>
-                    <td className="text-center small text-muted">{prov.telefono || '-'}</td>
-                    <td className="text-center">
-                      <Badge color="primary" pill style={{ fontSize: '0.7rem' }}>
-                        {numCompras} envíos
-                      </Badge>
-                    </td>
-                    <td className="text-end fw-bold text-success">C$ {totalCompras.toLocaleString()}</td>
-                    <td className="text-center">
-                      <Badge color={prov.activo ? 'success' : 'danger'} pill style={{ fontSize: '0.65rem' }}>
-                        {prov.activo ? 'Activo' : 'Inactivo'}
-                      </Badge>
-                    </td>
-                    <td className="text-center px-3">
-                      <Button
-                        size="sm"
-                        className="bg-white shadow-sm border text-decoration-none fw-bold px-3 py-1"
-                        onClick={() => verDetallesDirecto(prov)}
-                        disabled={numCompras === 0}
-                        style={{ fontSize: '0.75rem', color: '#8e44ad', borderRadius: '8px', border: '1px solid #dee2e6' }}
-                      >
-                        <FontAwesomeIcon icon={faEye} className="me-2" />
-                        VER COMPRAS
-                      </Button>
-                    </td>
-                  </tr>
-                );
-              })
+            ) : compras.length > 0 ? (
+              compras.map(compra => (
+                <tr key={compra.proveedorId} className="align-middle" style={{ fontSize: '0.8rem' }}>
+                  <td className="fw-bold px-3">{compra.nombre}</td>
+                  <td className="text-center text-muted small">{compra.ruc || '-'}</td>
+                  <td className="text-center">
+                    <Badge color="primary" pill style={{ fontSize: '0.7rem' }}>
+                      {compra.compras} envíos
+                    </Badge>
+                  </td>
+                  <td className="text-center small text-muted">{dayjs(compra.ultimaCompra).format('DD/MM/YY')}</td>
+                  <td className="text-end fw-bold text-success">C$ {compra.total?.toLocaleString()}</td>
+                  <td className="text-center px-3">
+                    <Button
+                      size="sm"
+                      className="bg-white shadow-sm border text-decoration-none fw-bold px-3 py-1"
+                      onClick={() => verDetallesDirecto(compra)}
+                      style={{ fontSize: '0.75rem', color: '#8e44ad', borderRadius: '8px', border: '1px solid #dee2e6' }}
+                    >
+                      <FontAwesomeIcon icon={faEye} className="me-2" />
+                      VER COMPRAS
+                    </Button>
+                  </td>
+                </tr>
+              ))
             ) : (
               <tr>
                 <td colSpan={6} className="text-center py-5 text-muted small">
-                  No hay proveedores registrados
+                  No hay compras en el periodo
                 </td>
               </tr>
             )}
@@ -3,21 +3,19 @@ import { Container, Row, Col, Card, CardBody, CardTitle, Table, Badge, Button, I
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 import { faMoneyBillWave, faArrowLeft, faDownload, faCalendarAlt, faFilter } from '@fortawesome/free-solid-svg-icons';
 import { useNavigate } from 'react-router-dom';
-import VentaService from 'app/services/venta.service';
-import ArticuloService from 'app/services/articulo.service';
-import DevolucionService from 'app/services/devolucion.service';
-import DetalleDevolucionService from 'app/services/detalle-devolucion.service';
-import { IDetalleVenta } from 'app/shared/model/detalle-venta.model';
-import { IArticulo } from 'app/shared/model/articulo.model';
+import ReporteService from 'app/services/reporte.service';
+import { IGananciaArticulo, IGananciaPeriodo } from 'app/shared/model/reporte.model';
 import dayjs from 'dayjs';
-import { BarChart, Bar, XAxis, YAxis, CartesianGrid, Tooltip, ResponsiveContainer, Cell } from 'recharts';
 import * as XLSX from 'xlsx-js-style';
 
+// Artículos de las tarjetas; la exportación recorre todas las páginas
+const TOP_ARTICULOS = 8;
+const TAMANO_PAGINA_EXPORTACION = 500;
+
 export const ReporteGanancias = () => {
   const navigate = useNavigate();
-  const [detalles, setDetalles] = useState<IDetalleVenta[]>([]);
-  const [articulos, setArticulos] = useState<IArticulo[]>([]);
-  const [devoluciones, setDevoluciones] = useState<any[]>([]);
+  const [resumen, setResumen] = useState<IGananciaPeriodo | null>(null);
+  const [topArticulos, setTopArticulos] = useState<IGananciaArticulo[]>([]);
   const [loading, setLoading] = useState(true);
   const [fechaInicio, setFechaInicio] = useState(dayjs().startOf('month').format('YYYY-MM-DD'));
   const [fechaFin, setFechaFin] = useState(dayjs().format('YYYY-MM-DD'));
@@ -28,23 +26,27 @@ export const ReporteGanancias = () => {
 
   useEffect(() => {
     fetchData();
-  }, []);
+  }, [filterRange]);
 
   const handleFiltrar = () => {
     setFilterRange({ start: fechaInicio, end: fechaFin });
   };
 
+  // El servidor calcula ventas, costo al momento de la venta y devoluciones del rango
+  const rango = () => ({
+    desde: dayjs(filterRange.start).startOf('day').toISOString(),
+    hasta: dayjs(filterRange.end).add(1, 'day').startOf('day').toISOString(),
+  });
+
   const fetchData = async () => {
     setLoading(true);
     try {
-      const artRes = await ArticuloService.getAll({ page: 0, size: 2000 });
-      const detRes = await VentaService.getAllDetalles({ size: 5000, sort: 'id,desc' });
-      const devRes = await DetalleDevolucionService.getAll({ size: 2000, sort: 'id,desc' });
-      setArticulos(artRes.data);
-      setDetalles(detRes.data);
-      setDevoluciones(devRes.data);
-      console.warn('Ventas cargadas:', detRes.data.length);
-      console.warn('Devoluciones cargadas:', devRes.data.length);
+      const [resRes, artRes] = await Promise.all([
+        ReporteService.getGanancias(rango()),
+        ReporteService.getGananciasPorArticulo({ ...rango(), page: 0, size: TOP_ARTICULOS }),
+      ]);
+      setResumen(resRes.data);
+      setTopArticulos(artRes.data);
     } catch (error) {
       console.error('Error fetching data:', error);
     } finally {
@@ -52,119 +54,34 @@ export const ReporteGanancias = () => {
     }
   };
 
-  const filteredDetalles = detalles.filter(det => {
-    if (!det.venta || !det.venta.fecha) {
-      return false;
-    }
-    const fechaVenta = dayjs(det.venta.fecha);
-    const isAnulada = det.venta.anulada === true;
-    const isWithinRange =
-      fechaVenta.isAfter(dayjs(filterRange.start).startOf('day').subtract(1, 'ms')) &&
-      fechaVenta.isBefore(dayjs(filterRange.end).endOf('day').add(1, 'ms'));
-
-    return !isAnulada && isWithinRange;
-  });
+  const totalUtilidad = resumen?.utilidad || 0;
+  const margenPromedio = resumen?.margen || 0;
 
-  const filteredDevoluciones = devoluciones.filter(dev => {
-    if (!dev.devolucion || !dev.devolucion.fecha) return false;
-    const fechaDev = dayjs(dev.devolucion.fecha);
-    const isWithinRange =
-      fechaDev.isAfter(dayjs(filterRange.start).startOf('day').subtract(1, 'ms')) &&
-      fechaDev.isBefore(dayjs(filterRange.end).endOf('day').add(1, 'ms'));
-    return isWithinRange;
-  });
-
-  if (filteredDevoluciones.length > 0) {
-    console.warn('Devoluciones encontradas:', filteredDevoluciones);
-  }
-
-  const processedData = filteredDetalles.map(det => {
-    const articulo = articulos.find(a => a.id === det.articulo?.id);
-    const costoUnitario = articulo?.costo || 0;
-    const costoTotal = costoUnitario * (det.cantidad || 0);
-    const montoVenta = det.monto || 0;
-    const utilidad = montoVenta - costoTotal;
-    const margen = montoVenta > 0 ? (utilidad / montoVenta) * 100 : 0;
-
-    return {
-      ...det,
-      costoUnitario,
-      costoTotal,
-      utilidad,
-      margen,
-    };
+  const aRanking = (item: IGananciaArticulo) => ({
+    id: item.articuloId,
+    nombre: item.nombre,
+    codigo: item.codigo,
+    cant: item.cantidad || 0,
+    ganancia: item.utilidad || 0,
+    ventaTotal: item.ventas || 0,
   });
 
-  const totalVendido = processedData.reduce((acc, d) => acc + (d.monto || 0), 0);
-  const totalCosto = processedData.reduce((acc, d) => acc + d.costoTotal, 0);
+  const rankingArticulos = topArticulos.map(aRanking);
 
-  // Descontar Devoluciones (Solo el monto NETO para que coincida con el cálculo de ventas sin IVA)
-  const totalDevueltoMonto = filteredDevoluciones.reduce((acc, d) => acc + (d.cantidad || 0) * (d.precioUnitario || 0), 0);
-  const totalDevueltoCosto = filteredDevoluciones.reduce((acc, d) => {
-    const articulo = articulos.find(a => a.id === d.articulo?.id);
-    return acc + (articulo?.costo || 0) * (d.cantidad || 0);
-  }, 0);
-
-  const ventasNetas = totalVendido - totalDevueltoMonto;
-  const costoNeto = totalCosto - totalDevueltoCosto;
-  const totalUtilidad = ventasNetas - costoNeto;
-  const margenPromedio = ventasNetas > 0 ? (totalUtilidad / ventasNetas) * 100 : 0;
-
-  // Data for chart: Profit by category
-  const profitByCategory = processedData.reduce((acc, d) => {
-    const cat = d.articulo?.categoria?.nombre || 'General';
-    acc[cat] = (acc[cat] || 0) + d.utilidad;
-    return acc;
-  }, {});
-
-  const chartData = Object.keys(profitByCategory)
-    .map(name => ({
-      name,
-      utilidad: profitByCategory[name],
-    }))
-    .sort((a, b) => b.utilidad - a.utilidad);
-
-  const rankingArticulos = (() => {
-    const accArt = processedData.reduce((acc, d) => {
-      const id = d.articulo?.id;
-      const existing = acc.find(item => item.id === id);
-      const ventaMonto = d.monto || 0;
-      if (existing) {
-        existing.cant += d.cantidad || 0;
-        existing.ganancia += d.utilidad;
-        existing.ventaTotal += ventaMonto;
-      } else {
-        acc.push({
-          id,
-          nombre: d.articulo?.nombre,
-          codigo: d.articulo?.codigo,
-          cant: d.cantidad || 0,
-          ganancia: d.utilidad,
-          ventaTotal: ventaMonto,
-        });
-      }
-      return acc;
-    }, [] as any[]);
-
-    // Restar devoluciones de la tabla de rentabilidad (Usando montos netos)
-    filteredDevoluciones.forEach(dev => {
-      const articulo = articulos.find(a => a.id === dev.articulo?.id);
-      const montoNetoDev = (dev.cantidad || 0) * (dev.precioUnitario || 0);
-      const costoTotalDev = (articulo?.costo || 0) * (dev.cantidad || 0);
-      const utilidadPerdida = montoNetoDev - costoTotalDev;
-
-      const item = accArt.find(a => a.id === dev.articulo?.id);
-      if (item) {
-        item.ganancia -= utilidadPerdida;
-        item.ventaTotal -= montoNetoDev;
-        item.cant -= dev.cantidad || 0;
+  const cargarRankingCompleto = async () => {
+    const todos: IGananciaArticulo[] = [];
+    for (let page = 0; ; page++) {
+      const res = await ReporteService.getGananciasPorArticulo({ ...rango(), page, size: TAMANO_PAGINA_EXPORTACION });
+      todos.push(...res.data);
+      if (res.data.length < TAMANO_PAGINA_EXPORTACION) {
+        return todos.map(aRanking);
       }
-    });
+    }
+  };
 
-    return accArt.sort((a, b) => b.ganancia - a.ganancia);
-  })();
+  const exportToExcel = async () => {
+    const ranking = await cargarRankingCompleto();
 
-  const exportToExcel = () => {
     // 1. Preparar encabezados y metadatos
     const wb = XLSX.utils.book_new();
 
@@ -182,7 +99,7 @@ export const ReporteGanancias = () => {
     ];
 
     // 2. Preparar tabla de artículos
-    const tablaArticulos = rankingArticulos.map(item => ({
+    const tablaArticulos = ranking.map(item => ({
       Código: item.codigo,
       Artículo: item.nombre,
       'Vendidos (Neto)': item.cant,
@@ -281,7 +198,7 @@ export const ReporteGanancias = () => {
         </CardBody>
       </Card>
 
-      {filteredDetalles.length === 0 && !loading && (
+      {rankingArticulos.length === 0 && !loading && (
         <Card className="border-0 shadow-sm mb-4 bg-light">
           <CardBody className="text-center py-5 text-muted">
             <FontAwesomeIcon icon={faCalendarAlt} size="3x" className="mb-3 opacity-25" />
@@ -367,7 +284,7 @@ export const ReporteGanancias = () => {
                     </Col>
                   );
                 })}
-                {processedData.length === 0 && !loading && (
+                {rankingArticulos.length === 0 && !loading && (
                   <Col className="text-center py-4 text-muted small">No hay datos de ventas para mostrar el ranking.</Col>
                 )}
               </Row>
@@ -58,9 +58,13 @@ export const ReporteImpuestos = () => {
 
       // Traer data
       const resVentas = await VentaService.getAll({ size: 2000, sort: 'fecha,desc' });
-      const resDevoluciones = await DevolucionService.getAll();
-
       const selectedMonth = dayjs(mes).startOf('month');
+      // Solo las devoluciones del mes, filtradas en el servidor
+      const resDevoluciones = await DevolucionService.getAll({
+        'fecha.greaterThanOrEqual': selectedMonth.toISOString(),
+        'fecha.lessThan': selectedMonth.add(1, 'month').toISOString(),
+        size: 2000,
+      });
 
       // Filtrar ventas del mes que NO estén anuladas
       const monthSales = resVentas.data.filter(v =>
@@ -51,9 +51,13 @@ export const ResumenIngresos = () => {
     setLoading(true);
     try {
       const resVentas = await VentaService.getAll({ size: 1000, sort: 'fecha,desc' });
-      const resDevoluciones = await DevolucionService.getAll();
-
       const selectedDate = dayjs(fecha).startOf('day');
+      // Solo las devoluciones del día, filtradas en el servidor
+      const resDevoluciones = await DevolucionService.getAll({
+        'fecha.greaterThanOrEqual': selectedDate.toISOString(),
+        'fecha.lessThan': selectedDate.add(1, 'day').toISOString(),
+        size: 1000,
+      });
 
       const daySales = resVentas.data.filter(v =>
         dayjs(v.fecha).isSame(selectedDate, 'day') && !v.anulada
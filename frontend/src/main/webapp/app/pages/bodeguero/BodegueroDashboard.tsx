@@ -39,20 +39,32 @@ export const BodegueroDashboard = () => {
     loadDashboardData();
   }, []);
 
+  // Alertas de stock bajo en vivo: la lista llega al conectar y luego solo los cambios
+  useEffect(() => {
+    return ArticuloService.suscribirBajoStock(setArticulosBajo, cambio => {
+      setArticulosBajo(prev => {
+        const resto = prev.filter(a => a.id !== cambio.id);
+        return cambio.bajoStock ? [...resto, cambio].sort((a, b) => (a.existencia || 0) - (b.existencia || 0)) : resto;
+      });
+    });
+  }, []);
+
+  useEffect(() => {
+    setStats(s => ({ ...s, bajoStock: articulosBajo.length }));
+  }, [articulosBajo]);
+
   const loadDashboardData = async () => {
     setLoading(true);
     try {
-      const [resArt, resIng, resCat] = await Promise.all([
-        ArticuloService.getAll(),
+      const [resActivos, resIng, resCat] = await Promise.all([
+        ArticuloService.countByCriteria({ 'activo.equals': true }),
         IngresoService.getAll({ sort: 'id,desc', size: 100 }),
         CategoriaService.getAll(),
       ]);
 
-      const articulos = resArt.data;
       const ingresos = resIng.data; // Ya vienen ordenados del servidor
       const categorias = resCat.data;
 
-      const bajoStockList = articulos.filter(a => a.activo && (a.existencia || 0) <= (a.existenciaMinima || 0));
       const today = dayjs().startOf('day');
       const comprasHoy = ingresos.filter(i => {
         const fechaIngreso = dayjs(i.fecha).startOf('day');
@@ -60,17 +72,15 @@ export const BodegueroDashboard = () => {
       }).length;
 
       const categoriasActivas = categorias.filter(c => c.activo !== false);
-      const productosActivos = articulos.filter(a => a.activo !== false);
 
-      setStats({
-        totalProductos: productosActivos.length,
-        bajoStock: bajoStockList.length,
+      setStats(s => ({
+        ...s,
+        totalProductos: resActivos.data,
         comprasHoy,
         totalCategorias: categoriasActivas.length,
-      });
+      }));
 
       setRecientes(ingresos.slice(0, 6)); // Últimos 6 ingresos
-      setArticulosBajo(bajoStockList.slice(0, 6)); // Primeros 6 con bajo stock
     } catch (e) {
       console.error('Error cargando dashboard', e);
     } finally {
@@ -250,7 +260,7 @@ export const BodegueroDashboard = () => {
               </div>
               <div className="d-flex flex-column gap-2 mt-3">
                 {articulosBajo.length > 0 ? (
-                  articulosBajo.map(art => {
+                  articulosBajo.slice(0, 6).map(art => {
                     const existencia = art.existencia || 0;
                     const minima = art.existenciaMinima || 0;
 
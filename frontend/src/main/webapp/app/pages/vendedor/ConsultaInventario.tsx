@@ -66,25 +66,15 @@ export const ConsultaInventario = () => {
       let data: IArticulo[] = [];
       let fetchCount = 0;
 
-      // Filtro de Texto (búsqueda en ambos campos)
+      // Filtro de Texto (una sola búsqueda en código, nombre y descripción, por relevancia)
       if (debouncedFilter) {
-        const paramsCodigo = { ...baseParams, 'codigo.contains': debouncedFilter };
-        const paramsNombre = { ...baseParams, 'nombre.contains': debouncedFilter };
-
-        const [resCodigo, resNombre] = await Promise.all([
-          ArticuloService.getAll(paramsCodigo),
-          ArticuloService.getAll(paramsNombre)
-        ]);
-
-        const combinados = [...(resCodigo.data || []), ...(resNombre.data || [])];
-        const vistos = new Set<number>();
-        data = combinados.filter(art => {
-          if (vistos.has(art.id!)) return false;
-          vistos.add(art.id!);
-          return true;
+        const res = await ArticuloService.search(debouncedFilter, {
+          categoriaId: catFilter ? Number(catFilter) : undefined,
+          page: currentPage,
+          size: 12,
         });
-
-        fetchCount = Math.max((resCodigo.data || []).length, (resNombre.data || []).length);
+        data = res.data || [];
+        fetchCount = data.length;
       } else {
         const resArt = await ArticuloService.getAll(baseParams);
         data = resArt.data || [];
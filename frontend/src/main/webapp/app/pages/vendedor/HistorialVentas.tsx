@@ -123,7 +123,9 @@ export const HistorialVentas = () => {
       // Cargar devoluciones de estas ventas para identificar saldos
       if (data.length > 0) {
         try {
-          const resDev = await DevolucionService.getAll(); // Podemos optimizar esto luego si crece mucho
+          // Solo las devoluciones de las ventas de la página
+          const ventaIds = data.map((v: IVenta) => v.id).filter((id: number | undefined) => id != null);
+          const resDev = await DevolucionService.getAll({ 'ventaId.in': ventaIds.join(','), size: 1000 });
           const devData = Array.isArray(resDev.data) ? resDev.data : (resDev.data as any).content || [];
           const map: Record<number, number> = {};
           devData.forEach((d: IDevolucion) => {
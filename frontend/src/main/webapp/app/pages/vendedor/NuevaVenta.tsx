@@ -1,6 +1,5 @@
 import React, { useEffect, useState, useRef } from 'react';
 import { Row } from 'reactstrap';
-import ArticuloService from 'app/services/articulo.service';
 import VentaService from 'app/services/venta.service';
 import ClienteService from 'app/services/cliente.service';
 import MonedaService from 'app/services/moneda.service';
@@ -327,29 +326,18 @@ export const NuevaVenta = () => {
         cliente,
         usuario: usuarioActual,
         moneda: monedaFinal,
-        numeracion,
-        noFactura: (numeracion?.correlativoActual || 0) + 1,
+        numeracion, // El número de factura lo asigna el servidor al registrar
       };
 
-      const resVenta = await VentaService.createVenta(ventaData);
-      const ventaId = resVenta.data.id;
-
-      for (const item of carrito) {
-        await VentaService.addDetalle({
-          cantidad: item.cantidad,
-          precioVenta: item.articulo.precio,
-          monto: item.subtotal,
-          articulo: item.articulo,
-          venta: { id: ventaId },
-        });
-
-        // Actualizar stock del artículo
-        const articuloActualizado = {
-          ...item.articulo,
-          existencia: (item.articulo.existencia || 0) - item.cantidad,
-        };
-        await ArticuloService.update(articuloActualizado);
-      }
+      ventaData.detalles = carrito.map(item => ({
+        cantidad: item.cantidad,
+        precioVenta: item.articulo.precio,
+        monto: item.subtotal,
+        articulo: { id: item.articulo.id },
+      }));
+
+      // Cabecera, detalles y descuento de stock en una sola petición
+      const resVenta = await VentaService.checkout(ventaData);
 
       // Actualizar saldo del cliente si es crédito
       if (!esContado && cliente) {
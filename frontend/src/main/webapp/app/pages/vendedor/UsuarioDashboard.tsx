@@ -1,12 +1,39 @@
 import React, { useEffect, useState } from 'react';
-import { Row, Col, Card, CardBody, Badge, Button, CardTitle } from 'reactstrap';
+import {
+  Row,
+  Col,
+  Card,
+  CardBody,
+  Badge,
+  Button,
+  CardTitle,
+  Modal,
+  ModalHeader,
+  ModalBody,
+  ModalFooter,
+  FormGroup,
+  Label,
+  Input,
+} from 'reactstrap';
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
-import { faCashRegister, faShoppingBag, faUserFriends, faChartLine, faHistory, faBoxes } from '@fortawesome/free-solid-svg-icons';
+import {
+  faCashRegister,
+  faShoppingBag,
+  faUserFriends,
+  faChartLine,
+  faHistory,
+  faBoxes,
+  faLock,
+  faLockOpen,
+} from '@fortawesome/free-solid-svg-icons';
 import { Link } from 'react-router-dom';
+import { toast } from 'react-toastify';
 import VentaService from 'app/services/venta.service';
+import SesionCajaService from 'app/services/sesion-caja.service';
 import ClienteService from 'app/services/cliente.service';
 import ArticuloService from 'app/services/articulo.service';
 import { IVenta } from 'app/shared/model/venta.model';
+import { ISesionCaja } from 'app/shared/model/sesion-caja.model';
 import { useAppSelector } from 'app/config/store';
 import { AreaChart, Area, XAxis, YAxis, CartesianGrid, Tooltip, ResponsiveContainer, BarChart, Bar } from 'recharts';
 import dayjs from 'dayjs';
@@ -27,6 +54,9 @@ export const UsuarioDashboard = () => {
   const [topProductsData, setTopProductsData] = useState<any[]>([]);
   const [topPeriod, setTopPeriod] = useState<'day' | 'week' | 'month'>('month');
   const [loading, setLoading] = useState(true);
+  const [sesion, setSesion] = useState<ISesionCaja | null>(null);
+  const [cajaModalOpen, setCajaModalOpen] = useState(false);
+  const [montoCaja, setMontoCaja] = useState('');
 
   // Recalcular Top 5 productos cada vez que cambie de período
   useEffect(() => {
@@ -64,14 +94,55 @@ export const UsuarioDashboard = () => {
     }
   }, [account]);
 
+  // Caja abierta del usuario con sus totales; sin caja abierta el servidor responde 404
+  const cargarSesion = () =>
+    SesionCajaService.actual()
+      .then(res => res.data)
+      .catch(() => null);
+
+  // Ventas y monto del turno netos de anulaciones: el servidor acredita cada anulación a la caja en la que se registró la venta
+  const resumirSesion = (caja: ISesionCaja | null) => {
+    const totales = caja?.totales || [];
+    return {
+      ventas: totales.reduce((acc, t) => acc + (t.cantidadVentas || 0) - (t.cantidadAnuladas || 0), 0),
+      monto: totales.reduce((acc, t) => acc + (t.total || 0) - (t.totalAnulado || 0), 0),
+    };
+  };
+
+  const toggleCajaModal = () => {
+    setMontoCaja('');
+    setCajaModalOpen(!cajaModalOpen);
+  };
+
+  const confirmarCaja = async () => {
+    const monto = montoCaja.trim() ? Number(montoCaja) : undefined;
+    try {
+      if (sesion) {
+        const res = await SesionCajaService.cerrar(monto);
+        const resumen = resumirSesion(res.data);
+        toast.success(`Caja cerrada: ${resumen.ventas} ventas por C$ ${resumen.monto.toFixed(2)}`);
+        // Sin caja abierta el panel vuelve a mostrar las ventas propias del día
+        loadStats();
+      } else {
+        const res = await SesionCajaService.abrir(monto || 0);
+        toast.success('Caja abierta');
+        setSesion(res.data);
+      }
+      setCajaModalOpen(false);
+    } catch (e) {
+      console.error(e);
+      toast.error(sesion ? 'No se pudo cerrar la caja.' : 'No se pudo abrir la caja.');
+    }
+  };
+
   const loadStats = async () => {
     setLoading(true);
     try {
       // Pedimos ventas de los últimos 30 días para asegurar que abarca semanas y mes
       const startOfLastMonth = dayjs().subtract(1, 'month').startOf('month');
 
-      const [resVentasHoy, resVentasRecientes, resClie, resArt, resDetalles] = await Promise.all([
-        VentaService.getVentasHoy(),
+      const [caja, resVentasRecientes, resClie, resArt, resDetalles] = await Promise.all([
+        cargarSesion(),
         VentaService.getAll({
           'fecha.greaterThanOrEqual': startOfLastMonth.toISOString(),
           size: 2000,
@@ -82,17 +153,21 @@ export const UsuarioDashboard = () => {
         VentaService.getAllDetalles({ size: 2000 })
       ]);
 
-      // Filtrar ventas para calcular los totales de Hoy
+      // Los totales del turno los mantiene el servidor en la caja abierta; sin caja, las ventas propias de hoy
       const loginActual = account.login;
-
-      const misVentasHoy = resVentasHoy.data.filter(v => !v.anulada && v.usuario?.username === loginActual);
-      const monto = misVentasHoy.reduce((acc, v) => acc + (v.total || 0), 0);
+      setSesion(caja);
+      const ventasDeHoy = resVentasRecientes.data.filter(
+        v => v.usuario?.username === loginActual && !v.anulada && dayjs(v.fecha).isSame(dayjs(), 'day'),
+      );
+      const turno = caja
+        ? resumirSesion(caja)
+        : { ventas: ventasDeHoy.length, monto: ventasDeHoy.reduce((acc, v) => acc + (v.total || 0), 0) };
 
       const bajoStock = resArt.data.filter(a => a.activo && (a.existencia || 0) <= (a.existenciaMinima || 0)).length;
 
       setStats({
-        ventasHoy: misVentasHoy.length,
-        montoHoy: monto,
+        ventasHoy: turno.ventas,
+        montoHoy: turno.monto,
         clientesTotal: resClie.data.filter((c: any) => c.activo !== false).length,
         productosBajoStock: bajoStock,
       });
@@ -144,11 +219,45 @@ export const UsuarioDashboard = () => {
     <div className="animate__animated animate__fadeIn p-2">
       <div className="d-flex justify-content-between align-items-center mb-4">
         <h4 className="fw-bold text-black mb-0">👋 Bienvenido(a), {account?.firstName || account?.login}</h4>
-        <Button color="primary" tag={Link} to="/vendedor/nueva-venta" className="rounded-pill px-4 fw-bold shadow-sm">
-          <FontAwesomeIcon icon={faCashRegister} className="me-2" /> Nueva Factura
-        </Button>
+        <div className="d-flex gap-2">
+          <Button
+            color={sesion ? 'outline-danger' : 'outline-success'}
+            className="rounded-pill px-4 fw-bold shadow-sm"
+            onClick={toggleCajaModal}
+            disabled={loading}
+          >
+            <FontAwesomeIcon icon={sesion ? faLock : faLockOpen} className="me-2" /> {sesion ? 'Cerrar Caja' : 'Abrir Caja'}
+          </Button>
+          <Button color="primary" tag={Link} to="/vendedor/nueva-venta" className="rounded-pill px-4 fw-bold shadow-sm">
+            <FontAwesomeIcon icon={faCashRegister} className="me-2" /> Nueva Factura
+          </Button>
+        </div>
       </div>
 
+      <Modal isOpen={cajaModalOpen} toggle={toggleCajaModal} centered>
+        <ModalHeader toggle={toggleCajaModal}>{sesion ? 'Cerrar Caja' : 'Abrir Caja'}</ModalHeader>
+        <ModalBody>
+          {sesion && (
+            <p className="small text-muted">
+              Turno abierto desde {dayjs(sesion.fechaApertura).format('DD/MM/YYYY HH:mm')} con C${' '}
+              {(sesion.montoInicial || 0).toFixed(2)}
+            </p>
+          )}
+          <FormGroup>
+            <Label className="small fw-bold text-uppercase">{sesion ? 'Efectivo contado (C$)' : 'Monto inicial (C$)'}</Label>
+            <Input type="number" min="0" step="0.01" value={montoCaja} onChange={e => setMontoCaja(e.target.value)} />
+          </FormGroup>
+        </ModalBody>
+        <ModalFooter>
+          <Button color="secondary" onClick={toggleCajaModal}>
+            Cancelar
+          </Button>
+          <Button color={sesion ? 'danger' : 'success'} onClick={confirmarCaja}>
+            {sesion ? 'Cerrar Caja' : 'Abrir Caja'}
+          </Button>
+        </ModalFooter>
+      </Modal>
+
       <Row className="g-3 mb-4">
         <Col md="4">
           <Card
@@ -163,7 +272,7 @@ export const UsuarioDashboard = () => {
                 <div className="text-end">
                   <div style={{ fontSize: '1.35rem', fontWeight: 700, color: 'white' }}>{stats.ventasHoy}</div>
                   <div style={{ color: 'rgba(255, 255, 255, 0.8)', fontWeight: 600, fontSize: '0.65rem', textTransform: 'uppercase', letterSpacing: '0.05em' }}>
-                    Ventas Realizadas
+                    {sesion ? 'Ventas del Turno' : 'Caja Cerrada'}
                   </div>
                 </div>
               </div>
@@ -184,7 +293,7 @@ export const UsuarioDashboard = () => {
                 <div className="text-end">
                   <div style={{ fontSize: '1.35rem', fontWeight: 700, color: 'white' }}>C$ {stats.montoHoy.toFixed(2)}</div>
                   <div style={{ color: 'rgba(255, 255, 255, 0.8)', fontWeight: 600, fontSize: '0.65rem', textTransform: 'uppercase', letterSpacing: '0.05em' }}>
-                    Total del Día
+                    Total del Turno
                   </div>
                 </div>
               </div>
@@ -4,8 +4,7 @@ import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 import { faUndo, faBox, faCalculator, faExclamationTriangle } from '@fortawesome/free-solid-svg-icons';
 import { IVenta, IDetalleVenta } from 'app/shared/model';
 import { IDetalleDevolucion } from 'app/shared/model/detalle-devolucion.model';
-import { DevolucionService } from 'app/services/devolucion.service';
-import { IDevolucion } from 'app/shared/model/devolucion.model';
+import { VentaService } from 'app/services/venta.service';
 
 interface DevolucionModalProps {
   isOpen: boolean;
@@ -35,16 +34,15 @@ export const DevolucionModal: React.FC<DevolucionModalProps> = ({ isOpen, toggle
     if (!venta?.id) return;
     setLoading(true);
     try {
-      const resp = await DevolucionService.getByVenta(venta.id);
-      const devoluciones = resp.data;
+      // El servidor agrega lo vendido y lo ya devuelto por artículo
+      const resp = await VentaService.getRetornable(venta.id);
 
       const previas: { [key: number]: number } = {};
-      devoluciones.forEach(dev => {
-        dev.detalles?.forEach(det => {
-          if (det.articulo?.id) {
-            previas[det.articulo.id] = (previas[det.articulo.id] || 0) + (det.cantidad || 0);
-          }
-        });
+      resp.data.forEach(fila => {
+        if (fila.articuloId) {
+          // Lo que ya no puede devolverse (todo, si la venta está anulada)
+          previas[fila.articuloId] = (fila.vendida || 0) - (fila.retornable || 0);
+        }
       });
       setCantidadesDevueltasPrevias(previas);
     } catch (error) {
@@ -60,23 +60,13 @@ export const ProductCatalog: React.FC<IProductCatalogProps> = ({
       let totalFetched = 0;
 
       if (debouncedTermino) {
-        const paramsCodigo = { ...baseParams, 'codigo.contains': debouncedTermino };
-        const paramsNombre = { ...baseParams, 'nombre.contains': debouncedTermino };
-
-        const [resCodigo, resNombre] = await Promise.all([
-          ArticuloService.getAll(paramsCodigo),
-          ArticuloService.getAll(paramsNombre),
-        ]);
-
-        const combinados = [...(resCodigo.data || []), ...(resNombre.data || [])];
-        const vistos = new Set<number>();
-        data = combinados.filter(art => {
-          if (vistos.has(art.id!)) return false;
-          vistos.add(art.id!);
-          return true;
+        // Catálogo en memoria del servidor: un solo lote con los más relevantes
+        const res = await ArticuloService.buscarEnCatalogo(debouncedTermino, {
+          categoriaId: baseParams['categoriaId.equals'],
+          limite: 50,
         });
-
-        totalFetched = Math.max((resCodigo.data || []).length, (resNombre.data || []).length);
+        data = res.data || [];
+        totalFetched = data.length;
       } else {
         const res = await ArticuloService.getAll(baseParams);
         data = res.data || [];
@@ -94,7 +84,7 @@ export const ProductCatalog: React.FC<IProductCatalogProps> = ({
           return [...prev, ...nuevosUnicos];
         });
       }
-      setHasMore(totalFetched === pageSize);
+      setHasMore(!debouncedTermino && totalFetched === pageSize);
     } catch (e) {
       console.error("Error al cargar productos", e);
     } finally {
@@ -133,6 +123,19 @@ export const ProductCatalog: React.FC<IProductCatalogProps> = ({
     if (node) observer.current.observe(node);
   }, [loading, hasMore]);
 
+  // Lector de código de barras: escribe el código y envía Enter
+  const agregarPorCodigo = async (e: React.KeyboardEvent<HTMLInputElement>) => {
+    const codigo = termino.trim();
+    if (e.key !== 'Enter' || !codigo) return;
+    try {
+      const res = await ArticuloService.getByCodigo(codigo);
+      agregarAlCarrito(res.data);
+      setTermino('');
+    } catch {
+      // Sin coincidencia exacta: se quedan los resultados de la búsqueda
+    }
+  };
+
   return (
     <Col md="7">
       <Card className="shadow-sm mb-2 border rounded-3 overflow-hidden">
@@ -149,6 +152,7 @@ export const ProductCatalog: React.FC<IProductCatalogProps> = ({
                 autoFocus
                 value={termino}
                 onChange={e => setTermino(e.target.value)}
+                onKeyDown={agregarPorCodigo}
               />
               {loading && page === 0 && <Spinner size="sm" color="primary" className="ms-2" />}
             </Col>
@@ -153,7 +153,8 @@ export const VentaSidebar: React.FC<IVentaSidebarProps> = ({
         <CardHeader className="bg-dark text-white d-flex justify-content-between align-items-center py-2 px-3">
           <small className="mb-0 fw-bold">
             <FontAwesomeIcon icon={faShoppingCart} className="me-2 text-primary" /> Factura{' '}
-            {numeracion ? `${numeracion.serie}-${String((numeracion.correlativoActual || 0) + 1).padStart(6, '0')}` : '...'}
+            {numeracion ? numeracion.serie : '...'}
+            <span className="fw-normal opacity-75 ms-1">(Nº al registrar)</span>
           </small>
 
         </CardHeader>
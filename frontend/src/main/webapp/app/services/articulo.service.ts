@@ -1,5 +1,6 @@
 import axios from 'axios';
-import { IArticulo } from '../shared/model/articulo.model';
+import { Storage } from 'react-jhipster';
+import { IAjustePrecios, IArticulo, IImportacionArticulos } from '../shared/model/articulo.model';
 
 const API_URL = 'api/articulos';
 
@@ -10,6 +11,25 @@ const getAll = (params?: any) => {
   return axios.get<IArticulo[]>(API_URL, { params });
 };
 
+// Búsqueda por código, nombre o descripción (sin acentos, tolera errores), ordenada por relevancia
+const search = (q: string, params?: { categoriaId?: number; page?: number; size?: number }) => {
+  return axios.get<IArticulo[]>(`${API_URL}/search`, { params: { q, ...params } });
+};
+
+// Búsqueda del punto de venta, atendida desde el catálogo en memoria del servidor (sin paginación)
+const buscarEnCatalogo = (q: string, params?: { categoriaId?: number; limite?: number }) => {
+  return axios.get<IArticulo[]>(`${API_URL}/catalogo`, { params: { q, ...params } });
+};
+
+const getByCodigo = (codigo: string) => {
+  return axios.get<IArticulo>(`${API_URL}/codigo/${encodeURIComponent(codigo)}`);
+};
+
+// Varios códigos en una sola petición; los que no existen se omiten
+const getByCodigos = (codigos: string[]) => {
+  return axios.post<IArticulo[]>(`${API_URL}/codigo/lote`, codigos);
+};
+
 const getById = (id: number) => {
   return axios.get<IArticulo>(`${API_URL}/${id}`);
 };
@@ -26,8 +46,74 @@ const remove = (id: number) => {
   return axios.delete(`${API_URL}/${id}`);
 };
 
-const getBajoStock = () => {
-  return axios.get<IArticulo[]>(`${API_URL}?existencia.lessThan=existenciaMinima`);
+// Artículos activos con existencia en o bajo el mínimo (el servidor los mantiene en memoria)
+// Stock bajo por Server-Sent Events. Se usa fetch en lugar de EventSource para poder enviar el token.
+// Al conectar (y al reconectar) llega la lista completa; después, cada evento trae un artículo, con
+// bajoStock = false si salió de la lista. Devuelve una función que cierra la conexión.
+const suscribirBajoStock = (
+  onLista: (articulos: IArticulo[]) => void,
+  onCambio: (articulo: IArticulo & { bajoStock?: boolean }) => void,
+) => {
+  const controller = new AbortController();
+  const token = Storage.local.get('jhi-authenticationToken') || Storage.session.get('jhi-authenticationToken');
+  const conectar = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        const response = await fetch(`${SERVER_API_URL}${API_URL}/bajo-stock/stream`, {
+          headers: token ? { Authorization: `Bearer ${token}`, Accept: 'text/event-stream' } : { Accept: 'text/event-stream' },
+          signal: controller.signal,
+        });
+        if (!response.ok || !response.body) return;
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) break;
+          buffer += value;
+          const eventos = buffer.split('\n\n');
+          buffer = eventos.pop() ?? '';
+          eventos.forEach(evento => {
+            const lineas = evento.split('\n');
+            const nombre = lineas.find(linea => linea.startsWith('event:'))?.slice(6).trim();
+            const data = lineas
+              .filter(linea => linea.startsWith('data:'))
+              .map(linea => linea.slice(5))
+              .join('\n');
+            if (!data) return;
+            if (nombre === 'lista') onLista(JSON.parse(data));
+            else onCambio(JSON.parse(data));
+          });
+        }
+      } catch (e) {
+        if (controller.signal.aborted) return;
+      }
+      // Reconexión tras el timeout del servidor o un corte de red
+      await new Promise(resolve => setTimeout(resolve, 5000));
+    }
+  };
+  conectar();
+  return () => controller.abort();
+};
+
+// Ajuste masivo de precios; devuelve cuántos artículos cambiaron de precio
+const ajustarPrecios = (ajuste: IAjustePrecios) => {
+  return axios.post<number>(`${API_URL}/ajuste-precios`, ajuste);
+};
+
+// Importación de un catálogo CSV o XLSX; el servidor la procesa en segundo plano
+const importar = (file: File) => {
+  const formData = new FormData();
+  formData.append('file', file);
+  return axios.post<IImportacionArticulos>(`${API_URL}/importaciones`, formData, {
+    headers: {
+      'Content-Type': 'multipart/form-data',
+    },
+  });
+};
+
+// Progreso y filas rechazadas de una importación en curso o terminada
+const getImportacion = (id: string) => {
+  return axios.get<IImportacionArticulos>(`${API_URL}/importaciones/${id}`);
 };
 
 const countByCriteria = (criteria: any) => {
@@ -40,10 +126,17 @@ const countByCriteria = (criteria: any) => {
 
 export default {
   getAll,
+  search,
+  buscarEnCatalogo,
+  getByCodigo,
+  getByCodigos,
   getById,
   create,
   update,
   delete: remove,
-  getBajoStock,
+  suscribirBajoStock,
   countByCriteria,
+  ajustarPrecios,
+  importar,
+  getImportacion,
 };
@@ -7,8 +7,23 @@ export const DevolucionService = {
   create(devolucion: IDevolucion) {
     return axios.post<IDevolucion>(API_URL, devolucion);
   },
-  getAll() {
-    return axios.get<IDevolucion[]>(API_URL);
+  getAll(params?: any) {
+    return axios.get<IDevolucion[]>(API_URL, { params });
+  },
+  // Recorre todas las páginas de un filtro siguiendo X-Total-Count; solo para filtros acotados
+  async getAllPages(params?: any, size = 100) {
+    const devoluciones: IDevolucion[] = [];
+    for (let page = 0; ; page++) {
+      const res = await axios.get<IDevolucion[]>(API_URL, { params: { ...params, page, size } });
+      devoluciones.push(...res.data);
+      const total = parseInt(res.headers['x-total-count'] || '0', 10);
+      if (res.data.length < size || devoluciones.length >= total) {
+        return devoluciones;
+      }
+    }
+  },
+  count(params?: any) {
+    return axios.get<number>(`${API_URL}/count`, { params });
   },
   getById(id: number) {
     return axios.get<IDevolucion>(`${API_URL}/${id}`);
@@ -0,0 +1,39 @@
+import axios from 'axios';
+import {
+  ICompraArticuloProveedor,
+  ICompraProveedor,
+  IGananciaArticulo,
+  IGananciaCategoria,
+  IGananciaPeriodo,
+} from '../shared/model/reporte.model';
+
+const API_REPORTES = 'api/reportes';
+
+export const ReporteService = {
+  getComprasPorProveedor(params?: any) {
+    return axios.get<ICompraProveedor[]>(`${API_REPORTES}/compras-proveedor`, { params });
+  },
+
+  getComprasPorArticulo(proveedorId: number, params?: any) {
+    return axios.get<ICompraArticuloProveedor[]>(`${API_REPORTES}/compras-proveedor/${proveedorId}/articulos`, { params });
+  },
+
+  // Totales de ganancia del rango
+  getGanancias(params?: any) {
+    return axios.get<IGananciaPeriodo>(`${API_REPORTES}/ganancias`, { params });
+  },
+
+  getGananciasPorArticulo(params?: any) {
+    return axios.get<IGananciaArticulo[]>(`${API_REPORTES}/ganancias/articulos`, { params });
+  },
+
+  getGananciasPorCategoria(params?: any) {
+    return axios.get<IGananciaCategoria[]>(`${API_REPORTES}/ganancias/categorias`, { params });
+  },
+
+  getGananciasPorPeriodo(params?: any) {
+    return axios.get<IGananciaPeriodo[]>(`${API_REPORTES}/ganancias/periodos`, { params });
+  },
+};
+
+export default ReporteService;
@@ -0,0 +1,27 @@
+import axios from 'axios';
+import { ISesionCaja } from '../shared/model/sesion-caja.model';
+
+const API_URL = 'api/sesiones-caja';
+
+export const SesionCajaService = {
+  // Abrir el turno de caja del usuario autenticado
+  abrir(montoInicial: number) {
+    return axios.post<ISesionCaja>(`${API_URL}/abrir`, { montoInicial });
+  },
+
+  // Cerrar el turno; la respuesta trae los totales acumulados por método de pago y moneda
+  cerrar(montoContado?: number) {
+    return axios.post<ISesionCaja>(`${API_URL}/cerrar`, { montoContado });
+  },
+
+  // Caja abierta del usuario con sus totales (404 si no hay ninguna)
+  actual() {
+    return axios.get<ISesionCaja>(`${API_URL}/actual`);
+  },
+
+  getById(id: number) {
+    return axios.get<ISesionCaja>(`${API_URL}/${id}`);
+  },
+};
+
+export default SesionCajaService;
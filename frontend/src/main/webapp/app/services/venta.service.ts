@@ -1,6 +1,7 @@
 import axios from 'axios';
 import { IVenta } from '../shared/model/venta.model';
 import { IDetalleVenta } from '../shared/model/detalle-venta.model';
+import { ICantidadRetornable } from '../shared/model/devolucion.model';
 
 const API_VENTAS = 'api/ventas';
 const API_DETALLES = 'api/detalle-ventas';
@@ -11,18 +12,16 @@ export const VentaService = {
     return axios.post<IVenta>(API_VENTAS, venta);
   },
 
+  // Registrar la venta completa (cabecera + detalles + stock) en una sola transacción
+  checkout(venta: IVenta) {
+    return axios.post<IVenta>(`${API_VENTAS}/checkout`, venta);
+  },
+
   // Agregar un producto a la venta
   addDetalle(detalle: IDetalleVenta) {
     return axios.post<IDetalleVenta>(API_DETALLES, detalle);
   },
 
-  // Obtener ventas del día (para el Dashboard)
-  getVentasHoy() {
-    const startOfToday = new Date();
-    startOfToday.setHours(0, 0, 0, 0);
-    return axios.get<IVenta[]>(`${API_VENTAS}?fecha.greaterThanOrEqual=${startOfToday.toISOString()}&size=1000`);
-  },
-
   // Obtener una factura completa por ID
   getFactura(id: number) {
     return axios.get<IVenta>(`${API_VENTAS}/${id}`);
@@ -32,6 +31,20 @@ export const VentaService = {
     return axios.get<IVenta[]>(API_VENTAS, { params });
   },
 
+  // Cantidad que aún puede devolverse de cada artículo de la venta
+  getRetornable(id: number) {
+    return axios.get<ICantidadRetornable[]>(`${API_VENTAS}/${id}/retornable`);
+  },
+
+  // Exportar ventas o detalles por rango de fechas (el backend los envía en streaming)
+  exportar(params?: any, formato: 'csv' | 'ndjson' = 'csv') {
+    return axios.get<Blob>(`${API_VENTAS}/export`, { params: { ...params, formato }, responseType: 'blob' });
+  },
+
+  exportarDetalles(params?: any, formato: 'csv' | 'ndjson' = 'csv') {
+    return axios.get<Blob>(`${API_DETALLES}/export`, { params: { ...params, formato }, responseType: 'blob' });
+  },
+
   getAllDetalles(params?: any) {
     return axios.get<IDetalleVenta[]>(API_DETALLES, { params });
   },
@@ -40,6 +53,11 @@ export const VentaService = {
   anular(id: number) {
     return axios.delete(`${API_VENTAS}/${id}`);
   },
+
+  // Anular varias ventas en una sola transacción (correcciones de cierre del día)
+  anularVarias(ids: number[]) {
+    return axios.post<number[]>(`${API_VENTAS}/anular`, ids);
+  },
 };
 
 export default VentaService;
@@ -21,3 +21,35 @@ export interface IArticulo {
 export const defaultArticulo: Readonly<IArticulo> = {
   activo: true,
 };
+
+export interface IErrorFilaImportacion {
+  fila?: number;
+  codigo?: string | null;
+  mensaje?: string;
+}
+
+export interface IImportacionArticulos {
+  id?: string;
+  archivo?: string;
+  estado?: 'EN_PROCESO' | 'TERMINADA' | 'FALLIDA';
+  filasLeidas?: number;
+  insertados?: number;
+  actualizados?: number;
+  filasConError?: number;
+  inicio?: Date | string;
+  fin?: Date | string | null;
+  mensaje?: string | null;
+  errores?: IErrorFilaImportacion[];
+}
+
+export interface IAjustePrecios {
+  tipo: 'PORCENTAJE' | 'MONTO';
+  valor: number;
+  redondeo?: number;
+  modoRedondeo?: 'CERCANO' | 'ARRIBA' | 'ABAJO';
+  categoriaId?: number | null;
+  proveedorId?: number | null;
+  articuloIds?: number[];
+  todos?: boolean;
+  motivo?: string | null;
+}
@@ -11,4 +11,11 @@ export interface IDevolucion {
   detalles?: IDetalleDevolucion[] | null;
 }
 
+export interface ICantidadRetornable {
+  articuloId?: number;
+  vendida?: number;
+  devuelta?: number;
+  retornable?: number;
+}
+
 export const defaultDevolucion: Readonly<IDevolucion> = {};
@@ -14,3 +14,4 @@ export * from './venta.model';
 export * from './user.model';
 export * from './empresa.model';
 export * from './historial-precio.model';
+export * from './sesion-caja.model';
@@ -0,0 +1,46 @@
+import dayjs from 'dayjs';
+
+export interface ICompraProveedor {
+  proveedorId?: number;
+  nombre?: string;
+  ruc?: string | null;
+  compras?: number;
+  total?: number;
+  ultimaCompra?: dayjs.Dayjs;
+}
+
+export interface ICompraArticuloProveedor {
+  articuloId?: number;
+  codigo?: string;
+  nombre?: string;
+  compras?: number;
+  cantidad?: number;
+  total?: number;
+  costoPromedio?: number | null;
+  ultimaCompra?: dayjs.Dayjs;
+}
+
+export interface IGanancia {
+  cantidad?: number;
+  ventas?: number;
+  costo?: number;
+  utilidad?: number;
+  margen?: number | null;
+}
+
+export interface IGananciaArticulo extends IGanancia {
+  articuloId?: number;
+  codigo?: string;
+  nombre?: string;
+  categoria?: string | null;
+}
+
+export interface IGananciaCategoria extends IGanancia {
+  categoriaId?: number | null;
+  nombre?: string | null;
+}
+
+export interface IGananciaPeriodo extends IGanancia {
+  inicio?: dayjs.Dayjs;
+  fin?: dayjs.Dayjs;
+}
@@ -0,0 +1,25 @@
+import { MetodoPagoEnum } from './venta.model';
+import { IUsuario } from './usuario.model';
+
+export interface ISesionCajaTotal {
+  metodoPago?: MetodoPagoEnum;
+  monedaId?: number | null;
+  cantidadVentas?: number;
+  total?: number;
+  totalEnMonedaBase?: number;
+  cambio?: number;
+  cantidadAnuladas?: number;
+  totalAnulado?: number;
+}
+
+export interface ISesionCaja {
+  id?: number;
+  fechaApertura?: Date | string;
+  fechaCierre?: Date | string | null;
+  montoInicial?: number;
+  montoContado?: number | null;
+  usuario?: IUsuario | null;
+  totales?: ISesionCajaTotal[];
+}
+
+export const defaultSesionCaja: Readonly<ISesionCaja> = {};